@@ -1,12 +1,19 @@
 package edu.tamu.srl.sketch.core.abstracted;
 
+import edu.tamu.srl.sketch.core.geometry.OrientedBoundingBox;
 import edu.tamu.srl.sketch.core.virtual.SrlBoundingBox;
 import edu.tamu.srl.sketch.core.virtual.SrlConvexHull;
 import edu.tamu.srl.sketch.core.virtual.SrlPoint;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Created by gigemjt on 11/3/14.
@@ -23,6 +30,11 @@ import java.util.UUID;
 @SuppressWarnings({ "PMD.AbstractNaming", "PMD.AvoidDuplicateLiterals" })
 public abstract class SrlObject extends AbstractSrlComponent {
 
+    /**
+     * The smallest size at which the list of containers of an object is pruned.
+     */
+    private static final int MIN_PARENTS_TO_PRUNE = 8;
+
     /**
      * A domain is a certain set of shapes that together form a greater meaning.
      * This specifies what the domain is.
@@ -51,6 +63,30 @@ public abstract class SrlObject extends AbstractSrlComponent {
      * {@link edu.tamu.srl.sketch.core.abstracted.SrlObject}.
      */
     private transient SrlConvexHull mConvexHull = null;
+    /**
+     * The oriented bounding box of the object.
+     * This is the smallest rectangle of any orientation that can encompass all of the points inside the object,
+     * it is derived from the convex hull.
+     */
+    private transient OrientedBoundingBox mOrientedBoundingBox = null;
+    /**
+     * The objects that contain this object, null until the object is added to one.
+     * They are held weakly so a discarded shape is not kept alive by the objects it was made of.
+     * The list is guarded by its own lock so a reset can walk it on one thread while a container is built or changed on another.
+     */
+    private transient volatile List<WeakReference<SrlObject>> mParents = null;
+    /**
+     * The size at which {@link #mParents} is pruned the next time a container is added, guarded by the lock of the list.
+     */
+    private transient int mParentsToPrune = MIN_PARENTS_TO_PRUNE;
+    /**
+     * Counts the changes to the geometry of this object and of the objects it contains.
+     */
+    private final transient AtomicLong mGeometryVersion = new AtomicLong();
+    /**
+     * The last reset that reached this object, every reset that walks containers is a new object so no counter is shared.
+     */
+    private transient volatile Object mResetPass = null;
 
     /**
      * Default constructor.
@@ -74,7 +110,9 @@ public abstract class SrlObject extends AbstractSrlComponent {
         super(original);
         this.mAttributes = original.getAttributes();
         this.mBoundingBox = original.getBoundingBox();
-        this.mConvexHull = original.getConvexHull();
+        // the hull is only copied if it exists, it is expensive to compute and copies usually change their points anyway.
+        this.mConvexHull = original.mConvexHull;
+        this.mOrientedBoundingBox = original.mOrientedBoundingBox;
         this.mIsUserCreated = original.isUserCreated();
     }
 
@@ -158,6 +196,7 @@ public abstract class SrlObject extends AbstractSrlComponent {
      * @return the bounding box of the object.  This method will never return null.
      */
     public final SrlBoundingBox getBoundingBox() {
+        checkGeometry();
         if (this.mBoundingBox == null) {
             this.calculateBBox();
         }
@@ -199,6 +238,7 @@ public abstract class SrlObject extends AbstractSrlComponent {
      * @return the convex hull
      */
     public final SrlConvexHull getConvexHull() {
+        checkGeometry();
         if (this.mConvexHull == null) {
             this.calculateConvexHull();
         }
@@ -211,16 +251,169 @@ public abstract class SrlObject extends AbstractSrlComponent {
      */
     public final void setConvexHull(final SrlConvexHull convexHull) {
         mConvexHull = convexHull;
+        mOrientedBoundingBox = null;
+    }
+
+    /**
+     * Gets the oriented bounding box.
+     *
+     * Calculates the box from the convex hull with {@link OrientedBoundingBox#fromHull(SrlConvexHull)} if it does not exist.
+     *
+     * @return the smallest rectangle of any orientation that encloses the object.
+     */
+    public final OrientedBoundingBox getOrientedBoundingBox() {
+        checkGeometry();
+        if (this.mOrientedBoundingBox == null) {
+            this.mOrientedBoundingBox = OrientedBoundingBox.fromHull(getConvexHull());
+        }
+        return mOrientedBoundingBox;
     }
 
     /**
-     * Resets the bounding box and the convex hull.
+     * Resets the bounding box, the convex hull and the oriented bounding box.
      *
-     * Setting them both to null.
+     * Setting them all to null.
+     * The objects that contain this object are reset too since their geometry is made of the geometry of this object.
+     * Every container is reset once even if it is reached through several shared objects, and the containers are walked with
+     * a stack instead of recursion so deep or cyclic nesting can not overflow the call stack.
+     * Containers can be linked and unlinked on other threads while a reset walks them.
+     * An object that was never added to a container is reset without allocating anything.
      */
     protected final void resetBounders() {
+        reset();
+        if (mParents == null) {
+            return;
+        }
+        final Object pass = new Object();
+        mResetPass = pass;
+        final Deque<SrlObject> pending = new ArrayDeque<>();
+        pushParents(pass, pending);
+        while (!pending.isEmpty()) {
+            final SrlObject object = pending.pop();
+            object.reset();
+            object.pushParents(pass, pending);
+        }
+    }
+
+    /**
+     * Resets the cached geometry of this object alone.
+     */
+    private void reset() {
         setBoundingBox(null);
         setConvexHull(null);
+        mGeometryVersion.incrementAndGet();
+        resetCachedGeometry();
+    }
+
+    /**
+     * Adds the containers of this object that the reset has not reached yet and drops the links to discarded containers.
+     *
+     * @param pass the reset.
+     * @param pending the containers that still have to be reset.
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private void pushParents(final Object pass, final Deque<SrlObject> pending) {
+        final List<WeakReference<SrlObject>> parents = mParents;
+        if (parents == null) {
+            return;
+        }
+        synchronized (parents) {
+            int kept = 0;
+            for (int i = 0; i < parents.size(); i++) {
+                final SrlObject parent = parents.get(i).get();
+                if (parent == null) {
+                    continue;
+                }
+                parents.set(kept++, parents.get(i));
+                if (parent.mResetPass != pass) {
+                    parent.mResetPass = pass;
+                    pending.push(parent);
+                }
+            }
+            parents.subList(kept, parents.size()).clear();
+        }
+    }
+
+    /**
+     * Called by {@link #resetBounders()} so subclasses can reset any other geometry they cache.
+     */
+    @SuppressWarnings({ "checkstyle:designforextension", "PMD.EmptyMethodInAbstractClassShouldBeAbstract" })
+    protected void resetCachedGeometry() {
+        // nothing else is cached by default.
+    }
+
+    /**
+     * Called before the cached bounding box, convex hull or oriented bounding box is used, so subclasses can reset them if their
+     * geometry changed without them being told.
+     */
+    @SuppressWarnings({ "checkstyle:designforextension", "PMD.EmptyMethodInAbstractClassShouldBeAbstract" })
+    protected void checkGeometry() {
+        // the geometry is never changed without the object being told by default.
+    }
+
+    /**
+     * The version changes every time the geometry of this object or of an object it contains changes.
+     * Comparing it with an earlier value tells if something computed from the geometry is out of date.
+     *
+     * @return the number of changes to the geometry of this object.
+     */
+    public final long getGeometryVersion() {
+        return mGeometryVersion.get();
+    }
+
+    /**
+     * Links this object to an object that contains it so the container is reset when this object changes.
+     * Containers call this when the object is added, an object can have any number of containers.
+     *
+     * @param parent the object that now contains this object.
+     */
+    public final void addParent(final SrlObject parent) {
+        List<WeakReference<SrlObject>> parents = mParents;
+        if (parents == null) {
+            synchronized (this) {
+                parents = mParents;
+                if (parents == null) {
+                    parents = new ArrayList<>();
+                    mParents = parents;
+                }
+            }
+        }
+        synchronized (parents) {
+            if (parents.size() >= mParentsToPrune) {
+                // the containers that were discarded are dropped once the list doubled since the last time.
+                int kept = 0;
+                for (int i = 0; i < parents.size(); i++) {
+                    if (parents.get(i).get() != null) {
+                        parents.set(kept++, parents.get(i));
+                    }
+                }
+                parents.subList(kept, parents.size()).clear();
+                mParentsToPrune = Math.max(MIN_PARENTS_TO_PRUNE, 2 * kept);
+            }
+            parents.add(new WeakReference<>(parent));
+        }
+    }
+
+    /**
+     * Removes one link made by {@link #addParent(SrlObject)}.
+     *
+     * @param parent the object that no longer contains this object.
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    public final void removeParent(final SrlObject parent) {
+        final List<WeakReference<SrlObject>> parents = mParents;
+        if (parents == null) {
+            return;
+        }
+        synchronized (parents) {
+            for (int i = 0; i < parents.size(); i++) {
+                // containers are compared by identity since copies of a shape are equal to it.
+                if (parents.get(i).get() == parent) {
+                    parents.remove(i);
+                    return;
+                }
+            }
+        }
     }
 
     /**
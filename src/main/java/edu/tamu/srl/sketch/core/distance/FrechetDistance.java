@@ -0,0 +1,219 @@
+package edu.tamu.srl.sketch.core.distance;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The discrete Fréchet distance between two sequences of points.
+ * <br>
+ * The textbook dynamic program fills the whole n by m table.  Here a greedy walk over both sequences first finds a coupling whose
+ * largest distance is an upper bound of the result.  A cell that is further apart than the bound can never be on an optimal
+ * coupling so only the cells reachable through cells within the bound are computed.  For two strokes that are alike the reachable
+ * cells form a narrow band around the diagonal and the computation is close to linear.
+ * <br>
+ * When the caller only cares about distances below a given bound the bound is tightened further and the computation is abandoned
+ * as soon as a row has no reachable cell.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class FrechetDistance {
+
+    /**
+     * Utility class.
+     */
+    private FrechetDistance() {
+    }
+
+    /**
+     * @param first the first sequence.
+     * @param second the second sequence.
+     * @return the discrete Fréchet distance between the sequences.
+     */
+    public static double distance(final List<SrlPoint> first, final List<SrlPoint> second) {
+        return distance(first, second, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param first the first sequence.
+     * @param second the second sequence.
+     * @param bound the distance above which the computation is abandoned.
+     * @return the discrete Fréchet distance between the sequences or {@link Double#POSITIVE_INFINITY} if it is above the bound.
+     */
+    public static double distance(final List<SrlPoint> first, final List<SrlPoint> second, final double bound) {
+        HausdorffDistance.checkPoints(first);
+        HausdorffDistance.checkPoints(second);
+        final double[][] firstValues = PointArrays.toArrays(first);
+        final double[][] secondValues = PointArrays.toArrays(second);
+        final double squaredBound = bound * bound;
+        // the Hausdorff distance is a lower bound that is close to linear to compute.
+        if (!Double.isInfinite(bound)
+                && HausdorffDistance.directed(firstValues, new PointGrid(second), 0) > squaredBound) {
+            return Double.POSITIVE_INFINITY;
+        }
+        final double limit = Math.min(squaredBound, greedyCoupling(firstValues, secondValues));
+        final ReachableRows rows = new ReachableRows(secondValues[0].length, limit);
+        for (int row = 0; row < firstValues[0].length; row++) {
+            if (!rows.advance(firstValues, secondValues, row)) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return Math.sqrt(rows.getLast());
+    }
+
+    /**
+     * Walks both sequences at the same time always taking the step to the closest pair of points.
+     *
+     * @param first the x values followed by the y values of the first sequence.
+     * @param second the x values followed by the y values of the second sequence.
+     * @return the largest squared distance of the coupling that was walked.
+     */
+    private static double greedyCoupling(final double[][] first, final double[][] second) {
+        final int lastRow = first[0].length - 1;
+        final int lastColumn = second[0].length - 1;
+        int row = 0;
+        int column = 0;
+        double largest = PointArrays.squaredDistance(first, 0, second, 0);
+        while (row < lastRow || column < lastColumn) {
+            final double down = stepCost(first, row + 1, second, column);
+            final double right = stepCost(first, row, second, column + 1);
+            final double diagonal = stepCost(first, row + 1, second, column + 1);
+            final double step = Math.min(diagonal, Math.min(down, right));
+            if (step == diagonal) {
+                row++;
+                column++;
+            } else if (step == down) {
+                row++;
+            } else {
+                column++;
+            }
+            largest = Math.max(largest, step);
+        }
+        return largest;
+    }
+
+    /**
+     * @param first the x values followed by the y values of the first sequence.
+     * @param row the index of the point of the first sequence.
+     * @param second the x values followed by the y values of the second sequence.
+     * @param column the index of the point of the second sequence.
+     * @return the squared distance between the points or {@link Double#POSITIVE_INFINITY} if one of them is past the end.
+     */
+    private static double stepCost(final double[][] first, final int row, final double[][] second, final int column) {
+        if (row >= first[0].length || column >= second[0].length) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return PointArrays.squaredDistance(first, row, second, column);
+    }
+
+    /**
+     * Two rolling rows of the dynamic program together with the range of columns that can still be reached.
+     */
+    private static final class ReachableRows {
+
+        /**
+         * The largest squared distance a cell on an optimal coupling can have.
+         */
+        private final double mLimit;
+
+        /**
+         * The previous row.
+         */
+        private double[] mPrevious;
+
+        /**
+         * The row being computed.
+         */
+        private double[] mCurrent;
+
+        /**
+         * The first reachable column of the previous row.
+         */
+        private int mLow;
+
+        /**
+         * The last reachable column of the previous row.
+         */
+        private int mHigh = -1;
+
+        /**
+         * @param columns the number of points of the second sequence.
+         * @param limit the largest squared distance a cell on an optimal coupling can have.
+         */
+        ReachableRows(final int columns, final double limit) {
+            this.mLimit = limit;
+            mPrevious = new double[columns];
+            mCurrent = new double[columns];
+            Arrays.fill(mPrevious, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Computes the next row.
+         *
+         * @param first the first sequence, one row per point.
+         * @param second the second sequence, one column per point.
+         * @param row the index of the row.
+         * @return false if no cell of the row can be reached.
+         */
+        boolean advance(final double[][] first, final double[][] second, final int row) {
+            final int start = row == 0 ? 0 : mLow;
+            int low = -1;
+            int high = -1;
+            for (int column = start; column < mCurrent.length; column++) {
+                final double reach = cheapestPredecessor(row, column, start);
+                if (Double.isInfinite(reach) && column > mHigh) {
+                    break;
+                }
+                mCurrent[column] = clip(Math.max(reach, PointArrays.squaredDistance(first, row, second, column)));
+                if (!Double.isInfinite(mCurrent[column])) {
+                    low = low < 0 ? column : low;
+                    high = column;
+                }
+            }
+            final double[] swap = mPrevious;
+            mPrevious = mCurrent;
+            mCurrent = swap;
+            mLow = low;
+            mHigh = high;
+            return low >= 0;
+        }
+
+        /**
+         * @param value the squared distance of a cell.
+         * @return the value or {@link Double#POSITIVE_INFINITY} if the cell can not be on an optimal coupling.
+         */
+        private double clip(final double value) {
+            return value > mLimit ? Double.POSITIVE_INFINITY : value;
+        }
+
+        /**
+         * @param row the index of the row.
+         * @param column the index of the column.
+         * @param start the first column computed in this row.
+         * @return the smallest value of the cells a coupling can come from.
+         */
+        private double cheapestPredecessor(final int row, final int column, final int start) {
+            if (row == 0) {
+                return column == 0 ? 0 : mCurrent[column - 1];
+            }
+            final double left = column > start ? mCurrent[column - 1] : Double.POSITIVE_INFINITY;
+            return Math.min(left, Math.min(previous(column), previous(column - 1)));
+        }
+
+        /**
+         * @param column the index of the column.
+         * @return the value of the previous row, infinite outside of its reachable range.
+         */
+        private double previous(final int column) {
+            return column >= mLow && column <= mHigh ? mPrevious[column] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * @return the value of the last cell of the last row that was computed.
+         */
+        double getLast() {
+            return previous(mPrevious.length - 1);
+        }
+    }
+}
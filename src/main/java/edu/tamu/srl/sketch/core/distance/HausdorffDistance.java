@@ -0,0 +1,77 @@
+package edu.tamu.srl.sketch.core.distance;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+
+/**
+ * The Hausdorff distance between two sequences of points.
+ * <br>
+ * The directed distance from A to B is the largest distance from a point of A to its closest point of B.  It is computed with
+ * the early break of Taha and Hanbury: once a point of B is found that is closer to the current point of A than the largest
+ * distance found so far, the current point can not change the result and the search for it stops.  The closest point search
+ * itself uses a {@link PointGrid} over B so for strokes the whole computation is close to linear in the number of points.
+ * <br>
+ * The points of A are visited spread out over the stroke instead of in order since neighboring points tend to have similar
+ * distances, this raises the running maximum early and makes the break happen sooner.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class HausdorffDistance {
+
+    /**
+     * Utility class.
+     */
+    private HausdorffDistance() {
+    }
+
+    /**
+     * @param from the points whose distances are measured.
+     * @param target the points the distances are measured to.
+     * @return the largest distance from a point of {@code from} to its closest point of {@code target}.
+     */
+    public static double directed(final List<SrlPoint> from, final List<SrlPoint> target) {
+        checkPoints(from);
+        return Math.sqrt(directed(PointArrays.toArrays(from), new PointGrid(target), 0));
+    }
+
+    /**
+     * @param first the first sequence.
+     * @param second the second sequence.
+     * @return the larger of the two directed distances.
+     */
+    public static double symmetric(final List<SrlPoint> first, final List<SrlPoint> second) {
+        checkPoints(first);
+        checkPoints(second);
+        final double forward = directed(PointArrays.toArrays(first), new PointGrid(second), 0);
+        // the backward pass only has to find points that are further away than the forward result.
+        return Math.sqrt(directed(PointArrays.toArrays(second), new PointGrid(first), forward));
+    }
+
+    /**
+     * @param from the x values followed by the y values of the points whose distances are measured.
+     * @param grid the grid over the points the distances are measured to.
+     * @param floor the squared distance the result starts at.
+     * @return the larger of the floor and the squared directed distance.
+     */
+    static double directed(final double[][] from, final PointGrid grid, final double floor) {
+        final int size = from[0].length;
+        final int stride = Math.max(1, (int) Math.sqrt(size));
+        double largest = floor;
+        for (int start = 0; start < stride; start++) {
+            for (int i = start; i < size; i += stride) {
+                largest = Math.max(largest, grid.nearest(from[0][i], from[1][i], largest));
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * @param points the points being checked.
+     */
+    static void checkPoints(final List<SrlPoint> points) {
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("Can not measure the distance of an empty sequence");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package edu.tamu.srl.sketch.core.distance;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+
+/**
+ * Copies points into flat arrays so the distance kernels do not go through the point objects.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class PointArrays {
+
+    /**
+     * Utility class.
+     */
+    private PointArrays() {
+    }
+
+    /**
+     * @param points the points being converted.
+     * @return an array holding the array of x values followed by the array of y values.
+     */
+    static double[][] toArrays(final List<SrlPoint> points) {
+        final double[][] values = new double[2][points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            final SrlPoint point = points.get(i);
+            values[0][i] = point.getX();
+            values[1][i] = point.getY();
+        }
+        return values;
+    }
+
+    /**
+     * @param values the x values followed by the y values.
+     * @param first the index of the first point.
+     * @param others the x values followed by the y values of the other sequence.
+     * @param second the index of the second point.
+     * @return the squared euclidean distance between the points.
+     */
+    static double squaredDistance(final double[][] values, final int first, final double[][] others, final int second) {
+        final double xDiff = values[0][first] - others[0][second];
+        final double yDiff = values[1][first] - others[1][second];
+        return xDiff * xDiff + yDiff * yDiff;
+    }
+}
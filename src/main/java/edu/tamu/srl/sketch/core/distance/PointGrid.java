@@ -0,0 +1,191 @@
+package edu.tamu.srl.sketch.core.distance;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+
+/**
+ * A uniform grid over a list of points that answers nearest neighbor queries.
+ * <br>
+ * The grid has about one cell per point so a query for a point near the stroke only looks at a handful of cells.
+ * The points are bucketed by a counting sort so the grid is built in linear time and is stored in three flat arrays.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class PointGrid {
+
+    /**
+     * The x values of the points in the order of their cells.
+     */
+    private final double[] mXValues;
+
+    /**
+     * The y values of the points in the order of their cells.
+     */
+    private final double[] mYValues;
+
+    /**
+     * The index of the first point of every cell, the last entry holds the number of points.
+     */
+    private final int[] mCellStart;
+
+    /**
+     * The smallest x value of the points.
+     */
+    private final double mMinX;
+
+    /**
+     * The smallest y value of the points.
+     */
+    private final double mMinY;
+
+    /**
+     * The width and height of a cell.
+     */
+    private final double mCellSize;
+
+    /**
+     * The number of columns of the grid.
+     */
+    private final int mColumns;
+
+    /**
+     * The number of rows of the grid.
+     */
+    private final int mRows;
+
+    /**
+     * @param points the points stored in the grid.
+     */
+    PointGrid(final List<SrlPoint> points) {
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("Can not build a grid without points");
+        }
+        final int size = points.size();
+        final double[][] values = PointArrays.toArrays(points);
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, values[0][i]);
+            minY = Math.min(minY, values[1][i]);
+            maxX = Math.max(maxX, values[0][i]);
+            maxY = Math.max(maxY, values[1][i]);
+        }
+        mMinX = minX;
+        mMinY = minY;
+        final double side = Math.max(maxX - minX, maxY - minY);
+        final int cellsPerSide = (int) Math.ceil(Math.sqrt(size));
+        mCellSize = side == 0 ? 1 : side / cellsPerSide;
+        mColumns = Math.min(cellsPerSide, (int) ((maxX - minX) / mCellSize) + 1);
+        mRows = Math.min(cellsPerSide, (int) ((maxY - minY) / mCellSize) + 1);
+
+        final int[] cells = new int[size];
+        mCellStart = new int[mColumns * mRows + 1];
+        for (int i = 0; i < size; i++) {
+            cells[i] = column(values[0][i]) + row(values[1][i]) * mColumns;
+            mCellStart[cells[i] + 1]++;
+        }
+        for (int cell = 0; cell < mColumns * mRows; cell++) {
+            mCellStart[cell + 1] += mCellStart[cell];
+        }
+        final int[] next = new int[mColumns * mRows];
+        System.arraycopy(mCellStart, 0, next, 0, next.length);
+        mXValues = new double[size];
+        mYValues = new double[size];
+        for (int i = 0; i < size; i++) {
+            final int slot = next[cells[i]]++;
+            mXValues[slot] = values[0][i];
+            mYValues[slot] = values[1][i];
+        }
+    }
+
+    /**
+     * @param xValue an x value.
+     * @return the column the value falls in, clamped to the grid.
+     */
+    private int column(final double xValue) {
+        return Math.max(0, Math.min(mColumns - 1, (int) ((xValue - mMinX) / mCellSize)));
+    }
+
+    /**
+     * @param yValue a y value.
+     * @return the row the value falls in, clamped to the grid.
+     */
+    private int row(final double yValue) {
+        return Math.max(0, Math.min(mRows - 1, (int) ((yValue - mMinY) / mCellSize)));
+    }
+
+    /**
+     * Finds the squared distance from a location to the closest point in the grid.
+     * <br>
+     * The cells are searched in rings around the cell of the location.  The search stops once the next ring can not hold a closer
+     * point or as soon as a point closer than the cut off is found.  In the later case the returned distance is below the cut off
+     * but it is not necessarily the smallest one.
+     *
+     * @param xValue the x value of the location.
+     * @param yValue the y value of the location.
+     * @param cutOff the squared distance below which the search stops early, 0 to always find the closest point.
+     * @return the squared distance to the closest point or to a point closer than the cut off.
+     */
+    double nearest(final double xValue, final double yValue, final double cutOff) {
+        final int centerColumn = column(xValue);
+        final int centerRow = row(yValue);
+        final int maxRing = Math.max(mColumns, mRows);
+        double best = Double.POSITIVE_INFINITY;
+        for (int ring = 0; ring <= maxRing && best >= cutOff; ring++) {
+            // the location projected onto the grid is inside the center cell so every point of the ring is this far away.
+            final double reach = Math.max(0, ring - 1) * mCellSize;
+            if (reach * reach >= best) {
+                break;
+            }
+            best = searchRing(xValue, yValue, centerColumn, centerRow, ring, best);
+        }
+        return best;
+    }
+
+    /**
+     * @param xValue the x value of the location.
+     * @param yValue the y value of the location.
+     * @param centerColumn the column of the location.
+     * @param centerRow the row of the location.
+     * @param ring the distance in cells of the ring from the center cell.
+     * @param closest the smallest squared distance found so far.
+     * @return the smallest squared distance including the points of the ring.
+     */
+    private double searchRing(final double xValue, final double yValue, final int centerColumn, final int centerRow, final int ring,
+            final double closest) {
+        double best = closest;
+        final int firstRow = Math.max(0, centerRow - ring);
+        final int lastRow = Math.min(mRows - 1, centerRow + ring);
+        for (int row = firstRow; row <= lastRow; row++) {
+            // rows on the edge of the ring are searched fully, the other rows only have their two end cells in the ring.
+            final boolean edge = row == centerRow - ring || row == centerRow + ring;
+            final int step = edge ? 1 : Math.max(1, 2 * ring);
+            for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                if (column >= 0 && column < mColumns) {
+                    best = searchCell(xValue, yValue, column + row * mColumns, best);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param xValue the x value of the location.
+     * @param yValue the y value of the location.
+     * @param cell the index of the cell.
+     * @param closest the smallest squared distance found so far.
+     * @return the smallest squared distance including the points of the cell.
+     */
+    private double searchCell(final double xValue, final double yValue, final int cell, final double closest) {
+        double best = closest;
+        for (int i = mCellStart[cell]; i < mCellStart[cell + 1]; i++) {
+            final double xDiff = mXValues[i] - xValue;
+            final double yDiff = mYValues[i] - yValue;
+            best = Math.min(best, xDiff * xDiff + yDiff * yDiff);
+        }
+        return best;
+    }
+}
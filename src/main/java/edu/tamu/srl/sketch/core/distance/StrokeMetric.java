@@ -0,0 +1,40 @@
+package edu.tamu.srl.sketch.core.distance;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+
+/**
+ * The shape distances that can be measured between two strokes.
+ *
+ * @see edu.tamu.srl.sketch.core.object.SrlStroke#distance(edu.tamu.srl.sketch.core.object.SrlStroke, StrokeMetric)
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public enum StrokeMetric {
+
+    /**
+     * The symmetric Hausdorff distance, the order of the points does not matter.
+     */
+    HAUSDORFF {
+        @Override public double distance(final List<SrlPoint> first, final List<SrlPoint> second) {
+            return HausdorffDistance.symmetric(first, second);
+        }
+    },
+
+    /**
+     * The discrete Fréchet distance, the points are compared in the order they were drawn.
+     */
+    FRECHET {
+        @Override public double distance(final List<SrlPoint> first, final List<SrlPoint> second) {
+            return FrechetDistance.distance(first, second);
+        }
+    };
+
+    /**
+     * @param first the first sequence.
+     * @param second the second sequence.
+     * @return the distance between the sequences.
+     */
+    public abstract double distance(final List<SrlPoint> first, final List<SrlPoint> second);
+}
@@ -0,0 +1,80 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * An arc of a fitted circle.
+ * <br>
+ * The arc starts at the angle of the first point and sweeps the angle covered by the points.  The swept angle is found from the
+ * area of the fan of triangles between the center and consecutive points, so it is signed and it can be larger than a full turn.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class ArcFit implements PrimitiveFit {
+
+    /**
+     * The circle the arc lies on.
+     */
+    private final CircleFit mCircle;
+
+    /**
+     * The angle of the first point as seen from the center.
+     */
+    private final double mStartAngle;
+
+    /**
+     * The signed angle swept from the first to the last point.
+     */
+    private final double mSweepAngle;
+
+    /**
+     * @param circle the circle the arc lies on.
+     * @param startAngle the angle of the first point as seen from the center.
+     * @param sweepAngle the signed angle swept from the first to the last point.
+     */
+    ArcFit(final CircleFit circle, final double startAngle, final double sweepAngle) {
+        this.mCircle = circle;
+        this.mStartAngle = startAngle;
+        this.mSweepAngle = sweepAngle;
+    }
+
+    /**
+     * @return the circle the arc lies on.
+     */
+    public CircleFit getCircle() {
+        return mCircle;
+    }
+
+    /**
+     * @return the angle of the first point as seen from the center, in radians.
+     */
+    public double getStartAngle() {
+        return mStartAngle;
+    }
+
+    /**
+     * @return the angle swept from the first to the last point in radians, positive if the angle grows.
+     */
+    public double getSweepAngle() {
+        return mSweepAngle;
+    }
+
+    /**
+     * @return the length of the arc.
+     */
+    public double getLength() {
+        return Math.abs(mSweepAngle) * mCircle.getRadius();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public double getError() {
+        return mCircle.getError();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public int getNumPoints() {
+        return mCircle.getNumPoints();
+    }
+}
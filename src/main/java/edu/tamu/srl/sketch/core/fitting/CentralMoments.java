@@ -0,0 +1,102 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * The normalized central moments of a range of points, computed in O(log n) from {@link MomentSums}.
+ * <br>
+ * The points are moved so their centroid is at the origin and scaled so their mean squared distance to it is 1.
+ * Fitting in these coordinates keeps the normal equations well conditioned however large the range is.  The moments are summed
+ * around a center guessed from the sums of the coordinates and then moved to the exact centroid, so their precision depends on
+ * the spread of the range and not on how far it is from the first point of the stroke.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class CentralMoments {
+
+    /**
+     * The number of points in the range.
+     */
+    private final int mCount;
+
+    /**
+     * The x value of the centroid.
+     */
+    private final double mCenterX;
+
+    /**
+     * The y value of the centroid.
+     */
+    private final double mCenterY;
+
+    /**
+     * The root mean squared distance of the points to the centroid, 1 if every point is at the centroid.
+     */
+    private final double mScale;
+
+    /**
+     * The normalized moments indexed by {@link MomentSums#index(int, int)}.
+     */
+    private final double[] mMoments = new double[MomentSums.NUM_MOMENTS];
+
+    /**
+     * @param sums the moments of the stroke.
+     * @param start the index of the first point of the range.
+     * @param end the index after the last point of the range.
+     */
+    CentralMoments(final MomentSums sums, final int start, final int end) {
+        mCount = end - start;
+        final double guessX = sums.sumX(start, end) / mCount;
+        final double guessY = sums.sumY(start, end) / mCount;
+        final double[] moments = sums.moments(start, end, guessX, guessY);
+        final double offsetX = moments[MomentSums.index(1, 0)] / mCount;
+        final double offsetY = moments[MomentSums.index(0, 1)] / mCount;
+        mCenterX = sums.getOriginX() + guessX + offsetX;
+        mCenterY = sums.getOriginY() + guessY + offsetY;
+        MomentSums.addShifted(mMoments, 0, moments, 0, -offsetX, -offsetY);
+        final double spread = (mMoments[MomentSums.index(2, 0)] + mMoments[MomentSums.index(0, 2)]) / mCount;
+        mScale = spread > 0 ? Math.sqrt(spread) : 1;
+        for (int degreeX = 0; degreeX <= MomentSums.MAX_DEGREE; degreeX++) {
+            for (int degreeY = 0; degreeX + degreeY <= MomentSums.MAX_DEGREE; degreeY++) {
+                mMoments[MomentSums.index(degreeX, degreeY)] /= Math.pow(mScale, degreeX + degreeY);
+            }
+        }
+    }
+
+    /**
+     * @param degreeX the power of x.
+     * @param degreeY the power of y.
+     * @return the normalized central moment.
+     */
+    double get(final int degreeX, final int degreeY) {
+        return mMoments[MomentSums.index(degreeX, degreeY)];
+    }
+
+    /**
+     * @return the number of points in the range.
+     */
+    int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return the x value of the centroid.
+     */
+    double getCenterX() {
+        return mCenterX;
+    }
+
+    /**
+     * @return the y value of the centroid.
+     */
+    double getCenterY() {
+        return mCenterY;
+    }
+
+    /**
+     * Distances in normalized coordinates are multiplied by the scale to get distances in the coordinates of the points.
+     *
+     * @return the root mean squared distance of the points to the centroid.
+     */
+    double getScale() {
+        return mScale;
+    }
+}
@@ -0,0 +1,141 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * A circle fit with the algebraic method of K&aring;sa.
+ * <br>
+ * The fit minimizes the sum of {@code (d^2 - r^2)^2} where {@code d} is the distance of a point to the center, which only needs the
+ * moments of the points.  Close to the circle {@code d^2 - r^2} is about {@code 2 r (d - r)} so the error is that sum divided by
+ * {@code 4 r^2}, an estimate of the sum of the squared distances to the circle.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class CircleFit implements PrimitiveFit {
+
+    /**
+     * Determinants below this fraction of the squared spread mean the points are collinear.
+     */
+    private static final double SINGULAR = 1e-12;
+
+    /**
+     * The degree of the moments of {@code u * (u^2 + v^2)}.
+     */
+    private static final int CUBIC = 3;
+
+    /**
+     * The degree of the moments of {@code (u^2 + v^2)^2}.
+     */
+    private static final int QUARTIC = 4;
+
+    /**
+     * The x value of the center.
+     */
+    private final double mCenterX;
+
+    /**
+     * The y value of the center.
+     */
+    private final double mCenterY;
+
+    /**
+     * The radius.
+     */
+    private final double mRadius;
+
+    /**
+     * The estimated sum of the squared distances to the circle.
+     */
+    private final double mError;
+
+    /**
+     * The number of points the circle was fit to.
+     */
+    private final int mNumPoints;
+
+    /**
+     * @param centerX the x value of the center.
+     * @param centerY the y value of the center.
+     * @param radius the radius.
+     * @param error the estimated sum of the squared distances to the circle.
+     * @param numPoints the number of points the circle was fit to.
+     */
+    private CircleFit(final double centerX, final double centerY, final double radius, final double error, final int numPoints) {
+        this.mCenterX = centerX;
+        this.mCenterY = centerY;
+        this.mRadius = radius;
+        this.mError = error;
+        this.mNumPoints = numPoints;
+    }
+
+    /**
+     * Solves the normal equations of {@code u^2 + v^2 + D u + E v + F = 0} in normalized coordinates.
+     * Since the coordinates are centered the equations for D and E do not depend on F.
+     *
+     * @param moments the moments of the points.
+     * @return the circle or null if the points are collinear.
+     */
+    static CircleFit fit(final CentralMoments moments) {
+        final double varianceX = moments.get(2, 0);
+        final double covariance = moments.get(1, 1);
+        final double varianceY = moments.get(0, 2);
+        final double determinant = varianceX * varianceY - covariance * covariance;
+        final double spread = varianceX + varianceY;
+        if (determinant <= SINGULAR * spread * spread) {
+            return null;
+        }
+        // the sums of u * (u^2 + v^2) and v * (u^2 + v^2).
+        final double radialX = moments.get(CUBIC, 0) + moments.get(1, 2);
+        final double radialY = moments.get(2, 1) + moments.get(0, CUBIC);
+        final double linearX = (-radialX * varianceY + covariance * radialY) / determinant;
+        final double linearY = (-radialY * varianceX + covariance * radialX) / determinant;
+        final int count = moments.getCount();
+        final double constant = -spread / count;
+        final double centerX = -linearX / 2;
+        final double centerY = -linearY / 2;
+        final double squaredRadius = centerX * centerX + centerY * centerY - constant;
+
+        final double radialSquares = moments.get(QUARTIC, 0) + 2 * moments.get(2, 2) + moments.get(0, QUARTIC);
+        final double algebraic = radialSquares + linearX * linearX * varianceX + linearY * linearY * varianceY
+                + count * constant * constant + 2 * (linearX * radialX + linearY * radialY + constant * spread
+                + linearX * linearY * covariance);
+
+        final double scale = moments.getScale();
+        final double diameter = 2 * Math.sqrt(squaredRadius);
+        return new CircleFit(moments.getCenterX() + centerX * scale, moments.getCenterY() + centerY * scale, diameter / 2 * scale,
+                Math.max(0, algebraic) / (diameter * diameter) * scale * scale, count);
+    }
+
+    /**
+     * @return the x value of the center.
+     */
+    public double getCenterX() {
+        return mCenterX;
+    }
+
+    /**
+     * @return the y value of the center.
+     */
+    public double getCenterY() {
+        return mCenterY;
+    }
+
+    /**
+     * @return the radius.
+     */
+    public double getRadius() {
+        return mRadius;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public double getError() {
+        return mError;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public int getNumPoints() {
+        return mNumPoints;
+    }
+}
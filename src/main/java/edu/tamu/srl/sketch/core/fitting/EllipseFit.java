@@ -0,0 +1,265 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * An ellipse fit with the direct least squares method of Fitzgibbon, Pilu and Fisher.
+ * <br>
+ * The conic {@code A u^2 + B u v + C v^2 + D u + E v + F = 0} minimizing the algebraic error under the constraint
+ * {@code 4 A C - B^2 = 1} is always an ellipse.  The numerically stable reduction of Hal&iacute;&#345; and Flusser turns the 6 by 6
+ * generalized eigenvalue problem into a 3 by 3 eigenvalue problem, and the scatter matrix only needs the moments of the points.
+ * <br>
+ * Like the circle the error is estimated from the algebraic error: with the conic scaled so that it is -1 at the center, the value
+ * of a point near the ellipse is about {@code 2 d / sqrt(a b)} where {@code a} and {@code b} are the semi axes.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class EllipseFit implements PrimitiveFit {
+
+    /**
+     * The size of the blocks of the scatter matrix.
+     */
+    private static final int SIZE = Matrices.SIZE;
+
+    /**
+     * The degree of the moments of the quadratic times the linear terms.
+     */
+    private static final int CUBIC = 3;
+
+    /**
+     * The degree of the moments of the quadratic terms.
+     */
+    private static final int QUARTIC = 4;
+
+    /**
+     * The factor of {@code A C} in the discriminant {@code 4 A C - B^2} that is positive for ellipses.
+     */
+    private static final int DISCRIMINANT_FACTOR = 4;
+
+    /**
+     * The x value of the center.
+     */
+    private final double mCenterX;
+
+    /**
+     * The y value of the center.
+     */
+    private final double mCenterY;
+
+    /**
+     * Half the length of the major axis.
+     */
+    private final double mMajorRadius;
+
+    /**
+     * Half the length of the minor axis.
+     */
+    private final double mMinorRadius;
+
+    /**
+     * The angle of the major axis in radians.
+     */
+    private final double mAngle;
+
+    /**
+     * The estimated sum of the squared distances to the ellipse.
+     */
+    private final double mError;
+
+    /**
+     * The number of points the ellipse was fit to.
+     */
+    private final int mNumPoints;
+
+    /**
+     * @param moments the moments the ellipse was fit to.
+     * @param conic the coefficients of the conic in normalized coordinates, scaled so the conic is -1 at its center.
+     * @param center the center of the conic in normalized coordinates.
+     * @param error the sum of the squared values of the scaled conic at the points.
+     */
+    private EllipseFit(final CentralMoments moments, final double[] conic, final double[] center, final double error) {
+        final double scale = moments.getScale();
+        final double mean = (conic[0] + conic[2]) / 2;
+        final double halfDifference = (conic[0] - conic[2]) / 2;
+        final double halfMixed = conic[1] / 2;
+        final double root = Math.sqrt(halfDifference * halfDifference + halfMixed * halfMixed);
+        // the smaller eigenvalue of the quadratic form belongs to the major axis.
+        final double major = 1 / Math.sqrt(mean - root);
+        final double minor = 1 / Math.sqrt(mean + root);
+        double angle = Math.atan2(conic[1], conic[0] - conic[2]) / 2 + Math.PI / 2;
+        if (angle >= Math.PI) {
+            angle -= Math.PI;
+        }
+        this.mCenterX = moments.getCenterX() + center[0] * scale;
+        this.mCenterY = moments.getCenterY() + center[1] * scale;
+        this.mMajorRadius = major * scale;
+        this.mMinorRadius = minor * scale;
+        this.mAngle = angle;
+        this.mError = error * (major / 2) * (minor / 2) * scale * scale;
+        this.mNumPoints = moments.getCount();
+    }
+
+    /**
+     * @param moments the moments of the points.
+     * @return the ellipse or null if the points do not determine one, for example when they are collinear.
+     */
+    static EllipseFit fit(final CentralMoments moments) {
+        final double varianceX = moments.get(2, 0);
+        final double covariance = moments.get(1, 1);
+        final double varianceY = moments.get(0, 2);
+        final double determinant = varianceX * varianceY - covariance * covariance;
+        if (moments.getCount() < SIZE + 2 || determinant <= 0) {
+            return null;
+        }
+        final double[][] quadratic = new double[SIZE][SIZE];
+        final double[][] mixed = new double[SIZE][SIZE];
+        fillScatter(moments, quadratic, mixed);
+        // the linear coefficients are -inverse(linear scatter) * transpose(mixed) * quadratic coefficients.
+        final double[][] inverse = {
+            {varianceY / determinant, -covariance / determinant, 0},
+            {-covariance / determinant, varianceX / determinant, 0},
+            {0, 0, 1.0 / moments.getCount()},
+        };
+        final double[][] reduce = Matrices.multiply(inverse, Matrices.transpose(mixed, -1));
+        final double[][] reduced = Matrices.add(quadratic, Matrices.multiply(mixed, reduce));
+        // multiply by the inverse of the constraint matrix [[0, 0, 2], [0, -1, 0], [2, 0, 0]].
+        final double[][] system = {
+            {reduced[2][0] / 2, reduced[2][1] / 2, reduced[2][2] / 2},
+            {-reduced[1][0], -reduced[1][1], -reduced[1][2]},
+            {reduced[0][0] / 2, reduced[0][1] / 2, reduced[0][2] / 2},
+        };
+        EllipseFit best = null;
+        for (double eigenvalue : Matrices.realEigenvalues(system)) {
+            final double[] vector = Matrices.eigenvector(system, eigenvalue);
+            if (vector != null && DISCRIMINANT_FACTOR * vector[0] * vector[2] - vector[1] * vector[1] > 0) {
+                final EllipseFit candidate = create(moments, vector, Matrices.multiply(reduce, vector), quadratic, mixed);
+                if (candidate != null && (best == null || candidate.getError() < best.getError())) {
+                    best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Fills the quadratic and the mixed block of the scatter matrix of the design vector {@code [u^2, u v, v^2, u, v, 1]}.
+     *
+     * @param moments the moments of the points.
+     * @param quadratic the block of the quadratic terms times the quadratic terms.
+     * @param mixed the block of the quadratic terms times the linear terms.
+     */
+    private static void fillScatter(final CentralMoments moments, final double[][] quadratic, final double[][] mixed) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                // u^(2 - row) v^row times u^(2 - column) v^column.
+                quadratic[row][column] = moments.get(QUARTIC - row - column, row + column);
+            }
+            // u^(2 - row) v^row times u, v and 1.
+            mixed[row][0] = moments.get(CUBIC - row, row);
+            mixed[row][1] = moments.get(2 - row, row + 1);
+            mixed[row][2] = moments.get(2 - row, row);
+        }
+    }
+
+    /**
+     * Scales the conic so that it is -1 at its center.
+     *
+     * @param moments the moments of the points.
+     * @param quadratic the quadratic coefficients.
+     * @param linear the linear coefficients.
+     * @param quadraticScatter the quadratic block of the scatter matrix.
+     * @param mixedScatter the mixed block of the scatter matrix.
+     * @return the ellipse or null if the conic is not a real ellipse.
+     */
+    private static EllipseFit create(final CentralMoments moments, final double[] quadratic, final double[] linear,
+            final double[][] quadraticScatter, final double[][] mixedScatter) {
+        final double denominator = DISCRIMINANT_FACTOR * quadratic[0] * quadratic[2] - quadratic[1] * quadratic[1];
+        final double centerX = (quadratic[1] * linear[1] - 2 * quadratic[2] * linear[0]) / denominator;
+        final double centerY = (quadratic[1] * linear[0] - 2 * quadratic[0] * linear[1]) / denominator;
+        final double atCenter = linear[2] + (linear[0] * centerX + linear[1] * centerY) / 2;
+        // the quadratic form is positive or negative definite, the ellipse is real only if the center has the opposite sign.
+        final double sign = quadratic[0] > 0 ? 1 : -1;
+        if (sign * atCenter >= 0) {
+            return null;
+        }
+        final double factor = -1 / atCenter;
+        final double[] conic = new double[SIZE + SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            conic[i] = quadratic[i] * factor;
+            conic[SIZE + i] = linear[i] * factor;
+        }
+        final double error = quadraticForm(conic, quadraticScatter, mixedScatter, moments);
+        return new EllipseFit(moments, conic, new double[] {centerX, centerY}, error);
+    }
+
+    /**
+     * Computes {@code a' S a}, the sum of the squared values of the conic at the points.
+     *
+     * @param conic the coefficients of the conic.
+     * @param quadratic the quadratic block of the scatter matrix.
+     * @param mixed the mixed block of the scatter matrix.
+     * @param moments the moments of the points.
+     * @return the algebraic error of the conic.
+     */
+    private static double quadraticForm(final double[] conic, final double[][] quadratic, final double[][] mixed,
+            final CentralMoments moments) {
+        final double linearX = conic[SIZE];
+        final double linearY = conic[SIZE + 1];
+        final double constant = conic[SIZE + 2];
+        double total = moments.getCount() * constant * constant + linearX * linearX * moments.get(2, 0)
+                + 2 * linearX * linearY * moments.get(1, 1) + linearY * linearY * moments.get(0, 2);
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                total += conic[row] * conic[column] * quadratic[row][column] + 2 * conic[row] * conic[SIZE + column] * mixed[row][column];
+            }
+        }
+        return Math.max(0, total);
+    }
+
+    /**
+     * @return the x value of the center.
+     */
+    public double getCenterX() {
+        return mCenterX;
+    }
+
+    /**
+     * @return the y value of the center.
+     */
+    public double getCenterY() {
+        return mCenterY;
+    }
+
+    /**
+     * @return half the length of the major axis.
+     */
+    public double getMajorRadius() {
+        return mMajorRadius;
+    }
+
+    /**
+     * @return half the length of the minor axis.
+     */
+    public double getMinorRadius() {
+        return mMinorRadius;
+    }
+
+    /**
+     * @return the angle of the major axis in radians, in [0, pi).
+     */
+    public double getAngle() {
+        return mAngle;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public double getError() {
+        return mError;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public int getNumPoints() {
+        return mNumPoints;
+    }
+}
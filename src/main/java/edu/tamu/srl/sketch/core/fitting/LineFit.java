@@ -0,0 +1,141 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * A line fit by total least squares.
+ * <br>
+ * The line goes through the centroid of the points along the principal axis of their covariance matrix.
+ * The smaller eigenvalue of that matrix is exactly the sum of the squared perpendicular distances to the line so the error is exact.
+ * The segment of the line runs from the projection of the first point to the projection of the last point.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class LineFit implements PrimitiveFit {
+
+    /**
+     * The x value of the centroid of the points.
+     */
+    private final double mCenterX;
+
+    /**
+     * The y value of the centroid of the points.
+     */
+    private final double mCenterY;
+
+    /**
+     * The angle of the line in radians.
+     */
+    private final double mAngle;
+
+    /**
+     * The signed distance along the line from the centroid to the projection of the first point.
+     */
+    private final double mStart;
+
+    /**
+     * The signed distance along the line from the centroid to the projection of the last point.
+     */
+    private final double mEnd;
+
+    /**
+     * The sum of the squared perpendicular distances.
+     */
+    private final double mError;
+
+    /**
+     * The number of points the line was fit to.
+     */
+    private final int mNumPoints;
+
+    /**
+     * @param moments the moments of the points.
+     * @param first the first point relative to the centroid, x value followed by y value.
+     * @param last the last point relative to the centroid, x value followed by y value.
+     */
+    LineFit(final CentralMoments moments, final double[] first, final double[] last) {
+        final double scale = moments.getScale();
+        final double varianceX = moments.get(2, 0);
+        final double covariance = moments.get(1, 1);
+        final double varianceY = moments.get(0, 2);
+        final double halfDifference = (varianceX - varianceY) / 2;
+        final double smallest = (varianceX + varianceY) / 2 - Math.sqrt(halfDifference * halfDifference + covariance * covariance);
+        mCenterX = moments.getCenterX();
+        mCenterY = moments.getCenterY();
+        mAngle = Math.atan2(2 * covariance, varianceX - varianceY) / 2;
+        mError = Math.max(0, smallest) * scale * scale;
+        mNumPoints = moments.getCount();
+        final double cos = Math.cos(mAngle);
+        final double sin = Math.sin(mAngle);
+        mStart = first[0] * cos + first[1] * sin;
+        mEnd = last[0] * cos + last[1] * sin;
+    }
+
+    /**
+     * @return the x value of the centroid of the points, it is on the line.
+     */
+    public double getCenterX() {
+        return mCenterX;
+    }
+
+    /**
+     * @return the y value of the centroid of the points, it is on the line.
+     */
+    public double getCenterY() {
+        return mCenterY;
+    }
+
+    /**
+     * @return the angle of the line in radians, in [-pi / 2, pi / 2].
+     */
+    public double getAngle() {
+        return mAngle;
+    }
+
+    /**
+     * @return the x value of the projection of the first point onto the line.
+     */
+    public double getStartX() {
+        return mCenterX + mStart * Math.cos(mAngle);
+    }
+
+    /**
+     * @return the y value of the projection of the first point onto the line.
+     */
+    public double getStartY() {
+        return mCenterY + mStart * Math.sin(mAngle);
+    }
+
+    /**
+     * @return the x value of the projection of the last point onto the line.
+     */
+    public double getEndX() {
+        return mCenterX + mEnd * Math.cos(mAngle);
+    }
+
+    /**
+     * @return the y value of the projection of the last point onto the line.
+     */
+    public double getEndY() {
+        return mCenterY + mEnd * Math.sin(mAngle);
+    }
+
+    /**
+     * @return the length of the segment between the projections of the first and the last point.
+     */
+    public double getLength() {
+        return Math.abs(mEnd - mStart);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public double getError() {
+        return mError;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public int getNumPoints() {
+        return mNumPoints;
+    }
+}
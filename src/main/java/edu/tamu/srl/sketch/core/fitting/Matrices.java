@@ -0,0 +1,178 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * The few 3 by 3 matrix operations the ellipse fit needs.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class Matrices {
+
+    /**
+     * The number of rows and columns.
+     */
+    static final int SIZE = 3;
+
+    /**
+     * Cubic roots are computed with the trigonometric method, which needs a third of a turn.
+     */
+    private static final double THIRD_TURN = 2 * Math.PI / SIZE;
+
+    /**
+     * Utility class.
+     */
+    private Matrices() {
+    }
+
+    /**
+     * @param first the left matrix.
+     * @param second the right matrix.
+     * @return the product of the matrices.
+     */
+    static double[][] multiply(final double[][] first, final double[][] second) {
+        final double[][] result = new double[SIZE][SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                result[row][column] = first[row][0] * second[0][column] + first[row][1] * second[1][column]
+                        + first[row][2] * second[2][column];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param matrix the matrix.
+     * @param vector the vector.
+     * @return the product of the matrix and the vector.
+     */
+    static double[] multiply(final double[][] matrix, final double[] vector) {
+        final double[] result = new double[SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            result[row] = matrix[row][0] * vector[0] + matrix[row][1] * vector[1] + matrix[row][2] * vector[2];
+        }
+        return result;
+    }
+
+    /**
+     * @param matrix the matrix.
+     * @param factor the factor every entry is multiplied with.
+     * @return the transpose of the matrix multiplied by the factor.
+     */
+    static double[][] transpose(final double[][] matrix, final double factor) {
+        final double[][] result = new double[SIZE][SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                result[row][column] = matrix[column][row] * factor;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param first the first matrix.
+     * @param second the second matrix.
+     * @return the sum of the matrices.
+     */
+    static double[][] add(final double[][] first, final double[][] second) {
+        final double[][] result = new double[SIZE][SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                result[row][column] = first[row][column] + second[row][column];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the real roots of the characteristic polynomial {@code x^3 - trace x^2 + minors x - determinant}.
+     *
+     * @param matrix the matrix.
+     * @return the real eigenvalues, one or three of them.
+     */
+    static double[] realEigenvalues(final double[][] matrix) {
+        final double trace = matrix[0][0] + matrix[1][1] + matrix[2][2];
+        final double minors = matrix[0][0] * matrix[1][1] - matrix[0][1] * matrix[1][0]
+                + matrix[0][0] * matrix[2][2] - matrix[0][2] * matrix[2][0]
+                + matrix[1][1] * matrix[2][2] - matrix[1][2] * matrix[2][1];
+        final double determinant = dot(matrix[0], cross(matrix[1], matrix[2]));
+        // substitute x = t + trace / 3 to get the depressed cubic t^3 + p t + q.
+        final double shift = trace / SIZE;
+        final double linear = minors - trace * shift;
+        final double constant = shift * (minors - 2 * shift * shift) - determinant;
+        return depressedRoots(linear, constant, shift);
+    }
+
+    /**
+     * @param linear the linear coefficient p of {@code t^3 + p t + q}.
+     * @param constant the constant q of {@code t^3 + p t + q}.
+     * @param shift the value added to every root.
+     * @return the real roots plus the shift.
+     */
+    private static double[] depressedRoots(final double linear, final double constant, final double shift) {
+        final double halfConstant = constant / 2;
+        final double thirdLinear = linear / SIZE;
+        final double discriminant = halfConstant * halfConstant + thirdLinear * thirdLinear * thirdLinear;
+        if (discriminant > 0) {
+            final double root = Math.sqrt(discriminant);
+            return new double[] {Math.cbrt(-halfConstant + root) + Math.cbrt(-halfConstant - root) + shift};
+        }
+        final double radius = Math.sqrt(Math.max(0, -thirdLinear));
+        if (radius == 0) {
+            return new double[] {shift};
+        }
+        final double cosine = Math.max(-1, Math.min(1, -halfConstant / (radius * radius * radius)));
+        final double phase = Math.acos(cosine) / SIZE;
+        final double[] roots = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            roots[i] = 2 * radius * Math.cos(phase - i * THIRD_TURN) + shift;
+        }
+        return roots;
+    }
+
+    /**
+     * The rows of {@code matrix - eigenvalue * I} are linearly dependent so the longest cross product of two of them spans the null space.
+     *
+     * @param matrix the matrix.
+     * @param eigenvalue an eigenvalue of the matrix.
+     * @return an eigenvector for the eigenvalue or null if none could be found.
+     */
+    static double[] eigenvector(final double[][] matrix, final double eigenvalue) {
+        final double[][] rows = new double[SIZE][];
+        for (int row = 0; row < SIZE; row++) {
+            rows[row] = matrix[row].clone();
+            rows[row][row] -= eigenvalue;
+        }
+        double[] best = null;
+        double bestLength = 0;
+        for (int first = 0; first < SIZE; first++) {
+            final double[] candidate = cross(rows[first], rows[(first + 1) % SIZE]);
+            final double length = dot(candidate, candidate);
+            if (length > bestLength) {
+                best = candidate;
+                bestLength = length;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param first the first vector.
+     * @param second the second vector.
+     * @return the cross product of the vectors.
+     */
+    private static double[] cross(final double[] first, final double[] second) {
+        return new double[] {
+            first[1] * second[2] - first[2] * second[1],
+            first[2] * second[0] - first[0] * second[2],
+            first[0] * second[1] - first[1] * second[0],
+        };
+    }
+
+    /**
+     * @param first the first vector.
+     * @param second the second vector.
+     * @return the dot product of the vectors.
+     */
+    private static double dot(final double[] first, final double[] second) {
+        return first[0] * second[0] + first[1] * second[1] + first[2] * second[2];
+    }
+}
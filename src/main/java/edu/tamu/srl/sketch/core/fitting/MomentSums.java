@@ -0,0 +1,392 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+import java.util.Arrays;
+
+/**
+ * The moments of a growing sequence of points, kept so the moments of any range of points can be found without its points.
+ * <br>
+ * The moments are the sums of {@code x^p * y^q} with {@code p + q <= 4}, all the sums the least squares fits of lines, circles and
+ * conics need.  Raw sums measured from one fixed point can not be used for this: a small primitive far from that point has
+ * huge raw moments that cancel almost completely when they are moved to its own center, and the fit is lost in the rounding.
+ * <br>
+ * Instead the points are grouped into blocks of {@link #BLOCK_SIZE} points, blocks of {@link #BLOCK_SIZE} blocks and so on, and
+ * every block keeps its moments around its own centroid.  Those are computed once, from the points or from the smaller blocks,
+ * when the block is complete.  A range is made of at most {@code 2 * (BLOCK_SIZE - 1)} points or blocks per level, each is moved
+ * to the center of the range and added.  Every block is inside the range, so it is never further from the center than the spread
+ * of the range and the moments of the range keep their precision wherever the range is.  A range of n points costs O(log n).
+ * <br>
+ * The prefix sum of the cross products of consecutive points is kept too so the angle swept by a range can be found.
+ * The coordinates are stored relative to the first point.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class MomentSums {
+
+    /**
+     * The highest degree of the moments.
+     */
+    static final int MAX_DEGREE = 4;
+
+    /**
+     * The number of moments with a degree up to {@link #MAX_DEGREE}.
+     */
+    static final int NUM_MOMENTS = (MAX_DEGREE + 1) * (MAX_DEGREE + 2) / 2;
+
+    /**
+     * The number of bits of the index of a point within a block.
+     */
+    private static final int BLOCK_BITS = 4;
+
+    /**
+     * The number of points or smaller blocks in a block.
+     */
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+    /**
+     * The number of levels of blocks, the largest blocks still have fewer points than the largest int.
+     */
+    private static final int NUM_LEVELS = (Integer.SIZE - 1) / BLOCK_BITS;
+
+    /**
+     * The offset of the x value of the centroid of a block after its moments.
+     */
+    private static final int CENTER_X = NUM_MOMENTS;
+
+    /**
+     * The offset of the y value of the centroid of a block after its moments.
+     */
+    private static final int CENTER_Y = NUM_MOMENTS + 1;
+
+    /**
+     * The number of values stored for every block.
+     */
+    private static final int STRIDE = NUM_MOMENTS + 2;
+
+    /**
+     * The number of points the arrays start with.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The binomial coefficients up to {@link #MAX_DEGREE}.
+     */
+    private static final int[][] BINOMIAL = createBinomial();
+
+    /**
+     * The x values of the points relative to the origin.
+     */
+    private double[] mXValues = new double[INITIAL_CAPACITY];
+
+    /**
+     * The y values of the points relative to the origin.
+     */
+    private double[] mYValues = new double[INITIAL_CAPACITY];
+
+    /**
+     * The prefix sums of the x values, entry {@code k} is the sum over the first {@code k} points.
+     * They are only used to guess the center of a range so their rounding does not matter.
+     */
+    private double[] mPrefixX = new double[INITIAL_CAPACITY + 1];
+
+    /**
+     * The prefix sums of the y values, entry {@code k} is the sum over the first {@code k} points.
+     */
+    private double[] mPrefixY = new double[INITIAL_CAPACITY + 1];
+
+    /**
+     * The prefix sums of the cross products of every point with the point before it.
+     */
+    private double[] mPrefixCross = new double[INITIAL_CAPACITY + 1];
+
+    /**
+     * The complete blocks of every level, {@link #STRIDE} values per block: its moments around its centroid and the centroid.
+     * A block of level {@code l} holds {@code BLOCK_SIZE^(l + 1)} points.
+     */
+    private final double[][] mBlocks = new double[NUM_LEVELS][0];
+
+    /**
+     * The number of complete blocks of every level.
+     */
+    private final int[] mNumBlocks = new int[NUM_LEVELS];
+
+    /**
+     * The number of points.
+     */
+    private int mSize;
+
+    /**
+     * The x value of the first point.
+     */
+    private double mOriginX;
+
+    /**
+     * The y value of the first point.
+     */
+    private double mOriginY;
+
+    /**
+     * @param degreeX the power of x.
+     * @param degreeY the power of y.
+     * @return the row of the moment.
+     */
+    static int index(final int degreeX, final int degreeY) {
+        final int degree = degreeX + degreeY;
+        return degree * (degree + 1) / 2 + degreeY;
+    }
+
+    /**
+     * Adds a point in amortized O(1).
+     *
+     * @param xValue the x value of the point.
+     * @param yValue the y value of the point.
+     */
+    void add(final double xValue, final double yValue) {
+        if (mSize == 0) {
+            mOriginX = xValue;
+            mOriginY = yValue;
+        }
+        if (mSize == mXValues.length) {
+            grow();
+        }
+        final double relativeX = xValue - mOriginX;
+        final double relativeY = yValue - mOriginY;
+        mXValues[mSize] = relativeX;
+        mYValues[mSize] = relativeY;
+        mPrefixX[mSize + 1] = mPrefixX[mSize] + relativeX;
+        mPrefixY[mSize + 1] = mPrefixY[mSize] + relativeY;
+        mPrefixCross[mSize + 1] = mPrefixCross[mSize];
+        if (mSize > 0) {
+            mPrefixCross[mSize + 1] += mXValues[mSize - 1] * relativeY - relativeX * mYValues[mSize - 1];
+        }
+        mSize++;
+        int count = mSize;
+        int level = 0;
+        while (level < NUM_LEVELS && count % BLOCK_SIZE == 0) {
+            closeBlock(level);
+            count /= BLOCK_SIZE;
+            level++;
+        }
+    }
+
+    /**
+     * Doubles the capacity of every array of the points.
+     */
+    private void grow() {
+        final int capacity = mXValues.length * 2;
+        mXValues = Arrays.copyOf(mXValues, capacity);
+        mYValues = Arrays.copyOf(mYValues, capacity);
+        mPrefixX = Arrays.copyOf(mPrefixX, capacity + 1);
+        mPrefixY = Arrays.copyOf(mPrefixY, capacity + 1);
+        mPrefixCross = Arrays.copyOf(mPrefixCross, capacity + 1);
+    }
+
+    /**
+     * Computes the moments of the block of the level that the last point completed, from its points or from its smaller blocks.
+     *
+     * @param level the level of the block.
+     */
+    private void closeBlock(final int level) {
+        final int block = mNumBlocks[level];
+        if (mBlocks[level].length < (block + 1) * STRIDE) {
+            mBlocks[level] = Arrays.copyOf(mBlocks[level], Math.max(STRIDE, mBlocks[level].length * 2));
+        }
+        final double[] target = mBlocks[level];
+        final int offset = block * STRIDE;
+        final int first = block * BLOCK_SIZE;
+        double centerX = 0;
+        double centerY = 0;
+        if (level == 0) {
+            for (int i = first; i < first + BLOCK_SIZE; i++) {
+                centerX += mXValues[i];
+                centerY += mYValues[i];
+            }
+            centerX /= BLOCK_SIZE;
+            centerY /= BLOCK_SIZE;
+            for (int i = first; i < first + BLOCK_SIZE; i++) {
+                addPoint(target, offset, mXValues[i] - centerX, mYValues[i] - centerY);
+            }
+        } else {
+            final double[] children = mBlocks[level - 1];
+            for (int i = first; i < first + BLOCK_SIZE; i++) {
+                centerX += children[i * STRIDE + CENTER_X];
+                centerY += children[i * STRIDE + CENTER_Y];
+            }
+            centerX /= BLOCK_SIZE;
+            centerY /= BLOCK_SIZE;
+            for (int i = first; i < first + BLOCK_SIZE; i++) {
+                addShifted(target, offset, children, i * STRIDE, children[i * STRIDE + CENTER_X] - centerX,
+                        children[i * STRIDE + CENTER_Y] - centerY);
+            }
+        }
+        target[offset + CENTER_X] = centerX;
+        target[offset + CENTER_Y] = centerY;
+        mNumBlocks[level]++;
+    }
+
+    /**
+     * @return the number of points.
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @param start the index of the first point of the range.
+     * @param end the index after the last point of the range.
+     * @return the sum of the x values of the range relative to the origin, only precise enough to guess the center of the range.
+     */
+    double sumX(final int start, final int end) {
+        return mPrefixX[end] - mPrefixX[start];
+    }
+
+    /**
+     * @param start the index of the first point of the range.
+     * @param end the index after the last point of the range.
+     * @return the sum of the y values of the range relative to the origin, only precise enough to guess the center of the range.
+     */
+    double sumY(final int start, final int end) {
+        return mPrefixY[end] - mPrefixY[start];
+    }
+
+    /**
+     * Adds up the largest complete blocks that fit in the range and the points that are not in one.
+     *
+     * @param start the index of the first point of the range.
+     * @param end the index after the last point of the range.
+     * @param centerX the x value, relative to the origin, of the point the moments are measured from.
+     * @param centerY the y value, relative to the origin, of the point the moments are measured from.
+     * @return the sums of {@code (x - centerX)^p * (y - centerY)^q} over the range, indexed by {@link #index(int, int)}.
+     */
+    double[] moments(final int start, final int end, final double centerX, final double centerY) {
+        final double[] result = new double[NUM_MOMENTS];
+        int point = start;
+        while (point < end) {
+            int level = -1;
+            int span = 1;
+            while (level + 1 < NUM_LEVELS && point % (span * BLOCK_SIZE) == 0 && point + span * BLOCK_SIZE <= end) {
+                level++;
+                span *= BLOCK_SIZE;
+            }
+            if (level < 0) {
+                addPoint(result, 0, mXValues[point] - centerX, mYValues[point] - centerY);
+            } else {
+                final double[] blocks = mBlocks[level];
+                final int offset = point / span * STRIDE;
+                addShifted(result, 0, blocks, offset, blocks[offset + CENTER_X] - centerX, blocks[offset + CENTER_Y] - centerY);
+            }
+            point += span;
+        }
+        return result;
+    }
+
+    /**
+     * Adds the moments of one point.
+     *
+     * @param target the moments that are added to.
+     * @param offset the index of the first moment in the target.
+     * @param xValue the x value of the point relative to the point the moments are measured from.
+     * @param yValue the y value of the point relative to the point the moments are measured from.
+     */
+    private static void addPoint(final double[] target, final int offset, final double xValue, final double yValue) {
+        double powerX = 1;
+        for (int degreeX = 0; degreeX <= MAX_DEGREE; degreeX++) {
+            double term = powerX;
+            for (int degreeY = 0; degreeX + degreeY <= MAX_DEGREE; degreeY++) {
+                target[offset + index(degreeX, degreeY)] += term;
+                term *= yValue;
+            }
+            powerX *= xValue;
+        }
+    }
+
+    /**
+     * Adds moments measured from another point, expanding {@code (x + shiftX)^p * (y + shiftY)^q} with the binomial theorem.
+     *
+     * @param target the moments that are added to.
+     * @param targetOffset the index of the first moment in the target.
+     * @param source the moments that are added.
+     * @param sourceOffset the index of the first moment in the source.
+     * @param shiftX the x value of the point the source is measured from, relative to the point the target is measured from.
+     * @param shiftY the y value of the point the source is measured from, relative to the point the target is measured from.
+     */
+    static void addShifted(final double[] target, final int targetOffset, final double[] source, final int sourceOffset,
+            final double shiftX, final double shiftY) {
+        final double[] powersX = new double[MAX_DEGREE + 1];
+        final double[] powersY = new double[MAX_DEGREE + 1];
+        powersX[0] = 1;
+        powersY[0] = 1;
+        for (int i = 1; i <= MAX_DEGREE; i++) {
+            powersX[i] = powersX[i - 1] * shiftX;
+            powersY[i] = powersY[i - 1] * shiftY;
+        }
+        for (int degreeX = 0; degreeX <= MAX_DEGREE; degreeX++) {
+            for (int degreeY = 0; degreeX + degreeY <= MAX_DEGREE; degreeY++) {
+                double total = 0;
+                for (int powerX = 0; powerX <= degreeX; powerX++) {
+                    final double factorX = BINOMIAL[degreeX][powerX] * powersX[degreeX - powerX];
+                    for (int powerY = 0; powerY <= degreeY; powerY++) {
+                        total += factorX * BINOMIAL[degreeY][powerY] * powersY[degreeY - powerY]
+                                * source[sourceOffset + index(powerX, powerY)];
+                    }
+                }
+                target[targetOffset + index(degreeX, degreeY)] += total;
+            }
+        }
+    }
+
+    /**
+     * @return Pascal's triangle up to {@link #MAX_DEGREE}.
+     */
+    private static int[][] createBinomial() {
+        final int[][] binomial = new int[MAX_DEGREE + 1][];
+        for (int row = 0; row <= MAX_DEGREE; row++) {
+            binomial[row] = new int[row + 1];
+            binomial[row][0] = 1;
+            binomial[row][row] = 1;
+            for (int column = 1; column < row; column++) {
+                binomial[row][column] = binomial[row - 1][column - 1] + binomial[row - 1][column];
+            }
+        }
+        return binomial;
+    }
+
+    /**
+     * @param start the index of the first point of the range.
+     * @param end the index after the last point of the range.
+     * @return the sum of the cross products of every point with the next point in the range, relative to the origin.
+     */
+    double crossSum(final int start, final int end) {
+        return mPrefixCross[end] - mPrefixCross[start + 1];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the x value of the point relative to the origin.
+     */
+    double getRelativeX(final int index) {
+        return mXValues[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the y value of the point relative to the origin.
+     */
+    double getRelativeY(final int index) {
+        return mYValues[index];
+    }
+
+    /**
+     * @return the x value of the first point.
+     */
+    double getOriginX() {
+        return mOriginX;
+    }
+
+    /**
+     * @return the y value of the first point.
+     */
+    double getOriginY() {
+        return mOriginY;
+    }
+}
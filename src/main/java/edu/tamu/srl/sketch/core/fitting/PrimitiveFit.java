@@ -0,0 +1,22 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+/**
+ * The result of fitting a geometric primitive to a range of points.
+ * <br>
+ * The errors of all primitives are in the same unit, the squared distance of the points to the primitive summed over the points,
+ * so fits of different primitives to the same points can be compared directly.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public interface PrimitiveFit {
+
+    /**
+     * @return the sum of the squared distances from the points to the primitive.
+     */
+    double getError();
+
+    /**
+     * @return the number of points the primitive was fit to.
+     */
+    int getNumPoints();
+}
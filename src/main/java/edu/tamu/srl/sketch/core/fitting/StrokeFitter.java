@@ -0,0 +1,132 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+
+/**
+ * Fits lines, circles, arcs and ellipses to any range of the points of a stroke in O(log n).
+ * <br>
+ * The fitter keeps the moments of blocks of the points, adding a point costs amortized O(1) so the fitter can follow a stroke while
+ * it is being drawn.  A range of points is given the same way as the range of a {@link edu.tamu.srl.sketch.core.object.SrlSubStroke}:
+ * build one fitter for the parent stroke and fit every sub stroke with its start and end index, so trying every primitive on
+ * every candidate segment of a stroke never looks at the points again.
+ * <br>
+ * The errors of all fits are estimates of the sum of the squared distances of the points to the primitive, see {@link PrimitiveFit}.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class StrokeFitter {
+
+    /**
+     * The moments of the points.
+     */
+    private final MomentSums mSums = new MomentSums();
+
+    /**
+     * Creates a fitter without points.
+     */
+    public StrokeFitter() {
+        // points are added as they come in.
+    }
+
+    /**
+     * Creates a fitter for the points of the stroke.
+     *
+     * @param stroke the stroke whose points are added.
+     */
+    public StrokeFitter(final SrlStroke stroke) {
+        addPoints(stroke.getPoints());
+    }
+
+    /**
+     * Adds a point in amortized O(1).
+     *
+     * @param point the point being added.
+     */
+    public void addPoint(final SrlPoint point) {
+        mSums.add(point.getX(), point.getY());
+    }
+
+    /**
+     * @param points the points being added in order.
+     */
+    public void addPoints(final List<? extends SrlPoint> points) {
+        for (int i = 0; i < points.size(); i++) {
+            addPoint(points.get(i));
+        }
+    }
+
+    /**
+     * @return the number of points added so far.
+     */
+    public int getNumPoints() {
+        return mSums.size();
+    }
+
+    /**
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the line through the points, it is never null.
+     */
+    public LineFit fitLine(final int start, final int end) {
+        final CentralMoments moments = moments(start, end);
+        final double offsetX = mSums.getOriginX() - moments.getCenterX();
+        final double offsetY = mSums.getOriginY() - moments.getCenterY();
+        return new LineFit(moments, new double[] {mSums.getRelativeX(start) + offsetX, mSums.getRelativeY(start) + offsetY},
+                new double[] {mSums.getRelativeX(end - 1) + offsetX, mSums.getRelativeY(end - 1) + offsetY});
+    }
+
+    /**
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the circle through the points or null if they are collinear.
+     */
+    public CircleFit fitCircle(final int start, final int end) {
+        return CircleFit.fit(moments(start, end));
+    }
+
+    /**
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the arc through the points or null if they are collinear.
+     */
+    public ArcFit fitArc(final int start, final int end) {
+        final CircleFit circle = fitCircle(start, end);
+        if (circle == null) {
+            return null;
+        }
+        final double centerX = circle.getCenterX() - mSums.getOriginX();
+        final double centerY = circle.getCenterY() - mSums.getOriginY();
+        final double firstX = mSums.getRelativeX(start);
+        final double firstY = mSums.getRelativeY(start);
+        final double lastX = mSums.getRelativeX(end - 1);
+        final double lastY = mSums.getRelativeY(end - 1);
+        // the cross products around the center telescope into the cross products around the origin plus two end point terms.
+        final double twiceArea = mSums.crossSum(start, end) + centerY * (lastX - firstX) - centerX * (lastY - firstY);
+        final double radius = circle.getRadius();
+        return new ArcFit(circle, Math.atan2(firstY - centerY, firstX - centerX), twiceArea / (radius * radius));
+    }
+
+    /**
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the ellipse through the points or null if no ellipse fits them, for example if they are collinear.
+     */
+    public EllipseFit fitEllipse(final int start, final int end) {
+        return EllipseFit.fit(moments(start, end));
+    }
+
+    /**
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the normalized moments of the range.
+     */
+    private CentralMoments moments(final int start, final int end) {
+        if (start < 0 || end > mSums.size() || start >= end) {
+            throw new IllegalArgumentException("The range [" + start + ", " + end + ") is not a range of the " + mSums.size() + " points");
+        }
+        return new CentralMoments(mSums, start, end);
+    }
+}
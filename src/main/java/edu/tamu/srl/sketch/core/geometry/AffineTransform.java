@@ -0,0 +1,178 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+/**
+ * A 2D affine transform that translations, scales and rotations are composed into.
+ * <br>
+ * The transform maps {@code (x, y)} to {@code (scaleX x + shearX y + translateX, shearY x + scaleY y + translateY)}.
+ * Every operation is applied after the operations that were composed before it, the same order the operations would have been
+ * applied to the points one at a time.  Composing is O(1) so any number of operations can be kept pending and applied to the
+ * points in one pass when they are needed.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class AffineTransform {
+
+    /**
+     * The factor of x in the new x value.
+     */
+    private double mScaleX;
+
+    /**
+     * The factor of y in the new x value.
+     */
+    private double mShearX;
+
+    /**
+     * The value added to the new x value.
+     */
+    private double mTranslateX;
+
+    /**
+     * The factor of x in the new y value.
+     */
+    private double mShearY;
+
+    /**
+     * The factor of y in the new y value.
+     */
+    private double mScaleY;
+
+    /**
+     * The value added to the new y value.
+     */
+    private double mTranslateY;
+
+    /**
+     * Creates the identity transform.
+     */
+    public AffineTransform() {
+        reset();
+    }
+
+    /**
+     * Creates a copy of the transform.
+     *
+     * @param original the transform that is copied.
+     */
+    public AffineTransform(final AffineTransform original) {
+        this.mScaleX = original.mScaleX;
+        this.mShearX = original.mShearX;
+        this.mTranslateX = original.mTranslateX;
+        this.mShearY = original.mShearY;
+        this.mScaleY = original.mScaleY;
+        this.mTranslateY = original.mTranslateY;
+    }
+
+    /**
+     * Sets the transform back to the identity.
+     */
+    public void reset() {
+        mScaleX = 1;
+        mShearX = 0;
+        mTranslateX = 0;
+        mShearY = 0;
+        mScaleY = 1;
+        mTranslateY = 0;
+    }
+
+    /**
+     * @return true if the transform does not move any point.
+     */
+    public boolean isIdentity() {
+        return mScaleX == 1 && mShearX == 0 && mTranslateX == 0 && mShearY == 0 && mScaleY == 1 && mTranslateY == 0;
+    }
+
+    /**
+     * Moves the points after the current transform.
+     *
+     * @param xOffset the amount in the x direction.
+     * @param yOffset the amount in the y direction.
+     */
+    public void translate(final double xOffset, final double yOffset) {
+        mTranslateX += xOffset;
+        mTranslateY += yOffset;
+    }
+
+    /**
+     * Scales the points around the origin after the current transform.
+     *
+     * @param xFactor the factor in the x direction.
+     * @param yFactor the factor in the y direction.
+     */
+    public void scale(final double xFactor, final double yFactor) {
+        mScaleX *= xFactor;
+        mShearX *= xFactor;
+        mTranslateX *= xFactor;
+        mShearY *= yFactor;
+        mScaleY *= yFactor;
+        mTranslateY *= yFactor;
+    }
+
+    /**
+     * Rotates the points around the center after the current transform.
+     *
+     * @param radians the angle of the rotation, positive angles turn the x axis towards the y axis.
+     * @param xCenter the x value of the center of the rotation.
+     * @param yCenter the y value of the center of the rotation.
+     */
+    public void rotate(final double radians, final double xCenter, final double yCenter) {
+        final double cos = Math.cos(radians);
+        final double sin = Math.sin(radians);
+        final double scaleX = mScaleX;
+        final double shearX = mShearX;
+        final double translateX = mTranslateX - xCenter;
+        mScaleX = cos * scaleX - sin * mShearY;
+        mShearX = cos * shearX - sin * mScaleY;
+        mTranslateX = cos * translateX - sin * (mTranslateY - yCenter) + xCenter;
+        mShearY = sin * scaleX + cos * mShearY;
+        mScaleY = sin * shearX + cos * mScaleY;
+        mTranslateY = sin * translateX + cos * (mTranslateY - yCenter) + yCenter;
+    }
+
+    /**
+     * @param x the x value of the point.
+     * @param y the y value of the point.
+     * @return the transformed x value of the point.
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    public double transformX(final double x, final double y) {
+        return mScaleX * x + mShearX * y + mTranslateX;
+    }
+
+    /**
+     * @param x the x value of the point.
+     * @param y the y value of the point.
+     * @return the transformed y value of the point.
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    public double transformY(final double x, final double y) {
+        return mShearY * x + mScaleY * y + mTranslateY;
+    }
+
+    /**
+     * Transforms a range of points stored as arrays of coordinates in place.
+     * <br>
+     * This is the tight loop used to rotate or transform whole strokes, the sine and cosine of a rotation are computed once when
+     * the rotation is composed and every point only costs four multiplications.
+     *
+     * @param xValues the x values of the points.
+     * @param yValues the y values of the points.
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     */
+    public void transform(final double[] xValues, final double[] yValues, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final double pointX = xValues[i];
+            final double pointY = yValues[i];
+            xValues[i] = mScaleX * pointX + mShearX * pointY + mTranslateX;
+            yValues[i] = mShearY * pointX + mScaleY * pointY + mTranslateY;
+        }
+    }
+
+    /**
+     * @return A string representation of the transform.
+     */
+    @Override public String toString() {
+        return "AT[[" + mScaleX + ", " + mShearX + ", " + mTranslateX + "], [" + mShearY + ", " + mScaleY + ", " + mTranslateY + "]]";
+    }
+}
@@ -0,0 +1,122 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.virtual.SrlConvexHull;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes convex hulls with the monotone chain algorithm of Andrew.
+ * <br>
+ * The points of the hull are copies of the input points so transforming the hull does not move the object.
+ * They are stored counter clockwise (in a coordinate system where y grows upwards) starting with the point with the smallest x value,
+ * collinear points on the edges of the hull are dropped.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class ConvexHulls {
+
+    /**
+     * Orders points by their x value and then by their y value.
+     */
+    private static final Comparator<SrlPoint> LEXICOGRAPHIC = new Comparator<SrlPoint>() {
+        /**
+         * @param first the first point.
+         * @param second the second point.
+         * @return a negative value if the first point comes first.
+         */
+        @Override public int compare(final SrlPoint first, final SrlPoint second) {
+            final int result = Double.compare(first.getX(), second.getX());
+            return result != 0 ? result : Double.compare(first.getY(), second.getY());
+        }
+    };
+
+    /**
+     * Utility class.
+     */
+    private ConvexHulls() {
+    }
+
+    /**
+     * Computes the convex hull of the points in O(n log n).
+     *
+     * @param points the points being enclosed, the list is not modified.
+     * @return the convex hull of the points, it has no points if the list is empty.
+     */
+    public static SrlConvexHull calculate(final List<SrlPoint> points) {
+        final SrlConvexHull hull = new SrlConvexHull();
+        hull.setPoints(chain(points));
+        return hull;
+    }
+
+    /**
+     * @param points the points being enclosed.
+     * @return the points of the hull in counter clockwise order.
+     */
+    private static List<SrlPoint> chain(final List<SrlPoint> points) {
+        final List<SrlPoint> sorted = new ArrayList<>(points);
+        Collections.sort(sorted, LEXICOGRAPHIC);
+        final int size = sorted.size();
+        final SrlPoint[] hull = new SrlPoint[2 * size];
+        int count = 0;
+        // lower hull from left to right.
+        for (int i = 0; i < size; i++) {
+            count = push(hull, count, 1, sorted.get(i));
+        }
+        // upper hull from right to left, it may not pop the points of the lower hull.
+        final int lowerCount = count;
+        for (int i = size - 2; i >= 0; i--) {
+            count = push(hull, count, lowerCount, sorted.get(i));
+        }
+        // the last point is the first point again unless there are fewer than two distinct points.
+        final int length = count > 1 ? count - 1 : count;
+        final List<SrlPoint> result = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || !samePlace(hull[i], hull[i - 1])) {
+                result.add(new SrlPoint(hull[i].getX(), hull[i].getY()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Pops every point that would make a clockwise or straight turn and then pushes the point.
+     *
+     * @param hull the stack of hull points.
+     * @param count the number of points on the stack.
+     * @param minCount the stack is never popped below this size.
+     * @param point the point being pushed.
+     * @return the new number of points on the stack.
+     */
+    private static int push(final SrlPoint[] hull, final int count, final int minCount, final SrlPoint point) {
+        int top = count;
+        while (top > minCount && cross(hull[top - 2], hull[top - 1], point) <= 0) {
+            top--;
+        }
+        hull[top] = point;
+        return top + 1;
+    }
+
+    /**
+     * @param origin the point both vectors start at.
+     * @param first the end of the first vector.
+     * @param second the end of the second vector.
+     * @return the z component of the cross product, positive for a counter clockwise turn.
+     */
+    static double cross(final SrlPoint origin, final SrlPoint first, final SrlPoint second) {
+        return (first.getX() - origin.getX()) * (second.getY() - origin.getY())
+                - (first.getY() - origin.getY()) * (second.getX() - origin.getX());
+    }
+
+    /**
+     * @param first the first point.
+     * @param second the second point.
+     * @return true if the points have the same location.
+     */
+    private static boolean samePlace(final SrlPoint first, final SrlPoint second) {
+        return first.getX() == second.getX() && first.getY() == second.getY();
+    }
+}
@@ -0,0 +1,318 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.virtual.SrlConvexHull;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+
+/**
+ * The smallest rectangle of any orientation that encloses an object.
+ * <br>
+ * Unlike {@link edu.tamu.srl.sketch.core.virtual.SrlBoundingBox} the rectangle does not have to be axis aligned, so a rotated
+ * rectangle or a diamond is enclosed tightly.  The box is found from the convex hull with the rotating calipers of Toussaint:
+ * the smallest enclosing rectangle has a side on an edge of the hull, and the extreme points for the next edge are never behind the
+ * extreme points for the current edge so every edge is checked in O(h) in total.
+ * <br>
+ * The angle of the box is normalized to [0, pi / 2) and the width is always measured along that angle.
+ * Boxes are immutable.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class OrientedBoundingBox {
+
+    /**
+     * The x value of the center of the box.
+     */
+    private final double mCenterX;
+
+    /**
+     * The y value of the center of the box.
+     */
+    private final double mCenterY;
+
+    /**
+     * The length of the side along the angle of the box.
+     */
+    private final double mWidth;
+
+    /**
+     * The length of the side perpendicular to the angle of the box.
+     */
+    private final double mHeight;
+
+    /**
+     * The angle between the x axis and the width side of the box in radians.
+     */
+    private final double mAngle;
+
+    /**
+     * @param centerX the x value of the center of the box.
+     * @param centerY the y value of the center of the box.
+     * @param width the length of the side along the angle.
+     * @param height the length of the side perpendicular to the angle.
+     * @param angle the angle of the box in radians, it is normalized to [0, pi / 2) by swapping the width and height.
+     */
+    public OrientedBoundingBox(final double centerX, final double centerY, final double width, final double height, final double angle) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("The sides of a box can not be negative");
+        }
+        final double quarter = Math.PI / 2;
+        final long quarterTurns = (long) Math.floor(angle / quarter);
+        final boolean swap = quarterTurns % 2 != 0;
+        this.mCenterX = centerX;
+        this.mCenterY = centerY;
+        this.mWidth = swap ? height : width;
+        this.mHeight = swap ? width : height;
+        this.mAngle = angle - quarterTurns * quarter;
+    }
+
+    /**
+     * Finds the smallest enclosing rectangle of a convex hull.
+     *
+     * @param hull a convex hull with its points in counter clockwise order like the ones made by {@link ConvexHulls}.
+     * @return the rectangle with the smallest area that encloses the hull.
+     */
+    public static OrientedBoundingBox fromHull(final SrlConvexHull hull) {
+        final List<SrlPoint> points = hull.getPoints();
+        final int size = points.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("Can not bound a hull without points");
+        }
+        if (size == 1) {
+            return new OrientedBoundingBox(points.get(0).getX(), points.get(0).getY(), 0, 0, 0);
+        }
+        final double[] xValues = new double[size];
+        final double[] yValues = new double[size];
+        for (int i = 0; i < size; i++) {
+            xValues[i] = points.get(i).getX();
+            yValues[i] = points.get(i).getY();
+        }
+        return new Calipers(xValues, yValues).rotate();
+    }
+
+    /**
+     * @return the x value of the center of the box.
+     */
+    public double getCenterX() {
+        return mCenterX;
+    }
+
+    /**
+     * @return the y value of the center of the box.
+     */
+    public double getCenterY() {
+        return mCenterY;
+    }
+
+    /**
+     * @return the center of the box.
+     */
+    public SrlPoint getCenterPoint() {
+        return new SrlPoint(mCenterX, mCenterY);
+    }
+
+    /**
+     * @return the length of the side along the angle of the box.
+     */
+    public double getWidth() {
+        return mWidth;
+    }
+
+    /**
+     * @return the length of the side perpendicular to the angle of the box.
+     */
+    public double getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * @return the angle between the x axis and the width side of the box in radians, in [0, pi / 2).
+     */
+    public double getAngle() {
+        return mAngle;
+    }
+
+    /**
+     * @return the area of the box.
+     */
+    public double getArea() {
+        return mWidth * mHeight;
+    }
+
+    /**
+     * @return the length of the diagonal of the box.
+     */
+    public double getDiagonalLength() {
+        return Math.sqrt(mWidth * mWidth + mHeight * mHeight);
+    }
+
+    /**
+     * The oriented counterpart of {@link edu.tamu.srl.sketch.core.abstracted.SrlObject#getBoundingBoxDiagonalAngle()}.
+     *
+     * @return the angle between the width side of the box and its diagonal.
+     */
+    public double getDiagonalAngle() {
+        return Math.atan2(mHeight, mWidth);
+    }
+
+    /**
+     * @return the length of the shorter side divided by the length of the longer side, 1 for a square or a point.
+     */
+    public double getAspectRatio() {
+        final double longer = Math.max(mWidth, mHeight);
+        return longer == 0 ? 1 : Math.min(mWidth, mHeight) / longer;
+    }
+
+    /**
+     * @return the four corners of the box in counter clockwise order.
+     */
+    public SrlPoint[] getCorners() {
+        final double cos = Math.cos(mAngle);
+        final double sin = Math.sin(mAngle);
+        final double halfWidth = mWidth / 2;
+        final double halfHeight = mHeight / 2;
+        final SrlPoint[] corners = new SrlPoint[2 * 2];
+        final int[] widthSigns = new int[] {-1, 1, 1, -1};
+        final int[] heightSigns = new int[] {-1, -1, 1, 1};
+        for (int i = 0; i < corners.length; i++) {
+            final double along = widthSigns[i] * halfWidth;
+            final double across = heightSigns[i] * halfHeight;
+            corners[i] = new SrlPoint(mCenterX + along * cos - across * sin, mCenterY + along * sin + across * cos);
+        }
+        return corners;
+    }
+
+    /**
+     * @return a description of the box.
+     */
+    @Override public String toString() {
+        return "OrientedBoundingBox[center=(" + mCenterX + ", " + mCenterY + "), width=" + mWidth + ", height=" + mHeight
+                + ", angle=" + mAngle + "]";
+    }
+
+    /**
+     * The four calipers rotating around a hull.
+     * <br>
+     * For the edge from point {@code i} to point {@code i + 1} the calipers hold the point furthest along the edge, the point
+     * furthest from the edge and the point furthest behind the edge.  Each of them only moves forward around the hull.
+     */
+    private static final class Calipers {
+
+        /**
+         * The x values of the hull.
+         */
+        private final double[] mXValues;
+
+        /**
+         * The y values of the hull.
+         */
+        private final double[] mYValues;
+
+        /**
+         * The index of the point furthest along the current edge.
+         */
+        private int mFront;
+
+        /**
+         * The index of the point furthest from the current edge.
+         */
+        private int mTop;
+
+        /**
+         * The index of the point furthest behind the current edge.
+         */
+        private int mBack;
+
+        /**
+         * @param xValues the x values of the hull in counter clockwise order.
+         * @param yValues the y values of the hull in counter clockwise order.
+         */
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        Calipers(final double[] xValues, final double[] yValues) {
+            this.mXValues = xValues;
+            this.mYValues = yValues;
+        }
+
+        /**
+         * @return the smallest box with a side on one of the edges of the hull.
+         */
+        OrientedBoundingBox rotate() {
+            final int size = mXValues.length;
+            OrientedBoundingBox best = null;
+            for (int edge = 0; edge < size; edge++) {
+                final int next = (edge + 1) % size;
+                final double length = Math.hypot(mXValues[next] - mXValues[edge], mYValues[next] - mYValues[edge]);
+                final double unitX = (mXValues[next] - mXValues[edge]) / length;
+                final double unitY = (mYValues[next] - mYValues[edge]) / length;
+                if (edge == 0) {
+                    mFront = next;
+                    mFront = advance(mFront, unitX, unitY, 1);
+                    mTop = advance(mFront, -unitY, unitX, 1);
+                    mBack = advance(mTop, unitX, unitY, -1);
+                } else {
+                    mFront = advance(mFront, unitX, unitY, 1);
+                    mTop = advance(mTop, -unitY, unitX, 1);
+                    mBack = advance(mBack, unitX, unitY, -1);
+                }
+                final OrientedBoundingBox box = boxFor(edge, unitX, unitY);
+                if (best == null || box.getArea() < best.getArea()) {
+                    best = box;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Moves a caliper forward while the next point is further in the direction.
+         *
+         * @param start the index the caliper starts at.
+         * @param directionX the x value of the direction.
+         * @param directionY the y value of the direction.
+         * @param sign 1 to find the furthest point in the direction, -1 to find the furthest point against it.
+         * @return the index of the furthest point.
+         */
+        private int advance(final int start, final double directionX, final double directionY, final int sign) {
+            final int size = mXValues.length;
+            int current = start;
+            // a convex polygon has a single maximum in every direction, the bound only guards against rounding errors.
+            for (int steps = 0; steps < size; steps++) {
+                final int next = (current + 1) % size;
+                final double gain = (mXValues[next] - mXValues[current]) * directionX + (mYValues[next] - mYValues[current]) * directionY;
+                if (sign * gain <= 0) {
+                    break;
+                }
+                current = next;
+            }
+            return current;
+        }
+
+        /**
+         * @param edge the index of the first point of the edge.
+         * @param unitX the x value of the direction of the edge.
+         * @param unitY the y value of the direction of the edge.
+         * @return the box with a side on the edge.
+         */
+        private OrientedBoundingBox boxFor(final int edge, final double unitX, final double unitY) {
+            final double front = project(mFront, edge, unitX, unitY);
+            final double back = project(mBack, edge, unitX, unitY);
+            // the hull is counter clockwise so the rest of it is on the left of the edge.
+            final double height = project(mTop, edge, -unitY, unitX);
+            final double along = (front + back) / 2;
+            final double across = height / 2;
+            final double centerX = mXValues[edge] + along * unitX - across * unitY;
+            final double centerY = mYValues[edge] + along * unitY + across * unitX;
+            return new OrientedBoundingBox(centerX, centerY, front - back, Math.max(0, height), Math.atan2(unitY, unitX));
+        }
+
+        /**
+         * @param point the index of the point being projected.
+         * @param origin the index of the point the projection is measured from.
+         * @param directionX the x value of the direction.
+         * @param directionY the y value of the direction.
+         * @return the signed distance of the point along the direction.
+         */
+        private double project(final int point, final int origin, final double directionX, final double directionY) {
+            return (mXValues[point] - mXValues[origin]) * directionX + (mYValues[point] - mYValues[origin]) * directionY;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+/**
+ * A place where two strokes, or two parts of the same stroke, cross or touch.
+ * <br>
+ * Segments are identified by the index of the point of the stroke they start at, segment {@code i} goes from point {@code i}
+ * to point {@code i + 1}.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class StrokeIntersection {
+
+    /**
+     * The first stroke.
+     */
+    private final SrlStroke mFirstStroke;
+
+    /**
+     * The second stroke.
+     */
+    private final SrlStroke mSecondStroke;
+
+    /**
+     * The segment of the first stroke.
+     */
+    private final int mFirstSegment;
+
+    /**
+     * The segment of the second stroke.
+     */
+    private final int mSecondSegment;
+
+    /**
+     * True if both segments belong to the same stroke.
+     */
+    private final boolean mSelfIntersection;
+
+    /**
+     * The x value of the intersection.
+     */
+    private final double mIntersectionX;
+
+    /**
+     * The y value of the intersection.
+     */
+    private final double mIntersectionY;
+
+    /**
+     * @param first the segment whose stroke was swept first.
+     * @param second the other segment.
+     * @param x the x value of the intersection.
+     * @param y the y value of the intersection.
+     */
+    @SuppressWarnings("PMD.ShortVariable")
+    StrokeIntersection(final SweepSegment first, final SweepSegment second, final double x, final double y) {
+        this.mFirstStroke = first.getStroke();
+        this.mSecondStroke = second.getStroke();
+        this.mFirstSegment = first.getPointIndex();
+        this.mSecondSegment = second.getPointIndex();
+        this.mSelfIntersection = first.getStrokeIndex() == second.getStrokeIndex();
+        this.mIntersectionX = x;
+        this.mIntersectionY = y;
+    }
+
+    /**
+     * @return the first stroke.
+     */
+    public SrlStroke getFirstStroke() {
+        return mFirstStroke;
+    }
+
+    /**
+     * @return the second stroke, the same as the first stroke for a self intersection.
+     */
+    public SrlStroke getSecondStroke() {
+        return mSecondStroke;
+    }
+
+    /**
+     * @return the index of the point of the first stroke where its intersecting segment starts.
+     */
+    public int getFirstSegment() {
+        return mFirstSegment;
+    }
+
+    /**
+     * @return the index of the point of the second stroke where its intersecting segment starts.
+     */
+    public int getSecondSegment() {
+        return mSecondSegment;
+    }
+
+    /**
+     * @return the x value of the intersection.
+     */
+    public double getX() {
+        return mIntersectionX;
+    }
+
+    /**
+     * @return the y value of the intersection.
+     */
+    public double getY() {
+        return mIntersectionY;
+    }
+
+    /**
+     * @return a new point at the intersection.
+     */
+    public SrlPoint getPoint() {
+        return new SrlPoint(mIntersectionX, mIntersectionY);
+    }
+
+    /**
+     * @return true if a stroke crosses or touches itself.
+     */
+    public boolean isSelfIntersection() {
+        return mSelfIntersection;
+    }
+
+    /**
+     * @return A string representation of the intersection.
+     */
+    @Override
+    public String toString() {
+        return "INTERSECTION[" + mFirstSegment + ":" + mSecondSegment + " (" + mIntersectionX + ", " + mIntersectionY + ")]";
+    }
+}
@@ -0,0 +1,498 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Finds where strokes cross each other using the sweep line algorithm of Bentley and Ottmann.
+ * <br>
+ * Every segment between two consecutive points of a stroke is an input segment.  A vertical line is swept from left to right and
+ * the segments crossing it are kept in order from bottom to top.  Only segments that are next to each other in that order can
+ * intersect before the order changes, so only neighbors are ever tested.  This finds all k intersections between n segments in
+ * O((n + k) log n) instead of testing every pair.
+ * <br>
+ * All of the events at one point are handled together (de Berg et al.), so shared end points, vertical segments and several
+ * segments meeting at one point, which are common with pixel coordinates, are handled.
+ * <br>
+ * Two consecutive segments of a stroke always share a point so they are never reported.  Any other two segments of the same
+ * stroke are only reported if self intersections were asked for.  A closed stroke whose last point lands on its first segment is
+ * reported as a self intersection, which can be used to detect closed shapes.
+ * <br>
+ * Segments that touch are reported as well as segments that cross.  Overlapping collinear segments are reported once at the left
+ * end of their overlap.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class SweepLineIntersector {
+
+    /**
+     * The tolerance used when comparing positions along the segments and when ordering the segments.
+     */
+    static final double EPSILON = 1e-9;
+
+    /**
+     * True if a stroke crossing itself is reported.
+     */
+    private final boolean mReportSelfIntersections;
+
+    /**
+     * Creates an intersector that only reports intersections between different strokes.
+     */
+    public SweepLineIntersector() {
+        this(false);
+    }
+
+    /**
+     * @param reportSelfIntersections true if a stroke crossing itself is reported.
+     */
+    public SweepLineIntersector(final boolean reportSelfIntersections) {
+        this.mReportSelfIntersections = reportSelfIntersections;
+    }
+
+    /**
+     * @param shape the shape whose strokes, including the strokes of its sub shapes, are checked.
+     * @return every intersection in the order the sweep found them.
+     */
+    public List<StrokeIntersection> findIntersections(final SrlShape shape) {
+        return findIntersections(shape.getRecursiveStrokeList());
+    }
+
+    /**
+     * @param strokes the strokes being checked.
+     * @return every intersection in the order the sweep found them.
+     */
+    public List<StrokeIntersection> findIntersections(final List<? extends SrlStroke> strokes) {
+        final Sweep sweep = new Sweep(mReportSelfIntersections);
+        int segmentId = 0;
+        for (int strokeIndex = 0; strokeIndex < strokes.size(); strokeIndex++) {
+            final SrlStroke stroke = strokes.get(strokeIndex);
+            final List<SrlPoint> points = stroke.getPoints();
+            int segmentIndex = 0;
+            for (int i = 1; i < points.size(); i++) {
+                final SrlPoint start = points.get(i - 1);
+                final SrlPoint end = points.get(i);
+                if (start.getX() != end.getX() || start.getY() != end.getY()) {
+                    sweep.add(new SweepSegment(stroke, strokeIndex, i - 1, segmentIndex, segmentId, start.getX(), start.getY(), end.getX(),
+                            end.getY()));
+                    segmentIndex++;
+                    segmentId++;
+                }
+            }
+        }
+        return sweep.run();
+    }
+
+    /**
+     * Computes where two segments meet.
+     *
+     * @param first the first segment.
+     * @param second the second segment.
+     * @return the x and y value of the intersection or null if the segments do not meet.
+     */
+    static double[] intersect(final SweepSegment first, final SweepSegment second) {
+        final double firstX = first.getRightX() - first.getLeftX();
+        final double firstY = first.getRightY() - first.getLeftY();
+        final double secondX = second.getRightX() - second.getLeftX();
+        final double secondY = second.getRightY() - second.getLeftY();
+        final double offsetX = second.getLeftX() - first.getLeftX();
+        final double offsetY = second.getLeftY() - first.getLeftY();
+        final double denominator = firstX * secondY - firstY * secondX;
+        final double firstLength = Math.sqrt(firstX * firstX + firstY * firstY);
+        if (Math.abs(denominator) <= EPSILON * firstLength * Math.sqrt(secondX * secondX + secondY * secondY)) {
+            // the distance from the second segment to the line through the first one.
+            final double distance = Math.abs(offsetX * firstY - offsetY * firstX) / firstLength;
+            return distance > EPSILON * Math.max(1, firstLength) ? null : overlap(first, second);
+        }
+        final double firstRatio = (offsetX * secondY - offsetY * secondX) / denominator;
+        final double secondRatio = (offsetX * firstY - offsetY * firstX) / denominator;
+        if (outside(firstRatio) || outside(secondRatio)) {
+            return null;
+        }
+        return new double[] {first.getLeftX() + firstRatio * firstX, first.getLeftY() + firstRatio * firstY};
+    }
+
+    /**
+     * @param ratio a position along a segment where 0 is the left end and 1 the right end.
+     * @return true if the position is not on the segment.
+     */
+    private static boolean outside(final double ratio) {
+        return ratio < -EPSILON || ratio > 1 + EPSILON;
+    }
+
+    /**
+     * @param first the first of two collinear segments.
+     * @param second the second of two collinear segments.
+     * @return the left end of the overlap or null if the segments do not overlap.
+     */
+    private static double[] overlap(final SweepSegment first, final SweepSegment second) {
+        final double[] start = later(first.getLeft(), second.getLeft());
+        final double[] end = earlier(first.getRight(), second.getRight());
+        return comparePoints(start[0], start[1], end[0], end[1]) > 0 ? null : start;
+    }
+
+    /**
+     * @param first the x and y value of the first point.
+     * @param second the x and y value of the second point.
+     * @return the point the sweep visits later.
+     */
+    private static double[] later(final double[] first, final double[] second) {
+        return comparePoints(first[0], first[1], second[0], second[1]) > 0 ? first : second;
+    }
+
+    /**
+     * @param first the x and y value of the first point.
+     * @param second the x and y value of the second point.
+     * @return the point the sweep visits first.
+     */
+    private static double[] earlier(final double[] first, final double[] second) {
+        return comparePoints(first[0], first[1], second[0], second[1]) > 0 ? second : first;
+    }
+
+    /**
+     * Orders points from left to right and from bottom to top, the order the sweep visits them in.
+     *
+     * @param firstX the x value of the first point.
+     * @param firstY the y value of the first point.
+     * @param secondX the x value of the second point.
+     * @param secondY the y value of the second point.
+     * @return a negative number, zero or a positive number if the first point comes before, at or after the second point.
+     */
+    static int comparePoints(final double firstX, final double firstY, final double secondX, final double secondY) {
+        final int result = Double.compare(firstX, secondX);
+        return result == 0 ? Double.compare(firstY, secondY) : result;
+    }
+
+    /**
+     * Something that happens when the sweep line reaches a point.
+     */
+    private static final class Event implements Comparable<Event> {
+
+        /**
+         * A segment starts at the point.
+         */
+        static final int START = 0;
+
+        /**
+         * Two segments cross at the point.
+         */
+        static final int CROSS = 1;
+
+        /**
+         * A segment ends at the point.
+         */
+        static final int END = 2;
+
+        /**
+         * The x value of the point.
+         */
+        private final double mPointX;
+
+        /**
+         * The y value of the point.
+         */
+        private final double mPointY;
+
+        /**
+         * The kind of the event.
+         */
+        private final int mType;
+
+        /**
+         * The segment that starts or ends or one of the crossing segments.
+         */
+        private final SweepSegment mFirst;
+
+        /**
+         * @param pointX the x value of the point.
+         * @param pointY the y value of the point.
+         * @param type the kind of the event.
+         * @param first the segment that starts or ends or one of the crossing segments.
+         */
+        Event(final double pointX, final double pointY, final int type, final SweepSegment first) {
+            this.mPointX = pointX;
+            this.mPointY = pointY;
+            this.mType = type;
+            this.mFirst = first;
+        }
+
+        /**
+         * Events are ordered by their point, at the same point segments start before they cross and they cross before they end.
+         *
+         * @param other the event this one is compared to.
+         * @return the order of the events.
+         */
+        @Override
+        public int compareTo(final Event other) {
+            final int result = comparePoints(mPointX, mPointY, other.mPointX, other.mPointY);
+            if (result != 0) {
+                return result;
+            }
+            return mType == other.mType ? Integer.compare(mFirst.getId(), other.mFirst.getId()) : Integer.compare(mType, other.mType);
+        }
+
+        /**
+         * @param other the object being compared.
+         * @return true if the events happen at the same point for the same segment.
+         */
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Event && compareTo((Event) other) == 0;
+        }
+
+        /**
+         * @return a hash code consistent with {@link #equals(Object)}.
+         */
+        @Override
+        public int hashCode() {
+            return mFirst.getId() * (END + 1) + mType;
+        }
+    }
+
+    /**
+     * The state of a single sweep.
+     * <br>
+     * Also orders the segments by where they cross the sweep line.  Segments that cross it at the same place are ordered by their
+     * slope, which is their order right after the sweep line passes that place.
+     */
+    private static final class Sweep implements Comparator<SweepSegment> {
+
+        /**
+         * True if a stroke crossing itself is reported.
+         */
+        private final boolean mSelf;
+
+        /**
+         * The points the sweep line still has to stop at.
+         */
+        private final PriorityQueue<Event> mEvents = new PriorityQueue<>();
+
+        /**
+         * The segments crossing the sweep line.
+         */
+        private final SweepStatus mStatus = new SweepStatus();
+
+        /**
+         * The pairs of segments that were already tested.
+         */
+        private final Set<Long> mTested = new HashSet<>();
+
+        /**
+         * The intersections found so far.
+         */
+        private final List<StrokeIntersection> mResults = new ArrayList<>();
+
+        /**
+         * The x value of the current position of the sweep line.
+         */
+        private double mSweepX;
+
+        /**
+         * The y value of the current event on the sweep line.
+         */
+        private double mSweepY;
+
+        /**
+         * @param self true if a stroke crossing itself is reported.
+         */
+        Sweep(final boolean self) {
+            this.mSelf = self;
+        }
+
+        /**
+         * @param segment the segment being added to the sweep.
+         */
+        void add(final SweepSegment segment) {
+            mEvents.add(new Event(segment.getLeftX(), segment.getLeftY(), Event.START, segment));
+            mEvents.add(new Event(segment.getRightX(), segment.getRightY(), Event.END, segment));
+        }
+
+        /**
+         * @return every intersection in the order they were found.
+         */
+        List<StrokeIntersection> run() {
+            while (!mEvents.isEmpty()) {
+                mSweepX = mEvents.peek().mPointX;
+                mSweepY = mEvents.peek().mPointY;
+                // handling the point can add events right after it so the queue is only read up to the point.
+                final List<SweepSegment> starting = new ArrayList<>();
+                while (!mEvents.isEmpty() && isAtSweepPoint(mEvents.peek().mPointX, mEvents.peek().mPointY)) {
+                    final Event event = mEvents.poll();
+                    if (event.mType == Event.START) {
+                        starting.add(event.mFirst);
+                    }
+                }
+                handlePoint(starting);
+            }
+            return mResults;
+        }
+
+        /**
+         * Handles every event at the sweep point at once.
+         * <br>
+         * The segments passing through the point are found by position and removed together, this way floating point errors in the
+         * order of segments that meet at the point do not matter.  Every pair of them meets at the point.  The ones that do not end
+         * at the point are put back together with the ones starting at it in their order right after the point.
+         *
+         * @param starting the segments that start at the sweep point.
+         */
+        private void handlePoint(final List<SweepSegment> starting) {
+            final SweepStatus.Entry lower = mStatus.lastBelow(mSweepX, mSweepY, getTolerance());
+            final List<SweepSegment> meeting = removeMeeting(lower);
+            final SweepStatus.Entry upper = mStatus.next(lower);
+            final List<SweepSegment> continuing = new ArrayList<>();
+            for (int i = 0; i < meeting.size(); i++) {
+                if (!isAtSweepPoint(meeting.get(i).getRightX(), meeting.get(i).getRightY())) {
+                    continuing.add(meeting.get(i));
+                }
+            }
+            continuing.addAll(starting);
+            meeting.addAll(starting);
+            for (int i = 0; i < meeting.size(); i++) {
+                for (int j = i + 1; j < meeting.size(); j++) {
+                    test(meeting.get(i), meeting.get(j));
+                }
+            }
+            reinsert(continuing, lower.getSegment(), upper == null ? null : upper.getSegment());
+        }
+
+        /**
+         * Removes the segments that pass through the sweep point.
+         *
+         * @param lower the entry right below the sweep point.
+         * @return the removed segments.
+         */
+        private List<SweepSegment> removeMeeting(final SweepStatus.Entry lower) {
+            final List<SweepSegment> meeting = new ArrayList<>();
+            SweepStatus.Entry entry = mStatus.next(lower);
+            while (entry != null && isAtSweepPoint(mSweepX, entry.getSegment().getYAt(mSweepX, mSweepY))) {
+                meeting.add(entry.getSegment());
+                final SweepStatus.Entry next = mStatus.next(entry);
+                mStatus.remove(entry);
+                entry = next;
+            }
+            return meeting;
+        }
+
+        /**
+         * Inserts the segments that continue past the sweep point and tests them against their new neighbors.
+         *
+         * @param continuing the segments that continue past the sweep point.
+         * @param below the segment right below the sweep point, may be null.
+         * @param above the segment right above the sweep point, may be null.
+         */
+        private void reinsert(final List<SweepSegment> continuing, final SweepSegment below, final SweepSegment above) {
+            if (continuing.isEmpty()) {
+                test(below, above);
+                return;
+            }
+            Collections.sort(continuing, this);
+            for (int i = 0; i < continuing.size(); i++) {
+                mStatus.insert(continuing.get(i), this);
+            }
+            test(below, continuing.get(0));
+            test(continuing.get(continuing.size() - 1), above);
+        }
+
+        /**
+         * @return how far apart two y values can be and still count as the same.
+         */
+        private double getTolerance() {
+            return EPSILON * Math.max(1, Math.abs(mSweepY));
+        }
+
+        /**
+         * @param pointX the x value of a point.
+         * @param pointY the y value of a point.
+         * @return true if the point is at the sweep point.
+         */
+        private boolean isAtSweepPoint(final double pointX, final double pointY) {
+            return Math.abs(pointX - mSweepX) <= EPSILON * Math.max(1, Math.abs(mSweepX)) && Math.abs(pointY - mSweepY) <= getTolerance();
+        }
+
+        /**
+         * Tests two neighboring segments and schedules their crossing if it is ahead of the sweep line.
+         * <br>
+         * Segments of the same stroke are always tested even if they are not reported, the sweep needs to know where they swap.
+         *
+         * @param first the lower segment, may be null.
+         * @param second the upper segment, may be null.
+         */
+        private void test(final SweepSegment first, final SweepSegment second) {
+            if (first == null || second == null || !isNewPair(first, second)) {
+                return;
+            }
+            final double[] point = intersect(first, second);
+            if (point == null) {
+                return;
+            }
+            if (isReported(first, second)) {
+                final boolean inOrder = first.getId() < second.getId();
+                mResults.add(inOrder ? new StrokeIntersection(first, second, point[0], point[1])
+                        : new StrokeIntersection(second, first, point[0], point[1]));
+            }
+            if (isAhead(point[0], point[1])) {
+                mEvents.add(new Event(point[0], point[1], Event.CROSS, first));
+            }
+        }
+
+        /**
+         * @param first the first segment.
+         * @param second the second segment.
+         * @return true if the segments were not tested before.
+         */
+        private boolean isNewPair(final SweepSegment first, final SweepSegment second) {
+            final long key = (long) Math.min(first.getId(), second.getId()) << Integer.SIZE | Math.max(first.getId(), second.getId());
+            return mTested.add(key);
+        }
+
+        /**
+         * @param pointX the x value of a point.
+         * @param pointY the y value of a point.
+         * @return true if the sweep line has not reached the point yet.
+         */
+        private boolean isAhead(final double pointX, final double pointY) {
+            if (Math.abs(pointX - mSweepX) <= EPSILON) {
+                return pointY > mSweepY + EPSILON;
+            }
+            return pointX > mSweepX;
+        }
+
+        /**
+         * @param first the first segment.
+         * @param second the second segment.
+         * @return true if an intersection between the segments is reported.
+         */
+        private boolean isReported(final SweepSegment first, final SweepSegment second) {
+            if (first.getStrokeIndex() != second.getStrokeIndex()) {
+                return true;
+            }
+            return mSelf && Math.abs(first.getSegmentIndex() - second.getSegmentIndex()) != 1;
+        }
+
+        /**
+         * @param first the first segment.
+         * @param second the second segment.
+         * @return the order of the segments right after the current position of the sweep line.
+         */
+        @Override
+        public int compare(final SweepSegment first, final SweepSegment second) {
+            final double firstY = first.getYAt(mSweepX, mSweepY);
+            final double secondY = second.getYAt(mSweepX, mSweepY);
+            if (Math.abs(firstY - secondY) > EPSILON * Math.max(1, Math.abs(firstY))) {
+                return Double.compare(firstY, secondY);
+            }
+            final int result = Double.compare(first.getSlope(), second.getSlope());
+            return result == 0 ? Integer.compare(first.getId(), second.getId()) : result;
+        }
+    }
+}
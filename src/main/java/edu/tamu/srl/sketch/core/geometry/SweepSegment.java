@@ -0,0 +1,193 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+
+/**
+ * A segment between two consecutive points of a stroke, stored with its left end point first.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class SweepSegment {
+
+    /**
+     * The stroke the segment belongs to.
+     */
+    private final SrlStroke mStroke;
+
+    /**
+     * The index of the stroke in the list of strokes being swept.
+     */
+    private final int mStrokeIndex;
+
+    /**
+     * The index of the point of the stroke the segment starts at.
+     */
+    private final int mPointIndex;
+
+    /**
+     * The index of the segment within its stroke, segments without length are not counted.
+     */
+    private final int mSegmentIndex;
+
+    /**
+     * A unique number for the segment within a sweep.
+     */
+    private final int mId;
+
+    /**
+     * The x value of the left end point.
+     */
+    private final double mLeftX;
+
+    /**
+     * The y value of the left end point.
+     */
+    private final double mLeftY;
+
+    /**
+     * The x value of the right end point.
+     */
+    private final double mRightX;
+
+    /**
+     * The y value of the right end point.
+     */
+    private final double mRightY;
+
+    /**
+     * @param stroke the stroke the segment belongs to.
+     * @param strokeIndex the index of the stroke in the list of strokes being swept.
+     * @param pointIndex the index of the point of the stroke the segment starts at.
+     * @param segmentIndex the index of the segment within its stroke.
+     * @param uniqueId a unique number for the segment within a sweep.
+     * @param startX the x value of the point the segment starts at.
+     * @param startY the y value of the point the segment starts at.
+     * @param endX the x value of the point the segment ends at.
+     * @param endY the y value of the point the segment ends at.
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    SweepSegment(final SrlStroke stroke, final int strokeIndex, final int pointIndex, final int segmentIndex, final int uniqueId,
+            final double startX, final double startY, final double endX, final double endY) {
+        this.mStroke = stroke;
+        this.mStrokeIndex = strokeIndex;
+        this.mPointIndex = pointIndex;
+        this.mSegmentIndex = segmentIndex;
+        this.mId = uniqueId;
+        if (startX > endX || startX == endX && startY > endY) {
+            this.mLeftX = endX;
+            this.mLeftY = endY;
+            this.mRightX = startX;
+            this.mRightY = startY;
+        } else {
+            this.mLeftX = startX;
+            this.mLeftY = startY;
+            this.mRightX = endX;
+            this.mRightY = endY;
+        }
+    }
+
+    /**
+     * @return the stroke the segment belongs to.
+     */
+    SrlStroke getStroke() {
+        return mStroke;
+    }
+
+    /**
+     * @return the index of the stroke in the list of strokes being swept.
+     */
+    int getStrokeIndex() {
+        return mStrokeIndex;
+    }
+
+    /**
+     * @return the index of the point of the stroke the segment starts at.
+     */
+    int getPointIndex() {
+        return mPointIndex;
+    }
+
+    /**
+     * @return the index of the segment within its stroke.
+     */
+    int getSegmentIndex() {
+        return mSegmentIndex;
+    }
+
+    /**
+     * @return a unique number for the segment within a sweep.
+     */
+    int getId() {
+        return mId;
+    }
+
+    /**
+     * @return the x value of the left end point.
+     */
+    double getLeftX() {
+        return mLeftX;
+    }
+
+    /**
+     * @return the y value of the left end point.
+     */
+    double getLeftY() {
+        return mLeftY;
+    }
+
+    /**
+     * @return the x value of the right end point.
+     */
+    double getRightX() {
+        return mRightX;
+    }
+
+    /**
+     * @return the y value of the right end point.
+     */
+    double getRightY() {
+        return mRightY;
+    }
+
+    /**
+     * @return a new array with the x and y value of the left end point.
+     */
+    double[] getLeft() {
+        return new double[] {mLeftX, mLeftY};
+    }
+
+    /**
+     * @return a new array with the x and y value of the right end point.
+     */
+    double[] getRight() {
+        return new double[] {mRightX, mRightY};
+    }
+
+    /**
+     * @return true if both end points have the same x value.
+     */
+    boolean isVertical() {
+        return mLeftX == mRightX;
+    }
+
+    /**
+     * @return the slope of the segment, {@link Double#POSITIVE_INFINITY} for a vertical segment.
+     */
+    double getSlope() {
+        return isVertical() ? Double.POSITIVE_INFINITY : (mRightY - mLeftY) / (mRightX - mLeftX);
+    }
+
+    /**
+     * A vertical segment is treated as the point of it closest to the sweep point.
+     *
+     * @param sweepX the x value of the sweep point.
+     * @param sweepY the y value of the sweep point.
+     * @return the y value where the segment crosses the sweep line.
+     */
+    double getYAt(final double sweepX, final double sweepY) {
+        if (isVertical()) {
+            return Math.max(mLeftY, Math.min(mRightY, sweepY));
+        }
+        return mLeftY + (sweepX - mLeftX) * (mRightY - mLeftY) / (mRightX - mLeftX);
+    }
+}
@@ -0,0 +1,150 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * The ordered set of segments crossing the sweep line.
+ * <br>
+ * This is a skip list with links in both directions on every level.  Unlike a {@link java.util.TreeSet} the list can be searched
+ * by the position of the sweep point alone and an entry is removed through its links without comparing it to anything.  The
+ * order of the segments depends on the position of the sweep line, removing the segments that pass through an event point must
+ * not depend on how they compare to each other at that point.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class SweepStatus {
+
+    /**
+     * The largest number of levels of the list.
+     */
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * The seed of the level generator, the sweep has to behave the same way on every run.
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    /**
+     * The node before the first segment on every level.
+     */
+    private final Entry mHead = new Entry(null, MAX_LEVEL);
+
+    /**
+     * Picks the level of new nodes.
+     */
+    private final Random mRandom = new Random(SEED);
+
+    /**
+     * Inserts a segment.
+     *
+     * @param segment the segment being inserted.
+     * @param order the order of the segments at the current position of the sweep line.
+     * @return the node holding the segment.
+     */
+    Entry insert(final SweepSegment segment, final Comparator<SweepSegment> order) {
+        final Entry node = new Entry(segment, randomLevel());
+        Entry current = mHead;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (current.mNext[level] != null && order.compare(current.mNext[level].mSegment, segment) < 0) {
+                current = current.mNext[level];
+            }
+            if (level < node.mNext.length) {
+                node.mNext[level] = current.mNext[level];
+                node.mPrevious[level] = current;
+                if (current.mNext[level] != null) {
+                    current.mNext[level].mPrevious[level] = node;
+                }
+                current.mNext[level] = node;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Finds the last segment that passes strictly below the sweep point.
+     *
+     * @param sweepX the x value of the sweep point.
+     * @param sweepY the y value of the sweep point.
+     * @param tolerance how far below the sweep point a segment has to pass.
+     * @return the entry of the segment or the head of the list, whose segment is null, if there is none.
+     */
+    Entry lastBelow(final double sweepX, final double sweepY, final double tolerance) {
+        Entry current = mHead;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            while (current.mNext[level] != null && current.mNext[level].mSegment.getYAt(sweepX, sweepY) < sweepY - tolerance) {
+                current = current.mNext[level];
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Removes a node without comparing it to any other node.
+     *
+     * @param node the node being removed.
+     */
+    void remove(final Entry node) {
+        for (int level = 0; level < node.mNext.length; level++) {
+            node.mPrevious[level].mNext[level] = node.mNext[level];
+            if (node.mNext[level] != null) {
+                node.mNext[level].mPrevious[level] = node.mPrevious[level];
+            }
+        }
+    }
+
+    /**
+     * @param node a node in the list or its head.
+     * @return the node right above the given node or null if it is the last one.
+     */
+    Entry next(final Entry node) {
+        return node.mNext[0];
+    }
+
+    /**
+     * @return a level with a geometric distribution.
+     */
+    private int randomLevel() {
+        final int bits = mRandom.nextInt();
+        // every trailing one bit adds a level so each level holds about half the nodes of the one below it.
+        return Math.min(MAX_LEVEL, Integer.numberOfTrailingZeros(~bits) + 1);
+    }
+
+    /**
+     * A segment in the list together with its links.
+     */
+    static final class Entry {
+
+        /**
+         * The segment, null for the head.
+         */
+        private final SweepSegment mSegment;
+
+        /**
+         * The next node on every level of the node.
+         */
+        private final Entry[] mNext;
+
+        /**
+         * The previous node on every level of the node.
+         */
+        private final Entry[] mPrevious;
+
+        /**
+         * @param segment the segment, null for the head.
+         * @param levels the number of levels of the node.
+         */
+        Entry(final SweepSegment segment, final int levels) {
+            this.mSegment = segment;
+            this.mNext = new Entry[levels];
+            this.mPrevious = new Entry[levels];
+        }
+
+        /**
+         * @return the segment, null for the head.
+         */
+        SweepSegment getSegment() {
+            return mSegment;
+        }
+    }
+}
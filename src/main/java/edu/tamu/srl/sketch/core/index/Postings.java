@@ -0,0 +1,54 @@
+package edu.tamu.srl.sketch.core.index;
+
+import java.util.Arrays;
+
+/**
+ * The numbers of the indexed shapes that have one value, like one interpretation, in increasing order.
+ * <br>
+ * Shapes are numbered in the order they are indexed so adding a shape is always an append.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class Postings {
+
+    /**
+     * The number of shapes the array can hold before it first grows.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The numbers of the shapes.
+     */
+    private int[] mShapes = new int[INITIAL_CAPACITY];
+
+    /**
+     * The number of shapes.
+     */
+    private int mSize;
+
+    /**
+     * @param shape the number of the shape, larger than every number already added.
+     */
+    void add(final int shape) {
+        if (mSize == mShapes.length) {
+            mShapes = Arrays.copyOf(mShapes, mSize * 2);
+        }
+        mShapes[mSize] = shape;
+        mSize++;
+    }
+
+    /**
+     * @return the number of shapes.
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index of the shape in the postings.
+     * @return the number of the shape.
+     */
+    int get(final int index) {
+        return mShapes[index];
+    }
+}
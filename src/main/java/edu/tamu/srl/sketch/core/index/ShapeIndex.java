@@ -0,0 +1,535 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.object.DepthFirstIterator;
+import edu.tamu.srl.sketch.core.object.SrlShape;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An inverted index over the interpretations, recognizers, domains and confidences of the shapes of a corpus.
+ * <br>
+ * Every indexed shape gets a number in the order it is indexed.  Every interpretation, recognizer and domain has a posting list of
+ * the numbers of its shapes, and the values of every shape are kept in primitive arrays indexed by its number.  A query scans the
+ * shortest posting list it is restricted to and checks the other values in the arrays, so it costs the number of shapes with the
+ * rarest value instead of the size of the corpus.  A query restricted only by confidence uses an array of the shapes sorted by
+ * confidence, which is built again after shapes are added.
+ * <br>
+ * The values of a shape are read when it is indexed, changes to the shape afterwards are not seen by the index.  The index can be
+ * written to and read from a stream, a read index has the ids of the shapes but not the shapes themselves.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ShapeIndex {
+
+    /**
+     * The number of a value that is not set on a shape.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The first value written by {@link #write(DataOutput)}, it tells the format and version of the index.
+     */
+    private static final int FORMAT = 0x53494458;
+
+    /**
+     * The number of shapes the arrays can hold before they first grow.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The shapes by number, the entries are null for an index that was read from a stream.
+     */
+    private final List<SrlShape> mShapes = new ArrayList<>();
+
+    /**
+     * The most significant bits of the ids of the shapes.
+     */
+    private long[] mIdHigh = new long[INITIAL_CAPACITY];
+
+    /**
+     * The least significant bits of the ids of the shapes.
+     */
+    private long[] mIdLow = new long[INITIAL_CAPACITY];
+
+    /**
+     * The confidences of the shapes.
+     */
+    private double[] mConfidences = new double[INITIAL_CAPACITY];
+
+    /**
+     * The numbers of the interpretations of the shapes.
+     */
+    private int[] mInterpretations = new int[INITIAL_CAPACITY];
+
+    /**
+     * The numbers of the recognizers of the shapes.
+     */
+    private int[] mRecognizers = new int[INITIAL_CAPACITY];
+
+    /**
+     * The numbers of the domains of the shapes.
+     */
+    private int[] mDomains = new int[INITIAL_CAPACITY];
+
+    /**
+     * The interpretations and their shapes.
+     */
+    private final Terms<String> mInterpretationTerms = new Terms<>();
+
+    /**
+     * The recognizers and their shapes.
+     */
+    private final Terms<UUID> mRecognizerTerms = new Terms<>();
+
+    /**
+     * The domains and their shapes.
+     */
+    private final Terms<String> mDomainTerms = new Terms<>();
+
+    /**
+     * The numbers of the shapes sorted by confidence, null if it has to be built again.
+     */
+    private int[] mByConfidence;
+
+    /**
+     * The number of indexed shapes.
+     */
+    private int mSize;
+
+    /**
+     * Indexes one shape, the shapes below it are not indexed.
+     *
+     * @param shape the shape.
+     * @return the number of the shape in the index.
+     */
+    public int add(final SrlShape shape) {
+        final int number = add(shape.getId(), shape.getInterpretation(), shape.getRecognizerId(), shape.getDomain(),
+                shape.getConfidence());
+        mShapes.set(number, shape);
+        return number;
+    }
+
+    /**
+     * Indexes the shape and every shape below it.
+     *
+     * @param root the shape at the top.
+     */
+    public void addAll(final SrlShape root) {
+        final Iterator<SrlShape> shapes = new DepthFirstIterator<>(root, SrlShape.class);
+        while (shapes.hasNext()) {
+            add(shapes.next());
+        }
+    }
+
+    /**
+     * Finds the shapes with all of the given values, a null value matches every shape.
+     * <br>
+     * For example all arrows with a confidence above 0.8 from one recognizer are
+     * {@code find("arrow", recognizerId, null, Math.nextUp(0.8), 1)}.
+     *
+     * @param interpretation the interpretation of the shapes or null.
+     * @param recognizerId the id of the recognizer of the shapes or null.
+     * @param domain the domain of the shapes or null.
+     * @param minConfidence the smallest confidence that is included.
+     * @param maxConfidence the largest confidence that is included.
+     * @return the numbers of the shapes in increasing order.
+     */
+    public int[] find(final String interpretation, final UUID recognizerId, final String domain, final double minConfidence,
+            final double maxConfidence) {
+        final int interpretationNumber = mInterpretationTerms.find(interpretation);
+        final int recognizerNumber = mRecognizerTerms.find(recognizerId);
+        final int domainNumber = mDomainTerms.find(domain);
+        if (isMissing(interpretation, interpretationNumber) || isMissing(recognizerId, recognizerNumber)
+                || isMissing(domain, domainNumber)) {
+            return new int[0];
+        }
+        Postings shortest = null;
+        shortest = shorter(shortest, mInterpretationTerms, interpretationNumber);
+        shortest = shorter(shortest, mRecognizerTerms, recognizerNumber);
+        shortest = shorter(shortest, mDomainTerms, domainNumber);
+        if (shortest == null) {
+            final int[] result = findByConfidence(minConfidence, maxConfidence);
+            Arrays.sort(result);
+            return result;
+        }
+        final int[] result = new int[shortest.size()];
+        int count = 0;
+        for (int i = 0; i < shortest.size(); i++) {
+            final int shape = shortest.get(i);
+            if (matches(shape, interpretationNumber, recognizerNumber, domainNumber)
+                    && mConfidences[shape] >= minConfidence && mConfidences[shape] <= maxConfidence) {
+                result[count] = shape;
+                count++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @param interpretation the interpretation of the shapes or null.
+     * @param recognizerId the id of the recognizer of the shapes or null.
+     * @param domain the domain of the shapes or null.
+     * @param minConfidence the smallest confidence that is included.
+     * @param maxConfidence the largest confidence that is included.
+     * @return the shapes in the order they were indexed.
+     * @see #find(String, UUID, String, double, double)
+     */
+    public List<SrlShape> findShapes(final String interpretation, final UUID recognizerId, final String domain,
+            final double minConfidence, final double maxConfidence) {
+        final int[] numbers = find(interpretation, recognizerId, domain, minConfidence, maxConfidence);
+        final List<SrlShape> result = new ArrayList<>(numbers.length);
+        for (int number : numbers) {
+            result.add(mShapes.get(number));
+        }
+        return result;
+    }
+
+    /**
+     * @param minConfidence the smallest confidence that is included.
+     * @param maxConfidence the largest confidence that is included.
+     * @return the numbers of the shapes with a confidence in the range, in increasing order of confidence.
+     */
+    public int[] findByConfidence(final double minConfidence, final double maxConfidence) {
+        final int[] sorted = sortedByConfidence();
+        final int start = firstConfidence(sorted, minConfidence, false);
+        final int end = firstConfidence(sorted, maxConfidence, true);
+        if (start >= end) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(sorted, start, end);
+    }
+
+    /**
+     * @param interpretation an interpretation.
+     * @return the number of shapes with the interpretation.
+     */
+    public int countInterpretation(final String interpretation) {
+        return mInterpretationTerms.count(interpretation);
+    }
+
+    /**
+     * @param number the number of a shape.
+     * @return the shape or null if the index was read from a stream.
+     */
+    public SrlShape getShape(final int number) {
+        return mShapes.get(number);
+    }
+
+    /**
+     * @param number the number of a shape.
+     * @return the id of the shape.
+     */
+    public UUID getShapeId(final int number) {
+        checkNumber(number);
+        return new UUID(mIdHigh[number], mIdLow[number]);
+    }
+
+    /**
+     * @param number the number of a shape.
+     * @return the confidence the shape had when it was indexed.
+     */
+    public double getConfidence(final int number) {
+        checkNumber(number);
+        return mConfidences[number];
+    }
+
+    /**
+     * @return the number of indexed shapes.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Writes the values of the index, the shapes themselves are not written.
+     *
+     * @param output the stream.
+     * @throws IOException if the stream can not be written.
+     */
+    public void write(final DataOutput output) throws IOException {
+        output.writeInt(FORMAT);
+        writeStrings(output, mInterpretationTerms.mValues);
+        output.writeInt(mRecognizerTerms.mValues.size());
+        for (UUID recognizer : mRecognizerTerms.mValues) {
+            output.writeLong(recognizer.getMostSignificantBits());
+            output.writeLong(recognizer.getLeastSignificantBits());
+        }
+        writeStrings(output, mDomainTerms.mValues);
+        output.writeInt(mSize);
+        for (int i = 0; i < mSize; i++) {
+            output.writeLong(mIdHigh[i]);
+            output.writeLong(mIdLow[i]);
+            output.writeDouble(mConfidences[i]);
+            output.writeInt(mInterpretations[i]);
+            output.writeInt(mRecognizers[i]);
+            output.writeInt(mDomains[i]);
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #write(DataOutput)}, the posting lists are built again as the shapes are read.
+     *
+     * @param input the stream.
+     * @return the index, it has the ids of the shapes but not the shapes.
+     * @throws IOException if the stream can not be read or does not hold an index.
+     */
+    public static ShapeIndex read(final DataInput input) throws IOException {
+        if (input.readInt() != FORMAT) {
+            throw new IOException("The stream does not hold a shape index");
+        }
+        final List<String> interpretations = readStrings(input);
+        final int numRecognizers = input.readInt();
+        final List<UUID> recognizers = new ArrayList<>(numRecognizers);
+        for (int i = 0; i < numRecognizers; i++) {
+            recognizers.add(new UUID(input.readLong(), input.readLong()));
+        }
+        final List<String> domains = readStrings(input);
+        final ShapeIndex index = new ShapeIndex();
+        final int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            final UUID uuid = new UUID(input.readLong(), input.readLong());
+            final double confidence = input.readDouble();
+            index.add(uuid, termAt(interpretations, input.readInt()), termAt(recognizers, input.readInt()),
+                    termAt(domains, input.readInt()), confidence);
+        }
+        return index;
+    }
+
+    /**
+     * @param uuid the id of the shape.
+     * @param interpretation the interpretation of the shape or null.
+     * @param recognizerId the id of the recognizer of the shape or null.
+     * @param domain the domain of the shape or null.
+     * @param confidence the confidence of the shape.
+     * @return the number of the shape in the index.
+     */
+    private int add(final UUID uuid, final String interpretation, final UUID recognizerId, final String domain,
+            final double confidence) {
+        if (mSize == mConfidences.length) {
+            final int capacity = mSize * 2;
+            mIdHigh = Arrays.copyOf(mIdHigh, capacity);
+            mIdLow = Arrays.copyOf(mIdLow, capacity);
+            mConfidences = Arrays.copyOf(mConfidences, capacity);
+            mInterpretations = Arrays.copyOf(mInterpretations, capacity);
+            mRecognizers = Arrays.copyOf(mRecognizers, capacity);
+            mDomains = Arrays.copyOf(mDomains, capacity);
+        }
+        final int number = mSize;
+        mIdHigh[number] = uuid.getMostSignificantBits();
+        mIdLow[number] = uuid.getLeastSignificantBits();
+        mConfidences[number] = confidence;
+        mInterpretations[number] = mInterpretationTerms.add(interpretation, number);
+        mRecognizers[number] = mRecognizerTerms.add(recognizerId, number);
+        mDomains[number] = mDomainTerms.add(domain, number);
+        mShapes.add(null);
+        mByConfidence = null;
+        mSize++;
+        return number;
+    }
+
+    /**
+     * @param shape the number of a shape.
+     * @param interpretation the number of the interpretation or {@link #NONE} to match every shape.
+     * @param recognizer the number of the recognizer or {@link #NONE} to match every shape.
+     * @param domain the number of the domain or {@link #NONE} to match every shape.
+     * @return true if the shape has the values.
+     */
+    private boolean matches(final int shape, final int interpretation, final int recognizer, final int domain) {
+        return (interpretation == NONE || mInterpretations[shape] == interpretation)
+                && (recognizer == NONE || mRecognizers[shape] == recognizer)
+                && (domain == NONE || mDomains[shape] == domain);
+    }
+
+    /**
+     * @return the numbers of the shapes sorted by confidence, built again if shapes were added.
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    private int[] sortedByConfidence() {
+        int[] sorted = mByConfidence;
+        if (sorted == null) {
+            final long[] keys = new long[mSize];
+            final int[] order = new int[mSize];
+            for (int i = 0; i < mSize; i++) {
+                keys[i] = TimeSort.doubleKey(mConfidences[i]);
+                order[i] = i;
+            }
+            sorted = mSize == 0 ? order : TimeSort.sort(keys, order);
+            mByConfidence = sorted;
+        }
+        return sorted;
+    }
+
+    /**
+     * @param sorted the numbers of the shapes sorted by confidence.
+     * @param confidence a confidence.
+     * @param inclusive true if shapes with the confidence come before the returned index.
+     * @return the index of the first shape whose confidence is larger than, or not smaller than if not inclusive, the confidence.
+     */
+    private int firstConfidence(final int[] sorted, final double confidence, final boolean inclusive) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int order = Double.compare(mConfidences[sorted[middle]], confidence);
+            if (order < 0 || inclusive && order == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param number the number being checked.
+     */
+    private void checkNumber(final int number) {
+        if (number < 0 || number >= mSize) {
+            throw new IndexOutOfBoundsException("number: " + number + " is not in the range [0, " + mSize + ")");
+        }
+    }
+
+    /**
+     * @param value the value a query is restricted to or null.
+     * @param number the number of the value.
+     * @return true if the query is restricted to a value that no shape has.
+     */
+    @SuppressWarnings("PMD.UnusedPrivateMethod")
+    private static boolean isMissing(final Object value, final int number) {
+        return value != null && number == NONE;
+    }
+
+    /**
+     * @param current the shortest posting list so far or null.
+     * @param terms the values the number belongs to.
+     * @param number the number of a value or {@link #NONE}.
+     * @return the shorter of the current posting list and the posting list of the value.
+     */
+    private static Postings shorter(final Postings current, final Terms<?> terms, final int number) {
+        if (number == NONE) {
+            return current;
+        }
+        final Postings postings = terms.mPostings.get(number);
+        if (current == null || postings.size() < current.size()) {
+            return postings;
+        }
+        return current;
+    }
+
+    /**
+     * @param terms the values.
+     * @param number the number of a value or {@link #NONE}.
+     * @param <T> the type of the values.
+     * @return the value or null.
+     * @throws IOException if the number is not the number of a value.
+     */
+    private static <T> T termAt(final List<T> terms, final int number) throws IOException {
+        if (number == NONE) {
+            return null;
+        }
+        if (number < 0 || number >= terms.size()) {
+            throw new IOException("The stream holds a value that does not exist: " + number);
+        }
+        return terms.get(number);
+    }
+
+    /**
+     * @param output the stream.
+     * @param values the strings that are written.
+     * @throws IOException if the stream can not be written.
+     */
+    private static void writeStrings(final DataOutput output, final List<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (String value : values) {
+            output.writeUTF(value);
+        }
+    }
+
+    /**
+     * @param input the stream.
+     * @return the strings that are read.
+     * @throws IOException if the stream can not be read.
+     */
+    private static List<String> readStrings(final DataInput input) throws IOException {
+        final int size = input.readInt();
+        final List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(input.readUTF());
+        }
+        return values;
+    }
+
+    /**
+     * The values of one kind, like the interpretations, each with a number and a posting list.
+     *
+     * @param <T> the type of the values.
+     */
+    private static final class Terms<T> {
+
+        /**
+         * The numbers of the values.
+         */
+        private final Map<T, Integer> mNumbers = new HashMap<>();
+
+        /**
+         * The values by number.
+         */
+        private final List<T> mValues = new ArrayList<>();
+
+        /**
+         * The posting lists by number.
+         */
+        private final List<Postings> mPostings = new ArrayList<>();
+
+        /**
+         * @param value the value of the shape or null.
+         * @param shape the number of the shape.
+         * @return the number of the value or {@link #NONE} if it is null.
+         */
+        int add(final T value, final int shape) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer number = mNumbers.get(value);
+            if (number == null) {
+                number = mValues.size();
+                mNumbers.put(value, number);
+                mValues.add(value);
+                mPostings.add(new Postings());
+            }
+            mPostings.get(number).add(shape);
+            return number;
+        }
+
+        /**
+         * @param value a value or null.
+         * @return the number of the value or {@link #NONE} if it is null or not indexed.
+         */
+        int find(final T value) {
+            if (value == null) {
+                return NONE;
+            }
+            final Integer number = mNumbers.get(value);
+            return number == null ? NONE : number;
+        }
+
+        /**
+         * @param value a value.
+         * @return the number of shapes with the value.
+         */
+        int count(final T value) {
+            final int number = find(value);
+            return number == NONE ? 0 : mPostings.get(number).size();
+        }
+    }
+}
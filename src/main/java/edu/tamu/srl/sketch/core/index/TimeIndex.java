@@ -0,0 +1,144 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Finds the strokes and points of a sketch by time, for replaying a session or grouping ink that was drawn close together.
+ * <br>
+ * Strokes are indexed by {@link SrlStroke#getTime()} and points by {@link SrlPoint#getTime()}, the same times the
+ * {@link edu.tamu.srl.sketch.core.abstracted.AbstractSrlComponent#getTimeComparator()} sorts by.  The index is kept up to date by
+ * adding every stroke as it is finished, ink arrives in time order so that is an append in amortized O(1).  Range queries are
+ * O(log n + k) for k results and nearest in time queries are O(log n), nothing is sorted again.
+ * <br>
+ * The points of a stroke are indexed when the stroke is added, points added to the stroke later are not in the index.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class TimeIndex {
+
+    /**
+     * The strokes in time order.
+     */
+    private final TimeOrderedList<SrlStroke> mStrokes = new TimeOrderedList<>();
+
+    /**
+     * The points of all of the strokes in time order.
+     */
+    private final TimeOrderedList<SrlPoint> mPoints = new TimeOrderedList<>();
+
+    /**
+     * @param sketch the shape whose strokes are indexed.
+     * @return an index of every stroke below the shape.
+     */
+    public static TimeIndex forShape(final SrlShape sketch) {
+        final TimeIndex index = new TimeIndex();
+        final Iterator<SrlStroke> strokes = sketch.strokeIterator();
+        while (strokes.hasNext()) {
+            index.add(strokes.next());
+        }
+        return index;
+    }
+
+    /**
+     * Adds the stroke and its points.
+     *
+     * @param stroke the stroke being added.
+     */
+    public void add(final SrlStroke stroke) {
+        mStrokes.add(stroke);
+        final List<SrlPoint> points = stroke.getPoints();
+        for (int i = 0; i < points.size(); i++) {
+            mPoints.add(points.get(i));
+        }
+    }
+
+    /**
+     * Removes the stroke and its points.
+     *
+     * @param stroke the stroke being removed.
+     * @return true if the stroke was in the index.
+     */
+    public boolean remove(final SrlStroke stroke) {
+        if (!mStrokes.remove(stroke)) {
+            return false;
+        }
+        final List<SrlPoint> points = stroke.getPoints();
+        for (int i = 0; i < points.size(); i++) {
+            mPoints.remove(points.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * @param start the earliest time that is included.
+     * @param end the time after the latest time that is included.
+     * @return the strokes with a time in {@code [start, end)} in time order.
+     */
+    public List<SrlStroke> getStrokes(final long start, final long end) {
+        return mStrokes.range(start, end);
+    }
+
+    /**
+     * @param duration the length of the time range.
+     * @return the strokes from the duration before the latest stroke up to and including the latest stroke, in time order.
+     */
+    public List<SrlStroke> getLatestStrokes(final long duration) {
+        if (mStrokes.size() == 0) {
+            return mStrokes.range(0, 0);
+        }
+        final long latest = mStrokes.getTime(mStrokes.size() - 1);
+        return mStrokes.range(latest - duration, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param time the time that is searched for.
+     * @return the stroke closest in time or null if the index is empty.
+     */
+    public SrlStroke getNearestStroke(final long time) {
+        return mStrokes.nearest(time);
+    }
+
+    /**
+     * @param start the earliest time that is included.
+     * @param end the time after the latest time that is included.
+     * @return the points with a time in {@code [start, end)} in time order, across all strokes.
+     */
+    public List<SrlPoint> getPoints(final long start, final long end) {
+        return mPoints.range(start, end);
+    }
+
+    /**
+     * @param time the time that is searched for.
+     * @return the point closest in time or null if the index is empty.
+     */
+    public SrlPoint getNearestPoint(final long time) {
+        return mPoints.nearest(time);
+    }
+
+    /**
+     * @param index the index of the stroke in time order.
+     * @return the stroke.
+     */
+    public SrlStroke getStroke(final int index) {
+        return mStrokes.get(index);
+    }
+
+    /**
+     * @return the number of strokes.
+     */
+    public int getNumStrokes() {
+        return mStrokes.size();
+    }
+
+    /**
+     * @return the number of points.
+     */
+    public int getNumPoints() {
+        return mPoints.size();
+    }
+}
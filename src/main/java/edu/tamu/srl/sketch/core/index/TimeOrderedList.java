@@ -0,0 +1,185 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.abstracted.AbstractSrlComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Components sorted by their time, with the times kept in a primitive array so the searches never touch the components.
+ * <br>
+ * Adding a component that is not older than the last one appends it in amortized O(1), which is the usual case for ink.  An older
+ * component is inserted in place in O(n).  Components with the same time stay in the order they were added.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ *
+ * @param <T> the type of the components.
+ */
+final class TimeOrderedList<T extends AbstractSrlComponent> {
+
+    /**
+     * The number of components the arrays can hold before they first grow.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The times of the components in order.
+     */
+    private long[] mTimes = new long[INITIAL_CAPACITY];
+
+    /**
+     * The components in the order of their times.
+     */
+    private Object[] mValues = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The number of components.
+     */
+    private int mSize;
+
+    /**
+     * @param value the component being added.
+     */
+    void add(final T value) {
+        if (mSize == mTimes.length) {
+            mTimes = Arrays.copyOf(mTimes, mSize * 2);
+            mValues = Arrays.copyOf(mValues, mSize * 2);
+        }
+        final long time = value.getTime();
+        int index = mSize;
+        if (mSize > 0 && time < mTimes[mSize - 1]) {
+            index = upperBound(time);
+            System.arraycopy(mTimes, index, mTimes, index + 1, mSize - index);
+            System.arraycopy(mValues, index, mValues, index + 1, mSize - index);
+        }
+        mTimes[index] = time;
+        mValues[index] = value;
+        mSize++;
+    }
+
+    /**
+     * @param value the component being removed, it is found by identity among the components with the same time.
+     * @return true if the component was removed.
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    boolean remove(final T value) {
+        final long time = value.getTime();
+        for (int index = lowerBound(time); index < mSize && mTimes[index] == time; index++) {
+            if (mValues[index] == value) {
+                System.arraycopy(mTimes, index + 1, mTimes, index, mSize - index - 1);
+                System.arraycopy(mValues, index + 1, mValues, index, mSize - index - 1);
+                mSize--;
+                mValues[mSize] = null;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of components.
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index of the component in time order.
+     * @return the component.
+     */
+    @SuppressWarnings("unchecked")
+    T get(final int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + " is not in the range [0, " + mSize + ")");
+        }
+        return (T) mValues[index];
+    }
+
+    /**
+     * @param index the index of the component in time order.
+     * @return the time of the component.
+     */
+    long getTime(final int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + " is not in the range [0, " + mSize + ")");
+        }
+        return mTimes[index];
+    }
+
+    /**
+     * @param start the earliest time that is included.
+     * @param end the time after the latest time that is included.
+     * @return the components with a time in {@code [start, end)} in time order.
+     */
+    @SuppressWarnings("unchecked")
+    List<T> range(final long start, final long end) {
+        final int first = lowerBound(start);
+        final int last = Math.max(first, lowerBound(end));
+        final List<T> result = new ArrayList<>(last - first);
+        for (int i = first; i < last; i++) {
+            result.add((T) mValues[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param time the time that is searched for.
+     * @return the component closest in time, the earlier one on a tie, or null if there are no components.
+     */
+    @SuppressWarnings("unchecked")
+    T nearest(final long time) {
+        if (mSize == 0) {
+            return null;
+        }
+        final int after = lowerBound(time);
+        if (after == mSize) {
+            return (T) mValues[mSize - 1];
+        }
+        if (after == 0) {
+            return (T) mValues[0];
+        }
+        // the difference is compared as doubles so times far apart can not overflow.
+        final double before = (double) time - mTimes[after - 1];
+        if (before <= (double) mTimes[after] - time) {
+            return (T) mValues[after - 1];
+        }
+        return (T) mValues[after];
+    }
+
+    /**
+     * @param time a time.
+     * @return the index of the first component whose time is not smaller than the time.
+     */
+    int lowerBound(final long time) {
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (mTimes[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param time a time.
+     * @return the index of the first component whose time is larger than the time.
+     */
+    private int upperBound(final long time) {
+        int low = 0;
+        int high = mSize;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (mTimes[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
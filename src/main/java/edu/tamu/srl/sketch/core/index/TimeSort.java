@@ -0,0 +1,199 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.abstracted.AbstractSrlComponent;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Sorts large lists of components by time with a least significant digit radix sort instead of comparisons.
+ * <br>
+ * The sort keys are copied into a primitive array once and sorted a byte at a time, so there is no comparator call per comparison
+ * and every pass reads the keys in order.  A pass where every key has the same byte is skipped, the high bytes of the times of a
+ * single session are nearly always the same so most sorts only take a few passes.  The sorts are stable, components with the same
+ * key keep their order, and they order the components exactly like the comparisons they replace.
+ * <br>
+ * Small lists are sorted with {@link Collections#sort(List)} where the passes over the buckets would cost more than they save.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class TimeSort {
+
+    /**
+     * The size below which the lists are sorted by comparisons.
+     */
+    private static final int SMALL_SIZE = 256;
+
+    /**
+     * The number of bits of the key sorted by every pass.
+     */
+    private static final int BITS = 8;
+
+    /**
+     * The number of buckets of every pass.
+     */
+    private static final int RADIX = 1 << BITS;
+
+    /**
+     * Selects the bits of the key sorted by one pass.
+     */
+    private static final int MASK = RADIX - 1;
+
+    /**
+     * The number of passes over a long key.
+     */
+    private static final int PASSES = Long.SIZE / BITS;
+
+    /**
+     * Utility class.
+     */
+    private TimeSort() {
+    }
+
+    /**
+     * Sorts the components by time, the same order as {@link AbstractSrlComponent#getTimeComparator()}.
+     *
+     * @param components the components that are sorted in place.
+     * @param <T> the type of the components.
+     */
+    public static <T extends AbstractSrlComponent> void sortByTime(final List<T> components) {
+        final int size = components.size();
+        if (size < SMALL_SIZE) {
+            Collections.sort(components, AbstractSrlComponent.getTimeComparator());
+            return;
+        }
+        final Object[] values = components.toArray();
+        final long[] keys = new long[size];
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = timeKey((AbstractSrlComponent) values[i]);
+            order[i] = i;
+        }
+        write(components, values, sort(keys, order));
+    }
+
+    /**
+     * Sorts the points by time and then by x and y, the same order as {@link SrlPoint#compareTo(AbstractSrlComponent)}.
+     * <br>
+     * The keys are sorted from the least important one, every later sort is stable so it keeps the order of the earlier ones
+     * among points with the same key.
+     *
+     * @param points the points that are sorted in place.
+     */
+    public static void sortPoints(final List<SrlPoint> points) {
+        final int size = points.size();
+        if (size < SMALL_SIZE) {
+            Collections.sort(points);
+            return;
+        }
+        final Object[] values = points.toArray();
+        final long[] keys = new long[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = doubleKey(((SrlPoint) values[i]).getY());
+            order[i] = i;
+        }
+        order = sort(keys, order);
+        for (int i = 0; i < size; i++) {
+            keys[i] = doubleKey(((SrlPoint) values[order[i]]).getX());
+        }
+        order = sort(keys, order);
+        for (int i = 0; i < size; i++) {
+            keys[i] = timeKey((SrlPoint) values[order[i]]);
+        }
+        write(points, values, sort(keys, order));
+    }
+
+    /**
+     * @param component a component.
+     * @return the time with the sign bit flipped, so the unsigned order of the keys is the signed order of the times.
+     */
+    static long timeKey(final AbstractSrlComponent component) {
+        return component.getTime() ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Maps a double to a key whose unsigned order is the order of {@link Double#compare(double, double)}.
+     * <br>
+     * The bits of a positive double already sort in order once the sign bit is set, the bits of a negative double sort in reverse
+     * so all of them are flipped.
+     *
+     * @param value a value.
+     * @return the key of the value.
+     */
+    static long doubleKey(final double value) {
+        final long bits = Double.doubleToLongBits(value);
+        if (bits < 0) {
+            return ~bits;
+        }
+        return bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Sorts the keys as unsigned values and moves the indexes with them.
+     * The arrays are used as scratch space so only the returned array holds the result.
+     *
+     * @param keys the keys, indexed by position.
+     * @param order the indexes of the components, indexed by position.
+     * @return the indexes of the components in the order of their keys.
+     */
+    static int[] sort(final long[] keys, final int[] order) {
+        final int size = keys.length;
+        final int[][] counts = new int[PASSES][RADIX];
+        for (int i = 0; i < size; i++) {
+            final long key = keys[i];
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass][(int) (key >>> (pass * BITS)) & MASK]++;
+            }
+        }
+        long[] sourceKeys = keys;
+        int[] sourceOrder = order;
+        long[] targetKeys = new long[size];
+        int[] targetOrder = new int[size];
+        for (int pass = 0; pass < PASSES; pass++) {
+            final int shift = pass * BITS;
+            final int[] offsets = counts[pass];
+            if (offsets[(int) (sourceKeys[0] >>> shift) & MASK] == size) {
+                // every key has the same byte so the pass would not move anything.
+                continue;
+            }
+            int offset = 0;
+            for (int bucket = 0; bucket < RADIX; bucket++) {
+                final int count = offsets[bucket];
+                offsets[bucket] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                final int target = offsets[(int) (sourceKeys[i] >>> shift) & MASK]++;
+                targetKeys[target] = sourceKeys[i];
+                targetOrder[target] = sourceOrder[i];
+            }
+            final long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            final int[] swapOrder = sourceOrder;
+            sourceOrder = targetOrder;
+            targetOrder = swapOrder;
+        }
+        return sourceOrder;
+    }
+
+    /**
+     * Writes the components back in order, through a list iterator so linked lists are not indexed.
+     *
+     * @param list the list that is sorted.
+     * @param values the components of the list before the sort.
+     * @param order the indexes of the components in sorted order.
+     * @param <T> the type of the components.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void write(final List<T> list, final Object[] values, final int[] order) {
+        final ListIterator<T> iterator = list.listIterator();
+        for (int i = 0; i < order.length; i++) {
+            iterator.next();
+            iterator.set((T) values[order[i]]);
+        }
+    }
+}
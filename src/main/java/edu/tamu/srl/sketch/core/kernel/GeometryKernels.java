@@ -0,0 +1,240 @@
+package edu.tamu.srl.sketch.core.kernel;
+
+/**
+ * The inner loops of the geometry of a stroke written over arrays of coordinates.
+ * <br>
+ * Going through the point objects costs a pointer chase and a boxed history lookup per value, these kernels read the coordinates
+ * straight from primitive arrays.  The reductions are unrolled over {@link #LANES} independent accumulators so the additions and
+ * comparisons of neighbouring points do not wait on each other, which also lets the JIT use SIMD instructions where it can.
+ * All kernels work on the range {@code [start, end)} so a range of a stroke, like a sub stroke, never needs to be copied.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class GeometryKernels {
+
+    /**
+     * The number of independent accumulators of the unrolled loops.
+     */
+    public static final int LANES = 4;
+
+    /**
+     * The index of the smallest x value in the result of {@link #bounds(double[], double[], int, int, double[])}.
+     */
+    public static final int MIN_X = 0;
+
+    /**
+     * The index of the smallest y value in the result of {@link #bounds(double[], double[], int, int, double[])}.
+     */
+    public static final int MIN_Y = 1;
+
+    /**
+     * The index of the largest x value in the result of {@link #bounds(double[], double[], int, int, double[])}.
+     */
+    public static final int MAX_X = 2;
+
+    /**
+     * The index of the largest y value in the result of {@link #bounds(double[], double[], int, int, double[])}.
+     */
+    public static final int MAX_Y = 3;
+
+    /**
+     * The number of values in the result of {@link #bounds(double[], double[], int, int, double[])}.
+     */
+    public static final int NUM_BOUNDS = 4;
+
+    /**
+     * The offset of the third lane.
+     */
+    private static final int THIRD = 2;
+
+    /**
+     * The offset of the fourth lane.
+     */
+    private static final int FOURTH = 3;
+
+    /**
+     * Utility class.
+     */
+    private GeometryKernels() {
+    }
+
+    /**
+     * Finds the smallest and largest x and y values in one pass.
+     * An empty range gives infinite bounds, the smallest values are positive infinity and the largest are negative infinity.
+     *
+     * @param xValues the x values of the points.
+     * @param yValues the y values of the points.
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @param result the array of at least {@link #NUM_BOUNDS} values the bounds are stored in, indexed by {@link #MIN_X},
+     *               {@link #MIN_Y}, {@link #MAX_X} and {@link #MAX_Y}.
+     * @return the result array.
+     */
+    public static double[] bounds(final double[] xValues, final double[] yValues, final int start, final int end, final double[] result) {
+        result[MIN_X] = minimum(xValues, start, end);
+        result[MIN_Y] = minimum(yValues, start, end);
+        result[MAX_X] = -minimumNegated(xValues, start, end);
+        result[MAX_Y] = -minimumNegated(yValues, start, end);
+        return result;
+    }
+
+    /**
+     * @param values the values.
+     * @param start the index of the first value.
+     * @param end the index after the last value.
+     * @return the smallest value or positive infinity if the range is empty.
+     */
+    public static double minimum(final double[] values, final int start, final int end) {
+        double first = Double.POSITIVE_INFINITY;
+        double second = Double.POSITIVE_INFINITY;
+        double third = Double.POSITIVE_INFINITY;
+        double fourth = Double.POSITIVE_INFINITY;
+        int index = start;
+        for (; index + LANES <= end; index += LANES) {
+            first = Math.min(first, values[index]);
+            second = Math.min(second, values[index + 1]);
+            third = Math.min(third, values[index + THIRD]);
+            fourth = Math.min(fourth, values[index + FOURTH]);
+        }
+        for (; index < end; index++) {
+            first = Math.min(first, values[index]);
+        }
+        return Math.min(Math.min(first, second), Math.min(third, fourth));
+    }
+
+    /**
+     * The largest value is the negated smallest negated value, this keeps a single unrolled loop for both.
+     *
+     * @param values the values.
+     * @param start the index of the first value.
+     * @param end the index after the last value.
+     * @return the smallest negated value or positive infinity if the range is empty.
+     */
+    private static double minimumNegated(final double[] values, final int start, final int end) {
+        double first = Double.POSITIVE_INFINITY;
+        double second = Double.POSITIVE_INFINITY;
+        double third = Double.POSITIVE_INFINITY;
+        double fourth = Double.POSITIVE_INFINITY;
+        int index = start;
+        for (; index + LANES <= end; index += LANES) {
+            first = Math.min(first, -values[index]);
+            second = Math.min(second, -values[index + 1]);
+            third = Math.min(third, -values[index + THIRD]);
+            fourth = Math.min(fourth, -values[index + FOURTH]);
+        }
+        for (; index < end; index++) {
+            first = Math.min(first, -values[index]);
+        }
+        return Math.min(Math.min(first, second), Math.min(third, fourth));
+    }
+
+    /**
+     * The sum of a range of values, divide the sums of the x and the y values by the number of points for the centroid.
+     *
+     * @param values the values.
+     * @param start the index of the first value.
+     * @param end the index after the last value.
+     * @return the sum of the values.
+     */
+    public static double sum(final double[] values, final int start, final int end) {
+        double first = 0;
+        double second = 0;
+        double third = 0;
+        double fourth = 0;
+        int index = start;
+        for (; index + LANES <= end; index += LANES) {
+            first += values[index];
+            second += values[index + 1];
+            third += values[index + THIRD];
+            fourth += values[index + FOURTH];
+        }
+        for (; index < end; index++) {
+            first += values[index];
+        }
+        return first + second + third + fourth;
+    }
+
+    /**
+     * @param xValues the x values of the points.
+     * @param yValues the y values of the points.
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the sum of the distances between consecutive points.
+     */
+    public static double pathLength(final double[] xValues, final double[] yValues, final int start, final int end) {
+        double first = 0;
+        double second = 0;
+        int index = start + 1;
+        for (; index + 1 < end; index += 2) {
+            first += segmentLength(xValues, yValues, index);
+            second += segmentLength(xValues, yValues, index + 1);
+        }
+        for (; index < end; index++) {
+            first += segmentLength(xValues, yValues, index);
+        }
+        return first + second;
+    }
+
+    /**
+     * Fills the length of the path from the point at start to every point up to end.
+     * <br>
+     * The value at start must already be set, for example to 0 or to the length up to the point at start.
+     * Every value depends on the previous one so this loop can not be split into lanes, only the square roots overlap.
+     *
+     * @param xValues the x values of the points.
+     * @param yValues the y values of the points.
+     * @param start the index of the point whose length is already known.
+     * @param end the index after the last point whose length is filled in.
+     * @param lengths the lengths, indexed the same as the points.
+     */
+    public static void cumulativeLengths(final double[] xValues, final double[] yValues, final int start, final int end,
+            final double[] lengths) {
+        double total = lengths[start];
+        for (int index = start + 1; index < end; index++) {
+            total += segmentLength(xValues, yValues, index);
+            lengths[index] = total;
+        }
+    }
+
+    /**
+     * @param xValues the x values of the points.
+     * @param yValues the y values of the points.
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @param pointX the x value of the point the distances are measured to.
+     * @param pointY the y value of the point the distances are measured to.
+     * @return the sum of the squared distances of the points to the point.
+     */
+    public static double squaredDistanceSum(final double[] xValues, final double[] yValues, final int start, final int end,
+            final double pointX, final double pointY) {
+        double first = 0;
+        double second = 0;
+        int index = start;
+        for (; index + 1 < end; index += 2) {
+            final double firstX = xValues[index] - pointX;
+            final double firstY = yValues[index] - pointY;
+            final double secondX = xValues[index + 1] - pointX;
+            final double secondY = yValues[index + 1] - pointY;
+            first += firstX * firstX + firstY * firstY;
+            second += secondX * secondX + secondY * secondY;
+        }
+        for (; index < end; index++) {
+            final double xDiff = xValues[index] - pointX;
+            final double yDiff = yValues[index] - pointY;
+            first += xDiff * xDiff + yDiff * yDiff;
+        }
+        return first + second;
+    }
+
+    /**
+     * @param xValues the x values of the points.
+     * @param yValues the y values of the points.
+     * @param index the index of the second point of the segment.
+     * @return the length of the segment from the previous point to the point.
+     */
+    private static double segmentLength(final double[] xValues, final double[] yValues, final int index) {
+        final double xDiff = xValues[index] - xValues[index - 1];
+        final double yDiff = yValues[index] - yValues[index - 1];
+        return Math.sqrt(xDiff * xDiff + yDiff * yDiff);
+    }
+}
@@ -0,0 +1,169 @@
+package edu.tamu.srl.sketch.core.live;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A stroke that is still being drawn, written by the thread that reads the digitizer and read by any number of other threads.
+ * <br>
+ * The samples are stored in primitive arrays and the number of committed samples is published through a volatile field after the
+ * sample is written, so a reader that takes a {@link StrokePrefix} always sees whole samples and never takes a lock or stops the
+ * writer.  When the arrays are full they are copied into arrays twice as large, published before the length that needs them, and
+ * the old arrays are left unchanged for the readers that still hold them.  Adding a sample allocates nothing except when the
+ * arrays grow, so the cost of recognizing a partial stroke does not show up in the ink latency.
+ * <br>
+ * Only one thread may add samples.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class LiveStroke {
+
+    /**
+     * The number of samples the arrays can hold before they first grow.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The time the stroke was started.
+     */
+    private final long mTime;
+
+    /**
+     * The unique identifier of the stroke.
+     */
+    private final UUID mId;
+
+    /**
+     * The x values of the samples, replaced by larger arrays when they are full.
+     */
+    private volatile double[] mXValues = new double[INITIAL_CAPACITY];
+
+    /**
+     * The y values of the samples.
+     */
+    private volatile double[] mYValues = new double[INITIAL_CAPACITY];
+
+    /**
+     * The times of the samples.
+     */
+    private volatile long[] mTimes = new long[INITIAL_CAPACITY];
+
+    /**
+     * The pressures of the samples.
+     */
+    private volatile double[] mPressures = new double[INITIAL_CAPACITY];
+
+    /**
+     * The number of samples that are written, the samples below it never change.
+     */
+    private volatile int mLength;
+
+    /**
+     * True once the pen is lifted, no more samples are added after that.
+     */
+    private volatile boolean mFinished;
+
+    /**
+     * @param time the time the stroke was started.
+     * @param uuid the unique identifier of the stroke.
+     */
+    public LiveStroke(final long time, final UUID uuid) {
+        this.mTime = time;
+        this.mId = uuid;
+    }
+
+    /**
+     * Adds a sample, only the writing thread may call this.
+     *
+     * @param xValue the x value of the sample.
+     * @param yValue the y value of the sample.
+     * @param time the time of the sample.
+     * @param pressure the pressure of the sample.
+     */
+    public void addSample(final double xValue, final double yValue, final long time, final double pressure) {
+        if (mFinished) {
+            throw new IllegalStateException("Samples can not be added to a finished stroke");
+        }
+        final int length = mLength;
+        if (length == mXValues.length) {
+            grow(length * 2);
+        }
+        mXValues[length] = xValue;
+        mYValues[length] = yValue;
+        mTimes[length] = time;
+        mPressures[length] = pressure;
+        // publishing the length makes the sample visible to the readers.
+        mLength = length + 1;
+    }
+
+    /**
+     * Copies the samples into larger arrays, the readers holding the old arrays still see the same samples.
+     *
+     * @param capacity the number of samples the new arrays hold.
+     */
+    private void grow(final int capacity) {
+        mXValues = Arrays.copyOf(mXValues, capacity);
+        mYValues = Arrays.copyOf(mYValues, capacity);
+        mTimes = Arrays.copyOf(mTimes, capacity);
+        mPressures = Arrays.copyOf(mPressures, capacity);
+    }
+
+    /**
+     * Marks the stroke as finished when the pen is lifted.
+     */
+    public void finish() {
+        mFinished = true;
+    }
+
+    /**
+     * @return true once the pen is lifted.
+     */
+    public boolean isFinished() {
+        return mFinished;
+    }
+
+    /**
+     * @return the number of samples that can be read.
+     */
+    public int getNumSamples() {
+        return mLength;
+    }
+
+    /**
+     * Takes the samples that are committed right now, any thread can call this.
+     * <br>
+     * The length is read before the arrays, the writer publishes larger arrays before the length that needs them, so the arrays
+     * read always hold at least that many samples.
+     *
+     * @return an unchanging view of the samples that are committed.
+     */
+    public StrokePrefix getPrefix() {
+        final int length = mLength;
+        return new StrokePrefix(mXValues, mYValues, mTimes, mPressures, length);
+    }
+
+    /**
+     * @return a new stroke with the committed samples.
+     */
+    public SrlStroke toSrlStroke() {
+        final SrlStroke stroke = new SrlStroke(mTime, mId, true);
+        stroke.addPoints(getPrefix().toPoints(0));
+        return stroke;
+    }
+
+    /**
+     * @return the time the stroke was started.
+     */
+    public long getTime() {
+        return mTime;
+    }
+
+    /**
+     * @return the unique identifier of the stroke.
+     */
+    public UUID getId() {
+        return mId;
+    }
+}
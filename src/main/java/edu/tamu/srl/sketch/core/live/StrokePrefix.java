@@ -0,0 +1,146 @@
+package edu.tamu.srl.sketch.core.live;
+
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The samples of a {@link LiveStroke} that were committed when the prefix was taken.
+ * <br>
+ * The prefix reads the arrays of the live stroke without copying them, the writer never changes a sample below the committed
+ * length so the prefix does not change while the stroke keeps growing.  The geometry is computed with the {@link GeometryKernels}
+ * straight from the arrays.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.ArrayIsStoredDirectly")
+public final class StrokePrefix {
+
+    /**
+     * The x values of the samples.
+     */
+    private final double[] mXValues;
+
+    /**
+     * The y values of the samples.
+     */
+    private final double[] mYValues;
+
+    /**
+     * The times of the samples.
+     */
+    private final long[] mTimes;
+
+    /**
+     * The pressures of the samples.
+     */
+    private final double[] mPressures;
+
+    /**
+     * The number of samples in the prefix.
+     */
+    private final int mSize;
+
+    /**
+     * @param xValues the x values of the samples.
+     * @param yValues the y values of the samples.
+     * @param times the times of the samples.
+     * @param pressures the pressures of the samples.
+     * @param size the number of samples in the prefix.
+     */
+    StrokePrefix(final double[] xValues, final double[] yValues, final long[] times, final double[] pressures, final int size) {
+        this.mXValues = xValues;
+        this.mYValues = yValues;
+        this.mTimes = times;
+        this.mPressures = pressures;
+        this.mSize = size;
+    }
+
+    /**
+     * @return the number of samples in the prefix.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @param index the index of the sample.
+     * @return the x value of the sample.
+     */
+    public double getX(final int index) {
+        checkIndex(index);
+        return mXValues[index];
+    }
+
+    /**
+     * @param index the index of the sample.
+     * @return the y value of the sample.
+     */
+    public double getY(final int index) {
+        checkIndex(index);
+        return mYValues[index];
+    }
+
+    /**
+     * @param index the index of the sample.
+     * @return the time of the sample.
+     */
+    public long getTime(final int index) {
+        checkIndex(index);
+        return mTimes[index];
+    }
+
+    /**
+     * @param index the index of the sample.
+     * @return the pressure of the sample.
+     */
+    public double getPressure(final int index) {
+        checkIndex(index);
+        return mPressures[index];
+    }
+
+    /**
+     * @return the length of the path through the samples.
+     */
+    public double getPathLength() {
+        return GeometryKernels.pathLength(mXValues, mYValues, 0, mSize);
+    }
+
+    /**
+     * @return the bounds of the samples indexed the same way as {@link GeometryKernels#bounds(double[], double[], int, int, double[])}.
+     */
+    public double[] getBounds() {
+        return GeometryKernels.bounds(mXValues, mYValues, 0, mSize, new double[GeometryKernels.NUM_BOUNDS]);
+    }
+
+    /**
+     * Creates points for the samples from the start, a reader that already handled the samples of an earlier prefix can start
+     * after them.
+     *
+     * @param start the index of the first sample.
+     * @return new points for the samples from the start to the end of the prefix.
+     */
+    public List<SrlPoint> toPoints(final int start) {
+        if (start < 0 || start > mSize) {
+            throw new IndexOutOfBoundsException("start: " + start + " is not in the range [0, " + mSize + "]");
+        }
+        final List<SrlPoint> points = new ArrayList<>(mSize - start);
+        for (int i = start; i < mSize; i++) {
+            final SrlPoint point = new SrlPoint(mXValues[i], mYValues[i], mTimes[i]);
+            point.setPressure(mPressures[i]);
+            points.add(point);
+        }
+        return points;
+    }
+
+    /**
+     * @param index the index being checked.
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + " is not in the range [0, " + mSize + ")");
+        }
+    }
+}
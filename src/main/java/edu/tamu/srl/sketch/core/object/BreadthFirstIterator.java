@@ -0,0 +1,95 @@
+package edu.tamu.srl.sketch.core.object;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks a shape and everything below it level by level, every object of a level comes before the objects of the next level.
+ * <br>
+ * The objects still to be walked are kept in one queue and the sub objects are read by index from the list the shape hands out,
+ * so the walk allocates nothing per object once the queue is as wide as the widest level.  Only the objects of the given type are returned, the others are still walked through.
+ * <br>
+ * The shapes must not be changed during the walk, unless they are concurrent, see {@link SrlShape#setConcurrent(boolean)}.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ *
+ * @param <T> the type of the objects that are returned.
+ */
+public final class BreadthFirstIterator<T extends SrlObject> implements Iterator<T> {
+
+    /**
+     * The type of the objects that are returned.
+     */
+    private final Class<T> mType;
+
+    /**
+     * The objects that are reached but not walked yet.
+     */
+    private final ArrayDeque<SrlObject> mQueue = new ArrayDeque<>();
+
+    /**
+     * The next object that is returned, null if it has to be found.
+     */
+    private T mNext;
+
+    /**
+     * @param root the object the walk starts at, it is returned first if it has the type.
+     * @param type the type of the objects that are returned.
+     */
+    public BreadthFirstIterator(final SrlObject root, final Class<T> type) {
+        this.mType = type;
+        mQueue.add(root);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public boolean hasNext() {
+        if (mNext == null) {
+            mNext = findNext();
+        }
+        return mNext != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T next = mNext;
+        mNext = null;
+        return next;
+    }
+
+    /**
+     * The shapes can only be changed through their own methods.
+     */
+    @Override public void remove() {
+        throw new UnsupportedOperationException("The objects can not be removed through the iterator");
+    }
+
+    /**
+     * @return the next object of the type or null if the walk is over.
+     */
+    private T findNext() {
+        while (!mQueue.isEmpty()) {
+            final SrlObject object = mQueue.poll();
+            if (object instanceof SrlShape) {
+                final List<SrlObject> subObjects = ((SrlShape) object).getSubObjects();
+                for (int i = 0; i < subObjects.size(); i++) {
+                    mQueue.add(subObjects.get(i));
+                }
+            }
+            if (mType.isInstance(object)) {
+                return mType.cast(object);
+            }
+        }
+        return null;
+    }
+}
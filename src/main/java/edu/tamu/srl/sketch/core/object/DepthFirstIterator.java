@@ -0,0 +1,143 @@
+package edu.tamu.srl.sketch.core.object;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks a shape and everything below it in the order of {@link SrlShape#getRecursiveSubObjectList()} without building that list.
+ * <br>
+ * The path from the root to the current object is kept on an explicit stack of the lists of sub objects and the index reached in
+ * each, so the walk does not recurse.  The lists are the ones {@link SrlShape#getSubObjects()} hands out, which are not copied,
+ * so the walk only allocates when the tree gets deeper than it has been so far.
+ * Only the objects of the given type are returned, the others are still walked through.
+ * <br>
+ * The shapes must not be changed during the walk, unless they are concurrent, see {@link SrlShape#setConcurrent(boolean)}.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ *
+ * @param <T> the type of the objects that are returned.
+ */
+public final class DepthFirstIterator<T extends SrlObject> implements Iterator<T> {
+
+    /**
+     * The initial depth of the stack.
+     */
+    private static final int INITIAL_DEPTH = 8;
+
+    /**
+     * The type of the objects that are returned.
+     */
+    private final Class<T> mType;
+
+    /**
+     * The sub objects of every shape on the path to the current object.
+     */
+    private final List<List<SrlObject>> mLists = new ArrayList<>(INITIAL_DEPTH);
+
+    /**
+     * The index of the next object in every list of {@link #mLists}.
+     */
+    private int[] mIndexes = new int[INITIAL_DEPTH];
+
+    /**
+     * The root until it is walked, then null.
+     */
+    private SrlObject mRoot;
+
+    /**
+     * The next object that is returned, null if it has to be found.
+     */
+    private T mNext;
+
+    /**
+     * @param root the object the walk starts at, it is returned first if it has the type.
+     * @param type the type of the objects that are returned.
+     */
+    public DepthFirstIterator(final SrlObject root, final Class<T> type) {
+        this.mRoot = root;
+        this.mType = type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public boolean hasNext() {
+        if (mNext == null) {
+            mNext = findNext();
+        }
+        return mNext != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final T next = mNext;
+        mNext = null;
+        return next;
+    }
+
+    /**
+     * The shapes can only be changed through their own methods.
+     */
+    @Override public void remove() {
+        throw new UnsupportedOperationException("The objects can not be removed through the iterator");
+    }
+
+    /**
+     * @return the next object of the type or null if the walk is over.
+     */
+    private T findNext() {
+        if (mRoot != null) {
+            final SrlObject root = mRoot;
+            mRoot = null;
+            if (root instanceof SrlShape) {
+                push(((SrlShape) root).getSubObjects());
+            }
+            if (mType.isInstance(root)) {
+                return mType.cast(root);
+            }
+        }
+        while (!mLists.isEmpty()) {
+            final int top = mLists.size() - 1;
+            final List<SrlObject> list = mLists.get(top);
+            if (mIndexes[top] >= list.size()) {
+                mLists.remove(top);
+                continue;
+            }
+            final SrlObject object = list.get(mIndexes[top]);
+            mIndexes[top]++;
+            if (object instanceof SrlShape) {
+                push(((SrlShape) object).getSubObjects());
+            }
+            if (mType.isInstance(object)) {
+                return mType.cast(object);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param subObjects the sub objects of the shape that was just reached.
+     */
+    @SuppressWarnings("PMD.UnusedPrivateMethod")
+    private void push(final List<SrlObject> subObjects) {
+        if (subObjects.isEmpty()) {
+            return;
+        }
+        final int depth = mLists.size();
+        if (depth == mIndexes.length) {
+            mIndexes = Arrays.copyOf(mIndexes, depth * 2);
+        }
+        mIndexes[depth] = 0;
+        mLists.add(subObjects);
+    }
+}
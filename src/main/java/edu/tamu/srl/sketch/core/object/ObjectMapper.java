@@ -0,0 +1,22 @@
+package edu.tamu.srl.sketch.core.object;
+
+/**
+ * Work done on every object of a traversal, like extracting the features of a stroke.
+ *
+ * @see ParallelShapeTraversal
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ *
+ * @param <T> the type of the objects.
+ * @param <R> the type of the results.
+ */
+public interface ObjectMapper<T, R> {
+
+    /**
+     * Called on the threads of the pool, so it must not change objects that other calls read.
+     *
+     * @param object the object.
+     * @return the result for the object.
+     */
+    R map(T object);
+}
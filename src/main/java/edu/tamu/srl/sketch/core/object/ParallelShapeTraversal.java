@@ -0,0 +1,502 @@
+package edu.tamu.srl.sketch.core.object;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs work on every object below a shape on a work stealing {@link ForkJoinPool}.
+ * <br>
+ * The tree is split as it is walked, no list of the objects below the shape is built.  A task walks the sub objects of one shape,
+ * splitting them in half while there are more than the grain size, and forks a new task for every shape it reaches so idle threads
+ * can steal whole subtrees.  When the pool already has enough queued work, or the tree gets very deep, a subtree is walked in the
+ * task itself with a {@link DepthFirstIterator}.  Every task keeps its results in chained blocks that are linked in the order of
+ * the recursive lists of {@link SrlShape}, and they are copied into the result list once at the end.
+ * <br>
+ * The shapes must not be changed while a traversal is running, unless they are concurrent, see {@link SrlShape#setConcurrent(boolean)}.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class ParallelShapeTraversal {
+
+    /**
+     * The default number of sibling objects walked by a single task.
+     */
+    public static final int DEFAULT_GRAIN_SIZE = 8;
+
+    /**
+     * Subtrees are only forked while a worker has at most this many more tasks queued than other workers could steal.
+     */
+    private static final int MAX_SURPLUS_TASKS = 3;
+
+    /**
+     * Subtrees deeper than this are walked in the task itself, so joining tasks of a very deep tree can not overflow the stack.
+     */
+    private static final int MAX_FORK_DEPTH = 64;
+
+    /**
+     * The pool the tasks are run on.
+     */
+    private final ForkJoinPool mPool;
+
+    /**
+     * The number of sibling objects walked by a single task, or mapped by a single task of {@link #map(List, ObjectMapper)}.
+     */
+    private final int mGrainSize;
+
+    /**
+     * True if the pool was created by this traversal and has to be shut down by it.
+     */
+    private final boolean mOwnsPool;
+
+    /**
+     * Creates a traversal that runs on its own pool with one thread per core.
+     */
+    public ParallelShapeTraversal() {
+        this(new ForkJoinPool(), DEFAULT_GRAIN_SIZE, true);
+    }
+
+    /**
+     * Creates a traversal that runs on the given pool.  The pool is not shut down by {@link #shutdown()}.
+     *
+     * @param pool the pool the tasks are run on.
+     * @param grainSize the number of sibling objects walked by a single task.
+     */
+    public ParallelShapeTraversal(final ForkJoinPool pool, final int grainSize) {
+        this(pool, grainSize, false);
+    }
+
+    /**
+     * @param pool the pool the tasks are run on.
+     * @param grainSize the number of objects mapped by a single task.
+     * @param ownsPool true if the pool was created by this traversal.
+     */
+    private ParallelShapeTraversal(final ForkJoinPool pool, final int grainSize, final boolean ownsPool) {
+        if (grainSize < 1) {
+            throw new IllegalArgumentException("A task must map at least one object");
+        }
+        this.mPool = pool;
+        this.mGrainSize = grainSize;
+        this.mOwnsPool = ownsPool;
+    }
+
+    /**
+     * @param shape the shape whose strokes are mapped.
+     * @param mapper the work done on every stroke.
+     * @param <R> the type of the results.
+     * @return the results in the order of {@link SrlShape#getRecursiveStrokeList()}.
+     */
+    public <R> List<R> mapStrokes(final SrlShape shape, final ObjectMapper<? super SrlStroke, ? extends R> mapper) {
+        return walk(shape.getSubObjects(), new Walk<SrlStroke>(SrlStroke.class, false, mapper));
+    }
+
+    /**
+     * @param shape the shape whose leaf shapes are mapped.
+     * @param mapper the work done on every leaf shape.
+     * @param <R> the type of the results.
+     * @return the results in the order of {@link SrlShape#getRecursiveLeafShapes()}.
+     */
+    public <R> List<R> mapLeafShapes(final SrlShape shape, final ObjectMapper<? super SrlShape, ? extends R> mapper) {
+        return walk(shape.getSubObjects(), new Walk<SrlShape>(SrlShape.class, true, mapper));
+    }
+
+    /**
+     * @param shape the shape that is mapped with everything below it.
+     * @param mapper the work done on every object.
+     * @param <R> the type of the results.
+     * @return the results in the order of {@link SrlShape#getRecursiveSubObjectList()}.
+     */
+    public <R> List<R> mapSubObjects(final SrlShape shape, final ObjectMapper<? super SrlObject, ? extends R> mapper) {
+        return walk(Collections.<SrlObject>singletonList(shape), new Walk<SrlObject>(SrlObject.class, false, mapper));
+    }
+
+    /**
+     * Walks the objects and everything below them on the pool.
+     * <br>
+     * An exception thrown by the mapper is thrown again by this method.
+     *
+     * @param objects the objects the walk starts at.
+     * @param walk the objects that are mapped and the work done on them.
+     * @param <R> the type of the results.
+     * @return a read only list of the results in depth first order.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> List<R> walk(final List<SrlObject> objects, final Walk<?> walk) {
+        if (objects.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Results results = mPool.invoke(new WalkTask(walk, objects, 0, objects.size(), 0));
+        return (List<R>) Collections.unmodifiableList(Arrays.asList(results.toArray()));
+    }
+
+    /**
+     * Maps every object of the list on the pool.
+     * <br>
+     * An exception thrown by the mapper is thrown again by this method.
+     *
+     * @param objects the objects that are mapped.
+     * @param mapper the work done on every object.
+     * @param <T> the type of the objects.
+     * @param <R> the type of the results.
+     * @return a read only list of the results in the order of the objects.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> map(final List<? extends T> objects, final ObjectMapper<? super T, ? extends R> mapper) {
+        final Object[] results = new Object[objects.size()];
+        if (!objects.isEmpty()) {
+            mPool.invoke(new MapTask<T>(objects, mapper, results, 0, results.length));
+        }
+        return (List<R>) Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Shuts down the pool if it was created by this traversal.
+     */
+    public void shutdown() {
+        if (mOwnsPool) {
+            mPool.shutdown();
+        }
+    }
+
+    /**
+     * Maps a range of the objects, splitting it in half until it is no larger than the grain size.
+     *
+     * @param <T> the type of the objects.
+     */
+    @SuppressWarnings("serial")
+    private final class MapTask<T> extends RecursiveAction {
+
+        /**
+         * All of the objects of the traversal.
+         */
+        private final List<? extends T> mObjects;
+
+        /**
+         * The work done on every object.
+         */
+        private final ObjectMapper<? super T, ?> mMapper;
+
+        /**
+         * The results of all of the objects, every task only writes the slots of its own range.
+         */
+        private final Object[] mResults;
+
+        /**
+         * The index of the first object of the range.
+         */
+        private final int mStart;
+
+        /**
+         * The index after the last object of the range.
+         */
+        private final int mEnd;
+
+        /**
+         * @param objects all of the objects of the traversal.
+         * @param mapper the work done on every object.
+         * @param results the results of all of the objects.
+         * @param start the index of the first object of the range.
+         * @param end the index after the last object of the range.
+         */
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        MapTask(final List<? extends T> objects, final ObjectMapper<? super T, ?> mapper, final Object[] results, final int start,
+                final int end) {
+            super();
+            this.mObjects = objects;
+            this.mMapper = mapper;
+            this.mResults = results;
+            this.mStart = start;
+            this.mEnd = end;
+        }
+
+        /**
+         * Maps the range or splits it.
+         */
+        @Override
+        protected void compute() {
+            if (mEnd - mStart <= mGrainSize) {
+                for (int i = mStart; i < mEnd; i++) {
+                    mResults[i] = mMapper.map(mObjects.get(i));
+                }
+                return;
+            }
+            final int middle = (mStart + mEnd) >>> 1;
+            invokeAll(new MapTask<T>(mObjects, mMapper, mResults, mStart, middle), new MapTask<T>(mObjects, mMapper, mResults, middle, mEnd));
+        }
+    }
+
+    /**
+     * Which objects of a walk are mapped and the work done on them.
+     *
+     * @param <T> the type of the objects that are mapped.
+     */
+    private static final class Walk<T extends SrlObject> {
+
+        /**
+         * The type of the objects that are mapped.
+         */
+        private final Class<T> mType;
+
+        /**
+         * True if only shapes that contain no shapes are mapped.
+         */
+        private final boolean mLeavesOnly;
+
+        /**
+         * The work done on every object.
+         */
+        private final ObjectMapper<? super T, ?> mMapper;
+
+        /**
+         * @param type the type of the objects that are mapped.
+         * @param leavesOnly true if only shapes that contain no shapes are mapped.
+         * @param mapper the work done on every object.
+         */
+        Walk(final Class<T> type, final boolean leavesOnly, final ObjectMapper<? super T, ?> mapper) {
+            this.mType = type;
+            this.mLeavesOnly = leavesOnly;
+            this.mMapper = mapper;
+        }
+
+        /**
+         * Maps the object if it is one of the objects of the walk.
+         *
+         * @param object an object reached by the walk.
+         * @param results the results the result of the object is added to.
+         */
+        void visit(final SrlObject object, final Results results) {
+            if (mType.isInstance(object) && (!mLeavesOnly || ((SrlShape) object).isLeafShape())) {
+                results.add(mMapper.map(mType.cast(object)));
+            }
+        }
+
+        /**
+         * Maps the objects below the shape in the calling thread, without building a list of them.
+         *
+         * @param shape the shape whose subtree is walked.
+         * @param results the results the results of the objects are added to.
+         */
+        @SuppressWarnings("PMD.CompareObjectsWithEquals")
+        void visitBelow(final SrlShape shape, final Results results) {
+            final Iterator<T> iterator = new DepthFirstIterator<>(shape, mType);
+            while (iterator.hasNext()) {
+                final T object = iterator.next();
+                // the shape itself was already visited by the caller.
+                if (object != shape) {
+                    visit(object, results);
+                }
+            }
+        }
+    }
+
+    /**
+     * The results of a walk in depth first order, kept in blocks so the results of two tasks are joined without copying them.
+     */
+    private static final class Results {
+
+        /**
+         * The number of results a block holds.
+         */
+        private static final int BLOCK_SIZE = 32;
+
+        /**
+         * The first block, null if there are no results.
+         */
+        private Block mFirst;
+
+        /**
+         * The last block, results are added to it.
+         */
+        private Block mLast;
+
+        /**
+         * The number of results in all of the blocks.
+         */
+        private int mSize;
+
+        /**
+         * @param result the result that is added after the others.
+         */
+        void add(final Object result) {
+            if (mLast == null || mLast.mSize == BLOCK_SIZE) {
+                final Block block = new Block();
+                if (mLast == null) {
+                    mFirst = block;
+                } else {
+                    mLast.mNext = block;
+                }
+                mLast = block;
+            }
+            mLast.mValues[mLast.mSize++] = result;
+            mSize++;
+        }
+
+        /**
+         * Links the blocks of the other results after these, the other results must not be used afterwards.
+         *
+         * @param other the results that come after these.
+         */
+        void append(final Results other) {
+            if (other.mFirst == null) {
+                return;
+            }
+            if (mFirst == null) {
+                mFirst = other.mFirst;
+            } else {
+                mLast.mNext = other.mFirst;
+            }
+            mLast = other.mLast;
+            mSize += other.mSize;
+        }
+
+        /**
+         * @return the results in order.
+         */
+        Object[] toArray() {
+            final Object[] array = new Object[mSize];
+            int index = 0;
+            for (Block block = mFirst; block != null; block = block.mNext) {
+                System.arraycopy(block.mValues, 0, array, index, block.mSize);
+                index += block.mSize;
+            }
+            return array;
+        }
+
+        /**
+         * A block of results.
+         */
+        private static final class Block {
+
+            /**
+             * The results, only the first {@link #mSize} are used.
+             */
+            private final Object[] mValues = new Object[BLOCK_SIZE];
+
+            /**
+             * The number of results in the block.
+             */
+            private int mSize;
+
+            /**
+             * The block after this one.
+             */
+            private Block mNext;
+        }
+    }
+
+    /**
+     * Walks a range of the sub objects of one shape and everything below them.
+     * <br>
+     * The range is split in half while it is larger than the grain size, and a task is forked for every shape in the range.
+     */
+    @SuppressWarnings("serial")
+    private final class WalkTask extends RecursiveTask<Results> {
+
+        /**
+         * Which objects are mapped and the work done on them.
+         */
+        private final Walk<?> mWalk;
+
+        /**
+         * The sub objects of the shape.
+         */
+        private final List<SrlObject> mObjects;
+
+        /**
+         * The index of the first object of the range.
+         */
+        private final int mStart;
+
+        /**
+         * The index after the last object of the range.
+         */
+        private final int mEnd;
+
+        /**
+         * The number of shapes above the objects.
+         */
+        private final int mDepth;
+
+        /**
+         * @param walk which objects are mapped and the work done on them.
+         * @param objects the sub objects of the shape.
+         * @param start the index of the first object of the range.
+         * @param end the index after the last object of the range.
+         * @param depth the number of shapes above the objects.
+         */
+        WalkTask(final Walk<?> walk, final List<SrlObject> objects, final int start, final int end, final int depth) {
+            super();
+            this.mWalk = walk;
+            this.mObjects = objects;
+            this.mStart = start;
+            this.mEnd = end;
+            this.mDepth = depth;
+        }
+
+        /**
+         * Walks the range or splits it.
+         *
+         * @return the results of the range in depth first order.
+         */
+        @Override
+        protected Results compute() {
+            if (mEnd - mStart > mGrainSize) {
+                final int middle = (mStart + mEnd) >>> 1;
+                final WalkTask second = new WalkTask(mWalk, mObjects, middle, mEnd, mDepth);
+                second.fork();
+                final Results results = new WalkTask(mWalk, mObjects, mStart, middle, mDepth).compute();
+                results.append(second.join());
+                return results;
+            }
+            // the results of this task and the forked subtrees, in order, null until a subtree is forked.
+            List<Object> parts = null;
+            Results results = new Results();
+            for (int i = mStart; i < mEnd; i++) {
+                final SrlObject object = mObjects.get(i);
+                mWalk.visit(object, results);
+                if (!(object instanceof SrlShape)) {
+                    continue;
+                }
+                final SrlShape shape = (SrlShape) object;
+                if (mDepth >= MAX_FORK_DEPTH || getSurplusQueuedTaskCount() > MAX_SURPLUS_TASKS) {
+                    mWalk.visitBelow(shape, results);
+                    continue;
+                }
+                final List<SrlObject> subObjects = shape.getSubObjects();
+                if (subObjects.isEmpty()) {
+                    continue;
+                }
+                final WalkTask subtree = new WalkTask(mWalk, subObjects, 0, subObjects.size(), mDepth + 1);
+                subtree.fork();
+                if (parts == null) {
+                    parts = new ArrayList<>();
+                }
+                parts.add(results);
+                parts.add(subtree);
+                results = new Results();
+            }
+            if (parts == null) {
+                return results;
+            }
+            parts.add(results);
+            // joined in the reverse order of the forks so the tasks still queued here are run by this thread first.
+            for (int i = parts.size() - 1; i >= 0; i--) {
+                if (parts.get(i) instanceof WalkTask) {
+                    parts.set(i, ((WalkTask) parts.get(i)).join());
+                }
+            }
+            final Results joined = (Results) parts.get(0);
+            for (int i = 1; i < parts.size(); i++) {
+                joined.append((Results) parts.get(i));
+            }
+            return joined;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package edu.tamu.srl.sketch.core.object;
+
+/**
+ * Visits the objects of a shape, see {@link SrlShape#accept(SrlObjectVisitor)}.
+ * <br>
+ * Every method returns true to keep going, returning false stops the traversal right away so a search can stop at the first match.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public interface SrlObjectVisitor {
+
+    /**
+     * Called before the objects inside the shape are visited.
+     *
+     * @param shape a shape that is not text.
+     * @return true to keep going, false to stop.
+     */
+    boolean visitShape(SrlShape shape);
+
+    /**
+     * Called before the objects inside the text are visited.
+     *
+     * @param text the text.
+     * @return true to keep going, false to stop.
+     */
+    boolean visitText(SrlText text);
+
+    /**
+     * @param stroke a stroke or a sub stroke.
+     * @return true to keep going, false to stop.
+     */
+    boolean visitStroke(SrlStroke stroke);
+}
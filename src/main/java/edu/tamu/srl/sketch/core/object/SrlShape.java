@@ -2,11 +2,14 @@ package edu.tamu.srl.sketch.core.object;
 
 import edu.tamu.srl.sketch.core.abstracted.AbstractSrlComponent;
 import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.geometry.ConvexHulls;
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
 import edu.tamu.srl.sketch.core.tobenamedlater.SrlShapeConfig;
 import edu.tamu.srl.sketch.core.virtual.SrlBoundingBox;
 import edu.tamu.srl.sketch.core.virtual.SrlPoint;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -24,11 +27,19 @@ import java.util.UUID;
  * All methods when interacting with the list (unless inserting into the list or removing from the list)
  * use the getPoints() method.  This is so that subclasses can have augmented versions of the list without
  * needing to overwrite every method or get passed a modifiable version of the list.
+ * <br>
+ * A shape that is changed on one thread while other threads read it can be made concurrent with {@link #setConcurrent(boolean)}.
+ * Every change then publishes an immutable snapshot of the sub objects through a volatile field and the readers only ever see
+ * whole snapshots, so they never lock, never block the writer and never get a {@link java.util.ConcurrentModificationException}.
+ * Changes still have to come from one thread at a time and cost a copy of the sub objects, the same trade off as
+ * {@link java.util.concurrent.CopyOnWriteArrayList}.  Only the sub objects are covered, cached geometry like the bounding box
+ * should be computed by the readers from the sub objects they got.
  *
  * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
  * @author gigemjt
  */
-@SuppressWarnings({ "PMD.TooManyMethods", "PMD.CloneMethodMustImplementCloneable", "PMD.AvoidDuplicateLiterals" })
+@SuppressWarnings({ "PMD.TooManyMethods", "PMD.CloneMethodMustImplementCloneable", "PMD.AvoidDuplicateLiterals", "PMD.ExcessivePublicCount",
+        "PMD.ExcessiveClassLength" })
 public class SrlShape extends SrlObject {
 
     /**
@@ -75,7 +86,17 @@ public class SrlShape extends SrlObject {
      * This list can be examined hierarchically.
      * e.g., an arrow might have three lines inside, and each line might have a stroke.
      */
-    private final List<SrlObject> mSubShapes;
+    private final List<SrlObject> mSubShapes = new ArrayList<>();
+    /**
+     * A read only view of {@link #mSubShapes}, made once so handing out the sub objects does not allocate.
+     */
+    private final List<SrlObject> mReadOnlySubShapes = Collections.unmodifiableList(mSubShapes);
+    /**
+     * The sub objects as they were after the last change, published to the readers of a concurrent shape.
+     * <br>
+     * Null if the shape is not concurrent.  The list is read only and never changed after it is published.
+     */
+    private transient volatile List<SrlObject> mSubShapeSnapshot;
     /**
      * The confidence of the interpretation (a value between 0 and 1).
      * With 1 being 100% confident
@@ -92,6 +113,19 @@ public class SrlShape extends SrlObject {
      */
     private String mDescription;
 
+    /**
+     * The cached average of all of the points in the shape, null if it has to be computed again.
+     */
+    private transient volatile Cached<SrlPoint> mAveragedPoint;
+
+    /**
+     * The cached smallest and largest x and y values of all of the points in the shape, indexed like
+     * {@link GeometryKernels#bounds(double[], double[], int, int, double[])}.
+     * <br>
+     * Null if the shape changed since they were computed.
+     */
+    private transient volatile Cached<double[]> mExtents;
+
     /**
      * Default constructor.
      * <br>
@@ -100,7 +134,6 @@ public class SrlShape extends SrlObject {
     public SrlShape() {
         super();
         mDescription = "";
-        mSubShapes = new ArrayList<>();
         mInterpretationId = null;
         mRecognizerId = null;
         mConfidence = 0;
@@ -138,12 +171,18 @@ public class SrlShape extends SrlObject {
         mIsForced = original.isForced();
         mIsEndState = original.isEndState();
         mInterpretation = original.getInterpretation();
-        mSubShapes = new ArrayList<>();
         if (deep) {
+            // the children are copy-on-write clones with the same geometry so the cached geometry of the original still holds.
+            final SrlBoundingBox box = getRawBoundingBox();
             final List<SrlObject> cache = original.getSubObjects();
             for (int i = 0; i < cache.size(); i++) {
                 this.add((SrlObject) cache.get(i).deepClone());
             }
+            setBoundingBox(box);
+            final Cached<SrlPoint> averagedPoint = original.mAveragedPoint;
+            final Cached<double[]> extents = original.mExtents;
+            mAveragedPoint = averagedPoint == null ? null : averagedPoint.copyIfCurrent(original, this);
+            mExtents = extents == null ? null : extents.copyIfCurrent(original, this);
         } else {
             // shallow copy
             this.addAll(original.getSubObjects());
@@ -177,7 +216,6 @@ public class SrlShape extends SrlObject {
             mIsEndState = false;
             mInterpretation = null;
         }
-        mSubShapes = new ArrayList<>();
         this.mDescription = description;
     }
 
@@ -209,7 +247,6 @@ public class SrlShape extends SrlObject {
             mIsEndState = false;
             mInterpretation = null;
         }
-        mSubShapes = new ArrayList<>();
         this.mDescription = description;
     }
 
@@ -320,32 +357,110 @@ public class SrlShape extends SrlObject {
      *
      * The time of this point actually contains the total number of points in this sub object.
      * This value can be grabbed with {@link SrlPoint#getTime()}.
-     * Obviously this has a worst case of O(n) where n is the number of points in the shape.
+     * The average is cached until the shape changes and strokes keep running sums so this is O(1) once computed.
+     * Like the bounding box, the cache is reset whenever an object inside the shape changes, at any depth.  A point moved directly
+     * is seen as soon as the stroke that counts its moves is told, or once a stroke that only holds the point is read.
+     * <br>
+     * The cache is stamped with the geometry version it was computed at, so an average computed while the shape changed on another
+     * thread is computed again on the next call instead of being kept.
      */
     @Override public final SrlPoint getAveragedPoint() {
-        final int numChilds = this.getNumChildren();
-        final double[] xArray = new double[numChilds];
-        final double[] yArray = new double[numChilds];
-        long totalPoints = 0;
-        final List<SrlObject> cache = getSubObjects();
+        // the version is read first, a change made while the average is computed gives the cache an old stamp.
+        final long version = getGeometryVersion();
+        Cached<SrlPoint> cached = mAveragedPoint;
+        if (cached == null || cached.mVersion != version) {
+            cached = new Cached<>(calculateAveragedPoint(), version);
+            mAveragedPoint = cached;
+        }
+        final SrlPoint average = cached.mValue;
+        return new SrlPoint(average.getX(), average.getY(), average.getTime());
+    }
 
-        // recursively gather averages.
-        for (int index = 0; index < numChilds; index++) {
-            final SrlObject subObject = cache.get(index);
-            final SrlPoint averagedCenter = subObject.getAveragedPoint();
-            xArray[index] = averagedCenter.getX() * ((double) averagedCenter.getTime());
-            yArray[index] = averagedCenter.getY() * ((double) averagedCenter.getTime());
+    /**
+     * Combines the averages of the sub objects weighted by their number of points.
+     *
+     * @return the average of all of the points in the shape with the number of points as its time.
+     */
+    private SrlPoint calculateAveragedPoint() {
+        final List<SrlObject> cache = getSubObjects();
+        double sumX = 0;
+        double sumY = 0;
+        long totalPoints = 0;
+        for (int index = 0; index < cache.size(); index++) {
+            final SrlPoint averagedCenter = cache.get(index).getAveragedPoint();
+            sumX += averagedCenter.getX() * averagedCenter.getTime();
+            sumY += averagedCenter.getY() * averagedCenter.getTime();
             totalPoints += averagedCenter.getTime();
         }
+        if (totalPoints == 0) {
+            return new SrlPoint(0, 0, 0);
+        }
+        return new SrlPoint(sumX / totalPoints, sumY / totalPoints, totalPoints);
+    }
 
-        // use the averages together.
-        double xAvg = 0;
-        double yAvg = 0;
-        for (int index = 0; index < numChilds; index++) {
-            xAvg += xArray[index] / ((double) totalPoints);
-            yAvg += yArray[index] / ((double) totalPoints);
+    /**
+     * @return the smallest and largest x and y values, computed in one pass over the sub objects and cached until the shape changes.
+     */
+    private double[] getExtents() {
+        final long version = getGeometryVersion();
+        Cached<double[]> cached = mExtents;
+        if (cached == null || cached.mVersion != version) {
+            cached = new Cached<>(calculateExtents(), version);
+            mExtents = cached;
         }
-        return new SrlPoint(xAvg, yAvg, totalPoints);
+        return cached.mValue;
+    }
+
+    /**
+     * Combines the extents of the sub objects, sub shapes and strokes reuse their own cached extents and bounding boxes.
+     *
+     * @return the extents, an empty shape has infinite extents with the smallest values larger than the largest values.
+     */
+    private double[] calculateExtents() {
+        final double[] extents = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        final List<SrlObject> cache = getSubObjects();
+        for (int i = 0; i < cache.size(); i++) {
+            final SrlObject subObject = cache.get(i);
+            if (subObject instanceof SrlShape) {
+                final double[] subExtents = ((SrlShape) subObject).getExtents();
+                include(extents, subExtents[GeometryKernels.MIN_X], subExtents[GeometryKernels.MIN_Y],
+                        subExtents[GeometryKernels.MAX_X], subExtents[GeometryKernels.MAX_Y]);
+            } else if (subObject instanceof SrlStroke) {
+                // the bounding box of an empty stroke is not empty so those strokes are skipped.
+                if (((SrlStroke) subObject).getNumPoints() > 0) {
+                    final SrlBoundingBox box = subObject.getBoundingBox();
+                    include(extents, box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+                }
+            } else {
+                include(extents, subObject.getMinX(), subObject.getMinY(), subObject.getMaxX(), subObject.getMaxY());
+            }
+        }
+        return extents;
+    }
+
+    /**
+     * Grows the extents to include the extents of a sub object.
+     *
+     * @param extents the extents being grown.
+     * @param minX the smallest x value of the sub object.
+     * @param minY the smallest y value of the sub object.
+     * @param maxX the largest x value of the sub object.
+     * @param maxY the largest y value of the sub object.
+     */
+    private static void include(final double[] extents, final double minX, final double minY, final double maxX, final double maxY) {
+        extents[GeometryKernels.MIN_X] = Math.min(extents[GeometryKernels.MIN_X], minX);
+        extents[GeometryKernels.MIN_Y] = Math.min(extents[GeometryKernels.MIN_Y], minY);
+        extents[GeometryKernels.MAX_X] = Math.max(extents[GeometryKernels.MAX_X], maxX);
+        extents[GeometryKernels.MAX_Y] = Math.max(extents[GeometryKernels.MAX_Y], maxY);
+    }
+
+    /**
+     * Resets the cached average and extents of the points.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    @Override protected void resetCachedGeometry() {
+        mAveragedPoint = null;
+        mExtents = null;
     }
 
     /**
@@ -392,12 +507,9 @@ public class SrlShape extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override protected void calculateBBox() {
-        final List<SrlObject> cache = getSubObjects();
-        final SrlBoundingBox[] subBoxes = new SrlBoundingBox[cache.size()];
-        for (int i = 0; i < cache.size(); i++) {
-            subBoxes[i] = cache.get(i).getBoundingBox();
-        }
-        this.setBoundingBox(SrlBoundingBox.union(subBoxes));
+        final double[] extents = getExtents();
+        this.setBoundingBox(new SrlBoundingBox(extents[GeometryKernels.MIN_X], extents[GeometryKernels.MIN_Y],
+                extents[GeometryKernels.MAX_X], extents[GeometryKernels.MAX_Y]));
     }
 
     /**
@@ -405,7 +517,13 @@ public class SrlShape extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override protected void calculateConvexHull() {
-        throw new UnsupportedOperationException("implement this");
+        // the hull of the shape is the hull of the hulls of its sub objects.
+        final List<SrlObject> cache = getSubObjects();
+        final List<SrlPoint> points = new ArrayList<>();
+        for (int i = 0; i < cache.size(); i++) {
+            points.addAll(cache.get(i).getConvexHull().getPoints());
+        }
+        this.setConvexHull(ConvexHulls.calculate(points));
     }
 
     /**
@@ -413,13 +531,7 @@ public class SrlShape extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public double getMaxX() {
-        double max = Double.NEGATIVE_INFINITY;
-        final List<SrlObject> shapeList = getSubObjects();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlObject shape = shapeList.get(index);
-            max = Math.max(max, shape.getMaxX());
-        }
-        return max;
+        return getExtents()[GeometryKernels.MAX_X];
     }
 
     /**
@@ -427,13 +539,7 @@ public class SrlShape extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public double getMaxY() {
-        double max = Double.NEGATIVE_INFINITY;
-        final List<SrlObject> shapeList = getSubObjects();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlObject shape = shapeList.get(index);
-            max = Math.max(max, shape.getMaxY());
-        }
-        return max;
+        return getExtents()[GeometryKernels.MAX_Y];
     }
 
     /**
@@ -441,13 +547,7 @@ public class SrlShape extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public double getMinX() {
-        double min = Double.POSITIVE_INFINITY;
-        final List<SrlObject> shapeList = getSubObjects();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlObject shape = shapeList.get(index);
-            min = Math.min(min, shape.getMinX());
-        }
-        return min;
+        return getExtents()[GeometryKernels.MIN_X];
     }
 
     /**
@@ -455,13 +555,7 @@ public class SrlShape extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public double getMinY() {
-        double min = Double.POSITIVE_INFINITY;
-        final List<SrlObject> shapeList = getSubObjects();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlObject shape = shapeList.get(index);
-            min = Math.min(min, shape.getMinY());
-        }
-        return min;
+        return getExtents()[GeometryKernels.MIN_Y];
     }
 
     /**
@@ -479,6 +573,8 @@ public class SrlShape extends SrlObject {
      */
     public final void add(final int index, final SrlObject subObject) {
         mSubShapes.add(index, subObject);
+        publishSubObjects();
+        subObject.addParent(this);
         resetBounders();
     }
 
@@ -491,6 +587,8 @@ public class SrlShape extends SrlObject {
      */
     public final void add(final SrlObject subObject) {
         mSubShapes.add(subObject);
+        publishSubObjects();
+        subObject.addParent(this);
         resetBounders();
     }
 
@@ -501,6 +599,10 @@ public class SrlShape extends SrlObject {
      */
     public final void addAll(final List<? extends SrlObject> subShapes) {
         mSubShapes.addAll(subShapes);
+        publishSubObjects();
+        for (int i = 0; i < subShapes.size(); i++) {
+            subShapes.get(i).addParent(this);
+        }
         resetBounders();
     }
 
@@ -508,7 +610,11 @@ public class SrlShape extends SrlObject {
      * Clears the container.
      */
     public final void clear() {
+        for (int i = 0; i < mSubShapes.size(); i++) {
+            mSubShapes.get(i).removeParent(this);
+        }
         mSubShapes.clear();
+        publishSubObjects();
         resetBounders();
     }
 
@@ -520,7 +626,7 @@ public class SrlShape extends SrlObject {
      * otherwise
      */
     public final boolean contains(final SrlObject component) {
-        for (SrlObject sub : mSubShapes) {
+        for (SrlObject sub : getSubObjects()) {
             if (sub.equals(component)) {
                 return true;
             } else if (sub instanceof SrlShape && ((SrlShape) sub).contains(component)) {
@@ -591,17 +697,27 @@ public class SrlShape extends SrlObject {
      */
     public final List<SrlObject> getRecursiveSubObjectList() {
         final List<SrlObject> completeList = new ArrayList<SrlObject>();
+        collectSubObjects(completeList);
+        return completeList;
+    }
+
+    /**
+     * Adds this shape and everything below it to the list in the order of {@link #getRecursiveSubObjectList()}.
+     * Every level adds to the same list so nothing is copied from level to level.
+     *
+     * @param completeList the list the objects are added to.
+     */
+    private void collectSubObjects(final List<SrlObject> completeList) {
         completeList.add(this);
         final List<SrlObject> cache = getSubObjects();
         for (int index = 0; index < cache.size(); index++) {
             final SrlObject srlObject = cache.get(index);
             if (srlObject instanceof SrlShape) {
-                completeList.addAll(((SrlShape) srlObject).getRecursiveSubObjectList());
+                ((SrlShape) srlObject).collectSubObjects(completeList);
             } else {
                 completeList.add(srlObject);
             }
         }
-        return completeList;
     }
 
     /**
@@ -627,16 +743,82 @@ public class SrlShape extends SrlObject {
      */
     public final List<SrlStroke> getRecursiveStrokeList() {
         final List<SrlStroke> completeList = new ArrayList<>();
+        collectStrokes(completeList);
+        return completeList;
+    }
+
+    /**
+     * Adds the strokes below this shape to the list in the order of {@link #getRecursiveStrokeList()}.
+     *
+     * @param completeList the list the strokes are added to.
+     */
+    private void collectStrokes(final List<SrlStroke> completeList) {
         final List<SrlObject> cache = getSubObjects();
         for (int index = 0; index < cache.size(); index++) {
             final SrlObject srlObject = cache.get(index);
             if (srlObject instanceof SrlShape) {
-                completeList.addAll(((SrlShape) srlObject).getRecursiveStrokeList());
+                ((SrlShape) srlObject).collectStrokes(completeList);
             } else if (srlObject instanceof SrlStroke) {
                 completeList.add((SrlStroke) srlObject);
             }
         }
-        return completeList;
+    }
+
+    /**
+     * Walks this shape and everything below it lazily, in the order of {@link #getRecursiveSubObjectList()}.
+     *
+     * @return an iterator that builds no list.
+     */
+    public final Iterator<SrlObject> depthFirstIterator() {
+        return new DepthFirstIterator<>(this, SrlObject.class);
+    }
+
+    /**
+     * Walks this shape and everything below it lazily, level by level.
+     *
+     * @return an iterator that builds no list.
+     */
+    public final Iterator<SrlObject> breadthFirstIterator() {
+        return new BreadthFirstIterator<>(this, SrlObject.class);
+    }
+
+    /**
+     * Walks the strokes below this shape lazily, in the order of {@link #getRecursiveStrokeList()}.
+     * <br>
+     * Use this instead of the list when only some of the strokes are needed or the walk can stop at the first match.
+     *
+     * @return an iterator that builds no list.
+     */
+    public final Iterator<SrlStroke> strokeIterator() {
+        return new DepthFirstIterator<>(this, SrlStroke.class);
+    }
+
+    /**
+     * Visits this shape and everything below it depth first, in the order of {@link #getRecursiveSubObjectList()}.
+     * Objects that are not shapes, text or strokes are walked through without being visited.
+     *
+     * @param visitor the visitor, returning false from any of its methods stops the walk.
+     * @return true if every object was visited, false if the visitor stopped the walk.
+     */
+    public final boolean accept(final SrlObjectVisitor visitor) {
+        final Iterator<SrlObject> iterator = depthFirstIterator();
+        while (iterator.hasNext()) {
+            final SrlObject object = iterator.next();
+            final boolean keepGoing;
+            if (object instanceof SrlText) {
+                keepGoing = visitor.visitText((SrlText) object);
+            } else if (object instanceof SrlShape) {
+                keepGoing = visitor.visitShape((SrlShape) object);
+            } else if (object instanceof SrlStroke) {
+                keepGoing = visitor.visitStroke((SrlStroke) object);
+            } else {
+                keepGoing = true;
+            }
+            if (!keepGoing) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -662,20 +844,28 @@ public class SrlShape extends SrlObject {
      */
     public final List<SrlShape> getRecursiveLeafShapes() {
         final List<SrlShape> completeList = new ArrayList<>();
+        collectLeafShapes(completeList);
+        return completeList;
+    }
+
+    /**
+     * Adds the leaf shapes below this shape to the list in the order of {@link #getRecursiveLeafShapes()}.
+     *
+     * @param completeList the list the shapes are added to.
+     */
+    private void collectLeafShapes(final List<SrlShape> completeList) {
         final List<SrlObject> cache = getSubObjects();
         for (int index = 0; index < cache.size(); index++) {
             final SrlObject srlObject = cache.get(index);
             if (srlObject instanceof SrlShape) {
-                final List<SrlShape> resultList = ((SrlShape) srlObject).getRecursiveLeafShapes();
+                final int numLeaves = completeList.size();
+                ((SrlShape) srlObject).collectLeafShapes(completeList);
                 // does not use the isLeafShape because that is an extra recurse through the list.
-                if (resultList.isEmpty()) {
+                if (completeList.size() == numLeaves) {
                     completeList.add((SrlShape) srlObject);
-                } else {
-                    completeList.addAll(resultList);
                 }
             }
         }
-        return completeList;
     }
 
     /**
@@ -712,12 +902,63 @@ public class SrlShape extends SrlObject {
     /**
      * Gets the list of sub-{@link SrlObject}s.
      * This list is not modifiable to modify the list you must go through the methods presented by this class.
+     * The same read only view is returned every time, so getting the list does not allocate.
      *
      * @return list of objects that make up this object.  <b>This should never return null.</b>
      */
     @SuppressWarnings("checkstyle:designforextension")
     public List<SrlObject> getSubObjects() {
-        return Collections.unmodifiableList(mSubShapes);
+        final List<SrlObject> snapshot = mSubShapeSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return mReadOnlySubShapes;
+    }
+
+    /**
+     * Makes the list of sub objects of the shape safe to read from other threads while one thread changes it.
+     * <br>
+     * Once it is concurrent {@link #getSubObjects()} returns an unchanging snapshot of the sub objects, so the lists and iterators
+     * of this shape stay valid while it changes.  This only covers this shape, shapes inside it that are changed while they are read
+     * have to be made concurrent too.
+     * <br>
+     * The cached average and extents are stamped with the geometry version so a reader never keeps values computed while the shape
+     * changed, but a reader can still get values from just before a change.  The bounding box and the convex hull are plain caches
+     * that are not covered, readers should compute them from the sub objects they got.
+     *
+     * @param concurrent true if readers on other threads should get snapshots of the sub objects.
+     */
+    public final void setConcurrent(final boolean concurrent) {
+        if (concurrent) {
+            mSubShapeSnapshot = snapshotSubObjects();
+        } else {
+            mSubShapeSnapshot = null;
+        }
+    }
+
+    /**
+     * @return true if readers get snapshots of the sub objects, see {@link #setConcurrent(boolean)}.
+     */
+    public final boolean isConcurrent() {
+        return mSubShapeSnapshot != null;
+    }
+
+    /**
+     * Publishes a new snapshot of the sub objects after they changed if the shape is concurrent.
+     */
+    private void publishSubObjects() {
+        if (mSubShapeSnapshot != null) {
+            mSubShapeSnapshot = snapshotSubObjects();
+        }
+    }
+
+    /**
+     * Copies the sub objects into a read only list that is published as is, so readers do not wrap it again.
+     *
+     * @return an unchanging read only copy of the sub objects.
+     */
+    private List<SrlObject> snapshotSubObjects() {
+        return Collections.unmodifiableList(Arrays.asList(mSubShapes.toArray(new SrlObject[mSubShapes.size()])));
     }
 
     /**
@@ -725,10 +966,11 @@ public class SrlShape extends SrlObject {
      * @return The first stroke in this shape. Null if the shape is empty.
      */
     public final SrlStroke getFirstStroke() {
-        if (this.getSubObjects().isEmpty()) {
+        final List<SrlObject> cache = getSubObjects();
+        if (cache.isEmpty()) {
             return null;
         }
-        final SrlObject obj = this.get(0);
+        final SrlObject obj = cache.get(0);
         if (obj instanceof SrlShape) {
             return ((SrlShape) obj).getFirstStroke();
         } else if (obj instanceof SrlStroke) {
@@ -743,10 +985,11 @@ public class SrlShape extends SrlObject {
      * @return The last stroke in this shape. Null if the shape is empty.
      */
     public final SrlStroke getLastStroke() {
-        if (this.getSubObjects().isEmpty()) {
+        final List<SrlObject> cache = getSubObjects();
+        if (cache.isEmpty()) {
             return null;
         }
-        final SrlObject obj = this.get(this.getNumChildren() - 1);
+        final SrlObject obj = cache.get(cache.size() - 1);
         if (obj instanceof SrlShape) {
             return ((SrlShape) obj).getLastStroke();
         } else if (obj instanceof SrlStroke) {
@@ -764,6 +1007,8 @@ public class SrlShape extends SrlObject {
      */
     public final SrlObject remove(final int index) {
         final SrlObject obj = mSubShapes.remove(index);
+        publishSubObjects();
+        obj.removeParent(this);
         resetBounders();
         return obj;
     }
@@ -775,11 +1020,13 @@ public class SrlShape extends SrlObject {
      * @return true if something was removed
      */
     public final boolean remove(final SrlObject subObject) {
-        final boolean result = mSubShapes.remove(subObject);
-        if (result) {
-            resetBounders();
+        // the removed object is looked up first since it may only be equal to the given object.
+        final int index = mSubShapes.indexOf(subObject);
+        if (index < 0) {
+            return false;
         }
-        return result;
+        remove(index);
+        return true;
     }
 
     /**
@@ -790,8 +1037,15 @@ public class SrlShape extends SrlObject {
      * false otherwise
      */
     public final boolean removeAll(final Collection<? extends SrlObject> subObjects) {
-        final boolean result = mSubShapes.removeAll(subObjects);
+        boolean result = false;
+        for (int i = mSubShapes.size() - 1; i >= 0; i--) {
+            if (subObjects.contains(mSubShapes.get(i))) {
+                mSubShapes.remove(i).removeParent(this);
+                result = true;
+            }
+        }
         if (result) {
+            publishSubObjects();
             resetBounders();
         }
         return result;
@@ -910,4 +1164,47 @@ public class SrlShape extends SrlObject {
     public String toString() {
         return "SHA[" + this.getInterpretation() + " CONF:" + this.getConfidence() + " ID:" + this.getId() + "]";
     }
+
+    /**
+     * A cached value with the geometry version of the shape it was computed at.
+     * <br>
+     * The fields are final so a reader on another thread that gets the cache also sees the whole value.
+     *
+     * @param <T> the type of the value.
+     */
+    private static final class Cached<T> {
+
+        /**
+         * The cached value, it is never changed.
+         */
+        private final T mValue;
+
+        /**
+         * The geometry version of the shape when the computation of the value started.
+         */
+        private final long mVersion;
+
+        /**
+         * @param value the cached value.
+         * @param version the geometry version of the shape when the computation of the value started.
+         */
+        Cached(final T value, final long version) {
+            this.mValue = value;
+            this.mVersion = version;
+        }
+
+        /**
+         * A deep clone has the same geometry as the original but its own geometry version.
+         *
+         * @param original the shape the value was cached by.
+         * @param clone the deep clone of the shape.
+         * @return the value stamped with the version of the clone, or null if the value was out of date.
+         */
+        Cached<T> copyIfCurrent(final SrlShape original, final SrlShape clone) {
+            if (mVersion != original.getGeometryVersion()) {
+                return null;
+            }
+            return new Cached<>(mValue, clone.getGeometryVersion());
+        }
+    }
 }
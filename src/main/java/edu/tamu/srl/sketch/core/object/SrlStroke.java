@@ -2,13 +2,21 @@ package edu.tamu.srl.sketch.core.object;
 
 import edu.tamu.srl.sketch.core.abstracted.AbstractSrlComponent;
 import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.distance.StrokeMetric;
+import edu.tamu.srl.sketch.core.geometry.AffineTransform;
+import edu.tamu.srl.sketch.core.geometry.ConvexHulls;
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
 import edu.tamu.srl.sketch.core.tobenamedlater.SrlAuthor;
 import edu.tamu.srl.sketch.core.tobenamedlater.SrlDevice;
 import edu.tamu.srl.sketch.core.tobenamedlater.SrlPen;
+import edu.tamu.srl.sketch.core.virtual.MoveCounter;
+import edu.tamu.srl.sketch.core.virtual.PointListener;
 import edu.tamu.srl.sketch.core.virtual.SrlBoundingBox;
 import edu.tamu.srl.sketch.core.virtual.SrlPoint;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -24,17 +32,149 @@ import java.util.UUID;
  * All methods when interacting with the list (unless inserting into the list or removing from the list)
  * use the getPoints() method.  This is so that subclasses can have augmented versions of the list without
  * needing to overwrite every method or get passed a modifiable version of the list.
+ * <br>
+ * Translating, scaling and rotating the stroke does not move the points right away, the operations are composed into a pending
+ * {@link AffineTransform} that is applied to all points in one pass the next time the points are read.  The running sums, the
+ * cached path lengths and the bounding box are updated without the points so dragging or zooming a stroke is O(1) per operation.
+ * <br>
+ * The coordinates of the points are also packed into primitive arrays that the {@link GeometryKernels} run over, so computing
+ * the bounding box, the path length or a transform never goes through the point objects.
+ * <br>
+ * Moving a point directly instead of through the stroke is seen too.  Points count their moves in the {@link MoveCounter} of the
+ * first stroke they were added to and that stroke is told right away, so it and its containers are reset.  Every stroke keeps the
+ * counts it last saw, so a stroke that holds the points of another stroke, like a shallow copy, sees the move the next time it is
+ * read and resets its containers then.  Either way the packed coordinates, the running sums and the cached lengths are read from
+ * the points again the next time they are used.
+ * <br>
+ * Any number of threads can read a stroke at once.  Applying the pending transform and filling in the cached lengths change the
+ * stroke on a read, so they are done under a lock of the stroke and happen exactly once however many threads read it.  Changing
+ * a stroke, including translating, scaling or rotating it or a shape that holds it, while other threads read it is not safe.
+ * <br>
+ * A deep clone shares the list of points, the packed coordinates and the cached lengths with the stroke it was cloned from, so
+ * cloning is O(1) in the number of points and reading the geometry of the clone, {@link #contains(SrlPoint)} and
+ * {@link #deepEquals(AbstractSrlComponent)} do not copy anything.  The clone copies all of the point objects, which is O(n), the
+ * first time either stroke changes them or moves one of them directly, or the clone hands out any of them through
+ * {@link #getPoints()}, {@link #getPoint(int)}, {@link #getFirstPoint()} or {@link #getLastPoint()}.  After that changing a point
+ * of either stroke never changes the other.
  *
  * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
  * @author gigemjt
  */
 @SuppressWarnings({ "PMD.TooManyMethods", "PMD.CloneMethodMustImplementCloneable", "PMD.AvoidDuplicateLiterals" })
-public class SrlStroke extends SrlObject {
+public class SrlStroke extends SrlObject implements PointListener {
+
+    /**
+     * The smallest size at which the list of deep clones that share the points of a stroke is pruned.
+     */
+    private static final int MIN_SHARERS_TO_PRUNE = 8;
 
     /**
      * Holds the list of points contained within the stroke.
      */
-    private final List<SrlPoint> mPoints;
+    private List<SrlPoint> mPoints;
+
+    /**
+     * The stroke whose list of points this deep clone shares, null once the clone has its own points.
+     * <br>
+     * The stroke is held strongly since it is the one that tells the clone before the shared points change.
+     */
+    private transient SrlStroke mPointSource;
+
+    /**
+     * The deep clones that share the list of points of this stroke, null until the stroke is cloned.
+     * The list is guarded by its own lock.
+     */
+    private transient volatile List<WeakReference<SrlStroke>> mPointSharers;
+
+    /**
+     * True if {@link #mPointSharers} is not empty, so changing the points does not take the lock of the list when it is.
+     */
+    private transient volatile boolean mHasSharers;
+
+    /**
+     * The size at which {@link #mPointSharers} is pruned the next time a clone is added, guarded by the lock of the list.
+     */
+    private transient int mSharersToPrune = MIN_SHARERS_TO_PRUNE;
+
+    /**
+     * True if the packed coordinates are shared with a deep clone or with the stroke this was cloned from.
+     */
+    private boolean mSharesCoordinates;
+
+    /**
+     * The x values of the points in the same order as the points, only the first {@code mPoints.size()} values are used.
+     */
+    private double[] mXValues = new double[0];
+
+    /**
+     * The y values of the points in the same order as the points, only the first {@code mPoints.size()} values are used.
+     */
+    private double[] mYValues = new double[0];
+
+    /**
+     * The running sum of the x values of the points, kept up to date by every method that changes the points.
+     */
+    private double mSumX;
+
+    /**
+     * The running sum of the y values of the points, kept up to date by every method that changes the points.
+     */
+    private double mSumY;
+
+    /**
+     * The length of the path from the first point to every point, so the length between any two points is a difference of two values.
+     * <br>
+     * Only the first {@link #mNumLengths} values are up to date, methods that change the points only lower that count and the
+     * values are computed again the next time a length is asked for.  Adding points to the end of the stroke keeps every value.
+     */
+    private double[] mCumulativeLengths = new double[0];
+
+    /**
+     * The number of values at the start of {@link #mCumulativeLengths} that are up to date.
+     */
+    private int mNumLengths;
+
+    /**
+     * True if the cached lengths are shared with a deep clone or with the stroke this was cloned from.
+     */
+    private boolean mSharesLengths;
+
+    /**
+     * Counts the moves of the points that were first added to this stroke.
+     */
+    private final transient MoveCounter mMoves = new MoveCounter(this);
+
+    /**
+     * The counters the points of the stroke count their moves in, the first {@link #mNumCounters} are used.
+     * <br>
+     * Usually this is only {@link #mMoves}, a shallow copy also has the counter of the stroke it was copied from.
+     */
+    private MoveCounter[] mCounters = { mMoves };
+
+    /**
+     * The count of every counter in {@link #mCounters} when the packed coordinates were last read from the points.
+     */
+    private int[] mCounts = new int[1];
+
+    /**
+     * The number of counters in {@link #mCounters}.
+     */
+    private int mNumCounters = 1;
+
+    /**
+     * True while the stroke moves its own points, so it does not listen to itself.
+     */
+    private boolean mMovingPoints;
+
+    /**
+     * The translations, scales and rotations that have not been applied to the points yet.
+     */
+    private final AffineTransform mPendingTransform = new AffineTransform();
+
+    /**
+     * Guards the pending transform and the cached lengths, the two things a read can change.
+     */
+    private final Object mLock = new Object();
 
     /**
      * Author who drew the stroke.
@@ -100,23 +240,56 @@ public class SrlStroke extends SrlObject {
      * <br>
      * Copies all values from the given object.
      * Performs a shallow copy.
+     * <br>
+     * A deep copy shares the list of points, the packed coordinates and the cached lengths with the original, they are
+     * copy-on-write.  The point objects are only copied when either stroke changes them or the copy hands one of them out.  The
+     * points of a sub stroke are a view of its parent so they are copied right away.
      *
      * @param original the object that is being copied.
      * @param deep     true if a deep copy is being performed.  Otherwise a shallow copy is performed.
      */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
     public SrlStroke(final SrlStroke original, final boolean deep) {
         super(original);
         this.mAuthor = original.getAuthor();
         this.mPen = original.getPen();
         this.mDevice = original.getDevice();
-        this.mPoints = new ArrayList<>();
-        if (deep) {
+        if (deep && original.getPackedStroke() == original) {
+            original.applyPendingTransform();
+            // cloning is a read of the original so other threads may be reading it too.
+            synchronized (original.mLock) {
+                // a clone of a clone shares the points of the same stroke, the one that listens to them.
+                final SrlStroke source = original.mPointSource == null ? original : original.mPointSource;
+                this.mPoints = original.mPoints;
+                this.mPointSource = source;
+                source.addPointSharer(this);
+                this.mSumX = original.mSumX;
+                this.mSumY = original.mSumY;
+                this.mXValues = original.mXValues;
+                this.mYValues = original.mYValues;
+                this.mCumulativeLengths = original.mCumulativeLengths;
+                this.mNumLengths = original.mNumLengths;
+                this.mSharesLengths = true;
+                original.mSharesLengths = true;
+                // the counts tell the clone if a shared point was moved after it was made.
+                this.mCounters = Arrays.copyOf(original.mCounters, original.mNumCounters);
+                this.mCounts = Arrays.copyOf(original.mCounts, original.mNumCounters);
+                this.mNumCounters = original.mNumCounters;
+                this.mSharesCoordinates = true;
+                original.mSharesCoordinates = true;
+            }
+            // the hull points are not the stroke points, but the hull and its point list would be shared with the original, so
+            // transforming one hull would move the other.
+            setConvexHull(null);
+        } else if (deep) {
+            this.mPoints = new ArrayList<>();
             final List<SrlPoint> cache = original.getPoints();
             for (int i = 0; i < cache.size(); i++) {
                 this.addPoint((SrlPoint) cache.get(i).deepClone());
             }
         } else {
             // shallow copy
+            this.mPoints = new ArrayList<>();
             this.addPoints(original.getPoints());
         }
     }
@@ -178,11 +351,17 @@ public class SrlStroke extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void translate(final double xOffset, final double yOffset) {
-        final List<SrlPoint> cache = getPoints();
-        for (int i = 0; i < cache.size(); i++) {
-            cache.get(i).translate(xOffset, yOffset);
+        synchronized (mLock) {
+            mPendingTransform.translate(xOffset, yOffset);
         }
+        mSumX += mPoints.size() * xOffset;
+        mSumY += mPoints.size() * yOffset;
+        final SrlBoundingBox box = getRawBoundingBox();
         resetBounders();
+        if (box != null) {
+            setBoundingBox(new SrlBoundingBox(box.getMinX() + xOffset, box.getMinY() + yOffset,
+                    box.getMaxX() + xOffset, box.getMaxY() + yOffset));
+        }
     }
 
     /**
@@ -193,11 +372,30 @@ public class SrlStroke extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void scale(final double xFactor, final double yFactor) {
-        final List<SrlPoint> cache = getPoints();
-        for (int i = 0; i < cache.size(); i++) {
-            cache.get(i).scale(xFactor, yFactor);
+        mSumX *= xFactor;
+        mSumY *= yFactor;
+        synchronized (mLock) {
+            mPendingTransform.scale(xFactor, yFactor);
+            if (xFactor == yFactor) {
+                // a uniform scale scales every length by the same factor.
+                detachLengths();
+                final double factor = Math.abs(xFactor);
+                for (int i = 0; i < mNumLengths; i++) {
+                    mCumulativeLengths[i] *= factor;
+                }
+            } else {
+                mNumLengths = 0;
+            }
         }
+        final SrlBoundingBox box = getRawBoundingBox();
         resetBounders();
+        if (box != null) {
+            final double minX = box.getMinX() * xFactor;
+            final double maxX = box.getMaxX() * xFactor;
+            final double minY = box.getMinY() * yFactor;
+            final double maxY = box.getMaxY() * yFactor;
+            setBoundingBox(new SrlBoundingBox(Math.min(minX, maxX), Math.min(minY, maxY), Math.max(minX, maxX), Math.max(minY, maxY)));
+        }
     }
 
     /**
@@ -209,26 +407,383 @@ public class SrlStroke extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void rotate(final double radians, final double xCenter, final double yCenter) {
-        final List<SrlPoint> cache = getPoints();
-        for (int i = 0; i < cache.size(); i++) {
-            cache.get(i).rotate(radians, xCenter, yCenter);
+        synchronized (mLock) {
+            mPendingTransform.rotate(radians, xCenter, yCenter);
+        }
+        // rotating every point around the center rotates their sum around the center times the number of points.
+        final double relativeX = mSumX - mPoints.size() * xCenter;
+        final double relativeY = mSumY - mPoints.size() * yCenter;
+        final double cos = Math.cos(radians);
+        final double sin = Math.sin(radians);
+        mSumX = relativeX * cos - relativeY * sin + mPoints.size() * xCenter;
+        mSumY = relativeX * sin + relativeY * cos + mPoints.size() * yCenter;
+        resetBounders();
+    }
+
+    /**
+     * Applies the pending translations, scales and rotations to the points in one pass.
+     * <br>
+     * This is called before the points are read so it only needs to be called directly when the points are shared with another
+     * stroke or are held outside of the stroke.  Each point gets a single new entry in its history no matter how many operations
+     * were pending.
+     * <br>
+     * The transform is applied under the lock of the stroke, so when several threads read the stroke at once only the first one
+     * applies it and the others see the moved points.
+     * <br>
+     * If a point was moved directly the packed coordinates, the running sums and the cached lengths are read from the points again
+     * here too.
+     */
+    public final void applyPendingTransform() {
+        final boolean pointsMoved;
+        synchronized (mLock) {
+            pointsMoved = havePointsMoved();
+            if (!pointsMoved && mPendingTransform.isIdentity()) {
+                return;
+            }
+            detachCoordinates();
+            final int numPoints = mPoints.size();
+            if (pointsMoved) {
+                // counted first so a point moved from now on is seen by the next read.
+                updateCounts();
+                for (int i = 0; i < numPoints; i++) {
+                    mXValues[i] = mPoints.get(i).getX();
+                    mYValues[i] = mPoints.get(i).getY();
+                }
+                mNumLengths = 0;
+            }
+            if (!mPendingTransform.isIdentity()) {
+                detachPoints();
+                mPendingTransform.transform(mXValues, mYValues, 0, numPoints);
+                setPoints(0, numPoints);
+                mPendingTransform.reset();
+            }
+            if (pointsMoved) {
+                mSumX = GeometryKernels.sum(mXValues, 0, numPoints);
+                mSumY = GeometryKernels.sum(mYValues, 0, numPoints);
+            }
+        }
+        if (pointsMoved) {
+            // the stroke is not told about moves of points another stroke counts, so its containers are reset here.
+            resetBounders();
+        }
+    }
+
+    /**
+     * Moves a range of the points to their packed coordinates without listening to them.
+     * A deep clone must have its own points before this is called.
+     *
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     */
+    private void setPoints(final int start, final int end) {
+        detachPointSharers();
+        mMovingPoints = true;
+        try {
+            for (int i = start; i < end; i++) {
+                mPoints.get(i).setPoint(mXValues[i], mYValues[i]);
+            }
+        } finally {
+            mMovingPoints = false;
+        }
+        // the moves were made by the stroke so they are not moves it has to read back.
+        updateCounts();
+    }
+
+    /**
+     * Reads the points again if any of them were moved directly since they were last read.
+     */
+    private void checkMovedPoints() {
+        final boolean pointsMoved;
+        synchronized (mLock) {
+            pointsMoved = havePointsMoved();
+        }
+        if (pointsMoved) {
+            applyPendingTransform();
+        }
+    }
+
+    /**
+     * A stroke is not told about moves of the points another stroke counts, so the cached geometry is checked before it is used.
+     */
+    @Override
+    protected final void checkGeometry() {
+        checkMovedPoints();
+    }
+
+    /**
+     * A deep clone that shares its points never reads them back, its packed coordinates are the ones it was cloned with.
+     *
+     * @return true if a point of the stroke was moved directly since the points were last read.
+     */
+    private boolean havePointsMoved() {
+        return mPointSource == null && countsChanged();
+    }
+
+    /**
+     * @return true if any of the counters of the points changed since the counts were last updated.
+     */
+    private boolean countsChanged() {
+        for (int i = 0; i < mNumCounters; i++) {
+            if (mCounters[i].getCount() != mCounts[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Saves the current count of every counter of the points.
+     */
+    private void updateCounts() {
+        for (int i = 0; i < mNumCounters; i++) {
+            mCounts[i] = mCounters[i].getCount();
+        }
+    }
+
+    /**
+     * Has a point that was added to the stroke count its moves, and keeps the counter if the stroke does not have it yet.
+     *
+     * @param point the point that was added.
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private void countMoves(final SrlPoint point) {
+        final MoveCounter counter = point.countMovesIn(mMoves);
+        // the points added last are the most likely to share a counter with the next one.
+        for (int i = mNumCounters - 1; i >= 0; i--) {
+            if (mCounters[i] == counter) {
+                return;
+            }
+        }
+        if (mNumCounters == mCounters.length) {
+            mCounters = Arrays.copyOf(mCounters, mNumCounters * 2);
+            mCounts = Arrays.copyOf(mCounts, mNumCounters * 2);
+        }
+        mCounters[mNumCounters] = counter;
+        mCounts[mNumCounters] = counter.getCount();
+        mNumCounters++;
+    }
+
+    /**
+     * Called by the points of the stroke before they move.
+     * <br>
+     * When a point is moved directly the stroke and its containers are reset, the point has already counted the move so the cached
+     * values of the stroke are read from the points again the next time they are used.  Moves made by the stroke itself are
+     * ignored.  Deep clones that still share the point copy the points first, while the point is still where it was.
+     *
+     * @param point the point that is about to move.
+     */
+    @Override
+    public final void pointMoving(final SrlPoint point) {
+        detachPointSharers();
+        if (mMovingPoints) {
+            return;
         }
         resetBounders();
     }
 
+    /**
+     * Applies the transform to a range of the points right away, this is how a sub stroke transforms the points it shares.
+     *
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @param transform the transform that is applied.
+     */
+    final void transformRange(final int start, final int end, final AffineTransform transform) {
+        applyPendingTransform();
+        detachCoordinates();
+        detachPoints();
+        mSumX -= GeometryKernels.sum(mXValues, start, end);
+        mSumY -= GeometryKernels.sum(mYValues, start, end);
+        transform.transform(mXValues, mYValues, start, end);
+        mSumX += GeometryKernels.sum(mXValues, start, end);
+        mSumY += GeometryKernels.sum(mYValues, start, end);
+        setPoints(start, end);
+        mNumLengths = Math.min(mNumLengths, start);
+        resetBounders();
+    }
+
+    /**
+     * Registers a deep clone that shares the list of points of this stroke.
+     *
+     * @param sharer the deep clone.
+     */
+    private void addPointSharer(final SrlStroke sharer) {
+        List<WeakReference<SrlStroke>> sharers = mPointSharers;
+        if (sharers == null) {
+            // clones of different clones of this stroke can be made on different threads.
+            synchronized (this) {
+                sharers = mPointSharers;
+                if (sharers == null) {
+                    sharers = new ArrayList<>();
+                    mPointSharers = sharers;
+                }
+            }
+        }
+        synchronized (sharers) {
+            if (sharers.size() >= mSharersToPrune) {
+                // the clones that were discarded or copied their points are dropped once the list doubled since the last time.
+                int kept = 0;
+                for (int i = 0; i < sharers.size(); i++) {
+                    final SrlStroke other = sharers.get(i).get();
+                    if (other != null && other.mPointSource == this) {
+                        sharers.set(kept++, sharers.get(i));
+                    }
+                }
+                sharers.subList(kept, sharers.size()).clear();
+                mSharersToPrune = Math.max(MIN_SHARERS_TO_PRUNE, 2 * kept);
+            }
+            sharers.add(new WeakReference<>(sharer));
+            mHasSharers = true;
+        }
+    }
+
+    /**
+     * Has every deep clone that shares the list of points of this stroke copy the points, before this stroke or one of its points
+     * changes.
+     */
+    private void detachPointSharers() {
+        if (!mHasSharers) {
+            return;
+        }
+        final List<WeakReference<SrlStroke>> sharers = mPointSharers;
+        final List<SrlStroke> detached = new ArrayList<>();
+        // the clones are only collected under the lock of the list, they take their own locks to copy the points.
+        synchronized (sharers) {
+            for (int i = 0; i < sharers.size(); i++) {
+                final SrlStroke sharer = sharers.get(i).get();
+                if (sharer != null) {
+                    detached.add(sharer);
+                }
+            }
+            sharers.clear();
+            mHasSharers = false;
+        }
+        for (int i = 0; i < detached.size(); i++) {
+            detached.get(i).detachPoints();
+        }
+    }
+
+    /**
+     * Gives this deep clone its own copies of the points if it still shares them with the stroke it was cloned from.
+     * <br>
+     * This is done before the clone changes its points or hands them out, and before the stroke it shares them with changes them.
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private void detachPoints() {
+        synchronized (mLock) {
+            if (mPointSource == null) {
+                return;
+            }
+            final List<SrlPoint> shared = mPoints;
+            final List<SrlPoint> points = new ArrayList<>(shared.size());
+            // a shared point can be moved without the stroke it was cloned from being told, if that stroke is not the one that
+            // counts the moves of the point, so the location is taken from the packed coordinates of the clone then.
+            final boolean pointsMoved = countsChanged();
+            for (int i = 0; i < shared.size(); i++) {
+                final SrlPoint point = (SrlPoint) shared.get(i).deepClone();
+                if (pointsMoved && (point.getX() != mXValues[i] || point.getY() != mYValues[i])) {
+                    point.setPoint(mXValues[i], mYValues[i]);
+                }
+                point.countMovesIn(mMoves);
+                points.add(point);
+            }
+            mPoints = points;
+            mPointSource = null;
+            mCounters[0] = mMoves;
+            mNumCounters = 1;
+            updateCounts();
+            // the clone stays in the list of the stroke it was cloned from until that list is pruned or the stroke changes.
+        }
+    }
+
+    /**
+     * @return true if this is a deep clone that still shares the point objects of the stroke it was cloned from.
+     */
+    final boolean sharesPoints() {
+        return mPointSource != null;
+    }
+
+    /**
+     * Gives this stroke its own cached lengths before it changes them if they are shared with a deep clone, under the lock.
+     */
+    private void detachLengths() {
+        if (!mSharesLengths) {
+            return;
+        }
+        mCumulativeLengths = mCumulativeLengths.clone();
+        mSharesLengths = false;
+    }
+
+    /**
+     * Gives this stroke its own packed coordinates before it changes them if they are shared with a deep clone.
+     */
+    private void detachCoordinates() {
+        if (!mSharesCoordinates) {
+            return;
+        }
+        mXValues = mXValues.clone();
+        mYValues = mYValues.clone();
+        mSharesCoordinates = false;
+    }
+
     /**
      * Gets the length of the path, that is, the sum of the Euclidean distances
      * between all pairs of consecutive points.
+     * <br>
+     * The lengths are cached so this is O(1) unless points were changed since the last call, see {@link #getPathLength(int, int)}.
      *
      * @return the length of the stroke&#39;s path.
      */
     public final double getPathLength() {
-        double res = 0.0;
-        final List<SrlPoint> points = getPoints();
-        for (int i = 1; i < points.size(); ++i) {
-            res += points.get(i - 1).distanceToCenter(points.get(i));
+        return getPathLength(0, getNumPoints());
+    }
+
+    /**
+     * Gets the length of the path between two points.
+     * <br>
+     * This is the difference of two cached lengths so it is O(1) for any range.  Adding points to the end of the stroke, moving it,
+     * rotating it or scaling it uniformly keeps the cache, other changes only recompute the lengths after the first changed point.
+     * Moving a point directly drops the whole cache, it is computed again on the next call.
+     *
+     * @param start the index of the first point.
+     * @param end the index after the last point.
+     * @return the length of the path from the point at start to the point before end.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    public double getPathLength(final int start, final int end) {
+        if (start < 0 || end > getNumPoints() || start > end) {
+            throw new IllegalArgumentException("The range [" + start + ", " + end + ") is not a range of the " + getNumPoints() + " points");
+        }
+        if (end - start < 2) {
+            return 0;
+        }
+        checkMovedPoints();
+        synchronized (mLock) {
+            updateLengths(end);
+            return mCumulativeLengths[end - 1] - mCumulativeLengths[start];
         }
-        return res;
+    }
+
+    /**
+     * Makes sure the cumulative lengths of the first points are up to date, this must be called under the lock.
+     *
+     * @param numPoints the number of points whose cumulative lengths are needed.
+     */
+    private void updateLengths(final int numPoints) {
+        if (mNumLengths >= numPoints) {
+            return;
+        }
+        applyPendingTransform();
+        detachLengths();
+        if (mCumulativeLengths.length < numPoints) {
+            mCumulativeLengths = Arrays.copyOf(mCumulativeLengths, Math.max(numPoints, mCumulativeLengths.length * 2));
+        }
+        if (mNumLengths == 0) {
+            mCumulativeLengths[0] = 0;
+            mNumLengths = 1;
+        }
+        GeometryKernels.cumulativeLengths(mXValues, mYValues, mNumLengths - 1, numPoints, mCumulativeLengths);
+        mNumLengths = numPoints;
     }
 
     /**
@@ -236,20 +791,27 @@ public class SrlStroke extends SrlObject {
      *
      * The time of this point actually contains the total number of points in this sub object.
      * This value can be grabbed with {@link SrlPoint#getTime()}.
-     * Obviously this has a worst case of O(n) where n is the number of points in the shape.
+     * The stroke keeps running sums of its points so this is O(1), except for strokes whose points are a view of another stroke.
+     * Moving a point directly makes the next call sum the points again.
      */
     @Override public final SrlPoint getAveragedPoint() {
         final int numPoints = this.getNumPoints();
-        final List<SrlPoint> cache = getPoints();
-
-        // use the averages together.
-        double xAvg = 0;
-        double yAvg = 0;
-        for (int index = 0; index < numPoints; index++) {
-            xAvg += cache.get(index).getX() / ((double) numPoints);
-            yAvg += cache.get(index).getY() / ((double) numPoints);
+        if (numPoints == 0) {
+            return new SrlPoint(0, 0, 0);
+        }
+        if (numPoints == mPoints.size()) {
+            checkMovedPoints();
+            synchronized (mLock) {
+                return new SrlPoint(mSumX / numPoints, mSumY / numPoints, numPoints);
+            }
         }
-        return new SrlPoint(xAvg, yAvg, numPoints);
+        // the points are a view of other points (like the points of a sub stroke) so there are no running sums for them.
+        final SrlStroke packed = getPackedStroke();
+        packed.applyPendingTransform();
+        final int start = getPackedStart();
+        final double sumX = GeometryKernels.sum(packed.mXValues, start, start + numPoints);
+        final double sumY = GeometryKernels.sum(packed.mYValues, start, start + numPoints);
+        return new SrlPoint(sumX / numPoints, sumY / numPoints, numPoints);
     }
 
     /**
@@ -261,7 +823,10 @@ public class SrlStroke extends SrlObject {
     }
 
     /**
-     * {@inheritDoc}
+     * The clone shares the points until either stroke changes them or the clone hands them out, see
+     * {@link #SrlStroke(SrlStroke, boolean)}.  Changing a point object of either stroke never changes the other.
+     *
+     * @return a deep copy of the stroke.
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public AbstractSrlComponent deepClone() {
@@ -294,7 +859,7 @@ public class SrlStroke extends SrlObject {
             return false;
         }
         // If the above is true then they are the same instance.
-        final List<SrlPoint> cache = getPoints();
+        final List<SrlPoint> cache = readPoints();
         boolean result = true;
         for (int index = 0; index < cache.size() && result; index++) {
             result &= cache.get(index).deepEquals(other);
@@ -319,27 +884,64 @@ public class SrlStroke extends SrlObject {
         throw new UnsupportedOperationException("need to implement this");
     }
 
+    /**
+     * Measures how different the shapes of the two strokes are.
+     * <br>
+     * Unlike {@link #distance(AbstractSrlComponent)} this is not the closest distance between the strokes, two strokes that cross
+     * can still be far apart.  This works for {@link SrlSubStroke}s as only the points of the sub stroke are used.
+     *
+     * @param other the stroke this stroke is compared to.
+     * @param metric the distance that is measured.
+     * @return the distance between the strokes.
+     */
+    public final double distance(final SrlStroke other, final StrokeMetric metric) {
+        return metric.distance(getPoints(), other.getPoints());
+    }
+
     /**
      * Calculates the bounding box.
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override protected void calculateBBox() {
-        double maxX = Double.MIN_VALUE;
-        double minX = Double.MAX_VALUE;
-        double maxY = Double.MIN_VALUE;
-        double minY = Double.MAX_VALUE;
-        final List<SrlPoint> cache = getPoints();
-        // loops are faster on android with length predefined.
-        final int length = cache.size();
-        for (int i = 0; i < length; i++) {
-            final SrlPoint point = cache.get(i);
-            maxX = Math.max(point.getX(), maxX);
-            maxY = Math.max(point.getY(), maxY);
-
-            minX = Math.min(point.getX(), minX);
-            minY = Math.min(point.getY(), minY);
+        if (getNumPoints() == 0) {
+            this.setBoundingBox(new SrlBoundingBox(Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE));
+            return;
         }
-        this.setBoundingBox(new SrlBoundingBox(minX, minY, maxX, maxY));
+        final double[] bounds = calculateBounds();
+        this.setBoundingBox(new SrlBoundingBox(bounds[GeometryKernels.MIN_X], bounds[GeometryKernels.MIN_Y],
+                bounds[GeometryKernels.MAX_X], bounds[GeometryKernels.MAX_Y]));
+    }
+
+    /**
+     * Runs the bounds kernel over the packed coordinates of the points.
+     *
+     * @return the bounds indexed the same way as {@link GeometryKernels#bounds(double[], double[], int, int, double[])}.
+     */
+    private double[] calculateBounds() {
+        final SrlStroke packed = getPackedStroke();
+        packed.applyPendingTransform();
+        final int start = getPackedStart();
+        return GeometryKernels.bounds(packed.mXValues, packed.mYValues, start, start + getNumPoints(),
+                new double[GeometryKernels.NUM_BOUNDS]);
+    }
+
+    /**
+     * The stroke whose packed coordinates hold the points of this stroke.
+     * This is the stroke itself unless its points are a view of another stroke, like the points of a sub stroke.
+     *
+     * @return the stroke that packs the points.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    SrlStroke getPackedStroke() {
+        return this;
+    }
+
+    /**
+     * @return the index of the first point of this stroke in the packed coordinates of {@link #getPackedStroke()}.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    int getPackedStart() {
+        return 0;
     }
 
     /**
@@ -347,59 +949,35 @@ public class SrlStroke extends SrlObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override protected void calculateConvexHull() {
-        throw new UnsupportedOperationException("need to implement this");
+        this.setConvexHull(ConvexHulls.calculate(getPoints()));
     }
 
     /**
      * @return the largest X value. (larger x values are denoted as being on the right hand side of the screen.
      */
     @Override public final double getMaxX() {
-        double max = Double.NEGATIVE_INFINITY;
-        final List<SrlPoint> shapeList = getPoints();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlPoint shape = shapeList.get(index);
-            max = Math.max(max, shape.getX());
-        }
-        return max;
+        return calculateBounds()[GeometryKernels.MAX_X];
     }
 
     /**
      * @return the largest Y value. (larger Y values are denoted as being at the bottom the screen.
      */
     @Override public final double getMaxY() {
-        double max = Double.NEGATIVE_INFINITY;
-        final List<SrlPoint> shapeList = getPoints();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlPoint shape = shapeList.get(index);
-            max = Math.max(max, shape.getY());
-        }
-        return max;
+        return calculateBounds()[GeometryKernels.MAX_Y];
     }
 
     /**
      * @return the smallest X value. (smaller x values are denoted as being on the left hand side of the screen.
      */
     @Override public final double getMinX() {
-        double min = Double.POSITIVE_INFINITY;
-        final List<SrlPoint> shapeList = getPoints();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlPoint shape = shapeList.get(index);
-            min = Math.min(min, shape.getX());
-        }
-        return min;
+        return calculateBounds()[GeometryKernels.MIN_X];
     }
 
     /**
      * @return the smallest Y value. (smaller Y values are denoted as being at the top of the screen.
      */
     @Override public final double getMinY() {
-        double min = Double.POSITIVE_INFINITY;
-        final List<SrlPoint> shapeList = getPoints();
-        for (int index = 0; index < shapeList.size(); index++) {
-            final SrlPoint shape = shapeList.get(index);
-            min = Math.min(min, shape.getY());
-        }
-        return min;
+        return calculateBounds()[GeometryKernels.MIN_Y];
     }
 
     /**
@@ -409,7 +987,15 @@ public class SrlStroke extends SrlObject {
      * @param point the sub object.
      */
     public final void addPoint(final int index, final SrlPoint point) {
+        applyPendingTransform();
+        detachCoordinates();
+        detachPoints();
+        detachPointSharers();
         mPoints.add(index, point);
+        countMoves(point);
+        insertCoordinates(index, point);
+        accumulate(point, 1);
+        mNumLengths = Math.min(mNumLengths, index);
         resetBounders();
     }
 
@@ -419,8 +1005,15 @@ public class SrlStroke extends SrlObject {
      * @param point the point being added to the stroke.
      */
     public final void addPoint(final SrlPoint point) {
+        applyPendingTransform();
+        detachCoordinates();
+        detachPoints();
+        detachPointSharers();
         mPoints.add(point);
+        countMoves(point);
         point.setName("p" + mPoints.size());
+        insertCoordinates(mPoints.size() - 1, point);
+        accumulate(point, 1);
         resetBounders();
     }
 
@@ -430,10 +1023,50 @@ public class SrlStroke extends SrlObject {
      * @param points points to add to the stroke
      */
     public final void addPoints(final List<? extends SrlPoint> points) {
+        applyPendingTransform();
+        detachCoordinates();
+        detachPoints();
+        detachPointSharers();
+        final int start = mPoints.size();
         mPoints.addAll(points);
+        for (int i = 0; i < points.size(); i++) {
+            countMoves(points.get(i));
+            insertCoordinates(start + i, points.get(i));
+            accumulate(points.get(i), 1);
+        }
         resetBounders();
     }
 
+    /**
+     * Inserts the coordinates of a point that was just added to the list of points into the packed coordinates.
+     *
+     * @param index the index of the point.
+     * @param point the point that was added.
+     */
+    private void insertCoordinates(final int index, final SrlPoint point) {
+        final int numPoints = mPoints.size();
+        if (mXValues.length < numPoints) {
+            final int capacity = Math.max(numPoints, mXValues.length * 2);
+            mXValues = Arrays.copyOf(mXValues, capacity);
+            mYValues = Arrays.copyOf(mYValues, capacity);
+        }
+        System.arraycopy(mXValues, index, mXValues, index + 1, numPoints - 1 - index);
+        System.arraycopy(mYValues, index, mYValues, index + 1, numPoints - 1 - index);
+        mXValues[index] = point.getX();
+        mYValues[index] = point.getY();
+    }
+
+    /**
+     * Adds a point to or removes a point from the running sums.
+     *
+     * @param point the point that was added or removed.
+     * @param sign 1 if the point was added, -1 if it was removed.
+     */
+    private void accumulate(final SrlPoint point, final int sign) {
+        mSumX += sign * point.getX();
+        mSumY += sign * point.getY();
+    }
+
     /**
      * Checks if this container contains the target point.
      *
@@ -442,7 +1075,7 @@ public class SrlStroke extends SrlObject {
      * otherwise
      */
     public final boolean contains(final SrlPoint point) {
-        return getPoints().contains(point);
+        return readPoints().contains(point);
     }
 
     /**
@@ -467,7 +1100,16 @@ public class SrlStroke extends SrlObject {
      * Clears the stroke of all points.
      */
     public final void clear() {
+        applyPendingTransform();
+        detachCoordinates();
+        detachPoints();
+        detachPointSharers();
         mPoints.clear();
+        mSumX = 0;
+        mSumY = 0;
+        mNumLengths = 0;
+        mNumCounters = 1;
+        updateCounts();
         resetBounders();
     }
 
@@ -478,11 +1120,13 @@ public class SrlStroke extends SrlObject {
      * @return true if something was removed
      */
     public final boolean remove(final SrlPoint subObject) {
-        final boolean result = mPoints.remove(subObject);
-        if (result) {
-            resetBounders();
+        // the removed point is looked up first since it may only be equal to the given point.
+        final int index = mPoints.indexOf(subObject);
+        if (index < 0) {
+            return false;
         }
-        return result;
+        remove(index);
+        return true;
     }
 
     /**
@@ -491,7 +1135,15 @@ public class SrlStroke extends SrlObject {
      * @see List#remove(int)
      */
     public final SrlPoint remove(final int index) {
+        applyPendingTransform();
+        detachCoordinates();
+        detachPoints();
+        detachPointSharers();
         final SrlPoint obj = mPoints.remove(index);
+        System.arraycopy(mXValues, index + 1, mXValues, index, mPoints.size() - index);
+        System.arraycopy(mYValues, index + 1, mYValues, index, mPoints.size() - index);
+        accumulate(obj, -1);
+        mNumLengths = Math.min(mNumLengths, index);
         resetBounders();
         return obj;
     }
@@ -499,12 +1151,28 @@ public class SrlStroke extends SrlObject {
     /**
      * This creates an unmodifiableList of the points.
      * The list of points can only be modified by going through methods in the stroke itself.
+     * Any pending transform is applied to the points first, and a deep clone that shares its points copies them first.
      *
      * @return a list of points used by the stroke.  <b>This should never return null.</b>
      * @see Collections#unmodifiableList
      */
     @SuppressWarnings("checkstyle:designforextension")
     public List<SrlPoint> getPoints() {
+        applyPendingTransform();
+        // the points handed out can be moved directly so a deep clone copies the points it shares first.
+        detachPoints();
+        return Collections.unmodifiableList(mPoints);
+    }
+
+    /**
+     * The points for the methods of the stroke that only read them, unlike {@link #getPoints()} a deep clone does not copy the
+     * points it shares.  The points must not be moved or handed out.
+     *
+     * @return a list of points used by the stroke.
+     */
+    @SuppressWarnings("checkstyle:designforextension")
+    List<SrlPoint> readPoints() {
+        applyPendingTransform();
         return Collections.unmodifiableList(mPoints);
     }
 
@@ -536,11 +1204,14 @@ public class SrlStroke extends SrlObject {
 
     /**
      * Gets the number of points in the stroke.
+     * <br>
+     * This does not apply the pending transform.
      *
      * @return number of points in the stroke
      */
-    public final int getNumPoints() {
-        return getPoints().size();
+    @SuppressWarnings("checkstyle:designforextension")
+    public int getNumPoints() {
+        return mPoints.size();
     }
 
     /**
@@ -1,5 +1,6 @@
 package edu.tamu.srl.sketch.core.object;
 
+import edu.tamu.srl.sketch.core.geometry.AffineTransform;
 import edu.tamu.srl.sketch.core.virtual.SrlPoint;
 
 import java.util.List;
@@ -9,6 +10,8 @@ import java.util.List;
  *
  * <br>
  * A substroke is defined as a portion of a complete stroke.
+ * <br>
+ * The points belong to the parent stroke, so transforming a substroke moves those points of the parent right away.
  *
  * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
  * @author gigemjt
@@ -74,6 +77,113 @@ public class SrlSubStroke extends SrlStroke {
         return mParentStroke.getPoints().subList(mStartIndex, mEndIndex);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    final List<SrlPoint> readPoints() {
+        return mParentStroke.readPoints().subList(mStartIndex, mEndIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int getNumPoints() {
+        return mEndIndex - mStartIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    final SrlStroke getPackedStroke() {
+        return mParentStroke.getPackedStroke();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    final int getPackedStart() {
+        return mParentStroke.getPackedStart() + mStartIndex;
+    }
+
+    /**
+     * Moves the points of the parent stroke that are in this sub stroke.
+     *
+     * @param xOffset the amount in the x direction to move the object by.
+     * @param yOffset the amount in the y direction to move the object by.
+     */
+    @Override
+    public final void translate(final double xOffset, final double yOffset) {
+        final AffineTransform transform = new AffineTransform();
+        transform.translate(xOffset, yOffset);
+        transformPoints(transform);
+    }
+
+    /**
+     * Scales the points of the parent stroke that are in this sub stroke.
+     *
+     * @param xFactor the x-factor
+     * @param yFactor the y-factor
+     */
+    @Override
+    public final void scale(final double xFactor, final double yFactor) {
+        final AffineTransform transform = new AffineTransform();
+        transform.scale(xFactor, yFactor);
+        transformPoints(transform);
+    }
+
+    /**
+     * Rotates the points of the parent stroke that are in this sub stroke.
+     *
+     * @param radians the number of radians to rotate
+     * @param xCenter the x-coordinate to rotate from
+     * @param yCenter the y-coordinate to rotate from
+     */
+    @Override
+    public final void rotate(final double radians, final double xCenter, final double yCenter) {
+        final AffineTransform transform = new AffineTransform();
+        transform.rotate(radians, xCenter, yCenter);
+        transformPoints(transform);
+    }
+
+    /**
+     * Transforms the points through the stroke that packs them so the cached values of that stroke stay up to date.
+     * <br>
+     * The parent may itself be a sub stroke, so the range is resolved to the packed stroke the same way the reads are and every
+     * sub stroke in between is reset.
+     *
+     * @param transform the transform that is applied.
+     */
+    private void transformPoints(final AffineTransform transform) {
+        final int start = getPackedStart();
+        getPackedStroke().transformRange(start, start + getNumPoints(), transform);
+        SrlStroke stroke = mParentStroke;
+        while (stroke instanceof SrlSubStroke) {
+            final SrlSubStroke subStroke = (SrlSubStroke) stroke;
+            subStroke.resetBounders();
+            stroke = subStroke.mParentStroke;
+        }
+        resetBounders();
+    }
+
+    /**
+     * Uses the cached lengths of the parent stroke so this is O(1) as well.
+     *
+     * @param start the index of the first point in this sub stroke.
+     * @param end the index after the last point in this sub stroke.
+     * @return the length of the path from the point at start to the point before end.
+     */
+    @Override
+    public final double getPathLength(final int start, final int end) {
+        if (start < 0 || end > getNumPoints() || start > end) {
+            throw new IllegalArgumentException("The range [" + start + ", " + end + ") is not a range of the " + getNumPoints() + " points");
+        }
+        return mParentStroke.getPathLength(mStartIndex + start, mStartIndex + end);
+    }
+
     /**
      * Sets the parent substroke.
      *
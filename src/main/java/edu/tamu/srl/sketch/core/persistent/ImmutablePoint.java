@@ -0,0 +1,133 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.UUID;
+
+/**
+ * A point of a {@link PersistentStroke}, unlike {@link SrlPoint} it can never change so it can be shared by any number of strokes.
+ * <br>
+ * Only the current location is kept, the history of an immutable model is the older versions of the model.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.ShortVariable")
+public final class ImmutablePoint {
+
+    /**
+     * The x value of the point.
+     */
+    private final double mX;
+
+    /**
+     * The y value of the point.
+     */
+    private final double mY;
+
+    /**
+     * The time the point was made.
+     */
+    private final long mTime;
+
+    /**
+     * The unique identifier of the point.
+     */
+    private final UUID mId;
+
+    /**
+     * The pressure of the point.
+     */
+    private final double mPressure;
+
+    /**
+     * @param x the x value of the point.
+     * @param y the y value of the point.
+     * @param time the time the point was made.
+     * @param id the unique identifier of the point.
+     * @param pressure the pressure of the point.
+     */
+    public ImmutablePoint(final double x, final double y, final long time, final UUID id, final double pressure) {
+        this.mX = x;
+        this.mY = y;
+        this.mTime = time;
+        this.mId = id;
+        this.mPressure = pressure;
+    }
+
+    /**
+     * @param x the x value of the point.
+     * @param y the y value of the point.
+     * @param time the time the point was made.
+     */
+    public ImmutablePoint(final double x, final double y, final long time) {
+        this(x, y, time, UUID.randomUUID(), 0);
+    }
+
+    /**
+     * @param point the point whose current values are copied.
+     * @return an immutable copy of the point.
+     */
+    public static ImmutablePoint from(final SrlPoint point) {
+        return new ImmutablePoint(point.getX(), point.getY(), point.getTime(), point.getId(), point.getPressure());
+    }
+
+    /**
+     * @return a new mutable point with the values of this point.
+     */
+    public SrlPoint toSrlPoint() {
+        final SrlPoint point = new SrlPoint(mX, mY, mTime, mId);
+        point.setPressure(mPressure);
+        return point;
+    }
+
+    /**
+     * @param x the new x value.
+     * @param y the new y value.
+     * @return a copy of this point at the new location.
+     */
+    public ImmutablePoint moveTo(final double x, final double y) {
+        return new ImmutablePoint(x, y, mTime, mId, mPressure);
+    }
+
+    /**
+     * @return the x value of the point.
+     */
+    public double getX() {
+        return mX;
+    }
+
+    /**
+     * @return the y value of the point.
+     */
+    public double getY() {
+        return mY;
+    }
+
+    /**
+     * @return the time the point was made.
+     */
+    public long getTime() {
+        return mTime;
+    }
+
+    /**
+     * @return the unique identifier of the point.
+     */
+    public UUID getId() {
+        return mId;
+    }
+
+    /**
+     * @return the pressure of the point.
+     */
+    public double getPressure() {
+        return mPressure;
+    }
+
+    /**
+     * @return A string representation of the point.
+     */
+    @Override public String toString() {
+        return "IP[(" + mX + ", " + mY + ") T=" + mTime + "]";
+    }
+}
@@ -0,0 +1,141 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
+
+import java.util.UUID;
+
+/**
+ * The immutable counterpart of {@link SrlObject}, a node of a persistent sketch tree.
+ * <br>
+ * Nodes never change, an edit returns a new node and the nodes above it are copied up to a new root while every other node is
+ * shared with the old tree.  Holding on to a root is a snapshot of the whole tree and keeping older roots is undo.
+ * The bounds are computed at most once per node and every node that is shared keeps its computed bounds.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings({ "checkstyle:designforextension", "PMD.AbstractNaming" })
+public abstract class PersistentObject {
+
+    /**
+     * The unique identifier of the object, edits keep the identifier.
+     */
+    private final UUID mId;
+
+    /**
+     * The time the object was created.
+     */
+    private final long mTime;
+
+    /**
+     * True if the user created the object instead of the computer.
+     */
+    private final boolean mIsUserCreated;
+
+    /**
+     * The smallest and largest x and y values, computed when they are first needed.
+     * <br>
+     * Computing them twice gives the same array so threads racing on the first computation are harmless, the field is volatile
+     * so a thread never sees a partly filled array.
+     */
+    private volatile double[] mBounds;
+
+    /**
+     * @param uuid the unique identifier of the object.
+     * @param time the time the object was created.
+     * @param isUserCreated true if the user created the object instead of the computer.
+     * @param bounds the bounds if they are already known, otherwise null.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    PersistentObject(final UUID uuid, final long time, final boolean isUserCreated, final double[] bounds) {
+        this.mId = uuid;
+        this.mTime = time;
+        this.mIsUserCreated = isUserCreated;
+        this.mBounds = bounds;
+    }
+
+    /**
+     * @return a new mutable copy of this object and everything it contains.
+     */
+    public abstract SrlObject toSrlObject();
+
+    /**
+     * @return the number of points in this object and everything it contains.
+     */
+    public abstract int getNumPoints();
+
+    /**
+     * @return the smallest and largest x and y values, an object without points has infinite bounds.
+     */
+    abstract double[] calculateBounds();
+
+    /**
+     * @return the bounds indexed like {@link GeometryKernels#bounds(double[], double[], int, int, double[])}.
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    final double[] getBounds() {
+        double[] bounds = mBounds;
+        if (bounds == null) {
+            bounds = calculateBounds();
+            mBounds = bounds;
+        }
+        return bounds;
+    }
+
+    /**
+     * @return the bounds if they were computed already, otherwise null.
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    final double[] getComputedBounds() {
+        return mBounds;
+    }
+
+    /**
+     * @return the unique identifier of the object.
+     */
+    public final UUID getId() {
+        return mId;
+    }
+
+    /**
+     * @return the time the object was created.
+     */
+    public final long getTime() {
+        return mTime;
+    }
+
+    /**
+     * @return true if the user created the object instead of the computer.
+     */
+    public final boolean isUserCreated() {
+        return mIsUserCreated;
+    }
+
+    /**
+     * @return the smallest x value, positive infinity if there are no points.
+     */
+    public final double getMinX() {
+        return getBounds()[GeometryKernels.MIN_X];
+    }
+
+    /**
+     * @return the smallest y value, positive infinity if there are no points.
+     */
+    public final double getMinY() {
+        return getBounds()[GeometryKernels.MIN_Y];
+    }
+
+    /**
+     * @return the largest x value, negative infinity if there are no points.
+     */
+    public final double getMaxX() {
+        return getBounds()[GeometryKernels.MAX_X];
+    }
+
+    /**
+     * @return the largest y value, negative infinity if there are no points.
+     */
+    public final double getMaxY() {
+        return getBounds()[GeometryKernels.MAX_Y];
+    }
+}
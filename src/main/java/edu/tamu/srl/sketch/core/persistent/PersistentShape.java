@@ -0,0 +1,300 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.tobenamedlater.SrlShapeConfig;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The immutable counterpart of {@link SrlShape}.
+ * <br>
+ * An edit anywhere in the tree returns a new root: the shapes on the path to the edited node are copied and every other sub tree
+ * is shared with the old root, so an edit is O(depth * log32 children) and taking a snapshot is keeping a reference to the root.
+ * Threads can read any root without locks because no node ever changes, and undo is going back to an older root.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class PersistentShape extends PersistentObject {
+
+    /**
+     * The sub objects of the shape in order.
+     */
+    private final PersistentVector<PersistentObject> mChildren;
+
+    /**
+     * A private copy of the interpretation of the shape, it is never handed out so it can not be changed.
+     */
+    private final SrlShapeConfig mConfig;
+
+    /**
+     * Description of the shape.
+     */
+    private final String mDescription;
+
+    /**
+     * The number of points in all of the sub objects.
+     */
+    private final int mNumPoints;
+
+    /**
+     * Creates a shape without sub objects.
+     *
+     * @param time the time the shape was created.
+     * @param uuid the unique identifier of the shape.
+     * @param isUserCreated true if the user created the shape instead of the computer.
+     * @param config the interpretation of the shape, it is copied.  This may be null.
+     * @param description the description of the shape.
+     */
+    public PersistentShape(final long time, final UUID uuid, final boolean isUserCreated, final SrlShapeConfig config,
+            final String description) {
+        this(uuid, time, isUserCreated, copy(config), description, PersistentVector.<PersistentObject>empty(), 0);
+    }
+
+    /**
+     * @param uuid the unique identifier of the shape.
+     * @param time the time the shape was created.
+     * @param isUserCreated true if the user created the shape instead of the computer.
+     * @param config the private copy of the interpretation.
+     * @param description the description of the shape.
+     * @param children the sub objects of the shape.
+     * @param numPoints the number of points in all of the sub objects, it is passed in so an edit does not visit every child.
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    private PersistentShape(final UUID uuid, final long time, final boolean isUserCreated, final SrlShapeConfig config,
+            final String description, final PersistentVector<PersistentObject> children, final int numPoints) {
+        super(uuid, time, isUserCreated, null);
+        this.mConfig = config;
+        this.mDescription = description;
+        this.mChildren = children;
+        this.mNumPoints = numPoints;
+    }
+
+    /**
+     * Copies a shape and everything it contains, strokes (and sub strokes) become {@link PersistentStroke}s and shapes become
+     * persistent shapes.
+     *
+     * @param shape the shape being copied.
+     * @return an immutable copy of the shape.
+     */
+    public static PersistentShape from(final SrlShape shape) {
+        PersistentVector<PersistentObject> children = PersistentVector.empty();
+        int numPoints = 0;
+        final List<SrlObject> subObjects = shape.getSubObjects();
+        for (int i = 0; i < subObjects.size(); i++) {
+            final PersistentObject child = from(subObjects.get(i));
+            children = children.append(child);
+            numPoints += child.getNumPoints();
+        }
+        final SrlShapeConfig config = new SrlShapeConfig(shape.getInterpretationId(), shape.getRecognizerId(), shape.getInterpretation(),
+                shape.getConfidence(), shape.getComplexity(), shape.isForced(), shape.isEndState());
+        return new PersistentShape(shape.getId(), shape.getTime(), shape.isUserCreated(), config, shape.getDescription(), children,
+                numPoints);
+    }
+
+    /**
+     * @param object a shape or a stroke.
+     * @return an immutable copy of the object.
+     */
+    public static PersistentObject from(final SrlObject object) {
+        if (object instanceof SrlShape) {
+            return from((SrlShape) object);
+        }
+        if (object instanceof SrlStroke) {
+            return PersistentStroke.from((SrlStroke) object);
+        }
+        throw new IllegalArgumentException("Objects of type " + object.getClass().getName() + " can not be made persistent");
+    }
+
+    /**
+     * @return a new mutable shape with copies of everything this shape contains.
+     */
+    public SrlShape toSrlShape() {
+        final SrlShape shape = new SrlShape(getTime(), getId(), isUserCreated(), copy(mConfig), mDescription);
+        for (int i = 0; i < mChildren.size(); i++) {
+            shape.add(mChildren.get(i).toSrlObject());
+        }
+        return shape;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public SrlObject toSrlObject() {
+        return toSrlShape();
+    }
+
+    /**
+     * @param child the sub object added after the last sub object.
+     * @return a new shape with the sub object added.
+     */
+    public PersistentShape add(final PersistentObject child) {
+        return withChildren(mChildren.append(child), mNumPoints + child.getNumPoints());
+    }
+
+    /**
+     * @param index the index of the sub object that is replaced.
+     * @param child the new sub object.
+     * @return a new shape with the sub object replaced.
+     */
+    public PersistentShape set(final int index, final PersistentObject child) {
+        return withChildren(mChildren.set(index, child), mNumPoints - mChildren.get(index).getNumPoints() + child.getNumPoints());
+    }
+
+    /**
+     * @param index the index of the sub object that is removed.
+     * @return a new shape without the sub object.
+     */
+    public PersistentShape remove(final int index) {
+        return withChildren(mChildren.remove(index), mNumPoints - mChildren.get(index).getNumPoints());
+    }
+
+    /**
+     * Replaces a node anywhere below this shape, only the shapes on the path are copied.
+     *
+     * @param path the indexes of the sub objects from this shape down to the node, every index but the last must be a shape.
+     * @param replacement the new node.
+     * @return the new root.
+     */
+    public PersistentShape replace(final int[] path, final PersistentObject replacement) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("The path must not be empty");
+        }
+        return replace(path, 0, replacement);
+    }
+
+    /**
+     * @param path the indexes of the sub objects from the root down to the node.
+     * @param depth the index in the path of the sub object of this shape.
+     * @param replacement the new node.
+     * @return the copy of this shape.
+     */
+    private PersistentShape replace(final int[] path, final int depth, final PersistentObject replacement) {
+        if (depth == path.length - 1) {
+            return set(path[depth], replacement);
+        }
+        final PersistentObject child = mChildren.get(path[depth]);
+        if (!(child instanceof PersistentShape)) {
+            throw new IllegalArgumentException("The path goes through " + child + " which is not a shape");
+        }
+        return set(path[depth], ((PersistentShape) child).replace(path, depth + 1, replacement));
+    }
+
+    /**
+     * @param path the indexes of the sub objects from this shape down to the node.
+     * @return the node at the end of the path.
+     */
+    public PersistentObject get(final int[] path) {
+        PersistentObject node = this;
+        for (int depth = 0; depth < path.length; depth++) {
+            if (!(node instanceof PersistentShape)) {
+                throw new IllegalArgumentException("The path goes through " + node + " which is not a shape");
+            }
+            node = ((PersistentShape) node).get(path[depth]);
+        }
+        return node;
+    }
+
+    /**
+     * @param index the index of the sub object.
+     * @return the sub object.
+     */
+    public PersistentObject get(final int index) {
+        return mChildren.get(index);
+    }
+
+    /**
+     * @return the sub objects as a read only list.
+     */
+    public List<PersistentObject> getSubObjects() {
+        return mChildren.asList();
+    }
+
+    /**
+     * @return the number of sub objects.
+     */
+    public int getNumChildren() {
+        return mChildren.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public int getNumPoints() {
+        return mNumPoints;
+    }
+
+    /**
+     * @return the label of the interpretation or null if the shape has none.
+     */
+    public String getInterpretation() {
+        if (mConfig == null) {
+            return null;
+        }
+        return mConfig.interpretation;
+    }
+
+    /**
+     * @return the confidence of the interpretation.
+     */
+    public double getConfidence() {
+        if (mConfig == null) {
+            return 0;
+        }
+        return mConfig.confidence;
+    }
+
+    /**
+     * @return the description of the shape.
+     */
+    public String getDescription() {
+        return mDescription;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override double[] calculateBounds() {
+        final double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < mChildren.size(); i++) {
+            final PersistentObject child = mChildren.get(i);
+            bounds[GeometryKernels.MIN_X] = Math.min(bounds[GeometryKernels.MIN_X], child.getMinX());
+            bounds[GeometryKernels.MIN_Y] = Math.min(bounds[GeometryKernels.MIN_Y], child.getMinY());
+            bounds[GeometryKernels.MAX_X] = Math.max(bounds[GeometryKernels.MAX_X], child.getMaxX());
+            bounds[GeometryKernels.MAX_Y] = Math.max(bounds[GeometryKernels.MAX_Y], child.getMaxY());
+        }
+        return bounds;
+    }
+
+    /**
+     * @param children the new sub objects.
+     * @param numPoints the number of points in the new sub objects.
+     * @return a copy of this shape with the sub objects.
+     */
+    private PersistentShape withChildren(final PersistentVector<PersistentObject> children, final int numPoints) {
+        return new PersistentShape(getId(), getTime(), isUserCreated(), mConfig, mDescription, children, numPoints);
+    }
+
+    /**
+     * @param config the interpretation, it may be null.
+     * @return a copy of the interpretation.
+     */
+    private static SrlShapeConfig copy(final SrlShapeConfig config) {
+        if (config == null) {
+            return null;
+        }
+        return new SrlShapeConfig(config.interpretationId, config.recognizerId, config.interpretation, config.confidence,
+                config.complexity, config.isForced, config.isEndState);
+    }
+
+    /**
+     * @return A string representation of the shape.
+     */
+    @Override public String toString() {
+        return "PSHP[" + getInterpretation() + " ID:" + getId() + " children:" + mChildren.size() + "]";
+    }
+}
@@ -0,0 +1,183 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The immutable counterpart of {@link SrlStroke}.
+ * <br>
+ * The points are kept in a {@link PersistentVector} so adding or replacing a point returns a new stroke in O(log32 n) that shares
+ * all other points with this stroke.  Moving the whole stroke creates every point again, it is O(n).
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class PersistentStroke extends PersistentObject {
+
+    /**
+     * The points of the stroke in order.
+     */
+    private final PersistentVector<ImmutablePoint> mPoints;
+
+    /**
+     * Creates a stroke without points.
+     *
+     * @param time the time the stroke was created.
+     * @param uuid the unique identifier of the stroke.
+     * @param isUserCreated true if the user created the stroke instead of the computer.
+     */
+    public PersistentStroke(final long time, final UUID uuid, final boolean isUserCreated) {
+        this(uuid, time, isUserCreated, PersistentVector.<ImmutablePoint>empty(), null);
+    }
+
+    /**
+     * @param uuid the unique identifier of the stroke.
+     * @param time the time the stroke was created.
+     * @param isUserCreated true if the user created the stroke instead of the computer.
+     * @param points the points of the stroke.
+     * @param bounds the bounds of the points if they are already known, otherwise null.
+     */
+    private PersistentStroke(final UUID uuid, final long time, final boolean isUserCreated, final PersistentVector<ImmutablePoint> points,
+            final double[] bounds) {
+        super(uuid, time, isUserCreated, bounds);
+        this.mPoints = points;
+    }
+
+    /**
+     * @param stroke the stroke whose current points are copied, for a sub stroke only its own points are copied.
+     * @return an immutable copy of the stroke.
+     */
+    public static PersistentStroke from(final SrlStroke stroke) {
+        final List<SrlPoint> points = stroke.getPoints();
+        PersistentVector<ImmutablePoint> copies = PersistentVector.empty();
+        for (int i = 0; i < points.size(); i++) {
+            copies = copies.append(ImmutablePoint.from(points.get(i)));
+        }
+        return new PersistentStroke(stroke.getId(), stroke.getTime(), stroke.isUserCreated(), copies, null);
+    }
+
+    /**
+     * @return a new mutable stroke with copies of the points.
+     */
+    public SrlStroke toSrlStroke() {
+        final SrlStroke stroke = new SrlStroke(getTime(), getId(), isUserCreated());
+        for (int i = 0; i < mPoints.size(); i++) {
+            stroke.addPoint(mPoints.get(i).toSrlPoint());
+        }
+        return stroke;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public SrlObject toSrlObject() {
+        return toSrlStroke();
+    }
+
+    /**
+     * @param point the point added after the last point.
+     * @return a new stroke with the point added, the bounds are grown instead of computed again.
+     */
+    public PersistentStroke addPoint(final ImmutablePoint point) {
+        final double[] bounds = getComputedBounds();
+        double[] grown = null;
+        if (bounds != null) {
+            grown = new double[] {
+                Math.min(bounds[GeometryKernels.MIN_X], point.getX()),
+                Math.min(bounds[GeometryKernels.MIN_Y], point.getY()),
+                Math.max(bounds[GeometryKernels.MAX_X], point.getX()),
+                Math.max(bounds[GeometryKernels.MAX_Y], point.getY()),
+            };
+        }
+        return new PersistentStroke(getId(), getTime(), isUserCreated(), mPoints.append(point), grown);
+    }
+
+    /**
+     * @param index the index of the point that is replaced.
+     * @param point the new point.
+     * @return a new stroke with the point replaced.
+     */
+    public PersistentStroke setPoint(final int index, final ImmutablePoint point) {
+        return new PersistentStroke(getId(), getTime(), isUserCreated(), mPoints.set(index, point), null);
+    }
+
+    /**
+     * @param index the index of the point that is removed.
+     * @return a new stroke without the point.
+     */
+    public PersistentStroke removePoint(final int index) {
+        return new PersistentStroke(getId(), getTime(), isUserCreated(), mPoints.remove(index), null);
+    }
+
+    /**
+     * @param xOffset the amount in the x direction.
+     * @param yOffset the amount in the y direction.
+     * @return a new stroke with every point moved.
+     */
+    public PersistentStroke translate(final double xOffset, final double yOffset) {
+        PersistentVector<ImmutablePoint> moved = PersistentVector.empty();
+        for (int i = 0; i < mPoints.size(); i++) {
+            final ImmutablePoint point = mPoints.get(i);
+            moved = moved.append(point.moveTo(point.getX() + xOffset, point.getY() + yOffset));
+        }
+        final double[] bounds = getComputedBounds();
+        double[] shifted = null;
+        if (bounds != null) {
+            shifted = new double[] {
+                bounds[GeometryKernels.MIN_X] + xOffset,
+                bounds[GeometryKernels.MIN_Y] + yOffset,
+                bounds[GeometryKernels.MAX_X] + xOffset,
+                bounds[GeometryKernels.MAX_Y] + yOffset,
+            };
+        }
+        return new PersistentStroke(getId(), getTime(), isUserCreated(), moved, shifted);
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the point at the index.
+     */
+    public ImmutablePoint getPoint(final int index) {
+        return mPoints.get(index);
+    }
+
+    /**
+     * @return the points as a read only list.
+     */
+    public List<ImmutablePoint> getPoints() {
+        return mPoints.asList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public int getNumPoints() {
+        return mPoints.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override double[] calculateBounds() {
+        final double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < mPoints.size(); i++) {
+            final ImmutablePoint point = mPoints.get(i);
+            bounds[GeometryKernels.MIN_X] = Math.min(bounds[GeometryKernels.MIN_X], point.getX());
+            bounds[GeometryKernels.MIN_Y] = Math.min(bounds[GeometryKernels.MIN_Y], point.getY());
+            bounds[GeometryKernels.MAX_X] = Math.max(bounds[GeometryKernels.MAX_X], point.getX());
+            bounds[GeometryKernels.MAX_Y] = Math.max(bounds[GeometryKernels.MAX_Y], point.getY());
+        }
+        return bounds;
+    }
+
+    /**
+     * @return A string representation of the stroke.
+     */
+    @Override public String toString() {
+        return "PSTR[" + getId() + " points:" + mPoints.size() + "]";
+    }
+}
@@ -0,0 +1,346 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable list where every edit returns a new list that shares almost all of its storage with the old one.
+ * <br>
+ * The values are stored in a trie of arrays of {@link #WIDTH} entries, the bit partitioned vector of Bagwell and Hickey.
+ * Getting or setting a value copies one array per level so it is O(log32 n), which is at most 7 arrays for any int index.
+ * The last partial array of values is kept outside of the trie so appending is O(1) most of the time.
+ * <br>
+ * Old versions are never changed by an edit so any number of threads can read any version without locks.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ *
+ * @param <E> the type of the values.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class PersistentVector<E> {
+
+    /**
+     * The number of bits of the index used by every level of the trie.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * The number of entries in every array of the trie.
+     */
+    private static final int WIDTH = 1 << BITS;
+
+    /**
+     * Selects the bits of the index used by one level.
+     */
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * The vector without values, all empty vectors share it.
+     */
+    private static final PersistentVector<?> EMPTY_VECTOR = new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    /**
+     * The number of values.
+     */
+    private final int mSize;
+
+    /**
+     * The number of bits the index is shifted by at the root level.
+     */
+    private final int mShift;
+
+    /**
+     * The root of the trie, it holds every value except the ones in the tail.
+     */
+    private final Object[] mRoot;
+
+    /**
+     * The last values, between 0 and {@link #WIDTH} of them.
+     */
+    private final Object[] mTail;
+
+    /**
+     * @param size the number of values.
+     * @param shift the number of bits the index is shifted by at the root level.
+     * @param root the root of the trie.
+     * @param tail the last values.
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    private PersistentVector(final int size, final int shift, final Object[] root, final Object[] tail) {
+        this.mSize = size;
+        this.mShift = shift;
+        this.mRoot = root;
+        this.mTail = tail;
+    }
+
+    /**
+     * @param <E> the type of the values.
+     * @return the vector without values.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY_VECTOR;
+    }
+
+    /**
+     * @param values the values in order.
+     * @param <E> the type of the values.
+     * @return a vector of the values.
+     */
+    public static <E> PersistentVector<E> copyOf(final List<? extends E> values) {
+        PersistentVector<E> result = empty();
+        for (int i = 0; i < values.size(); i++) {
+            result = result.append(values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of values.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return true if there are no values.
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * @param index the index of the value.
+     * @return the value at the index.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(final int index) {
+        return (E) arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * @param value the value added after the last value.
+     * @return a new vector with the value added, this vector is not changed.
+     */
+    public PersistentVector<E> append(final E value) {
+        final int tailSize = mSize - tailOffset();
+        if (tailSize < WIDTH) {
+            final Object[] tail = Arrays.copyOf(mTail, tailSize + 1);
+            tail[tailSize] = value;
+            return new PersistentVector<>(mSize + 1, mShift, mRoot, tail);
+        }
+        // the tail is full so it moves into the trie and the value starts a new tail.
+        final Object[] root;
+        int shift = mShift;
+        if ((mSize >>> BITS) > (1 << mShift)) {
+            // the trie is full so it gets a new level.
+            root = new Object[WIDTH];
+            root[0] = mRoot;
+            root[1] = newPath(mShift, mTail);
+            shift += BITS;
+        } else {
+            root = pushTail(mShift, mRoot, mTail);
+        }
+        return new PersistentVector<>(mSize + 1, shift, root, new Object[] {value});
+    }
+
+    /**
+     * @param index the index of the value that is replaced.
+     * @param value the new value.
+     * @return a new vector with the value replaced, this vector is not changed.
+     */
+    public PersistentVector<E> set(final int index, final E value) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            final Object[] tail = mTail.clone();
+            tail[index & MASK] = value;
+            return new PersistentVector<>(mSize, mShift, mRoot, tail);
+        }
+        return new PersistentVector<>(mSize, mShift, assoc(mShift, mRoot, index, value), mTail);
+    }
+
+    /**
+     * Removes the value at the index.
+     * <br>
+     * The trie has no gaps so the values after the index are appended again, this is O(n - index) and O(1) for the last value.
+     *
+     * @param index the index of the value that is removed.
+     * @return a new vector without the value, this vector is not changed.
+     */
+    public PersistentVector<E> remove(final int index) {
+        checkIndex(index);
+        PersistentVector<E> result = empty();
+        final int prefix = Math.min(index, tailOffset()) & ~MASK;
+        if (prefix > 0) {
+            // whole arrays in front of the index are shared with this vector.
+            result = take(prefix);
+        }
+        for (int i = prefix; i < mSize; i++) {
+            if (i != index) {
+                result = result.append(get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the values as a read only list backed by this vector.
+     */
+    public List<E> asList() {
+        return new ListView();
+    }
+
+    /**
+     * Keeps the first values, the count must be a multiple of {@link #WIDTH} no larger than the values in the trie.
+     *
+     * @param count the number of values that are kept.
+     * @return a vector sharing the arrays of the first values.
+     */
+    private PersistentVector<E> take(final int count) {
+        PersistentVector<E> result = empty();
+        for (int start = 0; start < count; start += WIDTH) {
+            result = result.appendArray(arrayFor(start));
+        }
+        return result;
+    }
+
+    /**
+     * Appends a full array of values without copying it, the vector must have no tail values.
+     *
+     * @param values the {@link #WIDTH} values.
+     * @return the vector with the values as its tail.
+     */
+    private PersistentVector<E> appendArray(final Object[] values) {
+        if (mSize == 0) {
+            return new PersistentVector<>(WIDTH, mShift, mRoot, values);
+        }
+        final Object[] root;
+        int shift = mShift;
+        if ((mSize >>> BITS) > (1 << mShift)) {
+            root = new Object[WIDTH];
+            root[0] = mRoot;
+            root[1] = newPath(mShift, mTail);
+            shift += BITS;
+        } else {
+            root = pushTail(mShift, mRoot, mTail);
+        }
+        return new PersistentVector<>(mSize + WIDTH, shift, root, values);
+    }
+
+    /**
+     * @return the index of the first value in the tail.
+     */
+    private int tailOffset() {
+        if (mSize < WIDTH) {
+            return 0;
+        }
+        return ((mSize - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * @param index the index of a value.
+     * @return the array holding the value.
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    private Object[] arrayFor(final int index) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            return mTail;
+        }
+        Object[] node = mRoot;
+        for (int level = mShift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * @param index the index being checked.
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + " is not in the range [0, " + mSize + ")");
+        }
+    }
+
+    /**
+     * Copies the arrays on the path to the full tail and adds the tail at the end of the trie.
+     *
+     * @param level the shift of the node.
+     * @param parent the node the tail is added under.
+     * @param tail the full tail.
+     * @return the copy of the node.
+     */
+    private Object[] pushTail(final int level, final Object[] parent, final Object[] tail) {
+        final int subIndex = ((mSize - 1) >>> level) & MASK;
+        final Object[] result = parent.clone();
+        if (level == BITS) {
+            result[subIndex] = tail;
+        } else {
+            final Object[] child = (Object[]) parent[subIndex];
+            if (child == null) {
+                result[subIndex] = newPath(level - BITS, tail);
+            } else {
+                result[subIndex] = pushTail(level - BITS, child, tail);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param level the shift of the node.
+     * @param node the node at the bottom of the path.
+     * @return a path of new nodes down to the node.
+     */
+    private static Object[] newPath(final int level, final Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        final Object[] result = new Object[WIDTH];
+        result[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    /**
+     * Copies the arrays on the path to the index.
+     *
+     * @param level the shift of the node.
+     * @param node the node on the path.
+     * @param index the index of the value.
+     * @param value the new value.
+     * @return the copy of the node.
+     */
+    @SuppressWarnings("PMD.UnusedPrivateMethod")
+    private static Object[] assoc(final int level, final Object[] node, final int index, final Object value) {
+        final Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = value;
+        } else {
+            final int subIndex = (index >>> level) & MASK;
+            result[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, value);
+        }
+        return result;
+    }
+
+    /**
+     * A read only list backed by the vector.
+     */
+    private final class ListView extends AbstractList<E> {
+
+        /**
+         * @param index the index of the value.
+         * @return the value at the index.
+         */
+        @Override public E get(final int index) {
+            return PersistentVector.this.get(index);
+        }
+
+        /**
+         * @return the number of values.
+         */
+        @Override public int size() {
+            return mSize;
+        }
+    }
+}
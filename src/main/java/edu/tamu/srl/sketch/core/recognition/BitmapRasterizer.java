@@ -0,0 +1,350 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlBoundingBox;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders strokes and shapes into fixed size feature images for image based recognizers.
+ * <br>
+ * The features follow the image deformation model of Ouyang and Davis.  The object is scaled by its bounding box to fit the grid
+ * and every segment of a stroke is drawn into the four orientation channels (0, 45, 90 and 135 degrees) weighted by how close
+ * its direction is to the orientation of the channel.  A fifth channel holds the end points of the strokes.  Every channel is then
+ * smoothed with a gaussian blur.
+ * <br>
+ * Everything is drawn directly into {@code float} arrays without going through AWT.  The channels are stored one after the
+ * other and each channel is stored row by row, so the value of a cell is at
+ * {@code offset + (channel * size + row) * size + column}.
+ * <br>
+ * A rasterizer keeps a scratch buffer for the blur so a single instance must not be used by multiple threads at the same time.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class BitmapRasterizer {
+
+    /**
+     * The default number of cells along one side of the grid.
+     */
+    public static final int DEFAULT_SIZE = 24;
+
+    /**
+     * The default standard deviation of the blur in cells.
+     */
+    public static final double DEFAULT_SIGMA = 1.0;
+
+    /**
+     * The number of orientation channels.
+     */
+    public static final int NUM_ORIENTATIONS = 4;
+
+    /**
+     * The index of the end point channel.
+     */
+    public static final int END_POINT_CHANNEL = NUM_ORIENTATIONS;
+
+    /**
+     * The number of channels of a feature image.
+     */
+    public static final int NUM_CHANNELS = NUM_ORIENTATIONS + 1;
+
+    /**
+     * The angle between two orientation channels.
+     */
+    private static final double ORIENTATION_STEP = Math.PI / NUM_ORIENTATIONS;
+
+    /**
+     * The number of samples drawn per cell of segment length so that no cell along a segment is skipped.
+     */
+    private static final double SAMPLES_PER_CELL = 2.0;
+
+    /**
+     * The radius of the blur kernel in standard deviations.
+     */
+    private static final double KERNEL_RADIUS = 3.0;
+
+    /**
+     * The number of cells along one side of the grid.
+     */
+    private final int mSize;
+
+    /**
+     * The normalized one dimensional gaussian kernel, the blur is applied once along each axis.
+     */
+    private final float[] mKernel;
+
+    /**
+     * Holds a channel between the two passes of the blur.
+     */
+    private final float[] mScratch;
+
+    /**
+     * Creates a rasterizer with the default size and blur.
+     */
+    public BitmapRasterizer() {
+        this(DEFAULT_SIZE, DEFAULT_SIGMA);
+    }
+
+    /**
+     * @param size the number of cells along one side of the grid.
+     * @param sigma the standard deviation of the blur in cells, 0 to turn the blur off.
+     */
+    public BitmapRasterizer(final int size, final double sigma) {
+        if (size < 2) {
+            throw new IllegalArgumentException("The grid needs at least two cells per side");
+        }
+        this.mSize = size;
+        this.mKernel = createKernel(Math.max(0, sigma));
+        this.mScratch = new float[size * size];
+    }
+
+    /**
+     * @param sigma the standard deviation of the kernel.
+     * @return the normalized kernel, its center is the middle value.
+     */
+    private static float[] createKernel(final double sigma) {
+        if (sigma == 0) {
+            return new float[] {1};
+        }
+        final int radius = (int) Math.ceil(sigma * KERNEL_RADIUS);
+        final float[] kernel = new float[2 * radius + 1];
+        double sum = 0;
+        for (int i = -radius; i <= radius; i++) {
+            sum += Math.exp(-(i * i) / (2 * sigma * sigma));
+        }
+        for (int i = -radius; i <= radius; i++) {
+            kernel[i + radius] = (float) (Math.exp(-(i * i) / (2 * sigma * sigma)) / sum);
+        }
+        return kernel;
+    }
+
+    /**
+     * @return the number of cells along one side of the grid.
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * @return the number of values in the feature image of a single object.
+     */
+    public int getFeatureLength() {
+        return NUM_CHANNELS * mSize * mSize;
+    }
+
+    /**
+     * @param count the number of objects the buffer has to hold.
+     * @return a buffer that can hold the feature images of the given number of objects.
+     */
+    public float[] createBuffer(final int count) {
+        return new float[count * getFeatureLength()];
+    }
+
+    /**
+     * Renders a single object.
+     *
+     * @param object the stroke or shape being rendered.
+     * @param buffer the buffer the feature image is written to, its old values are overwritten.
+     * @param offset the index in the buffer where the feature image starts.
+     */
+    public void rasterize(final SrlObject object, final float[] buffer, final int offset) {
+        if (offset < 0 || offset + getFeatureLength() > buffer.length) {
+            throw new IllegalArgumentException("The buffer is too small to hold the feature image");
+        }
+        Arrays.fill(buffer, offset, offset + getFeatureLength(), 0);
+        final SrlBoundingBox box = object.getBoundingBox();
+        final double side = Math.max(box.getWidth(), box.getHeight());
+        final double scale = side == 0 ? 0 : (mSize - 1) / side;
+        final Transform transform = new Transform(box.getCenterPoint(), scale, (mSize - 1) / 2.0);
+        final List<SrlStroke> strokes = PointCloud.getStrokes(object);
+        for (int i = 0; i < strokes.size(); i++) {
+            drawStroke(strokes.get(i).getPoints(), transform, buffer, offset);
+        }
+        for (int channel = 0; channel < NUM_CHANNELS; channel++) {
+            blur(buffer, offset + channel * mSize * mSize);
+        }
+    }
+
+    /**
+     * Renders every object into one buffer, the feature image of object {@code i} starts at {@code i * getFeatureLength()}.
+     *
+     * @param objects the strokes or shapes being rendered.
+     * @param buffer the buffer the feature images are written to, see {@link #createBuffer(int)}.
+     */
+    public void rasterize(final List<? extends SrlObject> objects, final float[] buffer) {
+        final int length = getFeatureLength();
+        for (int i = 0; i < objects.size(); i++) {
+            rasterize(objects.get(i), buffer, i * length);
+        }
+    }
+
+    /**
+     * Draws every segment of the stroke into the orientation channels and its end points into the end point channel.
+     *
+     * @param points the points of the stroke.
+     * @param transform maps the points into the grid.
+     * @param buffer the buffer the feature image is written to.
+     * @param offset the index in the buffer where the feature image starts.
+     */
+    private void drawStroke(final List<SrlPoint> points, final Transform transform, final float[] buffer, final int offset) {
+        if (points.isEmpty()) {
+            return;
+        }
+        final int endPoints = offset + END_POINT_CHANNEL * mSize * mSize;
+        final SrlPoint first = points.get(0);
+        final SrlPoint last = points.get(points.size() - 1);
+        buffer[endPoints + cell(transform.getX(first), transform.getY(first))] = 1;
+        buffer[endPoints + cell(transform.getX(last), transform.getY(last))] = 1;
+        for (int i = 1; i < points.size(); i++) {
+            drawSegment(transform.getX(points.get(i - 1)), transform.getY(points.get(i - 1)), transform.getX(points.get(i)),
+                    transform.getY(points.get(i)), buffer, offset);
+        }
+    }
+
+    /**
+     * Draws a segment into every orientation channel it has a weight in.
+     *
+     * @param startX the x value of the start of the segment in grid space.
+     * @param startY the y value of the start of the segment in grid space.
+     * @param endX the x value of the end of the segment in grid space.
+     * @param endY the y value of the end of the segment in grid space.
+     * @param buffer the buffer the feature image is written to.
+     * @param offset the index in the buffer where the feature image starts.
+     */
+    private void drawSegment(final double startX, final double startY, final double endX, final double endY, final float[] buffer,
+            final int offset) {
+        final double xDiff = endX - startX;
+        final double yDiff = endY - startY;
+        final double length = Math.sqrt(xDiff * xDiff + yDiff * yDiff);
+        if (length == 0) {
+            return;
+        }
+        // the direction of a segment does not matter, only its orientation.
+        double angle = Math.atan2(yDiff, xDiff);
+        if (angle < 0) {
+            angle += Math.PI;
+        }
+        final int samples = (int) Math.ceil(length * SAMPLES_PER_CELL);
+        for (int channel = 0; channel < NUM_ORIENTATIONS; channel++) {
+            final double difference = Math.abs(angle - channel * ORIENTATION_STEP);
+            final float weight = (float) (1 - Math.min(difference, Math.PI - difference) / ORIENTATION_STEP);
+            if (weight > 0) {
+                final int channelOffset = offset + channel * mSize * mSize;
+                for (int sample = 0; sample <= samples; sample++) {
+                    final double ratio = sample / (double) samples;
+                    final int index = channelOffset + cell(startX + ratio * xDiff, startY + ratio * yDiff);
+                    buffer[index] = Math.max(buffer[index], weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param xValue the x value in grid space.
+     * @param yValue the y value in grid space.
+     * @return the index of the cell within a channel.
+     */
+    private int cell(final double xValue, final double yValue) {
+        final int column = Math.max(0, Math.min(mSize - 1, (int) Math.round(xValue)));
+        final int row = Math.max(0, Math.min(mSize - 1, (int) Math.round(yValue)));
+        return row * mSize + column;
+    }
+
+    /**
+     * Blurs a single channel in place, first along the rows into the scratch buffer and then along the columns back.
+     *
+     * @param buffer the buffer holding the channel.
+     * @param offset the index in the buffer where the channel starts.
+     */
+    private void blur(final float[] buffer, final int offset) {
+        if (mKernel.length == 1) {
+            return;
+        }
+        blurPass(buffer, offset, 1, mScratch, 0);
+        blurPass(mScratch, 0, mSize, buffer, offset);
+    }
+
+    /**
+     * Convolves every line of a channel with the kernel, values outside of the grid count as 0.
+     *
+     * @param source the buffer being read.
+     * @param sourceOffset the index in the source where the channel starts.
+     * @param stride the distance between two neighboring cells along the direction of the pass.
+     * @param target the buffer being written.
+     * @param targetOffset the index in the target where the channel starts.
+     */
+    private void blurPass(final float[] source, final int sourceOffset, final int stride, final float[] target, final int targetOffset) {
+        final int radius = mKernel.length / 2;
+        // the step between two lines is one cell if the pass runs along the columns and one row otherwise.
+        final int lineStep = stride == 1 ? mSize : 1;
+        for (int line = 0; line < mSize; line++) {
+            final int lineStart = line * lineStep;
+            for (int position = 0; position < mSize; position++) {
+                final int first = Math.max(0, position - radius);
+                final int last = Math.min(mSize - 1, position + radius);
+                float sum = 0;
+                for (int other = first; other <= last; other++) {
+                    sum += mKernel[other - position + radius] * source[sourceOffset + lineStart + other * stride];
+                }
+                target[targetOffset + lineStart + position * stride] = sum;
+            }
+        }
+    }
+
+    /**
+     * Maps points into grid space.
+     */
+    private static final class Transform {
+
+        /**
+         * The x value of the center of the object.
+         */
+        private final double mCenterX;
+
+        /**
+         * The y value of the center of the object.
+         */
+        private final double mCenterY;
+
+        /**
+         * The number of cells per unit.
+         */
+        private final double mScale;
+
+        /**
+         * The center of the grid.
+         */
+        private final double mGridCenter;
+
+        /**
+         * @param center the center of the bounding box of the object.
+         * @param scale the number of cells per unit.
+         * @param gridCenter the center of the grid.
+         */
+        Transform(final SrlPoint center, final double scale, final double gridCenter) {
+            this.mCenterX = center.getX();
+            this.mCenterY = center.getY();
+            this.mScale = scale;
+            this.mGridCenter = gridCenter;
+        }
+
+        /**
+         * @param point the point being mapped.
+         * @return the x value of the point in grid space.
+         */
+        double getX(final SrlPoint point) {
+            return (point.getX() - mCenterX) * mScale + mGridCenter;
+        }
+
+        /**
+         * @param point the point being mapped.
+         * @return the y value of the point in grid space.
+         */
+        double getY(final SrlPoint point) {
+            return (point.getY() - mCenterY) * mScale + mGridCenter;
+        }
+    }
+}
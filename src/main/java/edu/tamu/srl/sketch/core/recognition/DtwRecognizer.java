@@ -0,0 +1,164 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.virtual.SrlTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A nearest neighbor recognizer that compares sequences with dynamic time warping.
+ * <br>
+ * Every template is normalized into a {@link DtwSequence} once.  A candidate is checked against a cascade of lower bounds that
+ * get more expensive and tighter: LB_Kim, LB_Keogh of the candidate against the envelope of the template and LB_Keogh of the
+ * template against the envelope of the candidate.  The full warping distance is only computed for templates that pass all of them
+ * and it is abandoned once it can not make it into the N-best list.
+ * <br>
+ * Adding templates is not thread safe, but once the library is built any number of threads can recognize at the same time.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class DtwRecognizer {
+
+    /**
+     * The default number of points every sequence is resampled to.
+     */
+    public static final int DEFAULT_LENGTH = 64;
+
+    /**
+     * The default radius of the band as a fraction of the length.
+     */
+    public static final double DEFAULT_WINDOW_RATIO = 0.1;
+
+    /**
+     * The number of points every sequence is resampled to.
+     */
+    private final int mLength;
+
+    /**
+     * The radius of the Sakoe-Chiba band.
+     */
+    private final int mWindow;
+
+    /**
+     * The templates in the order they were added.
+     */
+    private final List<SrlTemplate> mTemplates = new ArrayList<>();
+
+    /**
+     * The normalized sequence of each template.
+     */
+    private final List<DtwSequence> mSequences = new ArrayList<>();
+
+    /**
+     * Creates a recognizer with the default length and band.
+     */
+    public DtwRecognizer() {
+        this(DEFAULT_LENGTH, DEFAULT_WINDOW_RATIO);
+    }
+
+    /**
+     * @param length the number of points every sequence is resampled to.
+     * @param windowRatio the radius of the band as a fraction of the length.
+     */
+    public DtwRecognizer(final int length, final double windowRatio) {
+        if (length < 1) {
+            throw new IllegalArgumentException("A sequence needs at least one point");
+        }
+        this.mLength = length;
+        this.mWindow = (int) Math.round(length * Math.max(0, windowRatio));
+    }
+
+    /**
+     * Normalizes the template and adds it to the library.
+     *
+     * @param template the template being added.
+     */
+    public void addTemplate(final SrlTemplate template) {
+        final DtwSequence sequence = createSequence(template.getSrlObject());
+        mTemplates.add(template);
+        mSequences.add(sequence);
+    }
+
+    /**
+     * @param templates the templates being added.
+     */
+    public void addTemplates(final Collection<? extends SrlTemplate> templates) {
+        for (SrlTemplate template : templates) {
+            addTemplate(template);
+        }
+    }
+
+    /**
+     * @return the number of templates in the library.
+     */
+    public int getNumTemplates() {
+        return mTemplates.size();
+    }
+
+    /**
+     * Normalizes an object the same way the templates of this recognizer are normalized.
+     *
+     * @param object the stroke or shape being normalized.
+     * @return the normalized sequence.
+     */
+    public DtwSequence createSequence(final SrlObject object) {
+        return new DtwSequence(object, mLength, mWindow);
+    }
+
+    /**
+     * @param candidate the object being recognized.
+     * @param numResults the maximum number of matches returned.
+     * @return the closest matches with the closest match first.
+     */
+    public List<TemplateMatch> recognize(final SrlObject candidate, final int numResults) {
+        return recognize(createSequence(candidate), numResults);
+    }
+
+    /**
+     * The distance of a match is the warping distance divided by the length of the sequences.
+     *
+     * @param candidate a sequence created by {@link #createSequence(SrlObject)}.
+     * @param numResults the maximum number of matches returned.
+     * @return the closest matches with the closest match first.
+     */
+    public List<TemplateMatch> recognize(final DtwSequence candidate, final int numResults) {
+        if (candidate.getLength() != mLength || candidate.getWindow() != mWindow) {
+            throw new IllegalArgumentException("The candidate was not normalized by this recognizer");
+        }
+        final NBestList best = new NBestList(numResults);
+        for (int i = 0; i < mSequences.size(); i++) {
+            final double bound = best.getBound() * mLength;
+            final double distance = cascade(candidate, mSequences.get(i), bound);
+            if (distance < bound) {
+                best.offer(new TemplateMatch(mTemplates.get(i), distance / mLength));
+            }
+        }
+        return best.toSortedList();
+    }
+
+    /**
+     * Runs the lower bounds from cheapest to most expensive and stops as soon as one of them reaches the bound.
+     *
+     * @param candidate the normalized candidate.
+     * @param template the normalized template.
+     * @param bound the distance that has to be beaten.
+     * @return the warping distance or a value at or above the bound if the template was pruned.
+     */
+    private static double cascade(final DtwSequence candidate, final DtwSequence template, final double bound) {
+        final double kim = DynamicTimeWarping.lowerBoundKim(candidate, template);
+        if (kim >= bound) {
+            return kim;
+        }
+        final double keogh = DynamicTimeWarping.lowerBoundKeogh(candidate, template, bound);
+        if (keogh >= bound) {
+            return keogh;
+        }
+        final double reverseKeogh = DynamicTimeWarping.lowerBoundKeogh(template, candidate, bound);
+        if (reverseKeogh >= bound) {
+            return reverseKeogh;
+        }
+        return candidate.distance(template, bound);
+    }
+}
@@ -0,0 +1,214 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A normalized sequence of points used for dynamic time warping.
+ * <br>
+ * Unlike a {@link PointCloud} the order of the points is kept.  The points of every stroke are concatenated in the order the
+ * strokes are stored and resampled over their index so that the timing of the gesture is kept.  The sequence is then scaled to fit
+ * a unit box and its centroid is moved to the origin.
+ * <br>
+ * The envelope of the sequence for the radius of the band is computed once so it can be used for LB_Keogh.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class DtwSequence {
+
+    /**
+     * The normalized x values.
+     */
+    private final double[] mXValues;
+
+    /**
+     * The normalized y values.
+     */
+    private final double[] mYValues;
+
+    /**
+     * The lower edge of the envelope of the x values.
+     */
+    private final double[] mLowerX;
+
+    /**
+     * The upper edge of the envelope of the x values.
+     */
+    private final double[] mUpperX;
+
+    /**
+     * The lower edge of the envelope of the y values.
+     */
+    private final double[] mLowerY;
+
+    /**
+     * The upper edge of the envelope of the y values.
+     */
+    private final double[] mUpperY;
+
+    /**
+     * The radius of the band the envelope was computed for.
+     */
+    private final int mWindow;
+
+    /**
+     * @param object the stroke or shape being normalized.
+     * @param length the number of points the sequence is resampled to.
+     * @param window the radius of the Sakoe-Chiba band.
+     */
+    public DtwSequence(final SrlObject object, final int length, final int window) {
+        if (length < 1) {
+            throw new IllegalArgumentException("A sequence needs at least one point");
+        }
+        mWindow = Math.max(0, window);
+        mXValues = new double[length];
+        mYValues = new double[length];
+        resample(getPoints(object));
+        normalize();
+        mLowerX = new double[length];
+        mUpperX = new double[length];
+        mLowerY = new double[length];
+        mUpperY = new double[length];
+        DynamicTimeWarping.envelope(mXValues, mWindow, mLowerX, mUpperX);
+        DynamicTimeWarping.envelope(mYValues, mWindow, mLowerY, mUpperY);
+    }
+
+    /**
+     * @param object the stroke or shape.
+     * @return the points of every stroke in the object in order.
+     */
+    private static List<SrlPoint> getPoints(final SrlObject object) {
+        final List<SrlStroke> strokes = PointCloud.getStrokes(object);
+        final List<SrlPoint> points = new ArrayList<>();
+        for (int i = 0; i < strokes.size(); i++) {
+            points.addAll(strokes.get(i).getPoints());
+        }
+        return points;
+    }
+
+    /**
+     * Linearly interpolates the points over their index.
+     *
+     * @param points the points being resampled.
+     */
+    private void resample(final List<SrlPoint> points) {
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("A sequence can not be made from an object without points");
+        }
+        final int length = mXValues.length;
+        final double ratio = length == 1 ? 0 : (points.size() - 1) / (double) (length - 1);
+        for (int i = 0; i < length; i++) {
+            final double position = i * ratio;
+            final int before = Math.min((int) position, points.size() - 1);
+            final int after = Math.min(before + 1, points.size() - 1);
+            final double weight = position - before;
+            mXValues[i] = points.get(before).getX() + weight * (points.get(after).getX() - points.get(before).getX());
+            mYValues[i] = points.get(before).getY() + weight * (points.get(after).getY() - points.get(before).getY());
+        }
+    }
+
+    /**
+     * Scales the values so they fit inside a unit box and translates the centroid to the origin.
+     */
+    private void normalize() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < mXValues.length; i++) {
+            minX = Math.min(minX, mXValues[i]);
+            minY = Math.min(minY, mYValues[i]);
+            maxX = Math.max(maxX, mXValues[i]);
+            maxY = Math.max(maxY, mYValues[i]);
+            sumX += mXValues[i];
+            sumY += mYValues[i];
+        }
+        double size = Math.max(maxX - minX, maxY - minY);
+        if (size == 0) {
+            size = 1;
+        }
+        final double centerX = sumX / mXValues.length;
+        final double centerY = sumY / mYValues.length;
+        for (int i = 0; i < mXValues.length; i++) {
+            mXValues[i] = (mXValues[i] - centerX) / size;
+            mYValues[i] = (mYValues[i] - centerY) / size;
+        }
+    }
+
+    /**
+     * @param other the sequence this one is being compared to.
+     * @param bound the computation is abandoned once every cell of a row reaches this value.
+     * @return the warping distance or {@link Double#POSITIVE_INFINITY} if the computation was abandoned.
+     */
+    public double distance(final DtwSequence other, final double bound) {
+        return DynamicTimeWarping.distance(mXValues, mYValues, other.mXValues, other.mYValues, mWindow, bound);
+    }
+
+    /**
+     * @return the number of points in the sequence.
+     */
+    public int getLength() {
+        return mXValues.length;
+    }
+
+    /**
+     * @return the radius of the band the envelope was computed for.
+     */
+    public int getWindow() {
+        return mWindow;
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the normalized x value.
+     */
+    public double getX(final int index) {
+        return mXValues[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the normalized y value.
+     */
+    public double getY(final int index) {
+        return mYValues[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the smallest x value within the band around the point.
+     */
+    public double getLowerX(final int index) {
+        return mLowerX[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the largest x value within the band around the point.
+     */
+    public double getUpperX(final int index) {
+        return mUpperX[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the smallest y value within the band around the point.
+     */
+    public double getLowerY(final int index) {
+        return mLowerY[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the largest y value within the band around the point.
+     */
+    public double getUpperY(final int index) {
+        return mUpperY[index];
+    }
+}
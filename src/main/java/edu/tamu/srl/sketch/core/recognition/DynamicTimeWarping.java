@@ -0,0 +1,238 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dynamic time warping between two sequences of points.
+ * <br>
+ * The cost of aligning two points is their squared euclidean distance and the warping path is limited to a Sakoe-Chiba band.
+ * Only two rows of the cost matrix are kept in memory and the computation is abandoned as soon as every cell of a row is
+ * at or above a given bound.
+ * <br>
+ * The lower bounds LB_Kim and LB_Keogh are also provided so that a nearest neighbor search can skip most of the full computations.
+ * They are only valid for sequences of the same length, see {@link DtwSequence}.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class DynamicTimeWarping {
+
+    /**
+     * Utility class.
+     */
+    private DynamicTimeWarping() {
+    }
+
+    /**
+     * Computes the distance between the raw points of two strokes.
+     * <br>
+     * This works for {@link edu.tamu.srl.sketch.core.object.SrlSubStroke}s too, only the points of the sub stroke are used.
+     *
+     * @param first the first stroke.
+     * @param second the second stroke.
+     * @param window the radius of the Sakoe-Chiba band.  It is widened to the difference of the number of points if needed.
+     * @return the sum of the squared distances along the best warping path.
+     */
+    public static double distance(final SrlStroke first, final SrlStroke second, final int window) {
+        final double[][] firstValues = toArrays(first.getPoints());
+        final double[][] secondValues = toArrays(second.getPoints());
+        return distance(firstValues[0], firstValues[1], secondValues[0], secondValues[1], window, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Computes the distance between two sequences of points.
+     *
+     * @param firstX the x values of the first sequence.
+     * @param firstY the y values of the first sequence.
+     * @param secondX the x values of the second sequence.
+     * @param secondY the y values of the second sequence.
+     * @param window the radius of the Sakoe-Chiba band.  It is widened to the difference of the lengths if needed.
+     * @param bound the computation is abandoned once every cell of a row reaches this value.
+     * @return the sum of the squared distances along the best warping path
+     * or {@link Double#POSITIVE_INFINITY} if the computation was abandoned.
+     */
+    public static double distance(final double[] firstX, final double[] firstY, final double[] secondX, final double[] secondY,
+            final int window, final double bound) {
+        final int rows = firstX.length;
+        final int columns = secondX.length;
+        if (rows == 0 || columns == 0) {
+            throw new IllegalArgumentException("Can not warp an empty sequence");
+        }
+        final int band = Math.max(Math.max(0, window), Math.abs(rows - columns));
+        double[] previous = new double[columns];
+        double[] current = new double[columns];
+        Arrays.fill(previous, Double.POSITIVE_INFINITY);
+        Arrays.fill(current, Double.POSITIVE_INFINITY);
+        for (int row = 0; row < rows; row++) {
+            final int low = Math.max(0, row - band);
+            final int high = Math.min(columns - 1, row + band);
+            if (low > 0) {
+                current[low - 1] = Double.POSITIVE_INFINITY;
+            }
+            double rowMin = Double.POSITIVE_INFINITY;
+            for (int column = low; column <= high; column++) {
+                final double xDiff = firstX[row] - secondX[column];
+                final double yDiff = firstY[row] - secondY[column];
+                current[column] = xDiff * xDiff + yDiff * yDiff + cheapestPredecessor(previous, current, row, column);
+                rowMin = Math.min(rowMin, current[column]);
+            }
+            if (high + 1 < columns) {
+                current[high + 1] = Double.POSITIVE_INFINITY;
+            }
+            if (rowMin >= bound) {
+                return Double.POSITIVE_INFINITY;
+            }
+            final double[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[columns - 1];
+    }
+
+    /**
+     * @param previous the previous row of the cost matrix.
+     * @param current the row of the cost matrix being computed.
+     * @param row the index of the current row.
+     * @param column the index of the cell being computed.
+     * @return the cost of the cheapest cell the warping path can come from.
+     */
+    private static double cheapestPredecessor(final double[] previous, final double[] current, final int row, final int column) {
+        if (column == 0) {
+            return row == 0 ? 0 : previous[0];
+        }
+        final double diagonal = row == 0 ? Double.POSITIVE_INFINITY : previous[column - 1];
+        return Math.min(Math.min(previous[column], current[column - 1]), diagonal);
+    }
+
+    /**
+     * LB_Kim (first and last point version).
+     * <br>
+     * Every warping path starts by aligning the first points and ends by aligning the last points so their cost is a lower bound.
+     *
+     * @param first the first sequence.
+     * @param second the second sequence.
+     * @return a lower bound of the distance between the two sequences.
+     */
+    public static double lowerBoundKim(final DtwSequence first, final DtwSequence second) {
+        final int last = first.getLength() - 1;
+        final double start = squaredDistance(first.getX(0), first.getY(0), second.getX(0), second.getY(0));
+        if (last == 0) {
+            return start;
+        }
+        return start + squaredDistance(first.getX(last), first.getY(last), second.getX(last), second.getY(last));
+    }
+
+    /**
+     * LB_Keogh.
+     * <br>
+     * Every point of the query is compared to the envelope of the candidate.
+     * A point can only be aligned with points of the candidate that fall inside the band so its cost is at least the distance
+     * from the point to the bounding box of those points.
+     *
+     * @param query the sequence whose points are compared.
+     * @param candidate the sequence whose envelope is used.
+     * @param bound the computation is stopped once the sum reaches this value.
+     * @return a lower bound of the distance between the two sequences.
+     */
+    public static double lowerBoundKeogh(final DtwSequence query, final DtwSequence candidate, final double bound) {
+        double sum = 0;
+        for (int i = 0; i < query.getLength() && sum < bound; i++) {
+            final double xDiff = outside(query.getX(i), candidate.getLowerX(i), candidate.getUpperX(i));
+            final double yDiff = outside(query.getY(i), candidate.getLowerY(i), candidate.getUpperY(i));
+            sum += xDiff * xDiff + yDiff * yDiff;
+        }
+        return sum;
+    }
+
+    /**
+     * @param value the value being checked.
+     * @param lower the lower edge of the envelope.
+     * @param upper the upper edge of the envelope.
+     * @return how far the value is outside of the envelope.
+     */
+    private static double outside(final double value, final double lower, final double upper) {
+        if (value > upper) {
+            return value - upper;
+        }
+        if (value < lower) {
+            return lower - value;
+        }
+        return 0;
+    }
+
+    /**
+     * @param firstX the x value of the first point.
+     * @param firstY the y value of the first point.
+     * @param secondX the x value of the second point.
+     * @param secondY the y value of the second point.
+     * @return the squared euclidean distance between the points.
+     */
+    private static double squaredDistance(final double firstX, final double firstY, final double secondX, final double secondY) {
+        final double xDiff = firstX - secondX;
+        final double yDiff = firstY - secondY;
+        return xDiff * xDiff + yDiff * yDiff;
+    }
+
+    /**
+     * Computes the envelope of a sequence using the streaming minimum and maximum of Lemire.
+     * <br>
+     * Runs in O(n) regardless of the size of the window.
+     *
+     * @param values the values of the sequence.
+     * @param window the radius of the band.
+     * @param lower the array the lower edge of the envelope is written to.
+     * @param upper the array the upper edge of the envelope is written to.
+     */
+    static void envelope(final double[] values, final int window, final double[] lower, final double[] upper) {
+        slidingExtreme(values, window, lower, -1);
+        slidingExtreme(values, window, upper, 1);
+    }
+
+    /**
+     * Computes the largest value within the window around every value using a monotonic queue.
+     *
+     * @param values the values of the sequence.
+     * @param window the radius of the band.
+     * @param result the array the extremes are written to.
+     * @param sign 1 to compute the maximum, -1 to compute the minimum.
+     */
+    private static void slidingExtreme(final double[] values, final int window, final double[] result, final int sign) {
+        final int length = values.length;
+        final int[] queue = new int[length];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < length + window; i++) {
+            if (i < length) {
+                while (tail > head && sign * values[queue[tail - 1]] <= sign * values[i]) {
+                    tail--;
+                }
+                queue[tail] = i;
+                tail++;
+            }
+            final int center = i - window;
+            if (center >= 0) {
+                while (queue[head] < center - window) {
+                    head++;
+                }
+                result[center] = values[queue[head]];
+            }
+        }
+    }
+
+    /**
+     * @param points the points being converted.
+     * @return an array holding the array of x values followed by the array of y values.
+     */
+    static double[][] toArrays(final List<SrlPoint> points) {
+        final double[][] values = new double[2][points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            final SrlPoint point = points.get(i);
+            values[0][i] = point.getX();
+            values[1][i] = point.getY();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the closest matches seen so far.
+ * <br>
+ * The worst match that is kept is at the head of a heap so the bound used for pruning is always available in constant time.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+final class NBestList {
+
+    /**
+     * The maximum number of matches that are kept.
+     */
+    private final int mSize;
+
+    /**
+     * The matches that are kept with the farthest one at the head.
+     */
+    private final PriorityQueue<TemplateMatch> mMatches;
+
+    /**
+     * @param size the maximum number of matches that are kept.
+     */
+    NBestList(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("At least one result must be requested");
+        }
+        this.mSize = size;
+        this.mMatches = new PriorityQueue<>(size + 1, Collections.reverseOrder());
+    }
+
+    /**
+     * A match must be closer than this value to make it into the list.
+     *
+     * @return the distance of the worst match kept or infinity if the list is not full yet.
+     */
+    double getBound() {
+        if (mMatches.size() < mSize) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return mMatches.peek().getDistance();
+    }
+
+    /**
+     * Adds the match if it is closer than the current bound.
+     *
+     * @param match the match being added.
+     * @return true if the match was kept.
+     */
+    boolean offer(final TemplateMatch match) {
+        if (match.getDistance() >= getBound()) {
+            return false;
+        }
+        mMatches.add(match);
+        if (mMatches.size() > mSize) {
+            mMatches.poll();
+        }
+        return true;
+    }
+
+    /**
+     * @param other the list whose matches are added to this one.
+     */
+    void merge(final NBestList other) {
+        for (TemplateMatch match : other.mMatches) {
+            offer(match);
+        }
+    }
+
+    /**
+     * @return the matches that were kept with the closest match first.
+     */
+    List<TemplateMatch> toSortedList() {
+        final List<TemplateMatch> result = new ArrayList<>(mMatches);
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,300 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A normalized cloud of points used for template matching.
+ * <br>
+ * The points of an {@link SrlObject} are resampled to a fixed number of points, scaled to fit a unit box (keeping the aspect ratio)
+ * and translated so that the centroid is at the origin.  The result is stored in primitive arrays so that matching never has to
+ * touch the original {@link SrlPoint}s again.
+ * <br>
+ * A look up table is also stored with the cloud.  It maps every cell of a coarse grid laid over the normalized space to the index
+ * of the closest point in the cloud.  It is used to compute the $Q lower bounds.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class PointCloud {
+
+    /**
+     * The x values of the normalized points.
+     */
+    private final double[] mXValues;
+
+    /**
+     * The y values of the normalized points.
+     */
+    private final double[] mYValues;
+
+    /**
+     * For every point the index of the cell in the look up table grid that the point falls into.
+     */
+    private final int[] mCells;
+
+    /**
+     * For every cell in the grid the index of the closest point in this cloud.
+     */
+    private final int[] mLookUpTable;
+
+    /**
+     * The number of cells along one side of the look up table grid.
+     */
+    private final int mLookUpSize;
+
+    /**
+     * Resamples and normalizes the points of the given object.
+     * <br>
+     * If the object is an {@link SrlShape} then all of the strokes that are contained in the shape are used.
+     *
+     * @param object the object being turned into a point cloud.
+     * @param numPoints the number of points the object is resampled to.
+     * @param lookUpSize the number of cells along one side of the look up table grid.
+     */
+    public PointCloud(final SrlObject object, final int numPoints, final int lookUpSize) {
+        if (numPoints < 2) {
+            throw new IllegalArgumentException("A point cloud needs at least two points");
+        }
+        if (lookUpSize < 2) {
+            throw new IllegalArgumentException("The look up table needs at least two cells per side");
+        }
+        mLookUpSize = lookUpSize;
+        mXValues = new double[numPoints];
+        mYValues = new double[numPoints];
+        resample(getStrokes(object), numPoints);
+        normalize();
+        mCells = new int[numPoints];
+        mLookUpTable = new int[lookUpSize * lookUpSize];
+        buildLookUpTable();
+    }
+
+    /**
+     * @param object the object that the strokes are grabbed from.
+     * @return the list of strokes that make up the object.
+     */
+    static List<SrlStroke> getStrokes(final SrlObject object) {
+        if (object instanceof SrlStroke) {
+            final List<SrlStroke> strokes = new ArrayList<>();
+            strokes.add((SrlStroke) object);
+            return strokes;
+        } else if (object instanceof SrlShape) {
+            return ((SrlShape) object).getRecursiveStrokeList();
+        }
+        throw new IllegalArgumentException("A point cloud can only be made from strokes and shapes");
+    }
+
+    /**
+     * @param strokes the strokes we are computing the length of.
+     * @return the sum of the path length of every stroke.
+     */
+    private static double getTotalPathLength(final List<SrlStroke> strokes) {
+        double length = 0;
+        for (int i = 0; i < strokes.size(); i++) {
+            length += strokes.get(i).getPathLength();
+        }
+        return length;
+    }
+
+    /**
+     * Resamples the strokes into equally spaced points.
+     * <br>
+     * The spacing is measured along the path of the strokes, no points are ever placed in the gap between two strokes.
+     *
+     * @param strokes the strokes being resampled.
+     * @param numPoints the number of points in the resampled cloud.
+     */
+    private void resample(final List<SrlStroke> strokes, final int numPoints) {
+        final double interval = getTotalPathLength(strokes) / (numPoints - 1);
+        int count = 0;
+        double traveled = 0;
+        for (int strokeIndex = 0; strokeIndex < strokes.size(); strokeIndex++) {
+            final List<SrlPoint> points = strokes.get(strokeIndex).getPoints();
+            for (int i = 0; i < points.size(); i++) {
+                if (count == 0) {
+                    mXValues[0] = points.get(0).getX();
+                    mYValues[0] = points.get(0).getY();
+                    count = 1;
+                } else if (i > 0) {
+                    final SrlPoint previous = points.get(i - 1);
+                    final SrlPoint current = points.get(i);
+                    final double length = previous.distance(current);
+                    count = addSegment(previous, current, traveled, length, count, interval);
+                    traveled += length;
+                }
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("A point cloud can not be made from an object without points");
+        }
+        // rounding errors can leave the last points out.
+        for (; count < numPoints; count++) {
+            mXValues[count] = mXValues[count - 1];
+            mYValues[count] = mYValues[count - 1];
+        }
+    }
+
+    /**
+     * Adds every resampled point that falls onto the segment between the two points.
+     *
+     * @param start the point where the segment begins.
+     * @param end the point where the segment ends.
+     * @param traveled the length of the path before the segment.
+     * @param length the length of the segment.
+     * @param count the number of resampled points so far.
+     * @param interval the spacing between two resampled points.
+     * @return the number of resampled points after this segment.
+     */
+    private int addSegment(final SrlPoint start, final SrlPoint end, final double traveled, final double length, final int count,
+            final double interval) {
+        int index = count;
+        if (length <= 0) {
+            return index;
+        }
+        while (index < mXValues.length && traveled + length >= index * interval) {
+            final double ratio = (index * interval - traveled) / length;
+            mXValues[index] = start.getX() + ratio * (end.getX() - start.getX());
+            mYValues[index] = start.getY() + ratio * (end.getY() - start.getY());
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Scales the points so they fit inside a unit box and translates the centroid to the origin.
+     */
+    private void normalize() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < mXValues.length; i++) {
+            minX = Math.min(minX, mXValues[i]);
+            minY = Math.min(minY, mYValues[i]);
+            maxX = Math.max(maxX, mXValues[i]);
+            maxY = Math.max(maxY, mYValues[i]);
+        }
+        double size = Math.max(maxX - minX, maxY - minY);
+        if (size == 0) {
+            size = 1;
+        }
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < mXValues.length; i++) {
+            mXValues[i] = (mXValues[i] - minX) / size;
+            mYValues[i] = (mYValues[i] - minY) / size;
+            sumX += mXValues[i];
+            sumY += mYValues[i];
+        }
+        final double centerX = sumX / mXValues.length;
+        final double centerY = sumY / mYValues.length;
+        for (int i = 0; i < mXValues.length; i++) {
+            mXValues[i] -= centerX;
+            mYValues[i] -= centerY;
+        }
+    }
+
+    /**
+     * Maps a normalized value into the grid of the look up table.
+     * <br>
+     * After normalizing every value lies between -1 and 1.
+     *
+     * @param value the normalized value.
+     * @return the position of the value in grid space.
+     */
+    private double toGrid(final double value) {
+        final double grid = (value + 1.0) / 2.0 * (mLookUpSize - 1);
+        return Math.min(mLookUpSize - 1, Math.max(0, grid));
+    }
+
+    /**
+     * Finds the grid cell of every point and the closest point for every grid cell.
+     */
+    private void buildLookUpTable() {
+        final double[] gridX = new double[mXValues.length];
+        final double[] gridY = new double[mYValues.length];
+        for (int i = 0; i < mXValues.length; i++) {
+            gridX[i] = toGrid(mXValues[i]);
+            gridY[i] = toGrid(mYValues[i]);
+            mCells[i] = (int) Math.round(gridY[i]) * mLookUpSize + (int) Math.round(gridX[i]);
+        }
+        for (int cellY = 0; cellY < mLookUpSize; cellY++) {
+            for (int cellX = 0; cellX < mLookUpSize; cellX++) {
+                int closest = 0;
+                double closestDistance = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < gridX.length; i++) {
+                    final double xDiff = gridX[i] - cellX;
+                    final double yDiff = gridY[i] - cellY;
+                    final double dist = xDiff * xDiff + yDiff * yDiff;
+                    if (dist < closestDistance) {
+                        closestDistance = dist;
+                        closest = i;
+                    }
+                }
+                mLookUpTable[cellY * mLookUpSize + cellX] = closest;
+            }
+        }
+    }
+
+    /**
+     * @return the number of points in this cloud.
+     */
+    public int getNumPoints() {
+        return mXValues.length;
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the normalized x value of the point.
+     */
+    public double getX(final int index) {
+        return mXValues[index];
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the normalized y value of the point.
+     */
+    public double getY(final int index) {
+        return mYValues[index];
+    }
+
+    /**
+     * @return the number of cells along one side of the look up table grid.
+     */
+    public int getLookUpSize() {
+        return mLookUpSize;
+    }
+
+    /**
+     * @param index the index of the point.
+     * @return the cell of the look up table that the point falls into.
+     */
+    int getCell(final int index) {
+        return mCells[index];
+    }
+
+    /**
+     * @param cell a cell of the look up table.
+     * @return the index of the point in this cloud that is closest to the cell.
+     */
+    int getClosestPoint(final int cell) {
+        return mLookUpTable[cell];
+    }
+
+    /**
+     * @param index the index of a point in this cloud.
+     * @param other the other cloud.
+     * @param otherIndex the index of a point in the other cloud.
+     * @return the squared euclidean distance between the two points.
+     */
+    double squaredDistance(final int index, final PointCloud other, final int otherIndex) {
+        final double xDiff = mXValues[index] - other.mXValues[otherIndex];
+        final double yDiff = mYValues[index] - other.mYValues[otherIndex];
+        return xDiff * xDiff + yDiff * yDiff;
+    }
+}
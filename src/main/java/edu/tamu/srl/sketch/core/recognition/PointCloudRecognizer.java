@@ -0,0 +1,324 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.virtual.SrlTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A point cloud template recognizer from the $1/$P/$Q family.
+ * <br>
+ * Every {@link SrlTemplate} is resampled, scaled and translated once when it is added and stored as a {@link PointCloud}.
+ * A candidate is normalized the same way and then matched against every template using the $Q algorithm:
+ * the cheap lower bounds computed from the look up tables of the clouds are checked first and the greedy cloud distance
+ * is abandoned as soon as it can not beat the current N-best list.
+ * <br>
+ * Adding templates is not thread safe, but once the library is built any number of threads can recognize at the same time.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class PointCloudRecognizer {
+
+    /**
+     * The default number of points every cloud is resampled to.
+     */
+    public static final int DEFAULT_NUM_POINTS = 32;
+
+    /**
+     * The default number of cells along one side of the look up table grid.
+     */
+    public static final int DEFAULT_LOOK_UP_SIZE = 64;
+
+    /**
+     * The number of points every cloud is resampled to.
+     */
+    private final int mNumPoints;
+
+    /**
+     * The number of cells along one side of the look up table grid.
+     */
+    private final int mLookUpSize;
+
+    /**
+     * The number of points skipped between two starting points of the greedy matching.
+     */
+    private final int mStep;
+
+    /**
+     * The sum of all weights used by the greedy matching.
+     * Dividing by this turns a raw cloud distance into a weighted average.
+     */
+    private final double mTotalWeight;
+
+    /**
+     * The templates in the order they were added.
+     */
+    private final List<SrlTemplate> mTemplates = new ArrayList<>();
+
+    /**
+     * The normalized point cloud of each template.
+     */
+    private final List<PointCloud> mClouds = new ArrayList<>();
+
+    /**
+     * Creates a recognizer with the default number of points and look up table size.
+     */
+    public PointCloudRecognizer() {
+        this(DEFAULT_NUM_POINTS, DEFAULT_LOOK_UP_SIZE);
+    }
+
+    /**
+     * @param numPoints the number of points every cloud is resampled to.
+     * @param lookUpSize the number of cells along one side of the look up table grid.
+     */
+    public PointCloudRecognizer(final int numPoints, final int lookUpSize) {
+        if (numPoints < 2) {
+            throw new IllegalArgumentException("A point cloud needs at least two points");
+        }
+        this.mNumPoints = numPoints;
+        this.mLookUpSize = lookUpSize;
+        this.mStep = Math.max(1, (int) Math.floor(Math.sqrt(numPoints)));
+        this.mTotalWeight = numPoints * (numPoints + 1) / 2.0;
+    }
+
+    /**
+     * Normalizes the template and adds it to the library.
+     *
+     * @param template the template being added.
+     */
+    public void addTemplate(final SrlTemplate template) {
+        final PointCloud cloud = createPointCloud(template.getSrlObject());
+        mTemplates.add(template);
+        mClouds.add(cloud);
+    }
+
+    /**
+     * @param templates the templates being added.
+     */
+    public void addTemplates(final Collection<? extends SrlTemplate> templates) {
+        for (SrlTemplate template : templates) {
+            addTemplate(template);
+        }
+    }
+
+    /**
+     * @return the number of templates in the library.
+     */
+    public int getNumTemplates() {
+        return mTemplates.size();
+    }
+
+    /**
+     * @param index the index of the template.
+     * @return the template at the given index.
+     */
+    public SrlTemplate getTemplate(final int index) {
+        return mTemplates.get(index);
+    }
+
+    /**
+     * Normalizes an object the same way the templates of this recognizer are normalized.
+     * <br>
+     * This can be used to normalize a candidate once when it is recognized multiple times.
+     *
+     * @param object the object being normalized.
+     * @return the normalized point cloud.
+     */
+    public PointCloud createPointCloud(final SrlObject object) {
+        return new PointCloud(object, mNumPoints, mLookUpSize);
+    }
+
+    /**
+     * Matches the candidate against every template.
+     *
+     * @param candidate the object being recognized.
+     * @param numResults the maximum number of matches returned.
+     * @return the closest matches with the closest match first.
+     */
+    public List<TemplateMatch> recognize(final SrlObject candidate, final int numResults) {
+        return recognize(createPointCloud(candidate), numResults);
+    }
+
+    /**
+     * Matches the candidate against every template.
+     *
+     * @param candidate a point cloud created by {@link #createPointCloud(SrlObject)}.
+     * @param numResults the maximum number of matches returned.
+     * @return the closest matches with the closest match first.
+     */
+    public List<TemplateMatch> recognize(final PointCloud candidate, final int numResults) {
+        checkCandidate(candidate);
+        final NBestList best = new NBestList(numResults);
+        final Workspace workspace = createWorkspace();
+        for (int i = 0; i < mClouds.size(); i++) {
+            match(candidate, i, best.getBound(), best, workspace);
+        }
+        return best.toSortedList();
+    }
+
+    /**
+     * @param candidate the candidate that is checked.
+     */
+    void checkCandidate(final PointCloud candidate) {
+        if (candidate.getNumPoints() != mNumPoints || candidate.getLookUpSize() != mLookUpSize) {
+            throw new IllegalArgumentException("The candidate was not normalized by this recognizer");
+        }
+    }
+
+    /**
+     * @return a new set of buffers used while matching.  A workspace must only be used by one thread at a time.
+     */
+    Workspace createWorkspace() {
+        return new Workspace(mNumPoints, mStep);
+    }
+
+    /**
+     * Matches the candidate against a single template and adds the result to the list if it is good enough.
+     *
+     * @param candidate the normalized candidate.
+     * @param index the index of the template.
+     * @param bound only matches closer than this normalized distance are kept.
+     * @param best the list the match is added to.
+     * @param workspace the buffers used while matching.
+     * @return the normalized distance to the template, a value at or above the bound means the template was pruned.
+     */
+    double match(final PointCloud candidate, final int index, final double bound, final NBestList best, final Workspace workspace) {
+        final double rawBound = bound * mTotalWeight;
+        final double distance = cloudMatch(candidate, mClouds.get(index), rawBound, workspace) / mTotalWeight;
+        if (distance < bound) {
+            best.offer(new TemplateMatch(mTemplates.get(index), distance));
+        }
+        return distance;
+    }
+
+    /**
+     * The $Q cloud match.
+     * Tries a number of different starting points in both directions and keeps the smallest distance.
+     * Starting points whose lower bound can not beat the best distance so far are skipped.
+     *
+     * @param candidate the normalized candidate.
+     * @param template the normalized template.
+     * @param bound the raw distance that has to be beaten.
+     * @param workspace the buffers used while matching.
+     * @return the smallest raw distance found.  If nothing beat the bound a value at or above the bound is returned.
+     */
+    private double cloudMatch(final PointCloud candidate, final PointCloud template, final double bound, final Workspace workspace) {
+        double minSoFar = bound;
+        computeLowerBound(candidate, template, workspace.mCandidateBounds, workspace.mSums);
+        computeLowerBound(template, candidate, workspace.mTemplateBounds, workspace.mSums);
+        for (int start = 0; start < mNumPoints; start += mStep) {
+            final int boundIndex = start / mStep;
+            if (workspace.mCandidateBounds[boundIndex] < minSoFar) {
+                minSoFar = Math.min(minSoFar, cloudDistance(candidate, template, start, minSoFar, workspace.mUnmatched));
+            }
+            if (workspace.mTemplateBounds[boundIndex] < minSoFar) {
+                minSoFar = Math.min(minSoFar, cloudDistance(template, candidate, start, minSoFar, workspace.mUnmatched));
+            }
+        }
+        return minSoFar;
+    }
+
+    /**
+     * Computes the lower bound of the cloud distance for every starting point that is tried.
+     * <br>
+     * The closest point is found through the look up table of the second cloud so each bound costs O(1) after
+     * a single pass over the points.
+     *
+     * @param first the cloud whose points are being matched.
+     * @param second the cloud the points are matched to.
+     * @param bounds the array the lower bounds are written to.
+     * @param sums a buffer used for the running sum of the distances.
+     */
+    private void computeLowerBound(final PointCloud first, final PointCloud second, final double[] bounds, final double[] sums) {
+        bounds[0] = 0;
+        for (int i = 0; i < mNumPoints; i++) {
+            final int closest = second.getClosestPoint(first.getCell(i));
+            final double dist = first.squaredDistance(i, second, closest);
+            sums[i] = i == 0 ? dist : sums[i - 1] + dist;
+            bounds[0] += (mNumPoints - i) * dist;
+        }
+        for (int start = mStep; start < mNumPoints; start += mStep) {
+            bounds[start / mStep] = bounds[0] + start * sums[mNumPoints - 1] - mNumPoints * sums[start - 1];
+        }
+    }
+
+    /**
+     * Greedily matches every point of the first cloud to the closest unmatched point of the second cloud.
+     * Earlier matches are weighted more than later ones.
+     *
+     * @param first the cloud whose points are being matched.
+     * @param second the cloud the points are matched to.
+     * @param start the first point that is matched.
+     * @param minSoFar the raw distance to beat, matching is abandoned once the sum reaches it.
+     * @param unmatched a buffer that holds the indices of the unmatched points.
+     * @return the weighted sum of the squared distances.
+     */
+    private double cloudDistance(final PointCloud first, final PointCloud second, final int start, final double minSoFar,
+            final int[] unmatched) {
+        for (int i = 0; i < mNumPoints; i++) {
+            unmatched[i] = i;
+        }
+        int remaining = mNumPoints;
+        int index = start;
+        double sum = 0;
+        do {
+            int closest = 0;
+            double closestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < remaining; i++) {
+                final double dist = first.squaredDistance(index, second, unmatched[i]);
+                if (dist < closestDistance) {
+                    closestDistance = dist;
+                    closest = i;
+                }
+            }
+            remaining--;
+            unmatched[closest] = unmatched[remaining];
+            sum += (remaining + 1) * closestDistance;
+            if (sum >= minSoFar) {
+                return sum;
+            }
+            index = (index + 1) % mNumPoints;
+        } while (index != start);
+        return sum;
+    }
+
+    /**
+     * Buffers that are reused for every template while matching a candidate.
+     */
+    static final class Workspace {
+
+        /**
+         * The lower bounds when the candidate is matched to the template.
+         */
+        private final double[] mCandidateBounds;
+
+        /**
+         * The lower bounds when the template is matched to the candidate.
+         */
+        private final double[] mTemplateBounds;
+
+        /**
+         * The running sum of the distances used to compute the lower bounds.
+         */
+        private final double[] mSums;
+
+        /**
+         * The indices of the points that are not matched yet.
+         */
+        private final int[] mUnmatched;
+
+        /**
+         * @param numPoints the number of points in every cloud.
+         * @param step the number of points skipped between two starting points.
+         */
+        Workspace(final int numPoints, final int step) {
+            mCandidateBounds = new double[numPoints / step + 1];
+            mTemplateBounds = new double[numPoints / step + 1];
+            mSums = new double[numPoints];
+            mUnmatched = new int[numPoints];
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The N-best list of a single query together with how long the query took.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class RecognitionResult {
+
+    /**
+     * The closest matches with the closest match first.
+     */
+    private final List<TemplateMatch> mMatches;
+
+    /**
+     * The time the query took in nanoseconds.
+     */
+    private final long mLatency;
+
+    /**
+     * @param matches the closest matches with the closest match first.
+     * @param latency the time the query took in nanoseconds.
+     */
+    public RecognitionResult(final List<TemplateMatch> matches, final long latency) {
+        this.mMatches = Collections.unmodifiableList(matches);
+        this.mLatency = latency;
+    }
+
+    /**
+     * @return the closest matches with the closest match first.  <b>This should never return null.</b>
+     */
+    public List<TemplateMatch> getMatches() {
+        return mMatches;
+    }
+
+    /**
+     * @return the closest match or null if there were no templates.
+     */
+    public TemplateMatch getBestMatch() {
+        return mMatches.isEmpty() ? null : mMatches.get(0);
+    }
+
+    /**
+     * @return the time the query took in nanoseconds, this includes normalizing the candidate.
+     */
+    public long getLatency() {
+        return mLatency;
+    }
+
+    /**
+     * @return A string representation of the result.
+     */
+    @Override
+    public String toString() {
+        return "RESULT[" + mMatches + " LATENCY:" + mLatency + "ns]";
+    }
+}
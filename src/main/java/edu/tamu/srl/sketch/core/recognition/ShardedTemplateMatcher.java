@@ -0,0 +1,242 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Matches a candidate against the template library of a {@link PointCloudRecognizer} on multiple cores.
+ * <br>
+ * The library is split into shards that are matched by a {@link ForkJoinPool}.  Every shard keeps its own N-best list and
+ * publishes the distance of its worst kept match to a bound shared by all shards.  A template that can not beat the shared bound
+ * can not make it into the merged N-best list so every shard prunes against it, not only against its own list.
+ * <br>
+ * The template library of the recognizer must not be changed while a query is running.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class ShardedTemplateMatcher {
+
+    /**
+     * The default number of templates matched by a single task.
+     */
+    public static final int DEFAULT_SHARD_SIZE = 256;
+
+    /**
+     * The recognizer that holds the template library.
+     */
+    private final PointCloudRecognizer mRecognizer;
+
+    /**
+     * The pool the shards are run on.
+     */
+    private final ForkJoinPool mPool;
+
+    /**
+     * The number of templates matched by a single task.
+     */
+    private final int mShardSize;
+
+    /**
+     * True if the pool was created by this matcher and has to be shut down by it.
+     */
+    private final boolean mOwnsPool;
+
+    /**
+     * Creates a matcher that runs on its own pool with one thread per core.
+     *
+     * @param recognizer the recognizer that holds the template library.
+     */
+    public ShardedTemplateMatcher(final PointCloudRecognizer recognizer) {
+        this(recognizer, new ForkJoinPool(), DEFAULT_SHARD_SIZE, true);
+    }
+
+    /**
+     * Creates a matcher that runs on the given pool.  The pool is not shut down by {@link #shutdown()}.
+     *
+     * @param recognizer the recognizer that holds the template library.
+     * @param pool the pool the shards are run on.
+     * @param shardSize the number of templates matched by a single task.
+     */
+    public ShardedTemplateMatcher(final PointCloudRecognizer recognizer, final ForkJoinPool pool, final int shardSize) {
+        this(recognizer, pool, shardSize, false);
+    }
+
+    /**
+     * @param recognizer the recognizer that holds the template library.
+     * @param pool the pool the shards are run on.
+     * @param shardSize the number of templates matched by a single task.
+     * @param ownsPool true if the pool was created by this matcher.
+     */
+    private ShardedTemplateMatcher(final PointCloudRecognizer recognizer, final ForkJoinPool pool, final int shardSize,
+            final boolean ownsPool) {
+        if (shardSize < 1) {
+            throw new IllegalArgumentException("A shard must contain at least one template");
+        }
+        this.mRecognizer = recognizer;
+        this.mPool = pool;
+        this.mShardSize = shardSize;
+        this.mOwnsPool = ownsPool;
+    }
+
+    /**
+     * Normalizes the candidate and matches it against every template.
+     *
+     * @param candidate the object being recognized.
+     * @param numResults the maximum number of matches returned.
+     * @return the merged N-best list and the latency of the query.
+     */
+    public RecognitionResult recognize(final SrlObject candidate, final int numResults) {
+        final long startTime = System.nanoTime();
+        return recognize(mRecognizer.createPointCloud(candidate), numResults, startTime);
+    }
+
+    /**
+     * Matches the candidate against every template.
+     *
+     * @param candidate a point cloud created by {@link PointCloudRecognizer#createPointCloud(SrlObject)}.
+     * @param numResults the maximum number of matches returned.
+     * @return the merged N-best list and the latency of the query.
+     */
+    public RecognitionResult recognize(final PointCloud candidate, final int numResults) {
+        return recognize(candidate, numResults, System.nanoTime());
+    }
+
+    /**
+     * @param candidate the normalized candidate.
+     * @param numResults the maximum number of matches returned.
+     * @param startTime the time the query started at.
+     * @return the merged N-best list and the latency of the query.
+     */
+    private RecognitionResult recognize(final PointCloud candidate, final int numResults, final long startTime) {
+        mRecognizer.checkCandidate(candidate);
+        // fails before anything is submitted if the number of results is invalid.
+        final NBestList merged = new NBestList(numResults);
+        final ShardTask root = new ShardTask(candidate, numResults, new SharedBound(), 0, mRecognizer.getNumTemplates());
+        merged.merge(mPool.invoke(root));
+        return new RecognitionResult(merged.toSortedList(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Shuts down the pool if it was created by this matcher.
+     */
+    public void shutdown() {
+        if (mOwnsPool) {
+            mPool.shutdown();
+        }
+    }
+
+    /**
+     * The smallest worst kept distance of all shards.
+     * <br>
+     * Stored as the bits of a double so it can be lowered without locking.
+     */
+    private static final class SharedBound {
+
+        /**
+         * The bits of the current bound.
+         */
+        private final AtomicLong mBits = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+
+        /**
+         * @return the current bound.
+         */
+        double get() {
+            return Double.longBitsToDouble(mBits.get());
+        }
+
+        /**
+         * Lowers the bound if the given value is smaller.
+         *
+         * @param value the new candidate for the bound.
+         */
+        void lower(final double value) {
+            long current = mBits.get();
+            while (value < Double.longBitsToDouble(current) && !mBits.compareAndSet(current, Double.doubleToLongBits(value))) {
+                current = mBits.get();
+            }
+        }
+    }
+
+    /**
+     * Matches a range of templates, splitting it in half until it is no larger than a shard.
+     */
+    @SuppressWarnings("serial")
+    private final class ShardTask extends RecursiveTask<NBestList> {
+
+        /**
+         * The normalized candidate.
+         */
+        private final PointCloud mCandidate;
+
+        /**
+         * The maximum number of matches kept.
+         */
+        private final int mNumResults;
+
+        /**
+         * The bound shared by every shard of the query.
+         */
+        private final SharedBound mBound;
+
+        /**
+         * The index of the first template of the range.
+         */
+        private final int mStart;
+
+        /**
+         * The index after the last template of the range.
+         */
+        private final int mEnd;
+
+        /**
+         * @param candidate the normalized candidate.
+         * @param numResults the maximum number of matches kept.
+         * @param bound the bound shared by every shard of the query.
+         * @param start the index of the first template of the range.
+         * @param end the index after the last template of the range.
+         */
+        ShardTask(final PointCloud candidate, final int numResults, final SharedBound bound, final int start, final int end) {
+            super();
+            this.mCandidate = candidate;
+            this.mNumResults = numResults;
+            this.mBound = bound;
+            this.mStart = start;
+            this.mEnd = end;
+        }
+
+        /**
+         * @return the N-best list of this range.
+         */
+        @Override
+        protected NBestList compute() {
+            if (mEnd - mStart <= mShardSize) {
+                return matchShard();
+            }
+            final int middle = (mStart + mEnd) >>> 1;
+            final ShardTask left = new ShardTask(mCandidate, mNumResults, mBound, mStart, middle);
+            final ShardTask right = new ShardTask(mCandidate, mNumResults, mBound, middle, mEnd);
+            left.fork();
+            final NBestList result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+
+        /**
+         * @return the N-best list of the templates in this shard.
+         */
+        private NBestList matchShard() {
+            final NBestList best = new NBestList(mNumResults);
+            final PointCloudRecognizer.Workspace workspace = mRecognizer.createWorkspace();
+            for (int i = mStart; i < mEnd; i++) {
+                final double bound = Math.min(best.getBound(), mBound.get());
+                if (mRecognizer.match(mCandidate, i, bound, best, workspace) < bound) {
+                    mBound.lower(best.getBound());
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.virtual.SrlTemplate;
+
+import java.util.List;
+
+/**
+ * The result of matching a candidate against a single {@link SrlTemplate}.
+ * <br>
+ * Matches are ordered by their distance, the closest match comes first.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class TemplateMatch implements Comparable<TemplateMatch> {
+
+    /**
+     * The template that was matched.
+     */
+    private final SrlTemplate mTemplate;
+
+    /**
+     * The normalized distance between the candidate and the template.
+     */
+    private final double mDistance;
+
+    /**
+     * @param template the template that was matched.
+     * @param distance the normalized distance between the candidate and the template.
+     */
+    public TemplateMatch(final SrlTemplate template, final double distance) {
+        this.mTemplate = template;
+        this.mDistance = distance;
+    }
+
+    /**
+     * @return the template that was matched.
+     */
+    public SrlTemplate getTemplate() {
+        return mTemplate;
+    }
+
+    /**
+     * @return the main interpretation label of the matched template.
+     */
+    public String getInterpretation() {
+        final List<String> interpretations = mTemplate.getInterpretations();
+        return interpretations.isEmpty() ? null : interpretations.get(0);
+    }
+
+    /**
+     * The distance is the weighted average of the squared distances between the matched points of the two point clouds.
+     * A distance of 0 means the candidate and the template are identical after normalizing.
+     *
+     * @return the normalized distance between the candidate and the template.
+     */
+    public double getDistance() {
+        return mDistance;
+    }
+
+    /**
+     * @return a score between 0 and 1 where 1 is a perfect match.
+     */
+    public double getScore() {
+        return 1.0 / (1.0 + mDistance);
+    }
+
+    /**
+     * @param other the match this one is being compared to.
+     * @return a negative number if this match is closer than the other match.
+     */
+    @Override
+    public int compareTo(final TemplateMatch other) {
+        return Double.compare(mDistance, other.mDistance);
+    }
+
+    /**
+     * @param other the other object.
+     * @return true if both matches are for the same template at the same distance.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (!(other instanceof TemplateMatch)) {
+            return false;
+        }
+        return mTemplate.equals(((TemplateMatch) other).mTemplate)
+                && Double.compare(mDistance, ((TemplateMatch) other).mDistance) == 0;
+    }
+
+    /**
+     * @return a hash code made from the template and the distance.
+     */
+    @Override
+    public int hashCode() {
+        return mTemplate.hashCode() ^ Double.valueOf(mDistance).hashCode();
+    }
+
+    /**
+     * @return A string representation of the match.
+     */
+    @Override
+    public String toString() {
+        return "MATCH[" + getInterpretation() + " DIST:" + mDistance + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package edu.tamu.srl.sketch.core.replay;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+/**
+ * One point of a replayed sketch together with the stroke it was drawn in.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class ReplayEvent {
+
+    /**
+     * The stroke the point belongs to.
+     */
+    private final SrlStroke mStroke;
+
+    /**
+     * The point that is replayed.
+     */
+    private final SrlPoint mPoint;
+
+    /**
+     * The index of the point in the stroke.
+     */
+    private final int mIndex;
+
+    /**
+     * @param stroke the stroke the point belongs to.
+     * @param point the point that is replayed.
+     * @param index the index of the point in the stroke.
+     */
+    ReplayEvent(final SrlStroke stroke, final SrlPoint point, final int index) {
+        this.mStroke = stroke;
+        this.mPoint = point;
+        this.mIndex = index;
+    }
+
+    /**
+     * @return the stroke the point belongs to.
+     */
+    public SrlStroke getStroke() {
+        return mStroke;
+    }
+
+    /**
+     * @return the point that is replayed.
+     */
+    public SrlPoint getPoint() {
+        return mPoint;
+    }
+
+    /**
+     * @return the index of the point in the stroke.
+     */
+    public int getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * @return the time of the point.
+     */
+    public long getTime() {
+        return mPoint.getTime();
+    }
+
+    /**
+     * @return true if the point starts its stroke, like a pen down.
+     */
+    public boolean isStrokeStart() {
+        return mIndex == 0;
+    }
+
+    /**
+     * @return true if the point ends its stroke, like a pen up.
+     */
+    public boolean isStrokeEnd() {
+        return mIndex == mStroke.getNumPoints() - 1;
+    }
+}
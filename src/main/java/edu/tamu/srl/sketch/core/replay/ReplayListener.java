@@ -0,0 +1,18 @@
+package edu.tamu.srl.sketch.core.replay;
+
+/**
+ * Receives the points of a replayed sketch.
+ *
+ * @see SketchReplay#play(ReplayListener, double)
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public interface ReplayListener {
+
+    /**
+     * Called on the thread that plays the replay, in time order.
+     *
+     * @param event the point that is replayed.
+     */
+    void onEvent(ReplayEvent event);
+}
@@ -0,0 +1,204 @@
+package edu.tamu.srl.sketch.core.replay;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays every point of a sketch in time order, even when strokes overlap in time like strokes from several pens.
+ * <br>
+ * The points of every stroke are already in time order so the strokes are merged instead of sorted: a heap holds one cursor per
+ * stroke, keyed by the time of its next point.  Every point costs O(log k) for k strokes and the replay only keeps the cursors, so
+ * nothing is copied or sorted up front and a replay can be stopped at any point.  Points with the same time come out in the
+ * order of their strokes.
+ * <br>
+ * The replay is an iterator for pulling points as fast as they are needed, or it can be played to a listener at the pace of the
+ * times of the points with {@link #play(ReplayListener, double)}.
+ * <br>
+ * The strokes must not be changed during the replay.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class SketchReplay implements Iterator<ReplayEvent> {
+
+    /**
+     * The speed that replays the points at the pace they were drawn.
+     */
+    public static final double REAL_TIME = 1;
+
+    /**
+     * The speed that replays the points without waiting.
+     */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    /**
+     * The number of nanoseconds in a millisecond, the unit of the times of the points.
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * The strokes that have points left, the stroke with the earliest next point is at the head.
+     */
+    private final PriorityQueue<Cursor> mCursors;
+
+    /**
+     * @param strokes the strokes that are replayed, a stroke that comes first wins a tie in time.
+     */
+    public SketchReplay(final List<SrlStroke> strokes) {
+        mCursors = new PriorityQueue<>(Math.max(1, strokes.size()), new CursorComparator());
+        for (int i = 0; i < strokes.size(); i++) {
+            final SrlStroke stroke = strokes.get(i);
+            if (stroke.getNumPoints() > 0) {
+                mCursors.add(new Cursor(stroke, i));
+            }
+        }
+    }
+
+    /**
+     * @param sketch the shape whose strokes are replayed.
+     * @return a replay of every stroke below the shape.
+     */
+    public static SketchReplay forShape(final SrlShape sketch) {
+        final List<SrlStroke> strokes = new ArrayList<>();
+        final Iterator<SrlStroke> iterator = sketch.strokeIterator();
+        while (iterator.hasNext()) {
+            strokes.add(iterator.next());
+        }
+        return new SketchReplay(strokes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public boolean hasNext() {
+        return !mCursors.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override public ReplayEvent next() {
+        final Cursor cursor = mCursors.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        final ReplayEvent event = new ReplayEvent(cursor.mStroke, cursor.mPoints.get(cursor.mIndex), cursor.mIndex);
+        cursor.mIndex++;
+        if (cursor.mIndex < cursor.mPoints.size()) {
+            cursor.mTime = cursor.mPoints.get(cursor.mIndex).getTime();
+            mCursors.add(cursor);
+        }
+        return event;
+    }
+
+    /**
+     * The strokes can not be changed through the replay.
+     */
+    @Override public void remove() {
+        throw new UnsupportedOperationException("The points can not be removed through the replay");
+    }
+
+    /**
+     * Sends the rest of the points to the listener, waiting between points for the time between them divided by the speed.
+     * <br>
+     * The pace is measured from the start of the call, not from the previous point, so the time spent in the listener does not add
+     * up over a long replay.  A listener that is slower than the pace makes the replay fall behind and then catch up without waiting.
+     *
+     * @param listener receives the points in time order.
+     * @param speed {@link #REAL_TIME}, a larger value for an accelerated replay or {@link #AS_FAST_AS_POSSIBLE}.
+     * @throws InterruptedException if the thread is interrupted while it waits, the replay can be continued afterwards.
+     */
+    public void play(final ReplayListener listener, final double speed) throws InterruptedException {
+        if (speed <= 0 || Double.isNaN(speed)) {
+            throw new IllegalArgumentException("The speed must be larger than 0: " + speed);
+        }
+        if (!hasNext()) {
+            return;
+        }
+        final long firstTime = mCursors.peek().mTime;
+        final long startNanos = System.nanoTime();
+        while (hasNext()) {
+            if (speed != AS_FAST_AS_POSSIBLE) {
+                final long due = startNanos + (long) ((mCursors.peek().mTime - firstTime) * NANOS_PER_MILLI / speed);
+                final long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+            listener.onEvent(next());
+        }
+    }
+
+    /**
+     * The position of the replay in one stroke.
+     */
+    private static final class Cursor {
+
+        /**
+         * The stroke.
+         */
+        private final SrlStroke mStroke;
+
+        /**
+         * The points of the stroke.
+         */
+        private final List<SrlPoint> mPoints;
+
+        /**
+         * The position of the stroke in the replayed strokes.
+         */
+        private final int mOrder;
+
+        /**
+         * The index of the next point.
+         */
+        private int mIndex;
+
+        /**
+         * The time of the next point.
+         */
+        private long mTime;
+
+        /**
+         * @param stroke the stroke, it has at least one point.
+         * @param order the position of the stroke in the replayed strokes.
+         */
+        Cursor(final SrlStroke stroke, final int order) {
+            this.mStroke = stroke;
+            this.mPoints = stroke.getPoints();
+            this.mOrder = order;
+            this.mTime = mPoints.get(0).getTime();
+        }
+    }
+
+    /**
+     * Orders the cursors by the time of their next point and then by the order of their strokes.
+     */
+    private static final class CursorComparator implements Comparator<Cursor>, Serializable {
+
+        /**
+         * Comparators are serializable so the collections that hold them can be.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override public int compare(final Cursor first, final Cursor second) {
+            if (first.mTime != second.mTime) {
+                return first.mTime < second.mTime ? -1 : 1;
+            }
+            // the orders are indexes of a list so the difference can not overflow.
+            return first.mOrder - second.mOrder;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package edu.tamu.srl.sketch.core.virtual;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Counts the moves of the points that were first added to one stroke, see {@link SrlPoint#countMovesIn(MoveCounter)}.
+ * <br>
+ * The counter is shared by all of those points, so a point only holds one reference however many strokes hold it.  The stroke
+ * that made the counter is told before any of its points move.  Other strokes that hold some of the points, like shallow
+ * copies, keep the count they last saw and compare it when they are read, which is one compare per counter instead of one per
+ * point.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public final class MoveCounter {
+
+    /**
+     * The listener that is told before a point moves, held weakly so a discarded stroke is not kept alive by its points.
+     */
+    private final WeakReference<PointListener> mListener;
+
+    /**
+     * The number of moves so far.
+     * Points of one stroke are not moved on several threads at once, so the count is only ever written by one thread.
+     */
+    private volatile int mCount;
+
+    /**
+     * @param listener the listener that is told before a point that counts its moves here moves.
+     */
+    public MoveCounter(final PointListener listener) {
+        mListener = new WeakReference<>(listener);
+    }
+
+    /**
+     * Comparing the count with an earlier value tells if any of the points moved since.
+     *
+     * @return the number of times the points have moved.
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Counts the move and tells the listener, called by the point right before it moves.
+     *
+     * @param point the point that is about to move.
+     */
+    void pointMoving(final SrlPoint point) {
+        mCount++;
+        final PointListener listener = mListener.get();
+        if (listener != null) {
+            listener.pointMoving(point);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.tamu.srl.sketch.core.virtual;
+
+/**
+ * Is told when a point is about to move, see {@link MoveCounter}.
+ * <br>
+ * A stroke listens to the points that were first added to it so the values it caches about the points, like the bounding box or
+ * the path length, do not go out of date when a point is moved directly instead of through the stroke.
+ *
+ * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
+ */
+public interface PointListener {
+
+    /**
+     * Called right before the location of the point changes, while the point still has its old location.
+     *
+     * @param point the point that is about to move.
+     */
+    void pointMoving(SrlPoint point);
+}
@@ -67,6 +67,8 @@ public class SrlBoundingBox extends SrlVirtualObject {
      */
     public SrlBoundingBox(final SrlBoundingBox srlBoundingBox) {
         super(srlBoundingBox);
+        setTopLeftCorner(new SrlPoint(srlBoundingBox.getTopLeftCorner()));
+        setBottomRightCorner(new SrlPoint(srlBoundingBox.getBottomRightCorner()));
     }
 
     /**
@@ -75,9 +77,10 @@ public class SrlBoundingBox extends SrlVirtualObject {
      * @return A {@link edu.tamu.srl.sketch.core.virtual.SrlBoundingBox} that represents the union.
      */
     public static SrlBoundingBox union(final SrlBoundingBox... boxes) {
-        double maxX = Double.MIN_VALUE;
+        // Double.MIN_VALUE is the smallest positive value so it can not start a search for the largest value.
+        double maxX = -Double.MAX_VALUE;
         double minX = Double.MAX_VALUE;
-        double maxY = Double.MIN_VALUE;
+        double maxY = -Double.MAX_VALUE;
         double minY = Double.MAX_VALUE;
         for (int i = 0; i < boxes.length; i++) {
             maxX = Math.max(boxes[i].getMaxX(), maxX);
@@ -163,8 +166,9 @@ public class SrlBoundingBox extends SrlVirtualObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void translate(final double xOffset, final double yOffset) {
-        getTopLeftCorner().translate(xOffset, yOffset);
-        getBottomRightCorner().translate(xOffset, yOffset);
+        // the getters return copies of the corners.
+        mTopLeftCorner.translate(xOffset, yOffset);
+        mBottomRightCorner.translate(xOffset, yOffset);
     }
 
     /**
@@ -177,12 +181,13 @@ public class SrlBoundingBox extends SrlVirtualObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void scale(final double xFactor, final double yFactor) {
-        getBottomRightCorner().scale(xFactor, yFactor);
-        getTopLeftCorner().scale(xFactor, yFactor);
+        mBottomRightCorner.scale(xFactor, yFactor);
+        mTopLeftCorner.scale(xFactor, yFactor);
     }
 
     /**
      * Rotates the SComponent from the given x- and y-coordinate.
+     * The box stays axis aligned, it becomes the smallest box around the rotated box.
      *
      * @param radians
      *         the number of radians to rotate
@@ -193,8 +198,19 @@ public class SrlBoundingBox extends SrlVirtualObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void rotate(final double radians, final double xCenter, final double yCenter) {
-        getTopLeftCorner().rotate(radians, xCenter, yCenter);
-        getBottomRightCorner().rotate(radians, xCenter, yCenter);
+        // the box stays axis aligned so it becomes the bounding box of the rotated rectangle.
+        final double cos = Math.cos(radians);
+        final double sin = Math.sin(radians);
+        final double halfWidth = getWidth() / 2;
+        final double halfHeight = getHeight() / 2;
+        final double extentX = Math.abs(halfWidth * cos) + Math.abs(halfHeight * sin);
+        final double extentY = Math.abs(halfWidth * sin) + Math.abs(halfHeight * cos);
+        final double relativeX = getCenterX() - xCenter;
+        final double relativeY = getCenterY() - yCenter;
+        final double centerX = relativeX * cos - relativeY * sin + xCenter;
+        final double centerY = relativeX * sin + relativeY * cos + yCenter;
+        mTopLeftCorner.setPoint(centerX - extentX, centerY - extentY);
+        mBottomRightCorner.setPoint(centerX + extentX, centerY + extentY);
     }
 
     /**
@@ -93,8 +93,13 @@ public class SrlConvexHull extends SrlVirtualObject {
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override public void rotate(final double radians, final double xCenter, final double yCenter) {
+        // the sine and cosine are computed once for all of the points.
+        final double cos = Math.cos(radians);
+        final double sin = Math.sin(radians);
         for (SrlPoint p : mPoints) {
-            p.rotate(radians, xCenter, yCenter);
+            final double relativeX = p.getX() - xCenter;
+            final double relativeY = p.getY() - yCenter;
+            p.setPoint(relativeX * cos - relativeY * sin + xCenter, relativeX * sin + relativeY * cos + yCenter);
         }
     }
 
@@ -14,6 +14,9 @@ import java.util.UUID;
  * It also will contain a history of all of its transformations. That way you can always get the original point.
  * <br>
  * In addition to being part of a {@link edu.tamu.srl.sketch.core.object.SrlStroke} this also can be used for general x,y referencing.
+ * <br>
+ * A point counts its moves in the {@link MoveCounter} of the first stroke it is added to, so a point can be moved directly without
+ * the strokes that hold it going out of date.
  *
  * <p>Copyright Tracy Hammond, Sketch Recognition Lab, Texas A&amp;M University</p>
  * @author gigemjt
@@ -64,6 +67,11 @@ public class SrlPoint extends SrlVirtualObject {
      */
     private boolean mIsHover = false;
 
+    /**
+     * Counts the moves of the point, null until the point is added to a stroke.
+     */
+    private transient volatile MoveCounter mMoves = null;
+
     /**
      * Creates a point with the initial points at x,y.
      *
@@ -323,6 +331,9 @@ public class SrlPoint extends SrlVirtualObject {
      * @return a point where getx and gety return the first values that were added to the history
      */
     public final SrlPoint goBackToInitial() {
+        if (mCurrentElement > 0) {
+            countMove();
+        }
         if (mCurrentElement >= 0) {
             mCurrentElement = 0;
         }
@@ -351,15 +362,20 @@ public class SrlPoint extends SrlVirtualObject {
     }
 
     /**
-     * Rotates the SComponent from the given x- and y-coordinate.
+     * Rotates the point around the given x- and y-coordinate.
+     * Positive angles turn the x axis towards the y axis.
+     * Saves the point it was before in case we need to undo the rotation.
      *
      * @param radians the number of radians to rotate
      * @param xCenter the x-coordinate to rotate from
      * @param yCenter the y-coordinate to rotate from
      */
     @Override public final void rotate(final double radians, final double xCenter, final double yCenter) {
-        // TODO rotation stuff...
-        throw new UnsupportedOperationException("rotate is not supported");
+        final double cos = Math.cos(radians);
+        final double sin = Math.sin(radians);
+        final double relativeX = getX() - xCenter;
+        final double relativeY = getY() - yCenter;
+        setPoint(relativeX * cos - relativeY * sin + xCenter, relativeX * sin + relativeY * cos + yCenter);
     }
 
     /**
@@ -455,7 +471,7 @@ public class SrlPoint extends SrlVirtualObject {
      * unless they have the same time then it is compared based on location (starting with X).
      *
      * @param srlComponent point to compare to.
-     * @return time difference between points.
+     * @return a negative value, zero or a positive value if this point comes before, with or after the other point.
      */
     @SuppressWarnings("checkstyle:designforextension")
     @Override
@@ -463,22 +479,18 @@ public class SrlPoint extends SrlVirtualObject {
         if (!(srlComponent instanceof SrlPoint)) {
             return super.compareTo(srlComponent);
         }
-        final int timeDiff = (int) (this.getTime() - srlComponent.getTime());
-        if (timeDiff != 0) {
-            return timeDiff;
+        // the differences are not cast to int, a long time difference or a fraction of a pixel would be cut off.
+        final int timeOrder = Long.compare(this.getTime(), srlComponent.getTime());
+        if (timeOrder != 0) {
+            return timeOrder;
         }
 
-        final int xDiff = (int) (this.getX() - ((SrlPoint) srlComponent).getX());
-        if (xDiff != 0) {
-            return xDiff;
+        final int xOrder = Double.compare(this.getX(), ((SrlPoint) srlComponent).getX());
+        if (xOrder != 0) {
+            return xOrder;
         }
 
-        final int yDiff = (int) (this.getY() - ((SrlPoint) srlComponent).getY());
-        if (yDiff != 0) {
-            return yDiff;
-        }
-
-        return 0;
+        return Double.compare(this.getY(), ((SrlPoint) srlComponent).getY());
     }
 
     /**
@@ -548,6 +560,7 @@ public class SrlPoint extends SrlVirtualObject {
      * @param yFactor the amount to scale in the y direction
      */
     public final void scale(final double xFactor, final double yFactor) {
+        countMove();
         mXList.add(xFactor * getX());
         mYList.add(yFactor * getY());
         mCurrentElement = mXList.size() - 1;
@@ -562,6 +575,7 @@ public class SrlPoint extends SrlVirtualObject {
      */
     @SuppressWarnings("PMD.ShortVariable")
     public final void setOrigP(final double x, final double y) {
+        countMove();
         mXList = new ArrayList<Double>();
         mYList = new ArrayList<Double>();
         setPoint(x, y);
@@ -577,11 +591,45 @@ public class SrlPoint extends SrlVirtualObject {
      */
     @SuppressWarnings("PMD.ShortVariable")
     public final void setPoint(final double x, final double y) {
+        countMove();
         mXList.add(x);
         mYList.add(y);
         mCurrentElement = mXList.size() - 1;
     }
 
+    /**
+     * Has the point count its moves in the given counter unless it already counts them in another one.
+     * <br>
+     * A stroke calls this when the point is added to it, so the moves are counted by the first stroke the point was added to.
+     *
+     * @param moves the counter of the stroke the point is added to.
+     * @return the counter the point counts its moves in.
+     */
+    public final MoveCounter countMovesIn(final MoveCounter moves) {
+        MoveCounter current = mMoves;
+        if (current == null) {
+            // the point can be added to strokes on different threads.
+            synchronized (this) {
+                current = mMoves;
+                if (current == null) {
+                    current = moves;
+                    mMoves = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Counts the move that is about to happen.
+     */
+    private void countMove() {
+        final MoveCounter moves = mMoves;
+        if (moves != null) {
+            moves.pointMoving(this);
+        }
+    }
+
     /**
      * Set the tilt of the point.
      *
@@ -601,6 +649,7 @@ public class SrlPoint extends SrlVirtualObject {
      * @param yOffset amount to move in the y direction
      */
     public final void translate(final double xOffset, final double yOffset) {
+        countMove();
         mXList.add(xOffset + getX());
         mYList.add(yOffset + getY());
         mCurrentElement = mXList.size() - 1;
@@ -620,6 +669,7 @@ public class SrlPoint extends SrlVirtualObject {
         if (mYList.size() < 2) {
             return this;
         }
+        countMove();
         mXList.remove(mXList.size() - 1);
         mYList.remove(mYList.size() - 1);
         mCurrentElement -= 1;
@@ -0,0 +1,113 @@
+package edu.tamu.srl.sketch.core.distance;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.object.SrlSubStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the pruned distances against their brute force definitions.
+ */
+public class StrokeMetricTest {
+
+    private static SrlStroke makeRandomWalk(Random random, int numPoints) {
+        SrlStroke stroke = new SrlStroke();
+        double x = random.nextDouble() * 100;
+        double y = random.nextDouble() * 100;
+        for (int i = 0; i < numPoints; i++) {
+            x += random.nextGaussian() * 5;
+            y += random.nextGaussian() * 5;
+            stroke.addPoint(new SrlPoint(x, y, i));
+        }
+        return stroke;
+    }
+
+    private static SrlStroke makeNoisyCopy(Random random, SrlStroke stroke) {
+        SrlStroke copy = new SrlStroke();
+        for (SrlPoint point : stroke.getPoints()) {
+            copy.addPoint(new SrlPoint(point.getX() + random.nextGaussian(), point.getY() + random.nextGaussian(), point.getTime()));
+        }
+        return copy;
+    }
+
+    private static double naiveDirected(List<SrlPoint> from, List<SrlPoint> to) {
+        double largest = 0;
+        for (SrlPoint a : from) {
+            double closest = Double.POSITIVE_INFINITY;
+            for (SrlPoint b : to) {
+                closest = Math.min(closest, a.distance(b));
+            }
+            largest = Math.max(largest, closest);
+        }
+        return largest;
+    }
+
+    private static double naiveFrechet(List<SrlPoint> a, List<SrlPoint> b) {
+        double[][] table = new double[a.size()][b.size()];
+        for (int i = 0; i < a.size(); i++) {
+            for (int j = 0; j < b.size(); j++) {
+                double d = a.get(i).distance(b.get(j));
+                if (i == 0 && j == 0) {
+                    table[i][j] = d;
+                } else if (i == 0) {
+                    table[i][j] = Math.max(d, table[i][j - 1]);
+                } else if (j == 0) {
+                    table[i][j] = Math.max(d, table[i - 1][j]);
+                } else {
+                    table[i][j] = Math.max(d, Math.min(table[i - 1][j - 1], Math.min(table[i - 1][j], table[i][j - 1])));
+                }
+            }
+        }
+        return table[a.size() - 1][b.size() - 1];
+    }
+
+    /**
+     * The pruned Hausdorff distance equals the largest distance to the closest point, for close and for unrelated strokes.
+     */
+    @Test
+    public void hausdorffEqualsBruteForce() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 50; trial++) {
+            SrlStroke first = makeRandomWalk(random, 1 + random.nextInt(80));
+            SrlStroke second = trial % 2 == 0 ? makeNoisyCopy(random, first) : makeRandomWalk(random, 1 + random.nextInt(80));
+            List<SrlPoint> a = first.getPoints();
+            List<SrlPoint> b = second.getPoints();
+            Assert.assertEquals(naiveDirected(a, b), HausdorffDistance.directed(a, b), 1e-9);
+            Assert.assertEquals(Math.max(naiveDirected(a, b), naiveDirected(b, a)), first.distance(second, StrokeMetric.HAUSDORFF), 1e-9);
+        }
+    }
+
+    /**
+     * The Fréchet distance equals the dynamic program over every pair of points, and a bound just below it gives up.
+     */
+    @Test
+    public void frechetEqualsBruteForce() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 50; trial++) {
+            SrlStroke first = makeRandomWalk(random, 1 + random.nextInt(60));
+            SrlStroke second = trial % 2 == 0 ? makeNoisyCopy(random, first) : makeRandomWalk(random, 1 + random.nextInt(60));
+            double expected = naiveFrechet(first.getPoints(), second.getPoints());
+            Assert.assertEquals(expected, first.distance(second, StrokeMetric.FRECHET), 1e-9);
+            Assert.assertEquals(expected, FrechetDistance.distance(first.getPoints(), second.getPoints(), expected + 1e-6), 1e-9);
+            Assert.assertTrue(Double.isInfinite(FrechetDistance.distance(first.getPoints(), second.getPoints(), expected * 0.99 - 1e-6)));
+        }
+    }
+
+    /**
+     * A sub stroke is compared using only the points of its range.
+     */
+    @Test
+    public void subStrokeUsesOnlyItsPoints() {
+        Random random = new Random(1);
+        SrlStroke stroke = makeRandomWalk(random, 40);
+        SrlSubStroke sub = new SrlSubStroke(stroke, 10, 25);
+        List<SrlPoint> subPoints = stroke.getPoints().subList(10, 25);
+        Assert.assertEquals(naiveFrechet(subPoints, stroke.getPoints()), sub.distance(stroke, StrokeMetric.FRECHET), 1e-9);
+        Assert.assertEquals(naiveDirected(subPoints, stroke.getPoints()), HausdorffDistance.directed(sub.getPoints(), stroke.getPoints()),
+                1e-9);
+    }
+}
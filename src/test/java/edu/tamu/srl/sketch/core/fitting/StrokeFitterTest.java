@@ -0,0 +1,198 @@
+package edu.tamu.srl.sketch.core.fitting;
+
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.object.SrlSubStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the fits against known primitives and brute force errors.
+ */
+public class StrokeFitterTest {
+
+    private static final double DELTA = 1e-6;
+
+    private static SrlStroke makeArc(double centerX, double centerY, double radius, double start, double sweep, int numPoints) {
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < numPoints; i++) {
+            double angle = start + sweep * i / (numPoints - 1);
+            stroke.addPoint(new SrlPoint(centerX + radius * Math.cos(angle), centerY + radius * Math.sin(angle), i));
+        }
+        return stroke;
+    }
+
+    /**
+     * The error of a line fit is exactly the sum of the squared distances of the points to the line.
+     */
+    @Test
+    public void lineErrorIsExact() {
+        Random random = new Random(5);
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < 50; i++) {
+            stroke.addPoint(new SrlPoint(100 + i * 3 + random.nextGaussian(), 200 + i * 2 + random.nextGaussian(), i));
+        }
+        LineFit line = new StrokeFitter(stroke).fitLine(0, 50);
+        double expected = 0;
+        for (SrlPoint point : stroke.getPoints()) {
+            double distance = (point.getX() - line.getCenterX()) * Math.sin(line.getAngle())
+                    - (point.getY() - line.getCenterY()) * Math.cos(line.getAngle());
+            expected += distance * distance;
+        }
+        Assert.assertEquals(expected, line.getError(), 1e-6 * expected);
+        Assert.assertEquals(Math.atan2(2, 3), line.getAngle(), 0.05);
+        Assert.assertEquals(Math.hypot(147, 98), line.getLength(), 3);
+        Assert.assertEquals(100, line.getStartX(), 2);
+        Assert.assertEquals(298, line.getEndY(), 2);
+    }
+
+    /**
+     * Points on a circle give back its center and radius, and an arc knows where it starts and how far it sweeps in either direction.
+     */
+    @Test
+    public void circleAndArcAreRecovered() {
+        SrlStroke stroke = makeArc(300, 200, 50, 0.3, Math.PI / 2, 40);
+        StrokeFitter fitter = new StrokeFitter(stroke);
+        CircleFit circle = fitter.fitCircle(0, 40);
+        Assert.assertEquals(300, circle.getCenterX(), DELTA);
+        Assert.assertEquals(200, circle.getCenterY(), DELTA);
+        Assert.assertEquals(50, circle.getRadius(), DELTA);
+        Assert.assertEquals(0, circle.getError(), DELTA);
+
+        ArcFit arc = fitter.fitArc(0, 40);
+        Assert.assertEquals(0.3, arc.getStartAngle(), DELTA);
+        Assert.assertEquals(Math.PI / 2, arc.getSweepAngle(), 0.01);
+        ArcFit reverse = new StrokeFitter(makeArc(300, 200, 50, 0.3, -3 * Math.PI, 200)).fitArc(0, 200);
+        Assert.assertEquals(-3 * Math.PI, reverse.getSweepAngle(), 0.01);
+    }
+
+    /**
+     * The error of a circle fit to noisy points is close to the sum of the squared distances to the circle.
+     */
+    @Test
+    public void circleErrorEstimatesTheDistances() {
+        Random random = new Random(9);
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < 100; i++) {
+            double angle = 2 * Math.PI * i / 100;
+            double radius = 40 + random.nextGaussian();
+            stroke.addPoint(new SrlPoint(-20 + radius * Math.cos(angle), 70 + radius * Math.sin(angle), i));
+        }
+        CircleFit circle = new StrokeFitter(stroke).fitCircle(0, 100);
+        double expected = 0;
+        for (SrlPoint point : stroke.getPoints()) {
+            double distance = Math.hypot(point.getX() - circle.getCenterX(), point.getY() - circle.getCenterY()) - circle.getRadius();
+            expected += distance * distance;
+        }
+        Assert.assertEquals(expected, circle.getError(), 0.1 * expected);
+    }
+
+    /**
+     * Points on a rotated ellipse give back its center, radii and angle.
+     */
+    @Test
+    public void ellipseIsRecovered() {
+        SrlStroke stroke = new SrlStroke();
+        double angle = 0.6;
+        for (int i = 0; i < 60; i++) {
+            double theta = 2 * Math.PI * i / 60;
+            double u = 80 * Math.cos(theta);
+            double v = 30 * Math.sin(theta);
+            stroke.addPoint(new SrlPoint(400 + u * Math.cos(angle) - v * Math.sin(angle), 250 + u * Math.sin(angle) + v * Math.cos(angle), i));
+        }
+        EllipseFit ellipse = new StrokeFitter(stroke).fitEllipse(0, 60);
+        Assert.assertEquals(400, ellipse.getCenterX(), 1e-4);
+        Assert.assertEquals(250, ellipse.getCenterY(), 1e-4);
+        Assert.assertEquals(80, ellipse.getMajorRadius(), 1e-4);
+        Assert.assertEquals(30, ellipse.getMinorRadius(), 1e-4);
+        Assert.assertEquals(angle, ellipse.getAngle(), 1e-6);
+        Assert.assertEquals(0, ellipse.getError(), 1e-4);
+    }
+
+    /**
+     * The ranges of sub strokes are fit with the fitter of the parent stroke.
+     */
+    @Test
+    public void subStrokesAreFitInPlace() {
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < 30; i++) {
+            stroke.addPoint(new SrlPoint(i * 2, 0, i));
+        }
+        List<SrlPoint> arc = makeArc(58, 40, 40, -Math.PI / 2, Math.PI, 30).getPoints();
+        stroke.addPoints(arc.subList(1, arc.size()));
+        StrokeFitter fitter = new StrokeFitter(stroke);
+        SrlSubStroke line = new SrlSubStroke(stroke, 0, 30);
+        SrlSubStroke curve = new SrlSubStroke(stroke, 29, stroke.getNumPoints());
+
+        Assert.assertEquals(0, fitter.fitLine(line.getStartIndex(), line.getEndIndex()).getError(), DELTA);
+        Assert.assertNull(fitter.fitCircle(line.getStartIndex(), line.getEndIndex()));
+        Assert.assertNull(fitter.fitEllipse(line.getStartIndex(), line.getEndIndex()));
+        Assert.assertEquals(40, fitter.fitCircle(curve.getStartIndex(), curve.getEndIndex()).getRadius(), DELTA);
+        Assert.assertTrue(fitter.fitLine(0, stroke.getNumPoints()).getError() > 100);
+    }
+
+    /**
+     * Adding points one at a time fits a range the same as a new fitter built from the range alone.
+     */
+    @Test
+    public void streamingMatchesRefitting() {
+        Random random = new Random(13);
+        StrokeFitter streaming = new StrokeFitter();
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < 80; i++) {
+            SrlPoint point = new SrlPoint(random.nextDouble() * 500, random.nextDouble() * 500, i);
+            stroke.addPoint(point);
+            streaming.addPoint(point);
+            if (i >= 10) {
+                StrokeFitter refit = new StrokeFitter(new SrlSubStroke(stroke, i - 10, i + 1));
+                Assert.assertEquals(refit.fitLine(0, 11).getError(), streaming.fitLine(i - 10, i + 1).getError(), 1e-6);
+                Assert.assertEquals(refit.fitCircle(0, 11).getRadius(), streaming.fitCircle(i - 10, i + 1).getRadius(), 1e-6);
+            }
+        }
+    }
+
+    /**
+     * A small primitive at the end of a long stroke is fit as exactly as on its own.
+     */
+    @Test
+    public void smallPrimitiveFarFromTheFirstPointIsExact() {
+        StrokeFitter fitter = new StrokeFitter();
+        int numDrift = 60000;
+        for (int i = 0; i < numDrift; i++) {
+            fitter.addPoint(new SrlPoint(i * 0.5, i * 0.25, i));
+        }
+        SrlStroke circle = makeArc(30000, 15000, 2, 0, 2 * Math.PI * 59 / 60, 60);
+        fitter.addPoints(circle.getPoints());
+        CircleFit fresh = new StrokeFitter(circle).fitCircle(0, 60);
+        CircleFit far = fitter.fitCircle(numDrift, numDrift + 60);
+        Assert.assertEquals(2, fresh.getRadius(), 1e-9);
+        Assert.assertEquals(2, far.getRadius(), 1e-6);
+        Assert.assertEquals(30000, far.getCenterX(), 1e-6);
+        Assert.assertEquals(15000, far.getCenterY(), 1e-6);
+        Assert.assertEquals(0, far.getError(), 1e-6);
+
+        EllipseFit ellipse = fitter.fitEllipse(numDrift, numDrift + 60);
+        Assert.assertNotNull(ellipse);
+        Assert.assertEquals(2, ellipse.getMajorRadius(), 1e-6);
+        Assert.assertEquals(2, ellipse.getMinorRadius(), 1e-6);
+
+        // a primitive long enough to be made of whole blocks of points is just as exact.
+        SrlStroke hover = makeArc(30000, 15000, 1, 0, 40 * Math.PI, 5000);
+        fitter.addPoints(hover.getPoints());
+        CircleFit hoverFit = fitter.fitCircle(numDrift + 60, numDrift + 5060);
+        Assert.assertEquals(1, hoverFit.getRadius(), 1e-6);
+        Assert.assertEquals(30000, hoverFit.getCenterX(), 1e-6);
+        Assert.assertEquals(0, fitter.fitLine(0, numDrift).getError(), 1e-3);
+    }
+
+    /**
+     * A range without points can not be fit.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyRangeIsRejected() {
+        new StrokeFitter(makeArc(0, 0, 1, 0, 1, 5)).fitLine(2, 2);
+    }
+}
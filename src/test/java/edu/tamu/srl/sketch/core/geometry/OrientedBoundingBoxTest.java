@@ -0,0 +1,159 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.object.SampleStrokes;
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests the convex hull and the rotating calipers against brute force.
+ */
+public class OrientedBoundingBoxTest {
+
+    private static final double DELTA = 1e-6;
+
+    /**
+     * Rotates a rectangle around its center and walks along its outline.
+     */
+    private static SrlStroke makeRotatedRectangle(double width, double height, double angle) {
+        SrlStroke stroke = new SrlStroke();
+        double[] xs = {-width / 2, width / 2, width / 2, -width / 2, -width / 2};
+        double[] ys = {-height / 2, -height / 2, height / 2, height / 2, -height / 2};
+        for (int i = 0; i < xs.length; i++) {
+            stroke.addPoint(new SrlPoint(10 + xs[i] * Math.cos(angle) - ys[i] * Math.sin(angle),
+                    20 + xs[i] * Math.sin(angle) + ys[i] * Math.cos(angle), i));
+        }
+        return stroke;
+    }
+
+    private static double bruteForceArea(List<SrlPoint> points) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < 20000; i++) {
+            double angle = Math.PI / 2 * i / 20000;
+            double minU = Double.POSITIVE_INFINITY;
+            double maxU = Double.NEGATIVE_INFINITY;
+            double minV = Double.POSITIVE_INFINITY;
+            double maxV = Double.NEGATIVE_INFINITY;
+            for (SrlPoint point : points) {
+                double u = point.getX() * Math.cos(angle) + point.getY() * Math.sin(angle);
+                double v = -point.getX() * Math.sin(angle) + point.getY() * Math.cos(angle);
+                minU = Math.min(minU, u);
+                maxU = Math.max(maxU, u);
+                minV = Math.min(minV, v);
+                maxV = Math.max(maxV, v);
+            }
+            best = Math.min(best, (maxU - minU) * (maxV - minV));
+        }
+        return best;
+    }
+
+    private static void assertContains(OrientedBoundingBox box, List<SrlPoint> points) {
+        double cos = Math.cos(box.getAngle());
+        double sin = Math.sin(box.getAngle());
+        for (SrlPoint point : points) {
+            double xDiff = point.getX() - box.getCenterX();
+            double yDiff = point.getY() - box.getCenterY();
+            Assert.assertTrue(Math.abs(xDiff * cos + yDiff * sin) <= box.getWidth() / 2 + DELTA);
+            Assert.assertTrue(Math.abs(-xDiff * sin + yDiff * cos) <= box.getHeight() / 2 + DELTA);
+        }
+    }
+
+    /**
+     * Every point is inside the hull and every corner of the hull turns the same way.
+     */
+    @Test
+    public void hullContainsEveryPointAndIsConvex() {
+        Random random = new Random(3);
+        SrlStroke stroke = SampleStrokes.makeRandomStroke(random, 200);
+        List<SrlPoint> hull = stroke.getConvexHull().getPoints();
+        for (int i = 0; i < hull.size(); i++) {
+            SrlPoint start = hull.get(i);
+            SrlPoint end = hull.get((i + 1) % hull.size());
+            Assert.assertTrue(ConvexHulls.cross(start, end, hull.get((i + 2) % hull.size())) > 0);
+            for (SrlPoint point : stroke.getPoints()) {
+                Assert.assertTrue(ConvexHulls.cross(start, end, point) >= -DELTA);
+            }
+        }
+    }
+
+    /**
+     * The hull of repeated points is one point and the hull of points on a line is its two ends.
+     */
+    @Test
+    public void hullOfDegenerateStrokes() {
+        Assert.assertEquals(0, new SrlStroke().getConvexHull().getPoints().size());
+        Assert.assertEquals(1, SampleStrokes.makeStroke(1, 1, 1, 1, 1, 1).getConvexHull().getPoints().size());
+        Assert.assertEquals(2, SampleStrokes.makeStroke(0, 0, 1, 1, 2, 2, 3, 3).getConvexHull().getPoints().size());
+    }
+
+    /**
+     * The box around a rotated rectangle is the rectangle itself.
+     */
+    @Test
+    public void rotatedRectangleIsRecovered() {
+        OrientedBoundingBox box = makeRotatedRectangle(30, 10, 0.5).getOrientedBoundingBox();
+        Assert.assertEquals(30, box.getWidth(), DELTA);
+        Assert.assertEquals(10, box.getHeight(), DELTA);
+        Assert.assertEquals(0.5, box.getAngle(), DELTA);
+        Assert.assertEquals(10, box.getCenterX(), DELTA);
+        Assert.assertEquals(20, box.getCenterY(), DELTA);
+
+        OrientedBoundingBox diamond = SampleStrokes.makeStroke(0, 10, 10, 0, 0, -10, -10, 0, 0, 10).getOrientedBoundingBox();
+        Assert.assertEquals(200, diamond.getArea(), DELTA);
+        Assert.assertEquals(Math.PI / 4, diamond.getAngle(), DELTA);
+        Assert.assertEquals(1, diamond.getAspectRatio(), DELTA);
+    }
+
+    /**
+     * The box around a single segment is as long as the segment and has no height.
+     */
+    @Test
+    public void segmentHasNoHeight() {
+        OrientedBoundingBox box = SampleStrokes.makeStroke(0, 0, 3, 4).getOrientedBoundingBox();
+        Assert.assertEquals(5, box.getWidth(), DELTA);
+        Assert.assertEquals(0, box.getHeight(), DELTA);
+        Assert.assertEquals(1.5, box.getCenterX(), DELTA);
+        Assert.assertEquals(2, box.getCenterY(), DELTA);
+    }
+
+    /**
+     * The box contains every point and its area matches the smallest area found by trying many angles.
+     */
+    @Test
+    public void matchesBruteForce() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 20; trial++) {
+            SrlStroke stroke = SampleStrokes.makeRandomStroke(random, 5 + random.nextInt(60));
+            OrientedBoundingBox box = stroke.getOrientedBoundingBox();
+            assertContains(box, stroke.getPoints());
+            double expected = bruteForceArea(stroke.getPoints());
+            Assert.assertTrue(box.getArea() <= expected + DELTA);
+            Assert.assertEquals(expected, box.getArea(), expected * 1e-3);
+        }
+    }
+
+    /**
+     * The box is cached until the stroke or the shape changes.
+     */
+    @Test
+    public void cacheIsResetWhenTheObjectChanges() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 0, 10, 10);
+        OrientedBoundingBox box = stroke.getOrientedBoundingBox();
+        Assert.assertSame(box, stroke.getOrientedBoundingBox());
+        stroke.addPoint(new SrlPoint(40, 40));
+        Assert.assertNotSame(box, stroke.getOrientedBoundingBox());
+        assertContains(stroke.getOrientedBoundingBox(), stroke.getPoints());
+
+        SrlShape shape = new SrlShape();
+        shape.add(makeRotatedRectangle(30, 10, 1));
+        shape.add(makeRotatedRectangle(30, 10, 1));
+        Assert.assertEquals(300, shape.getOrientedBoundingBox().getArea(), DELTA);
+        shape.translate(5, 5);
+        Assert.assertEquals(15, shape.getOrientedBoundingBox().getCenterX(), DELTA);
+    }
+}
@@ -0,0 +1,151 @@
+package edu.tamu.srl.sketch.core.geometry;
+
+import edu.tamu.srl.sketch.core.object.SampleStrokes;
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests the sweep against testing every pair of segments.
+ */
+public class SweepLineIntersectorTest {
+
+    /**
+     * Points on a coarse grid give shared end points, vertical segments and collinear overlaps.
+     */
+    private static SrlStroke makeDegenerateStroke(Random random, int numPoints) {
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < numPoints; i++) {
+            stroke.addPoint(new SrlPoint(random.nextInt(6), random.nextInt(6), i));
+        }
+        return stroke;
+    }
+
+    private static Set<String> keys(List<StrokeIntersection> intersections, List<SrlStroke> strokes) {
+        Set<String> keys = new HashSet<>();
+        for (StrokeIntersection intersection : intersections) {
+            String key = strokes.indexOf(intersection.getFirstStroke()) + ":" + intersection.getFirstSegment() + "-"
+                    + strokes.indexOf(intersection.getSecondStroke()) + ":" + intersection.getSecondSegment();
+            Assert.assertTrue("reported twice " + key, keys.add(key));
+        }
+        return keys;
+    }
+
+    private static Set<String> bruteForce(List<SrlStroke> strokes, boolean self) {
+        List<SweepSegment> segments = new ArrayList<>();
+        for (int s = 0; s < strokes.size(); s++) {
+            List<SrlPoint> points = strokes.get(s).getPoints();
+            int segmentIndex = 0;
+            for (int i = 1; i < points.size(); i++) {
+                if (points.get(i - 1).getX() != points.get(i).getX() || points.get(i - 1).getY() != points.get(i).getY()) {
+                    segments.add(new SweepSegment(strokes.get(s), s, i - 1, segmentIndex++, segments.size(), points.get(i - 1).getX(),
+                            points.get(i - 1).getY(), points.get(i).getX(), points.get(i).getY()));
+                }
+            }
+        }
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < segments.size(); i++) {
+            for (int j = i + 1; j < segments.size(); j++) {
+                SweepSegment a = segments.get(i);
+                SweepSegment b = segments.get(j);
+                boolean sameStroke = a.getStrokeIndex() == b.getStrokeIndex();
+                if (sameStroke && (!self || b.getSegmentIndex() - a.getSegmentIndex() == 1)) {
+                    continue;
+                }
+                if (SweepLineIntersector.intersect(a, b) != null) {
+                    keys.add(a.getStrokeIndex() + ":" + a.getPointIndex() + "-" + b.getStrokeIndex() + ":" + b.getPointIndex());
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * The sweep finds the same crossings of random strokes as testing every pair of segments.
+     */
+    @Test
+    public void randomStrokesMatchBruteForce() {
+        Random random = new Random(17);
+        for (int trial = 0; trial < 20; trial++) {
+            List<SrlStroke> strokes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                strokes.add(SampleStrokes.makeRandomStroke(random, 2 + random.nextInt(10)));
+            }
+            Assert.assertEquals(bruteForce(strokes, false), keys(new SweepLineIntersector().findIntersections(strokes), strokes));
+            Assert.assertEquals(bruteForce(strokes, true), keys(new SweepLineIntersector(true).findIntersections(strokes), strokes));
+        }
+    }
+
+    /**
+     * Shared end points, vertical segments and overlaps are found the same as testing every pair of segments.
+     */
+    @Test
+    public void degenerateStrokesMatchBruteForce() {
+        Random random = new Random(23);
+        for (int trial = 0; trial < 500; trial++) {
+            List<SrlStroke> strokes = new ArrayList<>();
+            for (int i = 0; i < 2 + random.nextInt(5); i++) {
+                strokes.add(makeDegenerateStroke(random, 2 + random.nextInt(5)));
+            }
+            Assert.assertEquals(bruteForce(strokes, false), keys(new SweepLineIntersector().findIntersections(strokes), strokes));
+            Assert.assertEquals(bruteForce(strokes, true), keys(new SweepLineIntersector(true).findIntersections(strokes), strokes));
+        }
+    }
+
+    /**
+     * Every crossing of a grid of strokes is found once.
+     */
+    @Test
+    public void gridOfVerticalAndHorizontalStrokes() {
+        SrlShape shape = new SrlShape();
+        List<SrlStroke> strokes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            strokes.add(SampleStrokes.makeStroke(0, i * 10, 100, i * 10));
+            strokes.add(SampleStrokes.makeStroke(i * 10 + 5, -5, i * 10 + 5, 95));
+        }
+        for (SrlStroke stroke : strokes) {
+            shape.add(stroke);
+        }
+        List<StrokeIntersection> intersections = new SweepLineIntersector().findIntersections(shape);
+        Assert.assertEquals(100, intersections.size());
+        Assert.assertEquals(bruteForce(strokes, false), keys(intersections, strokes));
+    }
+
+    /**
+     * Strokes that only touch at an end point are reported as crossing.
+     */
+    @Test
+    public void touchingStrokesAreReported() {
+        List<SrlStroke> strokes = new ArrayList<>();
+        strokes.add(SampleStrokes.makeStroke(0, 0, 10, 0));
+        strokes.add(SampleStrokes.makeStroke(10, 0, 10, 10));
+        strokes.add(SampleStrokes.makeStroke(5, 0, 5, -10));
+        List<StrokeIntersection> intersections = new SweepLineIntersector().findIntersections(strokes);
+        Assert.assertEquals(bruteForce(strokes, false), keys(intersections, strokes));
+        Assert.assertEquals(2, intersections.size());
+    }
+
+    /**
+     * A stroke crossing itself is only reported when self intersections are asked for.
+     */
+    @Test
+    public void selfIntersectionsOnlyWhenAsked() {
+        List<SrlStroke> strokes = new ArrayList<>();
+        // a figure eight crosses itself once in the middle.
+        strokes.add(SampleStrokes.makeStroke(0, 0, 10, 10, 10, 0, 0, 10));
+        Assert.assertTrue(new SweepLineIntersector().findIntersections(strokes).isEmpty());
+        List<StrokeIntersection> intersections = new SweepLineIntersector(true).findIntersections(strokes);
+        Assert.assertEquals(1, intersections.size());
+        Assert.assertTrue(intersections.get(0).isSelfIntersection());
+        Assert.assertEquals(5, intersections.get(0).getX(), 1e-9);
+        Assert.assertEquals(5, intersections.get(0).getY(), 1e-9);
+    }
+}
@@ -0,0 +1,141 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.tobenamedlater.SrlShapeConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Tests the queries of the shape index against a full scan.
+ */
+public class ShapeIndexTest {
+
+    private static final String[] LABELS = {"arrow", "line", "circle", "box"};
+
+    private static SrlShape shape(String interpretation, UUID recognizer, double confidence, String domain) {
+        SrlShape shape = new SrlShape(0, UUID.randomUUID(),
+                new SrlShapeConfig(UUID.randomUUID(), recognizer, interpretation, confidence, 1, false, false), interpretation);
+        shape.setDomain(domain);
+        return shape;
+    }
+
+    private static List<SrlShape> corpus(ShapeIndex index, UUID[] recognizers) {
+        Random random = new Random(3);
+        List<SrlShape> shapes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            SrlShape shape = shape(LABELS[random.nextInt(LABELS.length)], recognizers[random.nextInt(recognizers.length)],
+                    random.nextDouble(), random.nextBoolean() ? "uml" : null);
+            shapes.add(shape);
+            index.add(shape);
+        }
+        return shapes;
+    }
+
+    /**
+     * Finding by every column returns the same shapes as checking each shape.
+     */
+    @Test
+    public void findMatchesAFullScan() {
+        UUID[] recognizers = {UUID.randomUUID(), UUID.randomUUID()};
+        ShapeIndex index = new ShapeIndex();
+        List<SrlShape> shapes = corpus(index, recognizers);
+
+        List<SrlShape> expected = new ArrayList<>();
+        for (SrlShape shape : shapes) {
+            if ("arrow".equals(shape.getInterpretation()) && recognizers[1].equals(shape.getRecognizerId())
+                    && shape.getConfidence() > 0.8) {
+                expected.add(shape);
+            }
+        }
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, index.findShapes("arrow", recognizers[1], null, Math.nextUp(0.8), 1));
+        Assert.assertEquals(0, index.find("triangle", null, null, 0, 1).length);
+
+        int uml = 0;
+        for (SrlShape shape : shapes) {
+            if ("uml".equals(shape.getDomain())) {
+                uml++;
+            }
+        }
+        Assert.assertEquals(uml, index.find(null, null, "uml", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).length);
+    }
+
+    /**
+     * The shapes in a range of confidence are found in order of confidence.
+     */
+    @Test
+    public void confidenceRangeIsSorted() {
+        ShapeIndex index = new ShapeIndex();
+        corpus(index, new UUID[] {UUID.randomUUID()});
+        int[] numbers = index.findByConfidence(0.25, 0.5);
+        int expected = 0;
+        for (int i = 0; i < index.size(); i++) {
+            double confidence = index.getConfidence(i);
+            if (confidence >= 0.25 && confidence <= 0.5) {
+                expected++;
+            }
+        }
+        Assert.assertEquals(expected, numbers.length);
+        for (int i = 1; i < numbers.length; i++) {
+            Assert.assertTrue(index.getConfidence(numbers[i - 1]) <= index.getConfidence(numbers[i]));
+        }
+        int[] all = index.find(null, null, null, 0.25, 0.5);
+        for (int i = 1; i < all.length; i++) {
+            Assert.assertTrue(all[i - 1] < all[i]);
+        }
+    }
+
+    /**
+     * Adding a shape indexes every shape below it.
+     */
+    @Test
+    public void addAllIndexesSubShapes() {
+        SrlShape root = shape("diagram", null, 1, null);
+        SrlShape child = shape("arrow", null, 0.5, null);
+        child.add(shape("line", null, 0.9, null));
+        root.add(child);
+        ShapeIndex index = new ShapeIndex();
+        index.addAll(root);
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals(1, index.countInterpretation("line"));
+        Assert.assertSame(child, index.findShapes("arrow", null, null, 0, 1).get(0));
+    }
+
+    /**
+     * An index that is written and read back finds the same shapes.
+     */
+    @Test
+    public void writtenIndexIsReadBack() throws IOException {
+        UUID[] recognizers = {UUID.randomUUID(), UUID.randomUUID()};
+        ShapeIndex index = new ShapeIndex();
+        corpus(index, recognizers);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.write(new DataOutputStream(bytes));
+
+        ShapeIndex read = ShapeIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assert.assertEquals(index.size(), read.size());
+        int[] expected = index.find("line", recognizers[0], "uml", 0.1, 0.9);
+        int[] actual = read.find("line", recognizers[0], "uml", 0.1, 0.9);
+        Assert.assertArrayEquals(expected, actual);
+        Assert.assertEquals(index.getShapeId(actual[0]), read.getShapeId(actual[0]));
+        Assert.assertNull(read.getShape(actual[0]));
+    }
+
+    /**
+     * Reading a stream that is not an index fails.
+     */
+    @Test(expected = IOException.class)
+    public void readRejectsOtherStreams() throws IOException {
+        ShapeIndex.read(new DataInputStream(new ByteArrayInputStream(new byte[] {0, 0, 0, 1})));
+    }
+}
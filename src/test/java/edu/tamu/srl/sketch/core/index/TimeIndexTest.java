@@ -0,0 +1,123 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tests the range and nearest in time queries of the time index.
+ */
+public class TimeIndexTest {
+
+    private static SrlStroke stroke(long time) {
+        SrlStroke stroke = new SrlStroke(time, UUID.randomUUID(), true);
+        stroke.addPoint(new SrlPoint(0, 0, time));
+        stroke.addPoint(new SrlPoint(1, 1, time + 5));
+        return stroke;
+    }
+
+    /**
+     * Strokes added in time order are found by their time range.
+     */
+    @Test
+    public void strokesInOrderAreAppended() {
+        TimeIndex index = new TimeIndex();
+        SrlStroke first = stroke(100);
+        SrlStroke second = stroke(200);
+        SrlStroke third = stroke(300);
+        index.add(first);
+        index.add(second);
+        index.add(third);
+
+        List<SrlStroke> range = index.getStrokes(150, 300);
+        Assert.assertEquals(1, range.size());
+        Assert.assertSame(second, range.get(0));
+        Assert.assertEquals(3, index.getStrokes(100, 301).size());
+        Assert.assertTrue(index.getStrokes(301, 400).isEmpty());
+        Assert.assertTrue(index.getStrokes(300, 100).isEmpty());
+        Assert.assertEquals(6, index.getNumPoints());
+    }
+
+    /**
+     * Strokes added out of time order are kept in time order.
+     */
+    @Test
+    public void strokesOutOfOrderAreInserted() {
+        TimeIndex index = new TimeIndex();
+        SrlStroke late = stroke(300);
+        SrlStroke early = stroke(100);
+        SrlStroke middle = stroke(200);
+        index.add(late);
+        index.add(early);
+        index.add(middle);
+
+        Assert.assertSame(early, index.getStroke(0));
+        Assert.assertSame(middle, index.getStroke(1));
+        Assert.assertSame(late, index.getStroke(2));
+
+        List<SrlPoint> points = index.getPoints(0, Long.MAX_VALUE);
+        for (int i = 1; i < points.size(); i++) {
+            Assert.assertTrue(points.get(i - 1).getTime() <= points.get(i).getTime());
+        }
+    }
+
+    /**
+     * The nearest stroke to a time halfway between two strokes is the earlier one.
+     */
+    @Test
+    public void nearestPrefersTheEarlierOnATie() {
+        TimeIndex index = new TimeIndex();
+        Assert.assertNull(index.getNearestStroke(0));
+        SrlStroke first = stroke(100);
+        SrlStroke second = stroke(200);
+        index.add(first);
+        index.add(second);
+
+        Assert.assertSame(first, index.getNearestStroke(Long.MIN_VALUE));
+        Assert.assertSame(first, index.getNearestStroke(150));
+        Assert.assertSame(second, index.getNearestStroke(151));
+        Assert.assertSame(second, index.getNearestStroke(Long.MAX_VALUE));
+        Assert.assertEquals(205, index.getNearestPoint(204).getTime());
+    }
+
+    /**
+     * Removing a stroke does not remove another stroke at the same time.
+     */
+    @Test
+    public void removeOnlyRemovesTheSameStroke() {
+        TimeIndex index = new TimeIndex();
+        SrlStroke first = stroke(100);
+        SrlStroke twin = stroke(100);
+        index.add(first);
+        index.add(twin);
+
+        Assert.assertTrue(index.remove(twin));
+        Assert.assertFalse(index.remove(twin));
+        Assert.assertEquals(1, index.getNumStrokes());
+        Assert.assertSame(first, index.getStroke(0));
+        Assert.assertEquals(2, index.getNumPoints());
+    }
+
+    /**
+     * An index of a shape holds every stroke below it and finds the latest ones.
+     */
+    @Test
+    public void indexOfShapeAndLatestStrokes() {
+        SrlShape shape = new SrlShape();
+        SrlShape inner = new SrlShape();
+        inner.add(stroke(500));
+        shape.add(stroke(100));
+        shape.add(inner);
+        shape.add(stroke(450));
+
+        TimeIndex index = TimeIndex.forShape(shape);
+        Assert.assertEquals(3, index.getNumStrokes());
+        Assert.assertEquals(2, index.getLatestStrokes(50).size());
+        Assert.assertEquals(500, index.getLatestStrokes(0).get(0).getTime());
+    }
+}
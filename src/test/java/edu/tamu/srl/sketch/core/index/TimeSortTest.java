@@ -0,0 +1,93 @@
+package edu.tamu.srl.sketch.core.index;
+
+import edu.tamu.srl.sketch.core.abstracted.AbstractSrlComponent;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Tests that the radix sorts give the same order as the comparisons.
+ */
+public class TimeSortTest {
+
+    /**
+     * Points far apart in time compare by the sign of the difference and not by an overflowed int.
+     */
+    @Test
+    public void pointCompareDoesNotOverflow() {
+        SrlPoint early = new SrlPoint(0, 0, 0);
+        SrlPoint late = new SrlPoint(0, 0, 1L << 32);
+        Assert.assertTrue(early.compareTo(late) < 0);
+        Assert.assertTrue(late.compareTo(early) > 0);
+
+        SrlPoint left = new SrlPoint(0.25, 0, 5);
+        SrlPoint right = new SrlPoint(0.75, 0, 5);
+        Assert.assertTrue(left.compareTo(right) < 0);
+        Assert.assertEquals(0, left.compareTo(new SrlPoint(0.25, 0, 5)));
+    }
+
+    /**
+     * Sorting strokes by time keeps equal times in order and agrees with the time comparator.
+     */
+    @Test
+    public void sortByTimeIsStableAndMatchesTheComparator() {
+        Random random = new Random(1);
+        List<SrlStroke> strokes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            long time = random.nextBoolean() ? 1400000000000L + random.nextInt(1000) : -random.nextInt(1000);
+            strokes.add(new SrlStroke(time, UUID.randomUUID(), true));
+        }
+        List<SrlStroke> expected = new ArrayList<>(strokes);
+        Collections.sort(expected, AbstractSrlComponent.getTimeComparator());
+
+        TimeSort.sortByTime(strokes);
+        for (int i = 0; i < strokes.size(); i++) {
+            Assert.assertSame(expected.get(i), strokes.get(i));
+        }
+    }
+
+    /**
+     * Sorting points agrees with their natural order, including infinite values and negative zero.
+     */
+    @Test
+    public void sortPointsMatchesCompareTo() {
+        Random random = new Random(2);
+        List<SrlPoint> points = new LinkedList<>();
+        for (int i = 0; i < 5000; i++) {
+            points.add(new SrlPoint(random.nextInt(5) - 2.5, random.nextGaussian(), random.nextInt(20)));
+        }
+        points.add(new SrlPoint(Double.NEGATIVE_INFINITY, -0.0, 3));
+        points.add(new SrlPoint(Double.NEGATIVE_INFINITY, 0.0, 3));
+        List<SrlPoint> expected = new ArrayList<>(points);
+        Collections.sort(expected);
+
+        TimeSort.sortPoints(points);
+        int index = 0;
+        for (SrlPoint point : points) {
+            Assert.assertEquals(0, expected.get(index).compareTo(point));
+            index++;
+        }
+    }
+
+    /**
+     * Lists too small for the radix sort are sorted too.
+     */
+    @Test
+    public void smallListsAreSorted() {
+        List<SrlPoint> points = new ArrayList<>();
+        points.add(new SrlPoint(0, 0, 3));
+        points.add(new SrlPoint(0, 0, 1));
+        points.add(new SrlPoint(0, 0, 2));
+        TimeSort.sortByTime(points);
+        Assert.assertEquals(1, points.get(0).getTime());
+        Assert.assertEquals(3, points.get(2).getTime());
+    }
+}
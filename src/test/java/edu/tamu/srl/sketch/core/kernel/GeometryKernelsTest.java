@@ -0,0 +1,66 @@
+package edu.tamu.srl.sketch.core.kernel;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests the unrolled kernels against plain loops, including the ranges that do not fill every lane.
+ */
+public class GeometryKernelsTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Every kernel gives the same result as a plain loop for every range.
+     */
+    @Test
+    public void kernelsMatchPlainLoops() {
+        Random random = new Random(3);
+        double[] xValues = new double[23];
+        double[] yValues = new double[23];
+        for (int i = 0; i < xValues.length; i++) {
+            xValues[i] = random.nextGaussian() * 100;
+            yValues[i] = random.nextGaussian() * 100;
+        }
+        for (int start = 0; start < 6; start++) {
+            for (int end = start; end <= xValues.length; end++) {
+                double minX = Double.POSITIVE_INFINITY;
+                double maxY = Double.NEGATIVE_INFINITY;
+                double sumX = 0;
+                double length = 0;
+                double squared = 0;
+                for (int i = start; i < end; i++) {
+                    minX = Math.min(minX, xValues[i]);
+                    maxY = Math.max(maxY, yValues[i]);
+                    sumX += xValues[i];
+                    squared += (xValues[i] - 1) * (xValues[i] - 1) + (yValues[i] + 2) * (yValues[i] + 2);
+                    if (i > start) {
+                        length += Math.hypot(xValues[i] - xValues[i - 1], yValues[i] - yValues[i - 1]);
+                    }
+                }
+                double[] bounds = GeometryKernels.bounds(xValues, yValues, start, end, new double[GeometryKernels.NUM_BOUNDS]);
+                Assert.assertEquals(minX, bounds[GeometryKernels.MIN_X], DELTA);
+                Assert.assertEquals(maxY, bounds[GeometryKernels.MAX_Y], DELTA);
+                Assert.assertEquals(sumX, GeometryKernels.sum(xValues, start, end), DELTA);
+                Assert.assertEquals(length, GeometryKernels.pathLength(xValues, yValues, start, end), DELTA);
+                Assert.assertEquals(squared, GeometryKernels.squaredDistanceSum(xValues, yValues, start, end, 1, -2), 1e-6);
+            }
+        }
+    }
+
+    /**
+     * The cumulative lengths of a range continue from the length already at its start.
+     */
+    @Test
+    public void cumulativeLengthsContinueFromTheStart() {
+        double[] xValues = {0, 3, 3, 0};
+        double[] yValues = {0, 4, 0, 0};
+        double[] lengths = new double[4];
+        lengths[1] = 5;
+        GeometryKernels.cumulativeLengths(xValues, yValues, 1, 4, lengths);
+        Assert.assertEquals(9, lengths[2], DELTA);
+        Assert.assertEquals(12, lengths[3], DELTA);
+    }
+}
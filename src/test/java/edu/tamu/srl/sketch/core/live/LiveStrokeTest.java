@@ -0,0 +1,99 @@
+package edu.tamu.srl.sketch.core.live;
+
+import edu.tamu.srl.sketch.core.kernel.GeometryKernels;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests that readers of a live stroke only ever see whole committed samples.
+ */
+public class LiveStrokeTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * A prefix keeps its points and length while the stroke keeps growing.
+     */
+    @Test
+    public void prefixesDoNotChange() {
+        LiveStroke live = new LiveStroke(5, UUID.randomUUID());
+        live.addSample(0, 0, 0, 0.5);
+        live.addSample(3, 4, 1, 0.6);
+        StrokePrefix prefix = live.getPrefix();
+        for (int i = 2; i < 1000; i++) {
+            live.addSample(3, 4 + i, i, 1);
+        }
+        Assert.assertEquals(2, prefix.size());
+        Assert.assertEquals(5, prefix.getPathLength(), DELTA);
+        Assert.assertEquals(4, prefix.getBounds()[GeometryKernels.MAX_Y], DELTA);
+        Assert.assertEquals(0.6, prefix.getPressure(1), DELTA);
+        Assert.assertEquals(1000, live.getNumSamples());
+        Assert.assertEquals(998, live.getPrefix().toPoints(2).size());
+
+        live.finish();
+        SrlStroke stroke = live.toSrlStroke();
+        Assert.assertEquals(live.getId(), stroke.getId());
+        Assert.assertEquals(1000, stroke.getNumPoints());
+        Assert.assertEquals(0.5, stroke.getFirstPoint().getPressure(), DELTA);
+        Assert.assertEquals(1003, stroke.getLastPoint().getY(), DELTA);
+    }
+
+    /**
+     * A finished stroke can not be given more samples.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void finishedStrokesRejectSamples() {
+        LiveStroke live = new LiveStroke(0, UUID.randomUUID());
+        live.finish();
+        live.addSample(1, 1, 1, 1);
+    }
+
+    /**
+     * A prefix does not show samples added after it was taken.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void prefixRejectsUncommittedSamples() {
+        LiveStroke live = new LiveStroke(0, UUID.randomUUID());
+        live.addSample(1, 1, 1, 1);
+        live.getPrefix().getX(1);
+    }
+
+    /**
+     * A reader on another thread only ever sees whole samples, in order.
+     */
+    @Test
+    public void readerSeesConsistentPrefixes() throws Exception {
+        final LiveStroke live = new LiveStroke(0, UUID.randomUUID());
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(new Runnable() {
+            @Override public void run() {
+                try {
+                    int last = 0;
+                    while (!live.isFinished() || last < live.getNumSamples()) {
+                        StrokePrefix prefix = live.getPrefix();
+                        Assert.assertTrue(prefix.size() >= last);
+                        for (int i = last; i < prefix.size(); i++) {
+                            Assert.assertEquals(i, prefix.getX(i), 0);
+                            Assert.assertEquals(-i, prefix.getY(i), 0);
+                            Assert.assertEquals(i, prefix.getTime(i));
+                        }
+                        last = prefix.size();
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 200000; i++) {
+            live.addSample(i, -i, i, 1);
+        }
+        live.finish();
+        reader.join();
+        Assert.assertNull(failure.get());
+    }
+}
@@ -0,0 +1,125 @@
+package edu.tamu.srl.sketch.core.object;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests the parallel traversal against the sequential recursive lists.
+ */
+public class ParallelShapeTraversalTest {
+
+    private static SrlShape makeTree(int depth, int[] counter) {
+        SrlShape shape = new SrlShape();
+        for (int i = 0; i < 3; i++) {
+            if (depth > 0 && i != 1) {
+                shape.add(makeTree(depth - 1, counter));
+            } else {
+                SrlStroke stroke = new SrlStroke();
+                for (int j = 0; j <= counter[0] % 5; j++) {
+                    stroke.addPoint(new SrlPoint(counter[0], j));
+                }
+                counter[0]++;
+                shape.add(stroke);
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * The results of the parallel traversal are in the order of the recursive stroke list.
+     */
+    @Test
+    public void resultsFollowTheRecursiveOrder() {
+        SrlShape root = makeTree(6, new int[1]);
+        ParallelShapeTraversal traversal = new ParallelShapeTraversal(new ForkJoinPool(4), 3);
+        List<SrlStroke> strokes = root.getRecursiveStrokeList();
+        List<Double> xValues = traversal.mapStrokes(root, new ObjectMapper<SrlStroke, Double>() {
+            @Override public Double map(SrlStroke stroke) {
+                return stroke.getFirstPoint().getX();
+            }
+        });
+        Assert.assertEquals(strokes.size(), xValues.size());
+        for (int i = 0; i < strokes.size(); i++) {
+            Assert.assertEquals(i, xValues.get(i), 0);
+        }
+
+        List<SrlObject> all = root.getRecursiveSubObjectList();
+        List<Integer> points = traversal.mapSubObjects(root, new ObjectMapper<SrlObject, Integer>() {
+            @Override public Integer map(SrlObject object) {
+                return object.getAveragedPoint().getTime() > 0 ? (int) object.getAveragedPoint().getTime() : 0;
+            }
+        });
+        Assert.assertEquals(all.size(), points.size());
+        Assert.assertEquals(root.getAveragedPoint().getTime(), points.get(0).longValue());
+
+        List<SrlShape> leaves = root.getRecursiveLeafShapes();
+        List<SrlShape> mapped = traversal.mapLeafShapes(root, new ObjectMapper<SrlShape, SrlShape>() {
+            @Override public SrlShape map(SrlShape shape) {
+                return shape;
+            }
+        });
+        Assert.assertEquals(leaves, mapped);
+        Assert.assertEquals(64, leaves.size());
+        traversal.shutdown();
+    }
+
+    /**
+     * Wide shapes, empty shapes and a chain far deeper than the forked depth are walked in the order of the recursive lists.
+     */
+    @Test
+    public void unbalancedTreesFollowTheRecursiveOrder() {
+        SrlShape root = new SrlShape();
+        SrlShape wide = new SrlShape();
+        for (int i = 0; i < 500; i++) {
+            wide.add(i % 7 == 0 ? new SrlShape() : new SrlStroke());
+        }
+        root.add(wide);
+        root.add(new SrlShape());
+        SrlShape chain = root;
+        for (int i = 0; i < 300; i++) {
+            SrlShape next = new SrlShape();
+            chain.add(new SrlStroke());
+            chain.add(next);
+            chain = next;
+        }
+        chain.add(new SrlStroke());
+
+        ObjectMapper<SrlObject, SrlObject> identity = new ObjectMapper<SrlObject, SrlObject>() {
+            @Override public SrlObject map(SrlObject object) {
+                return object;
+            }
+        };
+        for (int grainSize : new int[] { 1, 8, 1000 }) {
+            ParallelShapeTraversal traversal = new ParallelShapeTraversal(new ForkJoinPool(4), grainSize);
+            Assert.assertEquals(root.getRecursiveSubObjectList(), traversal.mapSubObjects(root, identity));
+            Assert.assertEquals(root.getRecursiveStrokeList(), traversal.mapStrokes(root, identity));
+            Assert.assertEquals(root.getRecursiveLeafShapes(), traversal.mapLeafShapes(root, identity));
+            Assert.assertTrue(traversal.mapStrokes(new SrlShape(), identity).isEmpty());
+            traversal.shutdown();
+        }
+    }
+
+    /**
+     * An exception in the mapper is thrown to the caller of the traversal.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void mapperExceptionsAreThrown() {
+        SrlShape root = new SrlShape();
+        root.add(new SrlStroke());
+        ParallelShapeTraversal traversal = new ParallelShapeTraversal();
+        try {
+            traversal.mapStrokes(root, new ObjectMapper<SrlStroke, Object>() {
+                @Override public Object map(SrlStroke stroke) {
+                    return stroke.getFirstPoint();
+                }
+            });
+        } finally {
+            traversal.shutdown();
+        }
+    }
+}
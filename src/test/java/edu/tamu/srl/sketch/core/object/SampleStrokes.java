@@ -0,0 +1,41 @@
+package edu.tamu.srl.sketch.core.object;
+
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+
+import java.util.Random;
+
+/**
+ * Builds the strokes the tests draw.
+ * <br>
+ * The tests of the geometry and recognition packages use it too, so it can not be package private.
+ */
+public final class SampleStrokes {
+
+    private SampleStrokes() {
+    }
+
+    /**
+     * @param values the x and y value of every point, one pair after the other.
+     * @return a stroke through the points, the time of every point is its index in the values.
+     */
+    public static SrlStroke makeStroke(double... values) {
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < values.length; i += 2) {
+            stroke.addPoint(new SrlPoint(values[i], values[i + 1], i));
+        }
+        return stroke;
+    }
+
+    /**
+     * @param random the source of the points.
+     * @param numPoints the number of points.
+     * @return a stroke through random points in the square from 0 to 100.
+     */
+    public static SrlStroke makeRandomStroke(Random random, int numPoints) {
+        SrlStroke stroke = new SrlStroke();
+        for (int i = 0; i < numPoints; i++) {
+            stroke.addPoint(new SrlPoint(random.nextDouble() * 100, random.nextDouble() * 100, i));
+        }
+        return stroke;
+    }
+}
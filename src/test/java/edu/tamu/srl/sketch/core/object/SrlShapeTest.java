@@ -1,11 +1,16 @@
 package edu.tamu.srl.sketch.core.object;
 
 import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created by gigemjt on 12/23/14.
@@ -176,4 +181,317 @@ public class SrlShapeTest {
         System.out.println(objs);
         Assert.assertEquals(expected, objs);
     }
+
+    /**
+     * Changing a stroke deep inside the tree resets the cached geometry of every shape above it.
+     */
+    @Test
+    public void changesPropagateToAncestors() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 10);
+        SrlShape inner = new SrlShape();
+        inner.add(stroke);
+        inner.add(SampleStrokes.makeStroke(20, 20, 30, 30));
+        SrlShape outer = new SrlShape();
+        outer.add(inner);
+        SrlShape sibling = new SrlShape();
+        sibling.add(SampleStrokes.makeStroke(-5, -5, 0, 0));
+        outer.add(sibling);
+
+        Assert.assertEquals(-5, outer.getBoundingBox().getMinX(), 0);
+        Assert.assertEquals(30, outer.getBoundingBox().getMaxX(), 0);
+        long outerVersion = outer.getGeometryVersion();
+        long siblingVersion = sibling.getGeometryVersion();
+
+        stroke.translate(100, 0);
+        Assert.assertEquals(110, inner.getBoundingBox().getMaxX(), 0);
+        Assert.assertEquals(110, outer.getBoundingBox().getMaxX(), 0);
+        Assert.assertTrue(outer.getGeometryVersion() > outerVersion);
+        Assert.assertEquals(siblingVersion, sibling.getGeometryVersion());
+
+        stroke.addPoint(new SrlPoint(0, 200));
+        Assert.assertEquals(200, outer.getBoundingBox().getMaxY(), 0);
+        Assert.assertEquals(stroke.getNumPoints() + 4, outer.getAveragedPoint().getTime());
+    }
+
+    /**
+     * The cached average and extents are stamped with the geometry version, so one that outlives a reset is not used.
+     */
+    @Test
+    public void cachesOutlivingAResetAreNotUsed() {
+        // a shape that drops resets of its caches acts like a reader that stored its values right after another thread reset them.
+        SrlShape shape = new SrlShape() {
+            @Override protected void resetCachedGeometry() {
+                // the caches are kept.
+            }
+        };
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 10);
+        shape.add(stroke);
+        Assert.assertEquals(5, shape.getAveragedPoint().getX(), 0);
+        Assert.assertEquals(10, shape.getMaxX(), 0);
+
+        stroke.translate(100, 0);
+        Assert.assertEquals(105, shape.getAveragedPoint().getX(), 0);
+        Assert.assertEquals(110, shape.getMaxX(), 0);
+    }
+
+    /**
+     * Layers of shapes that share both shapes of the layer below reach the top through 2^depth paths,
+     * a change must still reset every shape exactly once.
+     */
+    @Test
+    public void sharedLayersAreResetOnce() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 10);
+        SrlShape left = new SrlShape();
+        SrlShape right = new SrlShape();
+        left.add(stroke);
+        right.add(stroke);
+        for (int depth = 0; depth < 60; depth++) {
+            SrlShape nextLeft = new SrlShape();
+            SrlShape nextRight = new SrlShape();
+            nextLeft.add(left);
+            nextLeft.add(right);
+            nextRight.add(left);
+            nextRight.add(right);
+            left = nextLeft;
+            right = nextRight;
+        }
+        long version = left.getGeometryVersion();
+        stroke.translate(1, 0);
+        Assert.assertEquals(version + 1, left.getGeometryVersion());
+        Assert.assertEquals(11, left.getBoundingBox().getMaxX(), 0);
+    }
+
+    /**
+     * A shape that ends up containing itself does not make a reset loop forever.
+     */
+    @Test
+    public void cyclicContainersStopTheReset() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 10);
+        SrlShape first = new SrlShape();
+        SrlShape second = new SrlShape();
+        first.add(stroke);
+        first.add(second);
+        second.add(first);
+        long version = second.getGeometryVersion();
+        stroke.translate(1, 0);
+        Assert.assertEquals(version + 1, second.getGeometryVersion());
+    }
+
+    /**
+     * Removed objects no longer reset their old container and shared objects reset every container.
+     */
+    @Test
+    public void linksFollowMembership() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 10);
+        SrlShape first = new SrlShape();
+        first.add(stroke);
+        SrlShape copy = new SrlShape(first);
+        Assert.assertEquals(10, copy.getBoundingBox().getMaxX(), 0);
+
+        stroke.translate(5, 0);
+        Assert.assertEquals(15, first.getBoundingBox().getMaxX(), 0);
+        Assert.assertEquals(15, copy.getBoundingBox().getMaxX(), 0);
+
+        first.remove(stroke);
+        long version = first.getGeometryVersion();
+        stroke.translate(5, 0);
+        Assert.assertEquals(version, first.getGeometryVersion());
+        Assert.assertEquals(20, copy.getBoundingBox().getMaxX(), 0);
+
+        copy.clear();
+        version = copy.getGeometryVersion();
+        stroke.translate(5, 0);
+        Assert.assertEquals(version, copy.getGeometryVersion());
+    }
+
+    /**
+     * The extents of nested shapes with negative values and empty children.
+     */
+    @Test
+    public void extentsOfNestedShapes() {
+        SrlShape leaf = new SrlShape();
+        leaf.add(SampleStrokes.makeStroke(-10, -20, -5, -8));
+        leaf.add(new SrlStroke());
+        SrlShape middle = new SrlShape();
+        middle.add(leaf);
+        middle.add(new SrlShape());
+        SrlShape root = new SrlShape();
+        root.add(middle);
+        root.add(SampleStrokes.makeStroke(-30, -1, -12, -2));
+
+        Assert.assertEquals(-30, root.getMinX(), 0);
+        Assert.assertEquals(-5, root.getMaxX(), 0);
+        Assert.assertEquals(-20, root.getMinY(), 0);
+        Assert.assertEquals(-1, root.getMaxY(), 0);
+        Assert.assertEquals(25, root.getWidth(), 0);
+        Assert.assertEquals(-5, root.getBoundingBox().getMaxX(), 0);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, new SrlShape().getMaxX(), 0);
+
+        leaf.getSubObjects().get(0).translate(100, 0);
+        Assert.assertEquals(95, root.getMaxX(), 0);
+        Assert.assertEquals(95, root.getBoundingBox().getMaxX(), 0);
+    }
+
+    /**
+     * Readers of a concurrent shape keep their snapshot while a writer changes the shape.
+     */
+    @Test
+    public void concurrentReadersSeeSnapshots() throws Exception {
+        final SrlShape root = new SrlShape();
+        final SrlShape group = new SrlShape();
+        root.add(group);
+        root.setConcurrent(true);
+        group.setConcurrent(true);
+        root.add(new SrlStroke());
+        List<SrlObject> snapshot = root.getSubObjects();
+        root.add(new SrlStroke());
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals(3, root.getNumChildren());
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(new Runnable() {
+            @Override public void run() {
+                try {
+                    while (!done.get()) {
+                        int count = 0;
+                        for (SrlObject child : root.getSubObjects()) {
+                            count += child instanceof SrlStroke ? 1 : 0;
+                        }
+                        Assert.assertTrue(root.getRecursiveStrokeList().size() >= count);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20000; i++) {
+            root.add(new SrlStroke());
+            group.add(new SrlStroke());
+            if (i % 3 == 0) {
+                root.remove(root.getNumChildren() - 1);
+                group.remove(0);
+            }
+        }
+        done.set(true);
+        reader.join();
+        Assert.assertNull(failure.get());
+        root.setConcurrent(false);
+        Assert.assertFalse(root.isConcurrent());
+        Assert.assertEquals(group.getNumChildren() + root.getNumChildren() - 1, root.getRecursiveStrokeList().size());
+    }
+
+    /**
+     * Shapes built around the children of a concurrent shape on another thread do not disturb the resets of the writer.
+     */
+    @Test
+    public void parentLinksCanChangeDuringAReset() throws Exception {
+        final SrlShape root = new SrlShape();
+        root.setConcurrent(true);
+        final SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 10);
+        root.add(stroke);
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread builder = new Thread(new Runnable() {
+            @Override public void run() {
+                try {
+                    while (!done.get()) {
+                        SrlShape group = new SrlShape();
+                        group.add(stroke);
+                        new SrlShape().add(stroke);
+                        group.remove(stroke);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }
+        });
+        builder.start();
+        long version = root.getGeometryVersion();
+        for (int i = 0; i < 20000; i++) {
+            stroke.translate(1, 0);
+        }
+        done.set(true);
+        builder.join();
+        Assert.assertNull(failure.get());
+        Assert.assertEquals(version + 20000, root.getGeometryVersion());
+        Assert.assertEquals(20010, root.getMaxX(), 0);
+    }
+
+    private static <T> List<T> drain(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    /**
+     * The lazy walks match the recursive lists and the visitor can stop early.
+     */
+    @Test
+    public void lazyWalksMatchTheLists() {
+        SrlShape root = new SrlShape();
+        SrlShape middle = new SrlShape();
+        SrlText text = new SrlText("a");
+        SrlStroke first = SampleStrokes.makeStroke(0, 0);
+        final SrlStroke second = SampleStrokes.makeStroke(1, 1);
+        SrlStroke third = SampleStrokes.makeStroke(2, 2);
+        text.add(second);
+        middle.add(text);
+        middle.add(new SrlShape());
+        root.add(first);
+        root.add(middle);
+        root.add(third);
+
+        Assert.assertEquals(root.getRecursiveSubObjectList(), drain(root.depthFirstIterator()));
+        Assert.assertEquals(root.getRecursiveStrokeList(), drain(root.strokeIterator()));
+        List<SrlObject> levels = drain(root.breadthFirstIterator());
+        Assert.assertEquals(7, levels.size());
+        Assert.assertSame(root, levels.get(0));
+        Assert.assertSame(third, levels.get(3));
+        Assert.assertSame(second, levels.get(6));
+        Assert.assertFalse(drain(new SrlShape().strokeIterator()).iterator().hasNext());
+
+        final List<Object> visited = new ArrayList<>();
+        boolean finished = root.accept(new SrlObjectVisitor() {
+            @Override public boolean visitShape(SrlShape shape) {
+                visited.add(shape);
+                return true;
+            }
+
+            @Override public boolean visitText(SrlText visitedText) {
+                visited.add(visitedText.getTextValue());
+                return true;
+            }
+
+            @Override public boolean visitStroke(SrlStroke stroke) {
+                visited.add(stroke);
+                return stroke != second;
+            }
+        });
+        Assert.assertFalse(finished);
+        Assert.assertEquals(Arrays.<Object>asList(root, first, middle, "a", second), visited);
+    }
+
+    /**
+     * The depth first walk keeps its own stack so very deep trees do not overflow the call stack.
+     */
+    @Test
+    public void deepTreesAreWalkedWithoutRecursion() {
+        SrlStroke leaf = SampleStrokes.makeStroke(0, 0);
+        SrlShape root = new SrlShape();
+        root.add(leaf);
+        // built from the bottom up so adding a shape never resets a long chain of parents.
+        for (int i = 0; i < 100000; i++) {
+            SrlShape parent = new SrlShape();
+            parent.add(root);
+            root = parent;
+        }
+        Iterator<SrlStroke> strokes = root.strokeIterator();
+        Assert.assertSame(leaf, strokes.next());
+        Assert.assertFalse(strokes.hasNext());
+    }
 }
@@ -0,0 +1,465 @@
+package edu.tamu.srl.sketch.core.object;
+
+import edu.tamu.srl.sketch.core.geometry.AffineTransform;
+import edu.tamu.srl.sketch.core.virtual.SrlBoundingBox;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests the running sums behind the averaged point.
+ */
+public class SrlStrokeTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static void assertAverage(SrlStroke stroke) {
+        List<SrlPoint> points = stroke.getPoints();
+        double sumX = 0;
+        double sumY = 0;
+        for (SrlPoint point : points) {
+            sumX += point.getX();
+            sumY += point.getY();
+        }
+        SrlPoint average = stroke.getAveragedPoint();
+        Assert.assertEquals(points.size(), average.getTime());
+        Assert.assertEquals(sumX / points.size(), average.getX(), DELTA);
+        Assert.assertEquals(sumY / points.size(), average.getY(), DELTA);
+    }
+
+    /**
+     * The averaged point follows adding, removing and transforming points.
+     */
+    @Test
+    public void averageFollowsChanges() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 4, 2, 8, 10);
+        assertAverage(stroke);
+        SrlPoint inserted = new SrlPoint(-3, 7);
+        stroke.addPoint(1, inserted);
+        stroke.addPoints(Arrays.asList(new SrlPoint(1, 1), new SrlPoint(5, -5)));
+        assertAverage(stroke);
+        stroke.remove(inserted);
+        stroke.remove(0);
+        assertAverage(stroke);
+        stroke.translate(10, -4);
+        assertAverage(stroke);
+        stroke.scale(2, 0.5);
+        assertAverage(stroke);
+        stroke.clear();
+        Assert.assertEquals(0, stroke.getAveragedPoint().getTime());
+        stroke.addPoint(new SrlPoint(3, 4));
+        assertAverage(stroke);
+    }
+
+    /**
+     * A sub stroke averages only the points of its range.
+     */
+    @Test
+    public void subStrokesAverageTheirOwnPoints() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 2, 2, 4, 4, 6, 6);
+        SrlSubStroke sub = new SrlSubStroke(stroke, 1, 3);
+        SrlPoint average = sub.getAveragedPoint();
+        Assert.assertEquals(2, average.getTime());
+        Assert.assertEquals(3, average.getX(), DELTA);
+        Assert.assertEquals(3, average.getY(), DELTA);
+    }
+
+    /**
+     * A shape averages the points of every stroke below it and resets the average when it changes.
+     */
+    @Test
+    public void shapeCachesTheWeightedAverage() {
+        SrlShape inner = new SrlShape();
+        inner.add(SampleStrokes.makeStroke(0, 0, 2, 0));
+        SrlShape outer = new SrlShape();
+        outer.add(inner);
+        outer.add(SampleStrokes.makeStroke(10, 10, 10, 10, 10, 10));
+        SrlPoint average = outer.getAveragedPoint();
+        Assert.assertEquals(5, average.getTime());
+        Assert.assertEquals(6.4, average.getX(), DELTA);
+        Assert.assertEquals(6, average.getY(), DELTA);
+
+        // the returned point is a copy so changing it does not change the cache.
+        average.translate(100, 100);
+        Assert.assertEquals(6.4, outer.getAveragedPoint().getX(), DELTA);
+
+        outer.translate(1, 2);
+        Assert.assertEquals(7.4, outer.getAveragedPoint().getX(), DELTA);
+        Assert.assertEquals(8, outer.getAveragedPoint().getY(), DELTA);
+        outer.add(SampleStrokes.makeStroke(0, 0));
+        Assert.assertEquals(6, outer.getAveragedPoint().getTime());
+        Assert.assertEquals(37 / 6.0, outer.getAveragedPoint().getX(), DELTA);
+    }
+
+    private static double walkedLength(final List<SrlPoint> points, final int start, final int end) {
+        double length = 0;
+        for (int i = start + 1; i < end; i++) {
+            length += points.get(i - 1).distance(points.get(i));
+        }
+        return length;
+    }
+
+    /**
+     * The path length follows adding, removing and transforming points.
+     */
+    @Test
+    public void pathLengthFollowsChanges() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 3, 4, 6, 8, 6, 0);
+        Assert.assertEquals(18, stroke.getPathLength(), DELTA);
+        Assert.assertEquals(5, stroke.getPathLength(1, 3), DELTA);
+        stroke.addPoint(new SrlPoint(0, 0));
+        Assert.assertEquals(24, stroke.getPathLength(), DELTA);
+        stroke.scale(2, 2);
+        Assert.assertEquals(48, stroke.getPathLength(), DELTA);
+        stroke.translate(-7, 3);
+        Assert.assertEquals(48, stroke.getPathLength(), DELTA);
+        stroke.scale(1, 3);
+        Assert.assertEquals(walkedLength(stroke.getPoints(), 0, 5), stroke.getPathLength(), DELTA);
+        stroke.addPoint(2, new SrlPoint(100, 100));
+        stroke.remove(4);
+        Assert.assertEquals(walkedLength(stroke.getPoints(), 0, 5), stroke.getPathLength(), DELTA);
+        Assert.assertEquals(walkedLength(stroke.getPoints(), 1, 4), stroke.getPathLength(1, 4), DELTA);
+        stroke.clear();
+        Assert.assertEquals(0, stroke.getPathLength(), DELTA);
+    }
+
+    /**
+     * The path length of a sub stroke comes from the cumulative lengths of its parent.
+     */
+    @Test
+    public void subStrokesUseTheParentLengths() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 3, 4, 6, 8, 6, 0, 0, 0);
+        SrlSubStroke sub = new SrlSubStroke(stroke, 1, 4);
+        Assert.assertEquals(13, sub.getPathLength(), DELTA);
+        Assert.assertEquals(8, sub.getPathLength(1, 3), DELTA);
+        Assert.assertEquals(0, sub.getPathLength(2, 2), DELTA);
+    }
+
+    /**
+     * A range past the last point has no path length.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void pathLengthRejectsInvalidRanges() {
+        SampleStrokes.makeStroke(0, 0, 1, 1).getPathLength(1, 3);
+    }
+
+    /**
+     * Many transforms are composed and applied to the points once, the bounds follow without moving the points.
+     */
+    @Test
+    public void transformsAreAppliedInOnePass() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 10, 0, 10, 5);
+        Assert.assertEquals(10, stroke.getBoundingBox().getMaxX(), DELTA);
+        for (int i = 0; i < 100; i++) {
+            stroke.translate(1, 2);
+        }
+        stroke.scale(2, -1);
+        stroke.rotate(Math.PI / 2, 0, 0);
+        // the bounding box and the averaged point follow without moving the points.
+        Assert.assertEquals(200, stroke.getBoundingBox().getMinX(), DELTA);
+        Assert.assertEquals(205, stroke.getBoundingBox().getMaxX(), DELTA);
+        assertAverage(stroke);
+
+        SrlPoint last = stroke.getLastPoint();
+        Assert.assertEquals(205, last.getX(), DELTA);
+        Assert.assertEquals(220, last.getY(), DELTA);
+        Assert.assertEquals(2, last.getXList().size());
+        Assert.assertEquals(200, stroke.getMinX(), DELTA);
+        Assert.assertEquals(200, stroke.getMinY(), DELTA);
+        Assert.assertEquals(20 + 5, stroke.getPathLength(), DELTA);
+    }
+
+    /**
+     * Moving a point directly, or through a shallow copy that shares it, is seen by the bounds, the average and the length.
+     */
+    @Test
+    public void pointsMovedDirectlyUpdateTheStroke() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 1, 0, 2, 0, 3, 0, 4, 0);
+        SrlShape shape = new SrlShape();
+        shape.add(stroke);
+        Assert.assertEquals(4, stroke.getMaxX(), DELTA);
+        Assert.assertEquals(4, stroke.getPathLength(), DELTA);
+        Assert.assertEquals(4, shape.getMaxX(), DELTA);
+
+        stroke.getPoints().get(4).translate(100, 0);
+        Assert.assertEquals(104, stroke.getMaxX(), DELTA);
+        Assert.assertEquals(104, stroke.getBoundingBox().getMaxX(), DELTA);
+        Assert.assertEquals(104, stroke.getPathLength(), DELTA);
+        Assert.assertEquals(104, shape.getMaxX(), DELTA);
+        assertAverage(stroke);
+
+        SrlStroke copy = new SrlStroke(stroke);
+        copy.translate(0, 10);
+        Assert.assertEquals(10, copy.getPoint(0).getY(), DELTA);
+        Assert.assertEquals(10, stroke.getPoint(0).getY(), DELTA);
+        Assert.assertEquals(10, stroke.getMaxY(), DELTA);
+        Assert.assertEquals(10, shape.getMinY(), DELTA);
+        assertAverage(stroke);
+
+        stroke.remove(0).translate(-50, 0);
+        Assert.assertEquals(1, stroke.getMinX(), DELTA);
+        Assert.assertEquals(-50, copy.getBoundingBox().getMinX(), DELTA);
+        Assert.assertEquals(-50, copy.getMinX(), DELTA);
+        assertAverage(copy);
+    }
+
+    /**
+     * Points added after a transform are not moved by it.
+     */
+    @Test
+    public void pointsAddedAfterATransformAreNotTransformed() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 1, 1);
+        stroke.translate(5, 5);
+        stroke.addPoint(new SrlPoint(0, 0));
+        Assert.assertEquals(6, stroke.getPoint(1).getX(), DELTA);
+        Assert.assertEquals(0, stroke.getPoint(2).getX(), DELTA);
+        assertAverage(stroke);
+    }
+
+    /**
+     * Transforming a sub stroke moves the points of its parent and resets the parent.
+     */
+    @Test
+    public void subStrokesTransformTheParentPoints() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 2, 2, 4, 4, 6, 6);
+        stroke.getPathLength();
+        SrlSubStroke sub = new SrlSubStroke(stroke, 2, 4);
+        sub.translate(0, 10);
+        Assert.assertEquals(14, stroke.getPoint(2).getY(), DELTA);
+        Assert.assertEquals(16, sub.getBoundingBox().getMaxY(), DELTA);
+        Assert.assertEquals(16, stroke.getBoundingBox().getMaxY(), DELTA);
+        assertAverage(stroke);
+        Assert.assertEquals(walkedLength(stroke.getPoints(), 0, 4), stroke.getPathLength(), DELTA);
+    }
+
+    /**
+     * Transforming a sub stroke of a sub stroke moves only its own points of the stroke at the bottom.
+     */
+    @Test
+    public void nestedSubStrokesTransformThePackedPoints() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9);
+        SrlSubStroke middle = new SrlSubStroke(stroke, 2, 8);
+        Assert.assertEquals(7, middle.getBoundingBox().getMaxX(), DELTA);
+        SrlSubStroke nested = new SrlSubStroke(middle, 1, 3);
+        nested.translate(100, 0);
+        Assert.assertEquals(2, stroke.getPoint(2).getX(), DELTA);
+        Assert.assertEquals(103, stroke.getPoint(3).getX(), DELTA);
+        Assert.assertEquals(104, stroke.getPoint(4).getX(), DELTA);
+        Assert.assertEquals(5, stroke.getPoint(5).getX(), DELTA);
+        Assert.assertEquals(104, nested.getBoundingBox().getMaxX(), DELTA);
+        Assert.assertEquals(104, middle.getBoundingBox().getMaxX(), DELTA);
+        Assert.assertEquals(103.5, nested.getAveragedPoint().getX(), DELTA);
+        assertAverage(stroke);
+    }
+
+    /**
+     * Points, bounding boxes, shapes and hulls can all be rotated.
+     */
+    @Test
+    public void rotationIsSupportedThroughout() {
+        SrlPoint point = new SrlPoint(3, 1);
+        point.rotate(Math.PI / 2, 1, 1);
+        Assert.assertEquals(1, point.getX(), DELTA);
+        Assert.assertEquals(3, point.getY(), DELTA);
+        point.undoLastChange();
+        Assert.assertEquals(3, point.getX(), DELTA);
+
+        SrlBoundingBox box = new SrlBoundingBox(0, 0, 4, 2);
+        box.rotate(Math.PI / 2, 0, 0);
+        Assert.assertEquals(-2, box.getMinX(), DELTA);
+        Assert.assertEquals(0, box.getMaxX(), DELTA);
+        Assert.assertEquals(4, box.getMaxY(), DELTA);
+
+        SrlShape shape = new SrlShape();
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 4, 0, 4, 2);
+        shape.add(stroke);
+        shape.rotate(Math.PI, 2, 1);
+        Assert.assertEquals(4, stroke.getFirstPoint().getX(), DELTA);
+        Assert.assertEquals(2, stroke.getFirstPoint().getY(), DELTA);
+        Assert.assertEquals(0, shape.getBoundingBox().getMinX(), DELTA);
+        Assert.assertEquals(2, shape.getBoundingBox().getMaxY(), DELTA);
+        SrlPoint hullPoint = stroke.getConvexHull().getPoints().get(0);
+        double hullX = hullPoint.getX();
+        double hullY = hullPoint.getY();
+        stroke.getConvexHull().rotate(Math.PI / 2);
+        Assert.assertEquals(-hullY, hullPoint.getX(), DELTA);
+        Assert.assertEquals(hullX, hullPoint.getY(), DELTA);
+    }
+
+    /**
+     * Transforming the packed coordinates gives the same points as transforming every point.
+     */
+    @Test
+    public void bulkTransformMatchesThePoints() {
+        SrlStroke stroke = SampleStrokes.makeStroke(1, 2, 5, -3, 8, 8);
+        double[] xValues = {1, 5, 8};
+        double[] yValues = {2, -3, 8};
+        AffineTransform transform = new AffineTransform();
+        transform.rotate(0.7, 3, 4);
+        transform.scale(2, 2);
+        transform.transform(xValues, yValues, 0, xValues.length);
+        stroke.rotate(0.7, 3, 4);
+        stroke.scale(2, 2);
+        for (int i = 0; i < xValues.length; i++) {
+            SrlPoint point = new SrlPoint(stroke.getPoint(i).getOrigX(), stroke.getPoint(i).getOrigY());
+            point.rotate(0.7, 3, 4);
+            point.scale(2, 2);
+            Assert.assertEquals(point.getX(), xValues[i], DELTA);
+            Assert.assertEquals(point.getY(), yValues[i], DELTA);
+            Assert.assertEquals(point.getX(), stroke.getPoint(i).getX(), DELTA);
+        }
+    }
+
+    /**
+     * Changing a deep clone or the original, directly or through the stroke, never changes the other.
+     */
+    @Test
+    public void deepClonesAreIndependentOfTheOriginal() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 4, 2, 8, 10);
+        SrlPoint first = stroke.getPoint(0);
+        first.translate(1, 1);
+        first.translate(-1, -1);
+        SrlStroke clone = (SrlStroke) stroke.deepClone();
+        SrlStroke other = (SrlStroke) stroke.deepClone();
+        Assert.assertNotSame(first, clone.getPoint(0));
+        Assert.assertEquals(first.getId(), clone.getPoint(0).getId());
+        Assert.assertEquals(first.getXList().size(), clone.getPoint(0).getXList().size());
+        Assert.assertEquals(stroke.getPathLength(), clone.getPathLength(), DELTA);
+        Assert.assertEquals(10, clone.getBoundingBox().getMaxY(), DELTA);
+
+        // changing a point object of the clone directly leaves the original alone.
+        clone.getPoints().get(1).setPoint(-50, -50);
+        Assert.assertEquals(4, stroke.getPoint(1).getX(), DELTA);
+        Assert.assertEquals(2, stroke.getPoint(1).getY(), DELTA);
+        Assert.assertEquals(4, other.getPoint(1).getX(), DELTA);
+
+        // changing the clone through the stroke copies the shared coordinates.
+        clone.translate(5, 0);
+        Assert.assertEquals(5, clone.getPoint(0).getX(), DELTA);
+        Assert.assertEquals(0, first.getX(), DELTA);
+        Assert.assertEquals(8, stroke.getBoundingBox().getMaxX(), DELTA);
+
+        // changing the original leaves the other clone alone.
+        stroke.addPoint(new SrlPoint(20, 20));
+        stroke.scale(2, 2);
+        Assert.assertSame(first, stroke.getPoint(0));
+        Assert.assertEquals(3, other.getNumPoints());
+        Assert.assertEquals(8, other.getPoint(2).getX(), DELTA);
+        Assert.assertEquals(10, other.getBoundingBox().getMaxY(), DELTA);
+        assertAverage(other);
+        assertAverage(stroke);
+    }
+
+    /**
+     * A deep clone shares the point objects until they are handed out or changed, and copies them before they move.
+     */
+    @Test
+    public void deepClonesSharePointsUntilTheyAreNeeded() {
+        SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 3, 4, 6, 8);
+        SrlStroke clone = (SrlStroke) stroke.deepClone();
+        SrlStroke cloneOfClone = (SrlStroke) clone.deepClone();
+        Assert.assertTrue(clone.sharesPoints());
+        Assert.assertTrue(cloneOfClone.sharesPoints());
+        Assert.assertEquals(10, clone.getPathLength(), DELTA);
+        Assert.assertEquals(8, clone.getMaxY(), DELTA);
+        Assert.assertEquals(3, clone.getAveragedPoint().getX(), DELTA);
+        Assert.assertTrue(clone.contains(stroke.getPoint(2)));
+        Assert.assertTrue(clone.sharesPoints());
+
+        // moving a shared point directly has the clones copy the points while it is still where it was.
+        SrlPoint middle = stroke.getPoint(1);
+        middle.setPoint(30, 40);
+        Assert.assertFalse(clone.sharesPoints());
+        Assert.assertFalse(cloneOfClone.sharesPoints());
+        Assert.assertEquals(3, clone.getPoint(1).getX(), DELTA);
+        Assert.assertEquals(1, clone.getPoint(1).getXList().size());
+        Assert.assertEquals(8, cloneOfClone.getMaxY(), DELTA);
+        Assert.assertEquals(40, stroke.getMaxY(), DELTA);
+
+        // handing out the points of a clone gives it its own points.
+        SrlStroke other = (SrlStroke) stroke.deepClone();
+        Assert.assertTrue(other.sharesPoints());
+        other.getPoints().get(0).setPoint(-1, -1);
+        Assert.assertFalse(other.sharesPoints());
+        Assert.assertEquals(0, stroke.getPoint(0).getX(), DELTA);
+        Assert.assertEquals(-1, other.getMinX(), DELTA);
+
+        // changing the original through the stroke also copies the points first.
+        SrlStroke last = (SrlStroke) stroke.deepClone();
+        stroke.remove(2);
+        Assert.assertEquals(3, last.getNumPoints());
+        Assert.assertNotSame(middle, last.getPoint(1));
+        Assert.assertEquals(30, last.getPoint(1).getX(), DELTA);
+        assertAverage(last);
+    }
+
+    /**
+     * Readers on many threads apply a pending transform once and all see the transformed points.
+     */
+    @Test
+    public void concurrentReadersApplyThePendingTransformOnce() throws InterruptedException {
+        final int numThreads = 8;
+        for (int round = 0; round < 200; round++) {
+            final SrlStroke stroke = SampleStrokes.makeStroke(0, 0, 4, 2, 8, 10, 12, 3);
+            SrlShape shape = new SrlShape();
+            shape.add(stroke);
+            shape.translate(100, 0);
+            shape.rotate(Math.PI, 0, 0);
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread[] readers = new Thread[numThreads];
+            for (int i = 0; i < numThreads; i++) {
+                final int reader = i;
+                readers[i] = new Thread(new Runnable() {
+                    @Override public void run() {
+                        try {
+                            start.await();
+                            if (reader % 2 == 0) {
+                                Assert.assertEquals(-100, stroke.getPoints().get(0).getX(), DELTA);
+                            } else {
+                                Assert.assertEquals(-100, stroke.getMaxX(), DELTA);
+                            }
+                            Assert.assertEquals(walkedLength(stroke.getPoints(), 0, 4), stroke.getPathLength(), DELTA);
+                        } catch (Throwable e) {
+                            failure.set(e);
+                        }
+                    }
+                });
+                readers[i].start();
+            }
+            start.countDown();
+            for (Thread thread : readers) {
+                thread.join();
+            }
+            if (failure.get() != null) {
+                throw new AssertionError(failure.get());
+            }
+            Assert.assertEquals(-112, stroke.getMinX(), DELTA);
+            Assert.assertEquals(2, stroke.getPoint(0).getXList().size());
+        }
+    }
+
+    /**
+     * A deep clone of a shape keeps its geometry and moves without moving the original.
+     */
+    @Test
+    public void deepClonedShapesKeepTheirGeometry() {
+        SrlShape shape = new SrlShape();
+        shape.add(SampleStrokes.makeStroke(0, 0, 4, 2));
+        shape.add(SampleStrokes.makeStroke(-3, 1, 6, 6));
+        double maxX = shape.getMaxX();
+        SrlShape clone = (SrlShape) shape.deepClone();
+        Assert.assertEquals(maxX, clone.getMaxX(), DELTA);
+        Assert.assertEquals(shape.getAveragedPoint().getX(), clone.getAveragedPoint().getX(), DELTA);
+        clone.translate(10, 0);
+        Assert.assertEquals(maxX + 10, clone.getMaxX(), DELTA);
+        Assert.assertEquals(maxX, shape.getMaxX(), DELTA);
+        Assert.assertEquals(6, ((SrlStroke) shape.get(1)).getLastPoint().getX(), DELTA);
+        Assert.assertEquals(16, ((SrlStroke) clone.get(1)).getLastPoint().getX(), DELTA);
+    }
+}
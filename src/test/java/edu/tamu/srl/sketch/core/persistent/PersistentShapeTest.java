@@ -0,0 +1,116 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.tobenamedlater.SrlShapeConfig;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+/**
+ * Tests path copying and the conversions of the persistent sketch trees.
+ */
+public class PersistentShapeTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static PersistentStroke makeStroke(double... values) {
+        PersistentStroke stroke = new PersistentStroke(0, UUID.randomUUID(), true);
+        for (int i = 0; i < values.length; i += 2) {
+            stroke = stroke.addPoint(new ImmutablePoint(values[i], values[i + 1], i));
+        }
+        return stroke;
+    }
+
+    private static PersistentShape makeShape(String label) {
+        return new PersistentShape(0, UUID.randomUUID(), false,
+                new SrlShapeConfig(UUID.randomUUID(), UUID.randomUUID(), label, 0.5, 1, false, false), label);
+    }
+
+    /**
+     * Replacing a stroke copies only the shapes on the path to it and shares the rest.
+     */
+    @Test
+    public void editsCopyOnlyThePath() {
+        PersistentShape left = makeShape("left").add(makeStroke(0, 0, 1, 1)).add(makeStroke(2, 2, 3, 3));
+        PersistentShape right = makeShape("right").add(makeStroke(10, 10, 20, 20));
+        PersistentShape root = makeShape("root").add(left).add(right);
+
+        PersistentStroke moved = ((PersistentStroke) root.get(new int[] {0, 1})).translate(100, 0);
+        PersistentShape edited = root.replace(new int[] {0, 1}, moved);
+
+        Assert.assertNotSame(root, edited);
+        Assert.assertSame(right, edited.get(1));
+        Assert.assertSame(left.get(0), ((PersistentShape) edited.get(0)).get(0));
+        Assert.assertSame(moved, edited.get(new int[] {0, 1}));
+        // the old root is a snapshot that the edit did not change.
+        Assert.assertEquals(3, root.get(0).getMaxX(), DELTA);
+        Assert.assertEquals(20, root.getMaxX(), DELTA);
+        Assert.assertEquals(103, edited.getMaxX(), DELTA);
+        Assert.assertEquals(20, edited.getMaxY(), DELTA);
+        Assert.assertEquals(6, edited.getNumPoints());
+        Assert.assertEquals(7, edited.replace(new int[] {1}, right.add(makeStroke(5, 5))).getNumPoints());
+        Assert.assertEquals(2, edited.remove(0).getNumPoints());
+        Assert.assertEquals("root", edited.getInterpretation());
+    }
+
+    /**
+     * The bounds of every version follow its own points.
+     */
+    @Test
+    public void boundsFollowPointEdits() {
+        PersistentStroke stroke = makeStroke(0, 0, 4, 2);
+        Assert.assertEquals(4, stroke.getMaxX(), DELTA);
+        PersistentStroke grown = stroke.addPoint(new ImmutablePoint(-1, 5, 3));
+        Assert.assertEquals(-1, grown.getMinX(), DELTA);
+        Assert.assertEquals(5, grown.getMaxY(), DELTA);
+        Assert.assertEquals(0, stroke.getMinX(), DELTA);
+        PersistentStroke shrunk = grown.removePoint(2).setPoint(0, new ImmutablePoint(1, 1, 0));
+        Assert.assertEquals(1, shrunk.getMinX(), DELTA);
+        Assert.assertEquals(2, shrunk.getMaxY(), DELTA);
+        Assert.assertEquals(3, grown.getNumPoints());
+    }
+
+    /**
+     * A path can not go through a stroke.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void pathThroughAStrokeIsRejected() {
+        makeShape("root").add(makeStroke(0, 0)).replace(new int[] {0, 0}, makeStroke(1, 1));
+    }
+
+    /**
+     * Converting to the persistent model and back keeps the shapes, strokes and points.
+     */
+    @Test
+    public void convertsToAndFromTheMutableModel() {
+        SrlStroke stroke = new SrlStroke();
+        stroke.addPoint(new SrlPoint(1, 2, 3));
+        stroke.addPoint(new SrlPoint(4, 6, 5));
+        SrlShape inner = new SrlShape(7, UUID.randomUUID(), true,
+                new SrlShapeConfig(UUID.randomUUID(), UUID.randomUUID(), "Line", 0.9, 1, false, true), "a line");
+        inner.add(stroke);
+        SrlShape outer = new SrlShape();
+        outer.add(inner);
+
+        PersistentShape persistent = PersistentShape.from(outer);
+        Assert.assertEquals(2, persistent.getNumPoints());
+        Assert.assertEquals("Line", ((PersistentShape) persistent.get(0)).getInterpretation());
+
+        // changing the mutable shape does not change the persistent copy.
+        stroke.translate(10, 10);
+        Assert.assertEquals(4, persistent.getMaxX(), DELTA);
+
+        SrlShape copy = persistent.toSrlShape();
+        SrlShape innerCopy = (SrlShape) copy.get(0);
+        Assert.assertEquals(inner.getId(), innerCopy.getId());
+        Assert.assertEquals("a line", innerCopy.getDescription());
+        Assert.assertEquals(0.9, innerCopy.getConfidence(), DELTA);
+        SrlStroke strokeCopy = (SrlStroke) innerCopy.get(0);
+        Assert.assertEquals(stroke.getId(), strokeCopy.getId());
+        Assert.assertEquals(4, strokeCopy.getPoint(1).getX(), DELTA);
+        Assert.assertEquals(5, strokeCopy.getPoint(1).getTime());
+    }
+}
@@ -0,0 +1,74 @@
+package edu.tamu.srl.sketch.core.persistent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the vector against an array list across the levels of the trie.
+ */
+public class PersistentVectorTest {
+
+    /**
+     * Appending past the size of a level keeps every older version.
+     */
+    @Test
+    public void appendAcrossLevels() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<PersistentVector<Integer>> versions = new ArrayList<>();
+        for (int i = 0; i < 40000; i++) {
+            if (i % 1000 == 0) {
+                versions.add(vector);
+            }
+            vector = vector.append(i);
+        }
+        Assert.assertEquals(40000, vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            Assert.assertEquals(i, vector.get(i).intValue());
+        }
+        // older versions are not changed by later appends.
+        for (int v = 0; v < versions.size(); v++) {
+            Assert.assertEquals(v * 1000, versions.get(v).size());
+        }
+        Assert.assertEquals(1999, versions.get(2).get(1999).intValue());
+    }
+
+    /**
+     * Setting and removing elements leaves the older version unchanged.
+     */
+    @Test
+    public void setAndRemoveKeepTheOldVersion() {
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 1100; i++) {
+            expected.add(i);
+            vector = vector.append(i);
+        }
+        PersistentVector<Integer> changed = vector.set(5, -5).set(1090, -1090).set(700, -700);
+        Assert.assertEquals(5, vector.get(5).intValue());
+        Assert.assertEquals(-5, changed.get(5).intValue());
+        Assert.assertEquals(-1090, changed.get(1090).intValue());
+        Assert.assertEquals(-700, changed.get(700).intValue());
+        Assert.assertEquals(700, vector.get(700).intValue());
+
+        for (int index : new int[] {1099, 1050, 640, 3, 0}) {
+            expected.remove(index);
+            vector = vector.remove(index);
+            Assert.assertEquals(expected, vector.asList());
+        }
+        Assert.assertEquals(1100, changed.size());
+        vector = vector.append(42);
+        expected.add(42);
+        Assert.assertEquals(expected, vector.asList());
+    }
+
+    /**
+     * An index past the last element is rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexOutsideIsRejected() {
+        PersistentVector.<String>empty().append("a").get(1);
+    }
+}
@@ -0,0 +1,81 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.abstracted.SrlObject;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for the bitmap features.
+ */
+public class BitmapRasterizerTest {
+
+    private static SrlStroke makeLine(double x1, double y1, double x2, double y2) {
+        SrlStroke stroke = new SrlStroke();
+        stroke.addPoint(new SrlPoint(x1, y1, 0));
+        stroke.addPoint(new SrlPoint(x2, y2, 1));
+        return stroke;
+    }
+
+    private static double channelSum(BitmapRasterizer rasterizer, float[] buffer, int channel) {
+        int area = rasterizer.getSize() * rasterizer.getSize();
+        double sum = 0;
+        for (int i = channel * area; i < (channel + 1) * area; i++) {
+            sum += buffer[i];
+        }
+        return sum;
+    }
+
+    /**
+     * A horizontal line only fills the horizontal channel and marks its two end points.
+     */
+    @Test
+    public void horizontalLineOnlyFillsHorizontalChannel() {
+        BitmapRasterizer rasterizer = new BitmapRasterizer(BitmapRasterizer.DEFAULT_SIZE, 0);
+        float[] buffer = rasterizer.createBuffer(1);
+        rasterizer.rasterize(makeLine(-50, -10, 50, -10), buffer, 0);
+        Assert.assertTrue(channelSum(rasterizer, buffer, 0) > 0);
+        Assert.assertEquals(0, channelSum(rasterizer, buffer, 1), 1e-6);
+        Assert.assertEquals(0, channelSum(rasterizer, buffer, 2), 1e-6);
+        Assert.assertEquals(0, channelSum(rasterizer, buffer, 3), 1e-6);
+        Assert.assertEquals(2, channelSum(rasterizer, buffer, BitmapRasterizer.END_POINT_CHANNEL), 1e-4);
+    }
+
+    /**
+     * The same line moved and scaled gives the same features.
+     */
+    @Test
+    public void featuresIgnorePositionAndScale() {
+        BitmapRasterizer rasterizer = new BitmapRasterizer();
+        float[] first = rasterizer.createBuffer(1);
+        float[] second = rasterizer.createBuffer(1);
+        rasterizer.rasterize(makeLine(0, 0, 10, 10), first, 0);
+        rasterizer.rasterize(makeLine(-300, -300, -100, -100), second, 0);
+        Assert.assertArrayEquals(first, second, 1e-5f);
+    }
+
+    /**
+     * Rasterizing a batch gives the same features as rasterizing each object alone.
+     */
+    @Test
+    public void batchEqualsSingleObjects() {
+        BitmapRasterizer rasterizer = new BitmapRasterizer(16, 1.5);
+        List<SrlObject> objects = new ArrayList<>();
+        objects.add(makeLine(0, 0, 10, 3));
+        objects.add(makeLine(5, 0, 0, 20));
+        float[] batch = rasterizer.createBuffer(objects.size());
+        Arrays.fill(batch, 7);
+        rasterizer.rasterize(objects, batch);
+        for (int i = 0; i < objects.size(); i++) {
+            float[] single = rasterizer.createBuffer(1);
+            rasterizer.rasterize(objects.get(i), single, 0);
+            int length = rasterizer.getFeatureLength();
+            Assert.assertArrayEquals(single, Arrays.copyOfRange(batch, i * length, (i + 1) * length), 0f);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.object.SampleStrokes;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.object.SrlSubStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import edu.tamu.srl.sketch.core.virtual.SrlTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for dynamic time warping and its lower bounds.
+ */
+public class DynamicTimeWarpingTest {
+
+    /**
+     * Textbook version with the full matrix.
+     */
+    private static double naiveDistance(SrlStroke first, SrlStroke second) {
+        List<SrlPoint> a = first.getPoints();
+        List<SrlPoint> b = second.getPoints();
+        double[][] cost = new double[a.size() + 1][b.size() + 1];
+        for (double[] row : cost) {
+            java.util.Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        cost[0][0] = 0;
+        for (int i = 1; i <= a.size(); i++) {
+            for (int j = 1; j <= b.size(); j++) {
+                double d = a.get(i - 1).distance(b.get(j - 1));
+                cost[i][j] = d * d + Math.min(cost[i - 1][j - 1], Math.min(cost[i - 1][j], cost[i][j - 1]));
+            }
+        }
+        return cost[a.size()][b.size()];
+    }
+
+    /**
+     * Two rolling rows give the same distance as the full matrix, and a narrow band never makes it smaller.
+     */
+    @Test
+    public void rollingRowsEqualFullMatrix() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 20; trial++) {
+            SrlStroke first = SampleStrokes.makeRandomStroke(random, 5 + random.nextInt(20));
+            SrlStroke second = SampleStrokes.makeRandomStroke(random, 5 + random.nextInt(20));
+            Assert.assertEquals(naiveDistance(first, second), DynamicTimeWarping.distance(first, second, 1000), 1e-6);
+            Assert.assertTrue(DynamicTimeWarping.distance(first, second, 2) >= naiveDistance(first, second) - 1e-6);
+        }
+    }
+
+    /**
+     * A sub stroke is compared using only the points of its range.
+     */
+    @Test
+    public void subStrokeUsesOnlyItsPoints() {
+        Random random = new Random(3);
+        SrlStroke stroke = SampleStrokes.makeRandomStroke(random, 30);
+        SrlSubStroke sub = new SrlSubStroke(stroke, 5, 15);
+        SrlStroke copy = new SrlStroke(stroke.getPoints().subList(5, 15));
+        Assert.assertEquals(naiveDistance(copy, stroke), DynamicTimeWarping.distance(sub, stroke, 1000), 1e-6);
+    }
+
+    /**
+     * The lower bounds are never larger than the distance.
+     */
+    @Test
+    public void lowerBoundsNeverExceedDistance() {
+        Random random = new Random(11);
+        DtwRecognizer recognizer = new DtwRecognizer();
+        for (int trial = 0; trial < 50; trial++) {
+            DtwSequence first = recognizer.createSequence(SampleStrokes.makeRandomStroke(random, 20));
+            DtwSequence second = recognizer.createSequence(SampleStrokes.makeRandomStroke(random, 20));
+            double distance = first.distance(second, Double.POSITIVE_INFINITY);
+            Assert.assertTrue(DynamicTimeWarping.lowerBoundKim(first, second) <= distance + 1e-9);
+            Assert.assertTrue(DynamicTimeWarping.lowerBoundKeogh(first, second, Double.POSITIVE_INFINITY) <= distance + 1e-9);
+            Assert.assertTrue(DynamicTimeWarping.lowerBoundKeogh(second, first, Double.POSITIVE_INFINITY) <= distance + 1e-9);
+        }
+    }
+
+    /**
+     * The pruned recognizer finds the same best templates as comparing every template.
+     */
+    @Test
+    public void recognizerFindsExactNearestNeighbor() {
+        Random random = new Random(5);
+        DtwRecognizer recognizer = new DtwRecognizer();
+        for (int i = 0; i < 100; i++) {
+            recognizer.addTemplate(new SrlTemplate("t" + i, true, SampleStrokes.makeRandomStroke(random, 15)));
+        }
+        DtwSequence candidate = recognizer.createSequence(SampleStrokes.makeRandomStroke(random, 15));
+        List<TemplateMatch> all = recognizer.recognize(candidate, 100);
+        List<TemplateMatch> best = recognizer.recognize(candidate, 3);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(all.get(i).getDistance(), best.get(i).getDistance(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.object.SampleStrokes;
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.virtual.SrlTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for the point cloud template recognizer.
+ */
+public class PointCloudRecognizerTest {
+
+    private static PointCloudRecognizer makeRecognizer() {
+        PointCloudRecognizer recognizer = new PointCloudRecognizer();
+        recognizer.addTemplate(new SrlTemplate("line", true, SampleStrokes.makeStroke(0, 0, 100, 0)));
+        recognizer.addTemplate(new SrlTemplate("square", true, SampleStrokes.makeStroke(0, 0, 100, 0, 100, 100, 0, 100, 0, 0)));
+        recognizer.addTemplate(new SrlTemplate("vee", true, SampleStrokes.makeStroke(0, 0, 50, 100, 100, 0)));
+
+        SrlShape plus = new SrlShape();
+        plus.add(SampleStrokes.makeStroke(50, 0, 50, 100));
+        plus.add(SampleStrokes.makeStroke(0, 50, 100, 50));
+        recognizer.addTemplate(new SrlTemplate("plus", true, plus));
+        return recognizer;
+    }
+
+    /**
+     * A moved and scaled square matches the square template exactly, and the matches are sorted by distance.
+     */
+    @Test
+    public void recognizesScaledAndTranslatedStroke() {
+        PointCloudRecognizer recognizer = makeRecognizer();
+        List<TemplateMatch> matches = recognizer.recognize(SampleStrokes.makeStroke(500, 500, 520, 500, 520, 520, 500, 520, 500, 500), 4);
+        Assert.assertEquals(4, matches.size());
+        Assert.assertEquals("square", matches.get(0).getInterpretation());
+        Assert.assertEquals(0, matches.get(0).getDistance(), 1e-6);
+        for (int i = 1; i < matches.size(); i++) {
+            Assert.assertTrue(matches.get(i - 1).getDistance() <= matches.get(i).getDistance());
+        }
+    }
+
+    /**
+     * A shape of several strokes is recognized whatever order the strokes were drawn in.
+     */
+    @Test
+    public void recognizesMultiStrokeShapeRegardlessOfStrokeOrder() {
+        PointCloudRecognizer recognizer = makeRecognizer();
+        SrlShape plus = new SrlShape();
+        plus.add(SampleStrokes.makeStroke(100, 50, 0, 50));
+        plus.add(SampleStrokes.makeStroke(50, 100, 50, 0));
+        List<TemplateMatch> matches = recognizer.recognize(plus, 1);
+        Assert.assertEquals(1, matches.size());
+        Assert.assertEquals("plus", matches.get(0).getInterpretation());
+    }
+
+    /**
+     * The best match with pruning is the best match without it.
+     */
+    @Test
+    public void prunedResultsMatchExhaustiveDistances() {
+        PointCloudRecognizer recognizer = makeRecognizer();
+        PointCloud candidate = recognizer.createPointCloud(SampleStrokes.makeStroke(0, 0, 40, 90, 100, 10));
+        List<TemplateMatch> best = recognizer.recognize(candidate, 1);
+        List<TemplateMatch> all = recognizer.recognize(candidate, recognizer.getNumTemplates());
+        Assert.assertEquals("vee", best.get(0).getInterpretation());
+        Assert.assertEquals(all.get(0).getDistance(), best.get(0).getDistance(), 1e-9);
+    }
+}
@@ -0,0 +1,44 @@
+package edu.tamu.srl.sketch.core.recognition;
+
+import edu.tamu.srl.sketch.core.object.SampleStrokes;
+import edu.tamu.srl.sketch.core.virtual.SrlTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for matching a template library in parallel.
+ */
+public class ShardedTemplateMatcherTest {
+
+    /**
+     * Matching the shards in parallel gives the same matches as matching the library in one thread.
+     */
+    @Test
+    public void shardedResultsEqualSequentialResults() {
+        Random random = new Random(42);
+        PointCloudRecognizer recognizer = new PointCloudRecognizer();
+        for (int i = 0; i < 200; i++) {
+            recognizer.addTemplate(new SrlTemplate("t" + i, true, SampleStrokes.makeRandomStroke(random, 10)));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ShardedTemplateMatcher matcher = new ShardedTemplateMatcher(recognizer, pool, 7);
+        try {
+            for (int query = 0; query < 5; query++) {
+                PointCloud candidate = recognizer.createPointCloud(SampleStrokes.makeRandomStroke(random, 10));
+                List<TemplateMatch> expected = recognizer.recognize(candidate, 5);
+                RecognitionResult result = matcher.recognize(candidate, 5);
+                Assert.assertEquals(expected.size(), result.getMatches().size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Assert.assertEquals(expected.get(i).getDistance(), result.getMatches().get(i).getDistance(), 1e-9);
+                }
+                Assert.assertTrue(result.getLatency() > 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package edu.tamu.srl.sketch.core.replay;
+
+import edu.tamu.srl.sketch.core.object.SrlShape;
+import edu.tamu.srl.sketch.core.object.SrlStroke;
+import edu.tamu.srl.sketch.core.virtual.SrlPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the merged order and the pacing of a replay.
+ */
+public class SketchReplayTest {
+
+    private static SrlStroke stroke(long... times) {
+        SrlStroke stroke = new SrlStroke();
+        for (long time : times) {
+            stroke.addPoint(new SrlPoint(time, time, time));
+        }
+        return stroke;
+    }
+
+    /**
+     * The points of strokes drawn at the same time are replayed in time order.
+     */
+    @Test
+    public void interleavedStrokesAreMergedInTimeOrder() {
+        SrlStroke first = stroke(0, 10, 20, 30);
+        SrlStroke second = stroke(5, 15, 25);
+        SrlStroke empty = new SrlStroke();
+        SketchReplay replay = new SketchReplay(Arrays.asList(first, empty, second));
+
+        List<Long> times = new ArrayList<>();
+        while (replay.hasNext()) {
+            ReplayEvent event = replay.next();
+            times.add(event.getTime());
+        }
+        Assert.assertEquals(Arrays.asList(0L, 5L, 10L, 15L, 20L, 25L, 30L), times);
+    }
+
+    /**
+     * Points at the same time are replayed in the order of their strokes.
+     */
+    @Test
+    public void tiesFollowTheOrderOfTheStrokes() {
+        SrlStroke first = stroke(10, 20);
+        SrlStroke second = stroke(10, 20);
+        SketchReplay replay = new SketchReplay(Arrays.asList(second, first));
+
+        ReplayEvent event = replay.next();
+        Assert.assertSame(second, event.getStroke());
+        Assert.assertTrue(event.isStrokeStart());
+        Assert.assertSame(first, replay.next().getStroke());
+        event = replay.next();
+        Assert.assertSame(second, event.getStroke());
+        Assert.assertTrue(event.isStrokeEnd());
+    }
+
+    /**
+     * Every stroke below a shape is replayed, without waiting when no speed is given.
+     */
+    @Test
+    public void shapeIsReplayedAsFastAsPossible() throws InterruptedException {
+        SrlShape shape = new SrlShape();
+        SrlShape inner = new SrlShape();
+        inner.add(stroke(1, 4));
+        shape.add(stroke(0, 100000));
+        shape.add(inner);
+
+        final List<Long> times = new ArrayList<>();
+        long start = System.nanoTime();
+        SketchReplay.forShape(shape).play(new ReplayListener() {
+            @Override public void onEvent(ReplayEvent event) {
+                times.add(event.getTime());
+            }
+        }, SketchReplay.AS_FAST_AS_POSSIBLE);
+        Assert.assertTrue(System.nanoTime() - start < 10000000000L);
+        Assert.assertEquals(Arrays.asList(0L, 1L, 4L, 100000L), times);
+    }
+
+    /**
+     * A faster replay still waits for the time between points divided by the speed.
+     */
+    @Test
+    public void acceleratedReplayKeepsThePace() throws InterruptedException {
+        SketchReplay replay = new SketchReplay(Arrays.asList(stroke(0, 500, 1000)));
+        final List<Long> arrivals = new ArrayList<>();
+        final long start = System.nanoTime();
+        replay.play(new ReplayListener() {
+            @Override public void onEvent(ReplayEvent event) {
+                arrivals.add(System.nanoTime() - start);
+            }
+        }, 10);
+        // 1000 milliseconds at ten times the speed take at least 100 milliseconds.
+        Assert.assertTrue(arrivals.get(2) >= 100000000L);
+        Assert.assertTrue(arrivals.get(1) >= 50000000L);
+    }
+
+    /**
+     * A replay needs a positive speed.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void speedMustBePositive() throws InterruptedException {
+        new SketchReplay(new ArrayList<SrlStroke>()).play(null, 0);
+    }
+}